@@ -0,0 +1,373 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.dao.UsuarioDAO;
+import ec.edu.ups.dao.impl.CarritoDAOConcurrente;
+import ec.edu.ups.dao.impl.ProductoDAOConcurrente;
+import ec.edu.ups.dao.impl.UsuarioDAOConcurrente;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Genero;
+import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.servidor.ServidorApi;
+import ec.edu.ups.util.Credenciales;
+import ec.edu.ups.util.MensajeInternacionalizacionHandler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prueba de carga de lazo abierto contra {@link ServidorApi}: las peticiones se programan a ritmo fijo aunque el
+ * servidor se atrase y las envian {@code carga.conexiones} hilos, cada uno con su conexion HTTP/1.1 persistente. La
+ * latencia se mide desde el instante en que cada peticion debia salir, asi que el tiempo en cola tambien cuenta. El
+ * cliente es un socket plano y no {@code HttpClient}: en una maquina pequeña el cliente del JDK gasta mas CPU que el
+ * servidor y termina midiendose a si mismo. Sin {@code -Dcarga.url} levanta un servidor en el mismo proceso con DAO
+ * concurrentes en memoria.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar ec.edu.ups.benchmark.CargaServidor
+ *      -Dcarga.ritmo=10000 -Dcarga.segundos=10 -Dcarga.conexiones=64 -Dcarga.productos=10000 -Dcarga.usuarios=100
+ * </pre>
+ *
+ * Mezcla: 90% producto por codigo, 5% crear carrito, 4% historial del usuario, 1% busqueda por nombre.
+ */
+public class CargaServidor {
+
+    private static final String[] TIPOS = {"producto", "crear carrito", "historial", "busqueda"};
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        int ritmo = Integer.getInteger("carga.ritmo", 10_000);
+        int segundos = Integer.getInteger("carga.segundos", 10);
+        int conexiones = Integer.getInteger("carga.conexiones", 64);
+        int productos = Integer.getInteger("carga.productos", 10_000);
+        int usuarios = Integer.getInteger("carga.usuarios", 100);
+        String url = System.getProperty("carga.url");
+        String clave = System.getProperty("carga.clave", "clave");
+
+        ServidorApi servidor = null;
+        String[] usernames;
+        if (url == null) {
+            Credenciales.setIteraciones(1000);
+            ProductoDAO productoDAO = new ProductoDAOConcurrente();
+            for (int i = 1; i <= productos; i++) {
+                productoDAO.crear(new Producto(i, "Producto " + i, Dinero.deCentavos(100 + i % 5000)));
+            }
+            UsuarioDAO usuarioDAO = new UsuarioDAOConcurrente();
+            usernames = new String[usuarios];
+            for (int i = 0; i < usuarios; i++) {
+                usernames[i] = "carga" + i;
+                usuarioDAO.crear(new Usuario(usernames[i], Rol.USUARIO, clave, "Carga " + i, 30, Genero.OTRO, "0990000000", "carga@mail.com"));
+            }
+            servidor = new ServidorApi(new InetSocketAddress("127.0.0.1", 0), productoDAO, new CarritoDAOConcurrente(),
+                    usuarioDAO, new MensajeInternacionalizacionHandler("en", "US"));
+            servidor.iniciar();
+            url = "http://127.0.0.1:" + servidor.getPuerto() + "/api";
+        } else {
+            usernames = System.getProperty("carga.username", "usuario").split(",");
+        }
+
+        URI destino = URI.create(url);
+        String[] tokens = new String[usernames.length];
+        try (Conexion conexion = new Conexion(destino)) {
+            for (int i = 0; i < usernames.length; i++) {
+                String cuerpo = "{\"username\":\"" + usernames[i] + "\",\"password\":\"" + clave + "\"}";
+                conexion.enviar("POST", "/sesiones", null, cuerpo);
+                Matcher token = TOKEN.matcher(conexion.cuerpo());
+                if (!token.find()) {
+                    throw new IllegalStateException("No se pudo iniciar sesion como " + usernames[i] + ": " + conexion.cuerpo());
+                }
+                tokens[i] = token.group(1);
+            }
+        }
+
+        System.out.println("Calentando...");
+        ejecutar(destino, usernames, tokens, productos, Math.max(1, ritmo / 2), Math.max(1, segundos / 2), conexiones);
+        System.out.printf("Midiendo %d s a %d req/s con %d conexiones contra %s%n", segundos, ritmo, conexiones, url);
+        Resultado resultado = ejecutar(destino, usernames, tokens, productos, ritmo, segundos, conexiones);
+        resultado.imprimir();
+
+        if (servidor != null) {
+            servidor.close();
+        }
+    }
+
+    private static Resultado ejecutar(URI destino, String[] usernames, String[] tokens,
+                                      int productos, int ritmo, int segundos, int conexiones) throws InterruptedException {
+        int total = ritmo * segundos;
+        Resultado resultado = new Resultado(total);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        CountDownLatch pendientes = new CountDownLatch(total);
+        BlockingQueue<Peticion> cola = new LinkedBlockingQueue<>();
+        Thread[] enviadores = new Thread[conexiones];
+        for (int i = 0; i < conexiones; i++) {
+            enviadores[i] = Thread.ofVirtual().start(() -> {
+                Conexion conexion = null;
+                try {
+                    while (true) {
+                        Peticion peticion = cola.take();
+                        String falla;
+                        try {
+                            if (conexion == null) {
+                                conexion = new Conexion(destino);
+                            }
+                            int estado = conexion.enviar(peticion.metodo, peticion.ruta, peticion.token, peticion.cuerpo);
+                            falla = estado >= 400 ? "HTTP " + estado : null;
+                        } catch (IOException ex) {
+                            falla = ex.toString();
+                            cerrar(conexion);
+                            conexion = null;
+                        }
+                        resultado.anotar(peticion.indice, peticion.tipo, System.nanoTime() - peticion.programado, falla);
+                        pendientes.countDown();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    cerrar(conexion);
+                }
+            });
+        }
+        long intervalo = 1_000_000_000L / ritmo;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long programado = inicio + i * intervalo;
+            long espera = programado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            int usuario = aleatorio.nextInt(usernames.length);
+            int sorteo = aleatorio.nextInt(100);
+            int tipo = sorteo < 90 ? 0 : sorteo < 95 ? 1 : sorteo < 99 ? 2 : 3;
+            Peticion peticion = new Peticion(i, tipo, programado, tokens[usuario]);
+            switch (tipo) {
+                case 0:
+                    peticion.ruta = "/productos/" + (1 + aleatorio.nextInt(productos));
+                    break;
+                case 1:
+                    peticion.metodo = "POST";
+                    peticion.ruta = "/carritos";
+                    peticion.cuerpo = "{\"items\":[{\"producto\":" + (1 + aleatorio.nextInt(productos)) + ",\"cantidad\":2},{\"producto\":"
+                            + (1 + aleatorio.nextInt(productos)) + ",\"cantidad\":1}]}";
+                    break;
+                case 2:
+                    peticion.ruta = "/usuarios/" + usernames[usuario] + "/carritos";
+                    break;
+                default:
+                    peticion.ruta = "/productos?nombre=Producto%20" + (1 + aleatorio.nextInt(productos));
+            }
+            cola.add(peticion);
+        }
+        long envio = System.nanoTime() - inicio;
+        pendientes.await();
+        for (Thread enviador : enviadores) {
+            enviador.interrupt();
+        }
+        resultado.duracion = System.nanoTime() - inicio;
+        resultado.envio = envio;
+        return resultado;
+    }
+
+    private static void cerrar(Closeable recurso) {
+        if (recurso != null) {
+            try {
+                recurso.close();
+            } catch (IOException ignorada) {
+            }
+        }
+    }
+
+    private static final class Peticion {
+
+        private final int indice;
+        private final int tipo;
+        private final long programado;
+        private final String token;
+        private String metodo = "GET";
+        private String ruta;
+        private String cuerpo;
+
+        Peticion(int indice, int tipo, long programado, String token) {
+            this.indice = indice;
+            this.tipo = tipo;
+            this.programado = programado;
+            this.token = token;
+        }
+    }
+
+    /**
+     * Cliente HTTP/1.1 minimo sobre una conexion persistente: solo lo que responde {@link ServidorApi}
+     * (cuerpos con Content-Length, sin chunked ni TLS).
+     */
+    private static final class Conexion implements Closeable {
+
+        private final Socket socket;
+        private final InputStream entrada;
+        private final OutputStream salida;
+        private final String anfitrion;
+        private final String base;
+        private final StringBuilder linea = new StringBuilder();
+        private byte[] cuerpo = new byte[8192];
+        private int largoCuerpo;
+
+        Conexion(URI destino) throws IOException {
+            int puerto = destino.getPort() != -1 ? destino.getPort() : 80;
+            socket = new Socket(destino.getHost(), puerto);
+            socket.setTcpNoDelay(true);
+            entrada = new BufferedInputStream(socket.getInputStream());
+            salida = new BufferedOutputStream(socket.getOutputStream());
+            anfitrion = destino.getHost() + ":" + puerto;
+            base = destino.getRawPath() == null ? "" : destino.getRawPath();
+        }
+
+        int enviar(String metodo, String ruta, String token, String texto) throws IOException {
+            byte[] datos = texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+            StringBuilder cabeceras = new StringBuilder(160).append(metodo).append(' ').append(base).append(ruta)
+                    .append(" HTTP/1.1\r\nHost: ").append(anfitrion).append("\r\n");
+            if (token != null) {
+                cabeceras.append("Authorization: Bearer ").append(token).append("\r\n");
+            }
+            if (datos != null) {
+                cabeceras.append("Content-Type: application/json\r\nContent-Length: ").append(datos.length).append("\r\n");
+            }
+            salida.write(cabeceras.append("\r\n").toString().getBytes(StandardCharsets.ISO_8859_1));
+            if (datos != null) {
+                salida.write(datos);
+            }
+            salida.flush();
+
+            String estado = leerLinea();
+            if (!estado.startsWith("HTTP/1.1 ") || estado.length() < 12) {
+                throw new IOException("Respuesta invalida: " + estado);
+            }
+            int largo = 0;
+            boolean cerrar = false;
+            for (String cabecera = leerLinea(); !cabecera.isEmpty(); cabecera = leerLinea()) {
+                int dosPuntos = cabecera.indexOf(':');
+                String nombre = dosPuntos < 0 ? cabecera : cabecera.substring(0, dosPuntos);
+                String valor = dosPuntos < 0 ? "" : cabecera.substring(dosPuntos + 1).trim();
+                if (nombre.equalsIgnoreCase("Content-Length")) {
+                    largo = Integer.parseInt(valor);
+                } else if (nombre.equalsIgnoreCase("Connection")) {
+                    cerrar = valor.equalsIgnoreCase("close");
+                } else if (nombre.equalsIgnoreCase("Transfer-Encoding")) {
+                    throw new IOException("Transfer-Encoding no soportado: " + valor);
+                }
+            }
+            if (largo > cuerpo.length) {
+                cuerpo = new byte[Math.max(largo, cuerpo.length * 2)];
+            }
+            for (int leidos = 0; leidos < largo; ) {
+                int n = entrada.read(cuerpo, leidos, largo - leidos);
+                if (n < 0) {
+                    throw new EOFException();
+                }
+                leidos += n;
+            }
+            largoCuerpo = largo;
+            if (cerrar) {
+                throw new IOException("El servidor cerro la conexion");
+            }
+            return Integer.parseInt(estado.substring(9, 12));
+        }
+
+        String cuerpo() {
+            return new String(cuerpo, 0, largoCuerpo, StandardCharsets.UTF_8);
+        }
+
+        private String leerLinea() throws IOException {
+            linea.setLength(0);
+            for (int c = entrada.read(); c != '\n'; c = entrada.read()) {
+                if (c < 0) {
+                    throw new EOFException();
+                }
+                if (c != '\r') {
+                    linea.append((char) c);
+                }
+            }
+            return linea.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private static final class Resultado {
+
+        private final long[] latencias;
+        private final byte[] tipos;
+        private final ConcurrentMap<String, LongAdder> errores = new ConcurrentHashMap<>();
+        private long duracion;
+        private long envio;
+
+        Resultado(int total) {
+            latencias = new long[total];
+            tipos = new byte[total];
+        }
+
+        void anotar(int indice, int tipo, long latencia, String falla) {
+            latencias[indice] = latencia;
+            tipos[indice] = (byte) tipo;
+            if (falla != null) {
+                errores.computeIfAbsent(falla, k -> new LongAdder()).increment();
+            }
+        }
+
+        void imprimir() {
+            long fallidas = errores.values().stream().mapToLong(LongAdder::sum).sum();
+            System.out.printf("%d peticiones en %.2f s (%.0f req/s enviadas, %.0f req/s completadas), %d errores%n",
+                    latencias.length, duracion / 1e9, latencias.length / (envio / 1e9), latencias.length / (duracion / 1e9),
+                    fallidas);
+            errores.forEach((falla, cantidad) -> System.out.printf("  %8d  %s%n", cantidad.sum(), falla));
+            System.out.printf("%-15s %9s %10s %10s %10s %10s%n", "tipo", "n", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (int tipo = 0; tipo < TIPOS.length; tipo++) {
+                int n = 0;
+                long[] delTipo = new long[latencias.length];
+                for (int i = 0; i < latencias.length; i++) {
+                    if (tipos[i] == tipo) {
+                        delTipo[n++] = latencias[i];
+                    }
+                }
+                imprimirFila(TIPOS[tipo], Arrays.copyOf(delTipo, n));
+            }
+            imprimirFila("total", latencias.clone());
+        }
+
+        private static void imprimirFila(String nombre, long[] valores) {
+            if (valores.length == 0) {
+                return;
+            }
+            Arrays.sort(valores);
+            System.out.printf("%-15s %9d %10.2f %10.2f %10.2f %10.2f%n", nombre, valores.length,
+                    percentil(valores, 0.50), percentil(valores, 0.99), percentil(valores, 0.999),
+                    valores[valores.length - 1] / 1e6);
+        }
+
+        private static double percentil(long[] ordenados, double p) {
+            return ordenados[Math.min(ordenados.length - 1, (int) Math.ceil(p * ordenados.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CarritoBenchmark {
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    private int items;
+
+    private Carrito carrito;
+    private Producto[] productos;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        productos = new Producto[items];
+        carrito = new Carrito();
+        for (int i = 0; i < items; i++) {
+            productos[i] = new Producto(i + 1, "Producto " + (i + 1), Dinero.deCentavos(i % 100 * 100 + 99));
+            carrito.agregarProducto(productos[i], 1);
+        }
+    }
+
+    @Benchmark
+    public Carrito agregarProducto() {
+        Producto producto = productos[siguiente++ % items];
+        carrito.agregarProducto(producto, 1);
+        carrito.actualizarCantidadProducto(producto.getCodigo(), 1);
+        return carrito;
+    }
+
+    @Benchmark
+    public Dinero calcularTotal() {
+        return carrito.calcularTotal();
+    }
+
+    @Benchmark
+    public long totalCentavos() {
+        return carrito.getTotalCentavos();
+    }
+}
@@ -0,0 +1,88 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.dao.CarritoDAO;
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Genero;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CarritoDAOBenchmark {
+
+    private static final long INICIO = 1_700_000_000_000L;
+    private static final long MINUTO = 60_000L;
+    private static final long DIA = 24 * 60 * MINUTO;
+
+    @Param({"memoria", "indexado", "concurrente"})
+    private String implementacion;
+
+    @Param({"10000", "1000000"})
+    private int carritos;
+
+    @Param({"1000"})
+    private int usuarios;
+
+    private CarritoDAO carritoDAO;
+    private Usuario[] listaUsuarios;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        carritoDAO = Fabrica.carritoDAO(implementacion);
+        listaUsuarios = new Usuario[usuarios];
+        for (int i = 0; i < usuarios; i++) {
+            listaUsuarios[i] = new Usuario("usuario" + i, Rol.USUARIO, null, "Usuario " + i, 30, Genero.OTRO, "0990000000", "usuario" + i + "@mail.com");
+        }
+        for (int i = 0; i < carritos; i++) {
+            Carrito carrito = new Carrito();
+            carrito.setUsuario(listaUsuarios[i % usuarios]);
+            carrito.setFechaMilisegundos(INICIO + i * MINUTO);
+            carritoDAO.crear(carrito);
+        }
+    }
+
+    @Benchmark
+    public List<Carrito> buscarPorUsuario() {
+        return carritoDAO.buscarPorUsuario(listaUsuarios[siguiente++ % usuarios]);
+    }
+
+    /**
+     * Un dia de carritos (uno por minuto, 1440 por dia) en un dia distinto cada vez.
+     */
+    @Benchmark
+    public List<Carrito> buscarPorFecha() {
+        Instant desde = siguienteDia();
+        return carritoDAO.buscarPorFecha(desde, desde.plusMillis(DIA));
+    }
+
+    @Benchmark
+    public int contarPorFecha() {
+        Instant desde = siguienteDia();
+        return carritoDAO.contarPorFecha(desde, desde.plusMillis(DIA));
+    }
+
+    private Instant siguienteDia() {
+        long dias = Math.max(1, carritos * MINUTO / DIA);
+        return Instant.ofEpochMilli(INICIO + (siguiente++ % dias) * DIA);
+    }
+}
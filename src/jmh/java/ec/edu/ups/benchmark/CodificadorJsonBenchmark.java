@@ -0,0 +1,143 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.dao.persistencia.CodificadorJson;
+import ec.edu.ups.dao.persistencia.EntradaJson;
+import ec.edu.ups.dao.persistencia.SalidaJson;
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Genero;
+import ec.edu.ups.modelo.ItemCarrito;
+import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exportar todos los carritos a un flujo (descartado): volcado con {@code toString} contra {@link CodificadorJson}
+ * en JSON Lines, y la lectura del mismo volcado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CodificadorJsonBenchmark {
+
+    private static final int BLOQUE = 1 << 16;
+
+    @Param({"1000000"})
+    private int carritos;
+
+    private Carrito[] lista;
+    private Map<String, Usuario> usuarios;
+    private SalidaJson salida;
+    private byte[] volcado;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        Producto[] productos = new Producto[1000];
+        for (int i = 0; i < productos.length; i++) {
+            productos[i] = new Producto(i + 1, "Producto " + (i + 1), Dinero.deCentavos(aleatorio.nextLong(100, 100_000)));
+        }
+        usuarios = new HashMap<>();
+        Usuario[] listaUsuarios = new Usuario[1000];
+        for (int i = 0; i < listaUsuarios.length; i++) {
+            listaUsuarios[i] = new Usuario("usuario" + i, Rol.USUARIO, null, "Usuario " + i, 30, Genero.OTRO, "0990000000", "usuario" + i + "@mail.com");
+            usuarios.put(listaUsuarios[i].getUsername(), listaUsuarios[i]);
+        }
+        lista = new Carrito[carritos];
+        for (int i = 0; i < carritos; i++) {
+            Carrito carrito = new Carrito();
+            carrito.setUsuario(listaUsuarios[i % listaUsuarios.length]);
+            for (int j = aleatorio.nextInt(1, 5); j > 0; j--) {
+                carrito.agregarProducto(productos[aleatorio.nextInt(productos.length)], aleatorio.nextInt(1, 10));
+            }
+            lista[i] = carrito;
+        }
+        salida = new SalidaJson(BLOQUE + 4096);
+        SalidaJson completo = new SalidaJson(carritos * 300);
+        for (Carrito carrito : lista) {
+            CodificadorJson.escribirCarrito(completo, carrito);
+            completo.nuevaLinea();
+        }
+        volcado = completo.aBytes();
+    }
+
+    @Benchmark
+    public long exportarToString() throws IOException {
+        ContadorBytes destino = new ContadorBytes();
+        try (Writer escritor = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), BLOQUE)) {
+            for (Carrito carrito : lista) {
+                escritor.write(carrito.toString());
+                for (ItemCarrito item : carrito.obtenerItems()) {
+                    escritor.write(' ');
+                    escritor.write(item.toString());
+                }
+                escritor.write('\n');
+            }
+        }
+        return destino.total;
+    }
+
+    @Benchmark
+    public long exportarJson() throws IOException {
+        ContadorBytes destino = new ContadorBytes();
+        for (Carrito carrito : lista) {
+            CodificadorJson.escribirCarrito(salida, carrito);
+            salida.nuevaLinea();
+            if (salida.tamaño() >= BLOQUE) {
+                salida.escribirEn(destino);
+            }
+        }
+        salida.escribirEn(destino);
+        return destino.total;
+    }
+
+    @Benchmark
+    public int importarJson() {
+        EntradaJson entrada = new EntradaJson(volcado);
+        int items = 0;
+        while (entrada.hayMas()) {
+            items += CodificadorJson.leerCarrito(entrada, usuarios::get).obtenerItems().size();
+        }
+        return items;
+    }
+
+    private static final class ContadorBytes extends OutputStream {
+
+        private long total;
+
+        @Override
+        public void write(int b) {
+            total++;
+        }
+
+        @Override
+        public void write(byte[] b, int desde, int largo) {
+            total += largo;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.dao.UsuarioDAO;
+import ec.edu.ups.modelo.Genero;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Credenciales;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins por segundo segun el costo de PBKDF2. Corre con varios hilos para mostrar que el grupo de
+ * verificacion limita el paralelismo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CredencialesBenchmark {
+
+    @Param({"10000", "100000", "600000"})
+    private int iteraciones;
+
+    private UsuarioDAO usuarioDAO;
+
+    @Setup
+    public void preparar() {
+        Credenciales.setIteraciones(iteraciones);
+        usuarioDAO = Fabrica.usuarioDAO("concurrente");
+        usuarioDAO.crear(new Usuario("cliente", Rol.USUARIO, "clave", "Cliente", 30, Genero.OTRO, "0990000000", "cliente@mail.com"));
+    }
+
+    @Benchmark
+    public Usuario loginCorrecto() {
+        return usuarioDAO.autenticar("cliente", "clave");
+    }
+
+    @Benchmark
+    public Usuario loginUsuarioInexistente() {
+        return usuarioDAO.autenticar("nadie", "clave");
+    }
+}
@@ -0,0 +1,73 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.dao.CarritoDAO;
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.dao.UsuarioDAO;
+import ec.edu.ups.dao.impl.CarritoDAOConcurrente;
+import ec.edu.ups.dao.impl.CarritoDAOIndexado;
+import ec.edu.ups.dao.impl.CarritoDAOMemoria;
+import ec.edu.ups.dao.impl.ProductoDAOConcurrente;
+import ec.edu.ups.dao.impl.ProductoDAOIndexado;
+import ec.edu.ups.dao.impl.ProductoDAOMapeado;
+import ec.edu.ups.dao.impl.ProductoDAOMemoria;
+import ec.edu.ups.dao.impl.UsuarioDAOConcurrente;
+import ec.edu.ups.dao.impl.UsuarioDAOMemoria;
+import ec.edu.ups.dao.persistencia.CatalogoMapeado;
+import ec.edu.ups.modelo.Producto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+final class Fabrica {
+
+    private Fabrica() {
+    }
+
+    static ProductoDAO productoDAO(String implementacion) {
+        switch (implementacion) {
+            case "memoria": return new ProductoDAOMemoria();
+            case "indexado": return new ProductoDAOIndexado();
+            case "concurrente": return new ProductoDAOConcurrente();
+            default: throw new IllegalArgumentException(implementacion);
+        }
+    }
+
+    static ProductoDAO productoDAO(String implementacion, List<Producto> productos) {
+        if (implementacion.equals("mapeado")) {
+            try {
+                Path archivo = Files.createTempFile("catalogo", ".bin");
+                archivo.toFile().deleteOnExit();
+                archivo.resolveSibling(archivo.getFileName() + ".wal").toFile().deleteOnExit();
+                CatalogoMapeado.escribir(archivo, productos);
+                return new ProductoDAOMapeado(archivo);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        ProductoDAO productoDAO = productoDAO(implementacion);
+        for (Producto producto : productos) {
+            productoDAO.crear(producto);
+        }
+        return productoDAO;
+    }
+
+    static CarritoDAO carritoDAO(String implementacion) {
+        switch (implementacion) {
+            case "memoria": return new CarritoDAOMemoria();
+            case "indexado": return new CarritoDAOIndexado();
+            case "concurrente": return new CarritoDAOConcurrente();
+            default: throw new IllegalArgumentException(implementacion);
+        }
+    }
+
+    static UsuarioDAO usuarioDAO(String implementacion) {
+        switch (implementacion) {
+            case "memoria": return new UsuarioDAOMemoria();
+            case "concurrente": return new UsuarioDAOConcurrente();
+            default: throw new IllegalArgumentException(implementacion);
+        }
+    }
+}
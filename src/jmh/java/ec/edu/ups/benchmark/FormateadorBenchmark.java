@@ -0,0 +1,73 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.util.FormateadorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormateadorBenchmark {
+
+    @Param({"en_US", "es_EC"})
+    private String idioma;
+
+    private Locale locale;
+    private Dinero cantidad = Dinero.deCentavos(123456);
+    private Instant fecha = Instant.ofEpochMilli(1_750_000_000_000L);
+    private StringBuilder buffer = new StringBuilder(64);
+
+    @Setup
+    public void preparar() {
+        String[] partes = idioma.split("_");
+        locale = new Locale(partes[0], partes[1]);
+    }
+
+    @Benchmark
+    public String formatearMoneda() {
+        return FormateadorUtils.formatearMoneda(cantidad, locale);
+    }
+
+    @Benchmark
+    public StringBuilder agregarMoneda() {
+        buffer.setLength(0);
+        return FormateadorUtils.agregarMoneda(buffer, cantidad, locale);
+    }
+
+    @Benchmark
+    public String formatearMonedaSinCache() {
+        return NumberFormat.getCurrencyInstance(locale).format(cantidad.aBigDecimal());
+    }
+
+    @Benchmark
+    public String formatearFecha() {
+        return FormateadorUtils.formatearFecha(fecha, locale);
+    }
+
+    @Benchmark
+    public String formatearFechaSinCache() {
+        return DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(locale)
+                .format(fecha.atZone(ZoneId.systemDefault()));
+    }
+}
@@ -0,0 +1,52 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.modelo.Carrito;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.GregorianCalendar;
+import java.util.function.IntFunction;
+
+/**
+ * Cuanto heap retiene cada carrito vacio y cuanto retenia la fecha cuando era un {@link GregorianCalendar}: crea
+ * {@code huella.carritos} objetos de cada tipo, los mantiene vivos y compara el heap usado tras un GC antes y despues.
+ * JMH solo reporta lo que se asigna por operacion, no lo que queda retenido, por eso es un programa aparte.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar -Dhuella.carritos=1000000 ec.edu.ups.benchmark.HuellaCarritos
+ * </pre>
+ */
+public class HuellaCarritos {
+
+    public static void main(String[] args) {
+        int cantidad = Integer.getInteger("huella.carritos", 1_000_000);
+
+        Object[] carritos = new Object[cantidad];
+        double porCarrito = medir(carritos, i -> new Carrito());
+        Object[] calendarios = new Object[cantidad];
+        double porCalendario = medir(calendarios, i -> new GregorianCalendar());
+
+        Reference.reachabilityFence(carritos);
+        Reference.reachabilityFence(calendarios);
+
+        System.out.printf("Carrito vacio:     %6.1f bytes%n", porCarrito);
+        System.out.printf("GregorianCalendar: %6.1f bytes (lo que cada carrito retenia ademas por su fecha)%n", porCalendario);
+    }
+
+    private static double medir(Object[] destino, IntFunction<Object> fabrica) {
+        long antes = usado();
+        for (int i = 0; i < destino.length; i++) {
+            destino[i] = fabrica.apply(i);
+        }
+        return (double) (usado() - antes) / destino.length;
+    }
+
+    private static long usado() {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memoria.getHeapMemoryUsage().getUsed();
+    }
+}
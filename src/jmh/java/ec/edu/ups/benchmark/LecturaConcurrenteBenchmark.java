@@ -0,0 +1,113 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalabilidad de las lecturas: el mismo {@code buscarPorCodigo} sobre un DAO compartido, con cada hilo en su
+ * propia secuencia de codigos. {@link #main} lo corre con 1, 2, 4... hasta el numero de nucleos y muestra cuanto
+ * rinde cada hilo respecto de uno solo; con lecturas sin candado la eficiencia deberia quedar cerca del 100 %.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar ec.edu.ups.benchmark.LecturaConcurrenteBenchmark [implementacion] [productos]
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LecturaConcurrenteBenchmark {
+
+    @Param({"concurrente", "mapeado"})
+    private String implementacion;
+
+    @Param({"1000000"})
+    private int productos;
+
+    private ProductoDAO productoDAO;
+
+    @Setup
+    public void preparar() {
+        List<Producto> catalogo = new ArrayList<>(productos);
+        for (int i = 1; i <= productos; i++) {
+            catalogo.add(new Producto(i, "Producto " + i, Dinero.deCentavos(i % 100 * 100 + 99)));
+        }
+        productoDAO = Fabrica.productoDAO(implementacion, catalogo);
+    }
+
+    @State(Scope.Thread)
+    public static class Lector {
+
+        private int[] codigos;
+        private int siguiente;
+
+        @Setup
+        public void preparar(LecturaConcurrenteBenchmark benchmark) {
+            SplittableRandom aleatorio = new SplittableRandom(System.identityHashCode(this));
+            codigos = new int[1024];
+            for (int i = 0; i < codigos.length; i++) {
+                codigos[i] = aleatorio.nextInt(benchmark.productos) + 1;
+            }
+        }
+    }
+
+    @Benchmark
+    public Producto buscarPorCodigo(Lector lector) {
+        return productoDAO.buscarPorCodigo(lector.codigos[lector.siguiente++ & (lector.codigos.length - 1)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String implementacion = args.length > 0 ? args[0] : "concurrente";
+        String productos = args.length > 1 ? args[1] : "1000000";
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        List<Integer> hilos = new ArrayList<>();
+        for (int n = 1; n < nucleos; n *= 2) {
+            hilos.add(n);
+        }
+        hilos.add(nucleos);
+
+        double base = 0;
+        System.out.printf("%6s %16s %10s %10s%n", "hilos", "ops/s", "x 1 hilo", "eficiencia");
+        for (int n : hilos) {
+            Options opciones = new OptionsBuilder()
+                    .include(LecturaConcurrenteBenchmark.class.getName() + ".buscarPorCodigo")
+                    .param("implementacion", implementacion)
+                    .param("productos", productos)
+                    .threads(n)
+                    .shouldDoGC(true)
+                    .verbosity(VerboseMode.SILENT)
+                    .build();
+            RunResult resultado = new Runner(opciones).runSingle();
+            double ops = resultado.getPrimaryResult().getScore();
+            if (n == 1) {
+                base = ops;
+            }
+            System.out.printf("%6d %16.0f %10.2f %9.0f%%%n", n, ops, ops / base, ops / base / n * 100);
+        }
+    }
+}
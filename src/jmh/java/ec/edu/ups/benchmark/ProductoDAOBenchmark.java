@@ -0,0 +1,67 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class ProductoDAOBenchmark {
+
+    @Param({"memoria", "indexado", "concurrente", "mapeado"})
+    private String implementacion;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int productos;
+
+    private ProductoDAO productoDAO;
+    private int[] codigos;
+    private String[] nombres;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        List<Producto> catalogo = new ArrayList<>(productos);
+        for (int i = 1; i <= productos; i++) {
+            catalogo.add(new Producto(i, "Producto " + i, Dinero.deCentavos(i % 100 * 100 + 99)));
+        }
+        productoDAO = Fabrica.productoDAO(implementacion, catalogo);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        codigos = new int[1024];
+        nombres = new String[codigos.length];
+        for (int i = 0; i < codigos.length; i++) {
+            codigos[i] = aleatorio.nextInt(productos) + 1;
+            nombres[i] = "Producto " + codigos[i];
+        }
+    }
+
+    @Benchmark
+    public Producto buscarPorCodigo() {
+        return productoDAO.buscarPorCodigo(codigos[siguiente++ & (codigos.length - 1)]);
+    }
+
+    @Benchmark
+    public List<Producto> buscarPorNombre() {
+        return productoDAO.buscarPorNombre(nombres[siguiente++ & (nombres.length - 1)]);
+    }
+}
@@ -0,0 +1,93 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.TasaImpuesto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TotalesBenchmark {
+
+    private static final BigDecimal TASA = new BigDecimal("0.12");
+
+    @Param({"10", "1000"})
+    private int items;
+
+    private double[] preciosDouble;
+    private BigDecimal[] preciosBigDecimal;
+    private Dinero[] preciosDinero;
+    private int[] cantidades;
+    private TasaImpuesto tasa;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        preciosDouble = new double[items];
+        preciosBigDecimal = new BigDecimal[items];
+        preciosDinero = new Dinero[items];
+        cantidades = new int[items];
+        for (int i = 0; i < items; i++) {
+            long centavos = aleatorio.nextLong(1, 100_000);
+            preciosDouble[i] = centavos / 100.0;
+            preciosBigDecimal[i] = BigDecimal.valueOf(centavos, 2);
+            preciosDinero[i] = Dinero.deCentavos(centavos);
+            cantidades[i] = aleatorio.nextInt(1, 20);
+        }
+        tasa = TasaImpuesto.dePorcentaje("12");
+    }
+
+    @Benchmark
+    public double totalDouble() {
+        double subtotal = 0;
+        for (int i = 0; i < items; i++) {
+            subtotal += preciosDouble[i] * cantidades[i];
+        }
+        return subtotal + subtotal * 0.12;
+    }
+
+    @Benchmark
+    public BigDecimal totalBigDecimal() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < items; i++) {
+            subtotal = subtotal.add(preciosBigDecimal[i].multiply(BigDecimal.valueOf(cantidades[i])));
+        }
+        return subtotal.add(subtotal.multiply(TASA).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    @Benchmark
+    public Dinero totalDinero() {
+        Dinero subtotal = Dinero.CERO;
+        for (int i = 0; i < items; i++) {
+            subtotal = subtotal.sumar(preciosDinero[i].multiplicar(cantidades[i]));
+        }
+        return subtotal.sumar(tasa.calcular(subtotal));
+    }
+
+    @Benchmark
+    public long totalCentavos() {
+        long subtotal = 0;
+        for (int i = 0; i < items; i++) {
+            subtotal += preciosDinero[i].getCentavos() * cantidades[i];
+        }
+        return subtotal + tasa.calcular(subtotal);
+    }
+}
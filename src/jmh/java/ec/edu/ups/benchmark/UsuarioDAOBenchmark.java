@@ -0,0 +1,87 @@
+package ec.edu.ups.benchmark;
+
+import ec.edu.ups.dao.UsuarioDAO;
+import ec.edu.ups.modelo.Genero;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Credenciales;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UsuarioDAOBenchmark {
+
+    @Param({"memoria", "concurrente"})
+    private String implementacion;
+
+    @Param({"1000", "100000", "1000000"})
+    private int usuarios;
+
+    private UsuarioDAO usuarioDAO;
+    private String[] usernames;
+    private Usuario[] duplicados;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        Credenciales.setIteraciones(1);
+        usuarioDAO = Fabrica.usuarioDAO(implementacion);
+        String hash = Credenciales.generar("clave");
+        for (int i = 0; i < usuarios; i++) {
+            Rol rol = i % 1000 == 0 ? Rol.ADMINISTRADOR : Rol.USUARIO;
+            Usuario usuario = new Usuario("usuario" + i, rol, null, "Usuario " + i, 30, Genero.OTRO, "0990000000", "usuario" + i + "@mail.com");
+            usuario.setHashPassword(hash);
+            usuarioDAO.crear(usuario);
+        }
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        usernames = new String[1024];
+        for (int i = 0; i < usernames.length; i++) {
+            usernames[i] = "usuario" + aleatorio.nextInt(usuarios);
+        }
+        duplicados = new Usuario[usernames.length];
+        for (int i = 0; i < duplicados.length; i++) {
+            duplicados[i] = new Usuario(usernames[i], Rol.USUARIO, null, null, 0, null, null, null);
+        }
+    }
+
+    @Benchmark
+    public Usuario autenticar() {
+        String username = usernames[siguiente++ & (usernames.length - 1)];
+        return usuarioDAO.autenticar(username, "clave");
+    }
+
+    @Benchmark
+    public boolean registrarDuplicado() {
+        return usuarioDAO.crearSiNoExiste(duplicados[siguiente++ & (duplicados.length - 1)]);
+    }
+
+    @Benchmark
+    public boolean renombrar() {
+        boolean ida = (siguiente++ & 1) == 0;
+        return ida ? usuarioDAO.renombrar("usuario0", "renombrado0", null)
+                : usuarioDAO.renombrar("renombrado0", "usuario0", null);
+    }
+
+    @Benchmark
+    public List<Usuario> listarAdministradores() {
+        return usuarioDAO.listarAdministradores();
+    }
+}
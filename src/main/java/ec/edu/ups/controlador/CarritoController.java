@@ -2,22 +2,34 @@ package ec.edu.ups.controlador;
 
 import ec.edu.ups.dao.CarritoDAO;
 import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.exportacion.ExportadorCarritos;
 import ec.edu.ups.modelo.*;
+import ec.edu.ups.util.EjecutorTareas;
 import ec.edu.ups.util.FormateadorUtils;
 import ec.edu.ups.util.MensajeInternacionalizacionHandler;
+import ec.edu.ups.util.Paginacion;
 import ec.edu.ups.util.Sonido;
 import ec.edu.ups.vista.*;
 
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
-import java.util.List;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Locale;
+import java.util.function.Supplier;
 
 public class CarritoController {
 
     private final CarritoDAO carritoDAO;
     private final ProductoDAO productoDAO;
-    private final Usuario usuarioLogueado;
+    private final EjecutorTareas tareas;
+    /**
+     * El usuario en sesion se pide cada vez: los cambios de sus datos reemplazan la instancia que guarda el DAO.
+     */
+    private final Supplier<Usuario> usuarioLogueado;
     private final CarritoAñadirView carritoAñadirView;
     private final CarritoListarView carritoListarView;
     private final CarritoModificarView carritoModificarView;
@@ -27,14 +39,16 @@ public class CarritoController {
 
     private Carrito carritoActual;
     private Carrito carritoSeleccionado;
+    private ExportadorCarritos exportacion;
     private final Locale locale;
 
-    public CarritoController(CarritoDAO carritoDAO, ProductoDAO productoDAO, CarritoAñadirView carritoAñadirView,
+    public CarritoController(CarritoDAO carritoDAO, ProductoDAO productoDAO, EjecutorTareas tareas, CarritoAñadirView carritoAñadirView,
                              CarritoListarView carritoListarView, CarritoModificarView carritoModificarView,
                              CarritoEliminarView carritoEliminarView, CarritoListarMisView carritoListarMisView,
-                             Usuario usuarioLogueado, MensajeInternacionalizacionHandler mensajes) {
+                             Supplier<Usuario> usuarioLogueado, MensajeInternacionalizacionHandler mensajes) {
         this.carritoDAO = carritoDAO;
         this.productoDAO = productoDAO;
+        this.tareas = tareas;
         this.usuarioLogueado = usuarioLogueado;
         this.carritoAñadirView = carritoAñadirView;
         this.carritoListarView = carritoListarView;
@@ -51,7 +65,7 @@ public class CarritoController {
 
     private void iniciarNuevoCarrito() {
         this.carritoActual = new Carrito();
-        this.carritoActual.setUsuario(this.usuarioLogueado);
+        this.carritoActual.setUsuario(usuarioLogueado.get());
     }
 
     public void configurarEventosEnVistas() {
@@ -60,6 +74,8 @@ public class CarritoController {
         carritoAñadirView.getBtnLimpiar().addActionListener(e -> limpiarCarrito());
 
         carritoListarView.getBtnListar().addActionListener(e -> listarTodosLosCarritos());
+        carritoListarView.getBtnFiltrar().addActionListener(e -> filtrarCarritosPorFecha());
+        carritoListarView.getBtnExportar().addActionListener(e -> exportarCarritos());
         ListSelectionModel selectionModelMis = carritoListarMisView.getTblCarritos().getSelectionModel();
         selectionModelMis.addListSelectionListener(e->{
             if (!e.getValueIsAdjusting()) {
@@ -68,11 +84,11 @@ public class CarritoController {
                 if (selectedRow != -1) {
                     int codigo = (int) carritoListarMisView.getTblCarritos().getValueAt(selectedRow, 0);
 
-                    Carrito carritoEncontrado = carritoDAO.buscarPorCodigo(codigo);
-
-                    if (carritoEncontrado != null && carritoEncontrado.getUsuario().equals(usuarioLogueado)) {
-                        carritoListarMisView.mostrarDetalles(carritoEncontrado);
-                    }
+                    tareas.consultar(selectionModelMis, () -> carritoDAO.buscarPorCodigo(codigo), carritoEncontrado -> {
+                        if (carritoEncontrado != null && carritoEncontrado.getUsuario().equals(usuarioLogueado.get())) {
+                            carritoListarMisView.mostrarDetalles(carritoEncontrado);
+                        }
+                    });
                 }
             }
         });
@@ -92,11 +108,11 @@ public class CarritoController {
                 if (selectedRow != -1) {
                     int codigo = (int) carritoListarView.getTblCarritos().getValueAt(selectedRow, 0);
 
-                    Carrito carritoEncontrado = carritoDAO.buscarPorCodigo(codigo);
-
-                    if (carritoEncontrado != null) {
-                        carritoListarView.mostrarDetalles(carritoEncontrado);
-                    }
+                    tareas.consultar(selectionModel, () -> carritoDAO.buscarPorCodigo(codigo), carritoEncontrado -> {
+                        if (carritoEncontrado != null) {
+                            carritoListarView.mostrarDetalles(carritoEncontrado);
+                        }
+                    });
                 }
             }
         });
@@ -106,55 +122,62 @@ public class CarritoController {
     private void buscarCarritoParaEliminar() {
         try {
             int codigo = Integer.parseInt(carritoEliminarView.getTxtCodigo().getText());
-            if(usuarioLogueado.getRol()== Rol.ADMINISTRADOR) {
-                this.carritoSeleccionado = carritoDAO.buscarPorCodigo(codigo);
-            }else{
-                this.carritoSeleccionado=carritoDAO.buscarPorCodigoYUsuario(codigo,usuarioLogueado);
-            }
-
-            if (carritoSeleccionado != null) {
-                carritoEliminarView.getTxtUsuario().setText(carritoSeleccionado.getUsuario().getUsername());
-                carritoEliminarView.getTxtFecha().setText(FormateadorUtils.formatearFecha(carritoSeleccionado.getFecha().getTime(), locale));
-                carritoEliminarView.mostrarItemsCarrito(carritoSeleccionado);
-
-                carritoEliminarView.getTxtCodigo().setEditable(false);
-                carritoEliminarView.getBtnBuscar().setEnabled(false);
-                carritoEliminarView.getBtnEliminar().setEnabled(true);
-            } else {
-                carritoEliminarView.mostrarMensaje(mensajes.get("mensaje.carrito.noEncontrado") + " " + codigo);
-                limpiarVistaEliminar();
-            }
+            tareas.consultar(carritoEliminarView, () -> buscarCarritoVisible(codigo), carrito -> {
+                this.carritoSeleccionado = carrito;
+                if (carritoSeleccionado != null) {
+                    carritoEliminarView.getTxtUsuario().setText(carritoSeleccionado.getUsuario().getUsername());
+                    carritoEliminarView.getTxtFecha().setText(FormateadorUtils.formatearFecha(carritoSeleccionado.getFecha(), locale));
+                    carritoEliminarView.mostrarItemsCarrito(carritoSeleccionado);
+
+                    carritoEliminarView.getTxtCodigo().setEditable(false);
+                    carritoEliminarView.getBtnBuscar().setEnabled(false);
+                    carritoEliminarView.getBtnEliminar().setEnabled(true);
+                } else {
+                    carritoEliminarView.mostrarMensaje(mensajes.get(Validaciones.CARRITO_NO_ENCONTRADO) + " " + codigo);
+                    limpiarVistaEliminar();
+                }
+            });
         } catch (NumberFormatException ex) {
-            carritoEliminarView.mostrarMensaje(mensajes.get("mensaje.carrito.codigoInvalido"));
+            carritoEliminarView.mostrarMensaje(mensajes.get(Validaciones.CODIGO_INVALIDO));
         }
     }
 
     private void buscarCarritoParaModificar() {
         try {
             int codigo = Integer.parseInt(carritoModificarView.getTxtCodigo().getText());
-            if(usuarioLogueado.getRol()== Rol.ADMINISTRADOR) {
-                this.carritoSeleccionado = carritoDAO.buscarPorCodigo(codigo);
-            }else{
-                this.carritoSeleccionado=carritoDAO.buscarPorCodigoYUsuario(codigo,usuarioLogueado);
-            }
-            if (carritoSeleccionado != null) {
-                carritoModificarView.getTxtUsuario().setText(carritoSeleccionado.getUsuario().getUsername());
-                carritoModificarView.getTxtFecha().setText(FormateadorUtils.formatearFecha(carritoSeleccionado.getFecha().getTime(), locale));
-                carritoModificarView.mostrarItemsCarrito(carritoSeleccionado);
-
-                carritoModificarView.getTxtCodigo().setEditable(false);
-                carritoModificarView.getBtnBuscar().setEnabled(false);
-                carritoModificarView.getBtnModificar().setEnabled(true);
-            } else {
-                carritoModificarView.mostrarMensaje(mensajes.get("mensaje.carrito.noEncontrado") + " " + codigo);
-                limpiarVistaModificar();
-            }
+            tareas.consultar(carritoModificarView, () -> copiar(buscarCarritoVisible(codigo)), carrito -> {
+                this.carritoSeleccionado = carrito;
+                if (carritoSeleccionado != null) {
+                    carritoModificarView.getTxtUsuario().setText(carritoSeleccionado.getUsuario().getUsername());
+                    carritoModificarView.getTxtFecha().setText(FormateadorUtils.formatearFecha(carritoSeleccionado.getFecha(), locale));
+                    carritoModificarView.mostrarItemsCarrito(carritoSeleccionado);
+
+                    carritoModificarView.getTxtCodigo().setEditable(false);
+                    carritoModificarView.getBtnBuscar().setEnabled(false);
+                    carritoModificarView.getBtnModificar().setEnabled(true);
+                } else {
+                    carritoModificarView.mostrarMensaje(mensajes.get(Validaciones.CARRITO_NO_ENCONTRADO) + " " + codigo);
+                    limpiarVistaModificar();
+                }
+            });
         } catch (NumberFormatException ex) {
-            carritoModificarView.mostrarMensaje(mensajes.get("mensaje.carrito.codigoInvalido"));
+            carritoModificarView.mostrarMensaje(mensajes.get(Validaciones.CODIGO_INVALIDO));
         }
 
     }
 
+    private Carrito buscarCarritoVisible(int codigo) {
+        return Validaciones.carritoVisible(carritoDAO, codigo, usuarioLogueado.get());
+    }
+
+    /**
+     * La vista de modificar cambia las cantidades en el hilo de eventos; se edita una copia para no tocar el carrito
+     * que el DAO comparte con las consultas en curso.
+     */
+    private static Carrito copiar(Carrito carrito) {
+        return carrito != null ? carrito.copia() : null;
+    }
+
     private void guardarModificacionCarrito() {
         if (carritoSeleccionado == null) {
             carritoModificarView.mostrarMensaje(mensajes.get("mensaje.carrito.noSeleccionado"));
@@ -164,10 +187,14 @@ public class CarritoController {
         int respuesta = JOptionPane.showConfirmDialog(carritoModificarView, mensajes.get("yesNo.carrito.modificar"), mensajes.get("yesNo.app.titulo"), JOptionPane.YES_NO_OPTION);
 
         if (respuesta == JOptionPane.YES_OPTION) {
-
-            carritoDAO.actualizar(carritoSeleccionado);
-            carritoModificarView.mostrarMensaje(mensajes.get("mensaje.carrito.guardado"));
-            limpiarVistaModificar();
+            Carrito seleccionado = carritoSeleccionado;
+            Carrito carrito = seleccionado.copia();
+            tareas.modificar(() -> carritoDAO.actualizar(carrito), () -> {
+                if (carritoSeleccionado == seleccionado) {
+                    limpiarVistaModificar();
+                }
+                carritoModificarView.mostrarMensaje(mensajes.get("mensaje.carrito.guardado"));
+            });
         }
 
     }
@@ -177,17 +204,19 @@ public class CarritoController {
     }
 
     private void mostrarTotales() {
-        carritoAñadirView.getTxtSubtotal().setText(FormateadorUtils.formatearMoneda(carritoActual.calcularSubtotal(), locale));
-        carritoAñadirView.getTxtIVA().setText(FormateadorUtils.formatearMoneda(carritoActual.calcularIVA(), locale));
-        carritoAñadirView.getTxtTotal().setText(FormateadorUtils.formatearMoneda(carritoActual.calcularTotal(), locale));
+        carritoAñadirView.getTxtSubtotal().setText(FormateadorUtils.formatearMoneda(carritoActual.getSubtotalCentavos(), locale));
+        carritoAñadirView.getTxtIVA().setText(FormateadorUtils.formatearMoneda(carritoActual.getIVACentavos(), locale));
+        carritoAñadirView.getTxtTotal().setText(FormateadorUtils.formatearMoneda(carritoActual.getTotalCentavos(), locale));
     }
 
     private void listarMisCarritos() {
-        List<Carrito> carritos = carritoDAO.buscarPorUsuario(usuarioLogueado);
-        if (carritos.isEmpty()) {
-            carritoListarMisView.mostrarMensaje(mensajes.get("mensaje.carrito.noHay"));
-        }
-        carritoListarMisView.mostrarCarritos(carritos);
+        Usuario usuario = usuarioLogueado.get();
+        tareas.consultar(carritoListarMisView, () -> carritoDAO.buscarPorUsuario(usuario), carritos -> {
+            if (carritos.isEmpty()) {
+                carritoListarMisView.mostrarMensaje(mensajes.get("mensaje.carrito.noHay"));
+            }
+            carritoListarMisView.mostrarCarritos(carritos);
+        });
     }
 
     private void eliminarCarrito() {
@@ -197,9 +226,14 @@ public class CarritoController {
         int respuesta = JOptionPane.showConfirmDialog(carritoEliminarView, mensajeConfirmacion, mensajes.get("yesNo.app.titulo"), JOptionPane.YES_NO_OPTION);
 
         if (respuesta == JOptionPane.YES_OPTION) {
-            carritoDAO.eliminar(carritoSeleccionado.getCodigo());
-            carritoEliminarView.mostrarMensaje(mensajes.get("mensaje.carrito.eliminado"));
-            limpiarVistaEliminar();
+            Carrito seleccionado = carritoSeleccionado;
+            int codigo = seleccionado.getCodigo();
+            tareas.modificar(() -> carritoDAO.eliminar(codigo), () -> {
+                if (carritoSeleccionado == seleccionado) {
+                    limpiarVistaEliminar();
+                }
+                carritoEliminarView.mostrarMensaje(mensajes.get("mensaje.carrito.eliminado"));
+            });
         }
     }
 
@@ -228,52 +262,134 @@ public class CarritoController {
 
 
     private void listarTodosLosCarritos() {
-        List<Carrito> carritos = carritoDAO.listarTodos();
-        if (carritos.isEmpty()) {
-            carritoListarView.mostrarMensaje(mensajes.get("mensaje.carrito.noHay"));
+        carritoListarView.iniciarPaginacion(this::cargarSiguientePaginaCarritos);
+        cargarSiguientePaginaCarritos();
+    }
+
+    private void cargarSiguientePaginaCarritos() {
+        int despuesDe = carritoListarView.getUltimoCodigo();
+        tareas.consultar(carritoListarView, () -> carritoDAO.listarPagina(despuesDe, Paginacion.TAMAÑO_PAGINA), pagina -> {
+            if (pagina.isEmpty() && despuesDe == Integer.MIN_VALUE) {
+                carritoListarView.mostrarMensaje(mensajes.get("mensaje.carrito.noHay"));
+            }
+            carritoListarView.agregarPagina(pagina, pagina.size() == Paginacion.TAMAÑO_PAGINA);
+        });
+    }
+
+    /**
+     * Carritos entre el inicio del dia "desde" y el final del dia "hasta", en la zona horaria local.
+     */
+    private void filtrarCarritosPorFecha() {
+        LocalDate desde = carritoListarView.getDesde();
+        LocalDate hasta = carritoListarView.getHasta();
+        if (hasta.isBefore(desde)) {
+            carritoListarView.mostrarMensaje(mensajes.get("mensaje.carrito.rangoInvalido"));
+            return;
+        }
+        ZoneId zona = ZoneId.systemDefault();
+        Instant inicio = desde.atStartOfDay(zona).toInstant();
+        Instant fin = hasta.plusDays(1).atStartOfDay(zona).toInstant();
+        tareas.consultar(carritoListarView, () -> carritoDAO.buscarPorFecha(inicio, fin), carritos -> {
+            carritoListarView.mostrarCarritosFiltrados(carritos);
+            if (carritos.isEmpty()) {
+                carritoListarView.mostrarMensaje(mensajes.get("mensaje.carrito.noHay"));
+            }
+        });
+    }
+
+    /**
+     * Exporta todo el historial en segundo plano; mientras corre, el mismo boton la cancela. Corre aparte del orden
+     * de {@link EjecutorTareas} y lee el DAO concurrente pagina a pagina, asi que no detiene las compras que se
+     * guardan mientras tanto: cada pagina refleja el DAO en el momento en que se lee. Los items de un carrito guardado
+     * no cambian despues, por eso se codifican sin candado; lo unico que puede cambiar es el username del dueño, que
+     * un renombre actualiza sobre el mismo {@link Usuario}. Un carrito exportado durante un renombre sale con el nombre
+     * anterior o con el nuevo.
+     */
+    private void exportarCarritos() {
+        if (exportacion != null) {
+            exportacion.cancelar();
+            return;
+        }
+        JFileChooser selector = new JFileChooser();
+        FileNameExtensionFilter csv = new FileNameExtensionFilter("CSV", "csv");
+        FileNameExtensionFilter jsonLines = new FileNameExtensionFilter("JSON Lines", "jsonl");
+        selector.addChoosableFileFilter(csv);
+        selector.addChoosableFileFilter(jsonLines);
+        selector.setAcceptAllFileFilterUsed(false);
+        selector.setFileFilter(csv);
+        if (selector.showSaveDialog(carritoListarView) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        boolean json = selector.getFileFilter() == jsonLines;
+        ExportadorCarritos.Formato formato = json ? ExportadorCarritos.Formato.JSON_LINES : ExportadorCarritos.Formato.CSV;
+        Path archivo = selector.getSelectedFile().toPath();
+        if (!archivo.getFileName().toString().contains(".")) {
+            archivo = archivo.resolveSibling(archivo.getFileName() + (json ? ".jsonl" : ".csv"));
         }
-        carritoListarView.mostrarCarritos(carritos);
+        Path destino = archivo;
+        ExportadorCarritos exportador = new ExportadorCarritos(carritoDAO);
+        exportacion = exportador;
+        carritoListarView.setExportando(true);
+        tareas.ejecutarAparte(() -> {
+            try {
+                return exportador.exportar(destino, formato, (carritos, total) ->
+                        SwingUtilities.invokeLater(() -> carritoListarView.mostrarProgresoExportacion(carritos, total)));
+            } finally {
+                SwingUtilities.invokeLater(() -> {
+                    exportacion = null;
+                    carritoListarView.setExportando(false);
+                });
+            }
+        }, escritos -> carritoListarView.mostrarMensaje(exportador.isCancelado()
+                ? mensajes.get("mensaje.exportacion.cancelada")
+                : mensajes.get("mensaje.exportacion.terminada") + ": " + escritos));
     }
 
     private void guardarCarrito() {
-        if (carritoActual.obtenerItems().isEmpty()) {
-            carritoAñadirView.mostrarMensaje(mensajes.get("mensaje.carrito.vacio"));
+        String error = Validaciones.validarCarrito(carritoActual);
+        if (error != null) {
+            carritoAñadirView.mostrarMensaje(mensajes.get(error));
             return;
         }
         Sonido sonido = new Sonido();
         sonido.cargarSonido("/sonidoCompra.wav");
         sonido.reproducir();
-        carritoDAO.crear(carritoActual);
-        carritoAñadirView.mostrarMensaje(mensajes.get("mensaje.carrito.guardado") + " " + usuarioLogueado.getUsername());
-
-        iniciarNuevoCarrito();
-        cargarProductosEnTabla();
-        mostrarTotales();
-        carritoAñadirView.getTxtCodigo().setText("");
-        carritoAñadirView.getTxtNombre().setText("");
-        carritoAñadirView.getTxtPrecio().setText("");
-
-
+        Carrito actual = carritoActual;
+        Carrito carrito = actual.copia();
+        carrito.setUsuario(usuarioLogueado.get());
+        tareas.modificar(() -> carritoDAO.crear(carrito), () -> {
+            if (carritoActual == actual) {
+                iniciarNuevoCarrito();
+                cargarProductosEnTabla();
+                mostrarTotales();
+                carritoAñadirView.getTxtCodigo().setText("");
+                carritoAñadirView.getTxtNombre().setText("");
+                carritoAñadirView.getTxtPrecio().setText("");
+            }
+            carritoAñadirView.mostrarMensaje(mensajes.get("mensaje.carrito.guardado") + " " + carrito.getUsuario().getUsername());
+        });
     }
 
     private void añadirProducto() {
         try {
-            Producto producto = productoDAO.buscarPorCodigo(Integer.parseInt(carritoAñadirView.getTxtCodigo().getText()));
-            if (producto == null) {
-                carritoAñadirView.mostrarMensaje(mensajes.get("mensaje.producto.noEncontrado"));
-                return;
-            }
+            int codigo = Integer.parseInt(carritoAñadirView.getTxtCodigo().getText());
             int cantidad = carritoAñadirView.getCbxCantidad().getSelectedIndex() + 1;
-            if (cantidad <= 0) {
-                carritoAñadirView.mostrarMensaje(mensajes.get("mensaje.carrito.cantidadInvalida"));
+            String error = Validaciones.validarCantidad(cantidad);
+            if (error != null) {
+                carritoAñadirView.mostrarMensaje(mensajes.get(error));
                 return;
             }
-
-            carritoActual.agregarProducto(producto, cantidad);
-            cargarProductosEnTabla();
-            mostrarTotales();
+            tareas.consultar(() -> productoDAO.buscarPorCodigo(codigo), producto -> {
+                if (producto == null) {
+                    carritoAñadirView.mostrarMensaje(mensajes.get(Validaciones.PRODUCTO_NO_ENCONTRADO));
+                    return;
+                }
+                carritoActual.agregarProducto(producto, cantidad);
+                cargarProductosEnTabla();
+                mostrarTotales();
+            });
         } catch (NumberFormatException ex) {
-            carritoAñadirView.mostrarMensaje(mensajes.get("mensaje.carrito.codigoInvalido"));
+            carritoAñadirView.mostrarMensaje(mensajes.get(Validaciones.CODIGO_INVALIDO));
         }
     }
 
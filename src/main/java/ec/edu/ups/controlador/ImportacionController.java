@@ -0,0 +1,78 @@
+package ec.edu.ups.controlador;
+
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.dao.UsuarioDAO;
+import ec.edu.ups.dao.persistencia.AlmacenPersistente;
+import ec.edu.ups.importacion.ImportadorCsv;
+import ec.edu.ups.util.EjecutorTareas;
+import ec.edu.ups.util.MensajeInternacionalizacionHandler;
+import ec.edu.ups.vista.PrincipalView;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.nio.file.Path;
+
+/**
+ * Importacion de productos y usuarios desde CSV con una barra de progreso que permite cancelar. Corre aparte en
+ * {@link EjecutorTareas} y guarda cada bloque del archivo como una modificacion propia, asi que la interfaz sigue
+ * atendiendo consultas y cambios entre bloque y bloque; una consulta puede ver la importacion a medias.
+ */
+public class ImportacionController {
+
+    private static final int ESCALA_PROGRESO = 1000;
+
+    private final ProductoDAO productoDAO;
+    private final UsuarioDAO usuarioDAO;
+    private final EjecutorTareas tareas;
+    private final PrincipalView principalView;
+    private final MensajeInternacionalizacionHandler mensajes;
+
+    public ImportacionController(ProductoDAO productoDAO, UsuarioDAO usuarioDAO, EjecutorTareas tareas,
+                                 PrincipalView principalView, MensajeInternacionalizacionHandler mensajes) {
+        this.productoDAO = productoDAO;
+        this.usuarioDAO = usuarioDAO;
+        this.tareas = tareas;
+        this.principalView = principalView;
+        this.mensajes = mensajes;
+
+        configurarEventos();
+    }
+
+    private void configurarEventos() {
+        principalView.getMenuItemImportarProductos().addActionListener(e ->
+                importar(ImportadorCsv.productos(productoDAO), productoDAO));
+        principalView.getMenuItemImportarUsuarios().addActionListener(e ->
+                importar(ImportadorCsv.usuarios(usuarioDAO), usuarioDAO));
+    }
+
+    private void importar(ImportadorCsv<?> importador, Object dao) {
+        JFileChooser selector = new JFileChooser();
+        selector.setFileFilter(new FileNameExtensionFilter("CSV", "csv"));
+        if (selector.showOpenDialog(principalView) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path archivo = selector.getSelectedFile().toPath();
+        ProgressMonitor monitor = new ProgressMonitor(principalView, mensajes.get("mensaje.importacion.progreso"),
+                archivo.getFileName().toString(), 0, ESCALA_PROGRESO);
+        ImportadorCsv.Progreso progreso = (bytes, total, filas) -> SwingUtilities.invokeLater(() -> {
+            if (monitor.isCanceled()) {
+                importador.cancelar();
+                return;
+            }
+            monitor.setProgress(total > 0 ? (int) (bytes * ESCALA_PROGRESO / total) : ESCALA_PROGRESO);
+            monitor.setNote(mensajes.get("mensaje.importacion.filas") + ": " + filas);
+        });
+        tareas.ejecutarAparte(() -> {
+            try {
+                ImportadorCsv.Resultado resultado = importador.importar(archivo, progreso,
+                        bloque -> tareas.modificarYEsperar(bloque::getAsInt));
+                if (dao instanceof AlmacenPersistente && resultado.getImportadas() > 0) {
+                    ((AlmacenPersistente) dao).compactar();
+                }
+                return resultado;
+            } finally {
+                SwingUtilities.invokeLater(monitor::close);
+            }
+        }, resultado -> principalView.mostrarMensaje(resultado.resumen(mensajes)));
+    }
+}
@@ -1,16 +1,18 @@
 package ec.edu.ups.controlador;
 
 import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.modelo.Dinero;
 import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.util.EjecutorTareas;
 import ec.edu.ups.util.MensajeInternacionalizacionHandler;
 import ec.edu.ups.vista.*;
 
 import javax.swing.*;
-import java.util.List;
 
 public class ProductoController {
 
     private final ProductoDAO productoDAO;
+    private final EjecutorTareas tareas;
     private final MensajeInternacionalizacionHandler mensajes;
 
     private final ProductoAnadirView productoAnadirView;
@@ -19,11 +21,12 @@ public class ProductoController {
     private final ProductoModificarView productoModificarView;
     private final CarritoAñadirView carritoAñadirView;
 
-    public ProductoController(ProductoDAO productoDAO, CarritoAñadirView carritoAñadirView,
+    public ProductoController(ProductoDAO productoDAO, EjecutorTareas tareas, CarritoAñadirView carritoAñadirView,
                               ProductoModificarView productoModificarView, ProductoEliminarView productoEliminarView,
                               ProductoListaView productoListaView, ProductoAnadirView productoAnadirView,
                               MensajeInternacionalizacionHandler mensajes) {
         this.productoDAO = productoDAO;
+        this.tareas = tareas;
         this.mensajes = mensajes;
 
         this.carritoAñadirView = carritoAñadirView;
@@ -56,46 +59,48 @@ public class ProductoController {
         try {
             int codigo = Integer.parseInt(productoAnadirView.getTxtCodigo().getText());
             String nombre = productoAnadirView.getTxtNombre().getText();
-            double precio = Double.parseDouble(productoAnadirView.getTxtPrecio().getText());
+            Dinero precio = Dinero.deDecimal(productoAnadirView.getTxtPrecio().getText());
 
-            if (nombre.isEmpty()) {
-                productoAnadirView.mostrarMensaje(mensajes.get("mensaje.usuario.error.camposVacios"));
+            String error = Validaciones.validarProducto(nombre);
+            if (error != null) {
+                productoAnadirView.mostrarMensaje(mensajes.get(error));
                 return;
             }
 
-            productoDAO.crear(new Producto(codigo, nombre, precio));
-            productoAnadirView.mostrarMensaje(mensajes.get("mensaje.producto.guardado"));
-            productoAnadirView.limpiarCampos();
+            Producto producto = new Producto(codigo, nombre, precio);
+            tareas.modificar(() -> productoDAO.crear(producto), () -> {
+                productoAnadirView.limpiarCampos();
+                productoAnadirView.mostrarMensaje(mensajes.get("mensaje.producto.guardado"));
+            });
         } catch (NumberFormatException ex) {
-            productoAnadirView.mostrarMensaje(mensajes.get("mensaje.carrito.codigoInvalido"));
+            productoAnadirView.mostrarMensaje(mensajes.get(Validaciones.CODIGO_INVALIDO));
         }
     }
 
     private void buscarProductoPorNombre() {
         String nombre = productoListaView.getTxtBuscar().getText();
-        List<Producto> productos = productoDAO.buscarPorNombre(nombre);
-        productoListaView.mostrarProductos(productos);
+        tareas.consultar(productoListaView, () -> productoDAO.buscarPorSubcadena(nombre), productoListaView::mostrarProductos);
     }
 
     private void listarTodosLosProductos() {
-        productoListaView.mostrarProductos(productoDAO.listarTodos());
+        tareas.consultar(productoListaView, productoDAO::listarTodos, productoListaView::mostrarProductos);
     }
 
     private void buscarProductoParaEliminar() {
         try {
             int codigo = Integer.parseInt(productoEliminarView.getTxtCodigo().getText());
-            Producto producto = productoDAO.buscarPorCodigo(codigo);
-
-            if (producto == null) {
-                productoEliminarView.mostrarMensaje(mensajes.get("mensaje.noEncontrado"));
-            } else {
-                productoEliminarView.getTxtNombre().setText(producto.getNombre());
-                productoEliminarView.getTxtPrecio().setText(String.valueOf(producto.getPrecio()));
-                productoEliminarView.getTxtCodigo().setEnabled(false);
-                productoEliminarView.getBtnEliminar().setEnabled(true);
-            }
+            tareas.consultar(productoEliminarView, () -> productoDAO.buscarPorCodigo(codigo), producto -> {
+                if (producto == null) {
+                    productoEliminarView.mostrarMensaje(mensajes.get("mensaje.noEncontrado"));
+                } else {
+                    productoEliminarView.getTxtNombre().setText(producto.getNombre());
+                    productoEliminarView.getTxtPrecio().setText(String.valueOf(producto.getPrecio()));
+                    productoEliminarView.getTxtCodigo().setEnabled(false);
+                    productoEliminarView.getBtnEliminar().setEnabled(true);
+                }
+            });
         } catch (NumberFormatException ex) {
-            productoEliminarView.mostrarMensaje(mensajes.get("mensaje.carrito.codigoInvalido"));
+            productoEliminarView.mostrarMensaje(mensajes.get(Validaciones.CODIGO_INVALIDO));
         }
     }
 
@@ -105,28 +110,29 @@ public class ProductoController {
 
         if (respuesta == JOptionPane.YES_OPTION) {
             int codigo = Integer.parseInt(productoEliminarView.getTxtCodigo().getText());
-            productoDAO.eliminar(codigo);
-            productoEliminarView.mostrarMensaje(mensajes.get("mensaje.producto.eliminado"));
-            productoEliminarView.limpiarCampos();
+            tareas.modificar(() -> productoDAO.eliminar(codigo), () -> {
+                productoEliminarView.limpiarCampos();
+                productoEliminarView.mostrarMensaje(mensajes.get("mensaje.producto.eliminado"));
+            });
         }
     }
 
     private void buscarProductoParaModificar() {
         try {
             int codigo = Integer.parseInt(productoModificarView.getTxtCodigo().getText());
-            Producto producto = productoDAO.buscarPorCodigo(codigo);
-
-            if (producto == null) {
-                productoModificarView.mostrarMensaje(mensajes.get("mensaje.noEncontrado"));
-            } else {
-                productoModificarView.getTxtNombre().setText(producto.getNombre());
-                productoModificarView.getTxtPrecio().setText(String.valueOf(producto.getPrecio()));
-                productoModificarView.getBtnModificar().setEnabled(true);
-                productoModificarView.getBtnBuscar().setEnabled(false);
-                productoModificarView.getTxtCodigo().setEditable(false);
-            }
+            tareas.consultar(productoModificarView, () -> productoDAO.buscarPorCodigo(codigo), producto -> {
+                if (producto == null) {
+                    productoModificarView.mostrarMensaje(mensajes.get("mensaje.noEncontrado"));
+                } else {
+                    productoModificarView.getTxtNombre().setText(producto.getNombre());
+                    productoModificarView.getTxtPrecio().setText(String.valueOf(producto.getPrecio()));
+                    productoModificarView.getBtnModificar().setEnabled(true);
+                    productoModificarView.getBtnBuscar().setEnabled(false);
+                    productoModificarView.getTxtCodigo().setEditable(false);
+                }
+            });
         } catch (NumberFormatException ex) {
-            productoModificarView.mostrarMensaje(mensajes.get("mensaje.carrito.codigoInvalido"));
+            productoModificarView.mostrarMensaje(mensajes.get(Validaciones.CODIGO_INVALIDO));
         }
     }
 
@@ -138,26 +144,27 @@ public class ProductoController {
             try {
                 int codigo = Integer.parseInt(productoModificarView.getTxtCodigo().getText());
                 String nombre = productoModificarView.getTxtNombre().getText();
-                double precio = Double.parseDouble(productoModificarView.getTxtPrecio().getText());
+                Dinero precio = Dinero.deDecimal(productoModificarView.getTxtPrecio().getText());
 
-                if (nombre.trim().isEmpty()) {
-                    productoModificarView.mostrarMensaje(mensajes.get("mensaje.usuario.error.camposVacios"));
+                String error = Validaciones.validarProducto(nombre);
+                if (error != null) {
+                    productoModificarView.mostrarMensaje(mensajes.get(error));
                     return;
                 }
 
                 Producto productoActualizado = new Producto(codigo, nombre, precio);
-                productoDAO.actualizar(productoActualizado);
-
-                productoModificarView.mostrarMensaje(mensajes.get("mensaje.producto.guardado"));
-                productoModificarView.getTxtCodigo().setText("");
-                productoModificarView.getTxtNombre().setText("");
-                productoModificarView.getTxtPrecio().setText("");
-                productoModificarView.getBtnModificar().setEnabled(false);
-                productoModificarView.getBtnBuscar().setEnabled(true);
-                productoModificarView.getTxtCodigo().setEditable(true);
+                tareas.modificar(() -> productoDAO.actualizar(productoActualizado), () -> {
+                    productoModificarView.getTxtCodigo().setText("");
+                    productoModificarView.getTxtNombre().setText("");
+                    productoModificarView.getTxtPrecio().setText("");
+                    productoModificarView.getBtnModificar().setEnabled(false);
+                    productoModificarView.getBtnBuscar().setEnabled(true);
+                    productoModificarView.getTxtCodigo().setEditable(true);
+                    productoModificarView.mostrarMensaje(mensajes.get("mensaje.producto.guardado"));
+                });
 
             } catch (NumberFormatException ex) {
-                productoModificarView.mostrarMensaje(mensajes.get("mensaje.carrito.codigoInvalido"));
+                productoModificarView.mostrarMensaje(mensajes.get(Validaciones.CODIGO_INVALIDO));
             }
         }
     }
@@ -165,18 +172,18 @@ public class ProductoController {
     private void buscarProductoParaCarrito() {
         try {
             int codigo = Integer.parseInt(carritoAñadirView.getTxtCodigo().getText());
-            Producto producto = productoDAO.buscarPorCodigo(codigo);
-
-            if (producto == null) {
-                carritoAñadirView.mostrarMensaje(mensajes.get("mensaje.noEncontrado"));
-                carritoAñadirView.getTxtNombre().setText("");
-                carritoAñadirView.getTxtPrecio().setText("");
-            } else {
-                carritoAñadirView.getTxtNombre().setText(producto.getNombre());
-                carritoAñadirView.getTxtPrecio().setText(String.valueOf(producto.getPrecio()));
-            }
+            tareas.consultar(carritoAñadirView, () -> productoDAO.buscarPorCodigo(codigo), producto -> {
+                if (producto == null) {
+                    carritoAñadirView.mostrarMensaje(mensajes.get("mensaje.noEncontrado"));
+                    carritoAñadirView.getTxtNombre().setText("");
+                    carritoAñadirView.getTxtPrecio().setText("");
+                } else {
+                    carritoAñadirView.getTxtNombre().setText(producto.getNombre());
+                    carritoAñadirView.getTxtPrecio().setText(String.valueOf(producto.getPrecio()));
+                }
+            });
         } catch (NumberFormatException ex) {
-            carritoAñadirView.mostrarMensaje(mensajes.get("mensaje.carrito.codigoInvalido"));
+            carritoAñadirView.mostrarMensaje(mensajes.get(Validaciones.CODIGO_INVALIDO));
         }
     }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package ec.edu.ups.controlador;
 
+import ec.edu.ups.dao.CarritoDAO;
 import ec.edu.ups.dao.UsuarioDAO;
 import ec.edu.ups.modelo.Pregunta;
 import ec.edu.ups.modelo.Respuesta;
 import ec.edu.ups.modelo.Rol;
 import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.EjecutorTareas;
 import ec.edu.ups.util.MensajeInternacionalizacionHandler;
 import ec.edu.ups.util.Sonido;
 import ec.edu.ups.vista.*;
@@ -19,6 +21,8 @@ import java.util.Map;
 
 public class UsuarioController {
     private final UsuarioDAO usuarioDAO;
+    private final CarritoDAO carritoDAO;
+    private final EjecutorTareas tareas;
     private final MensajeInternacionalizacionHandler mensajes;
 
     private final UsuarioCrearView usuarioCrearView;
@@ -32,14 +36,17 @@ public class UsuarioController {
     private final PreguntasModificarView preguntasModificarView;
     private Usuario usuarioAutentificado;
     private Usuario usuarioTemporal;
+    private String contraseñaTemporal;
     private Usuario usuarioEnRecuperacion;
 
-    public UsuarioController(UsuarioCrearView usuarioCrearView, UsuarioDAO usuarioDAO, LogInView logInView,
+    public UsuarioController(UsuarioCrearView usuarioCrearView, UsuarioDAO usuarioDAO, CarritoDAO carritoDAO, EjecutorTareas tareas, LogInView logInView,
                              UsuarioModificarView usuarioModificarView, UsuarioEliminarView usuarioEliminarView,
                              UsuarioModificarMisView usuarioModificarMisView, UsuarioListarView usuarioListarView,
                              MensajeInternacionalizacionHandler mensajes, RegistrarseView registrarseView, PreguntasRegisterView preguntasView, PreguntasModificarView preguntasModificarView) {
         this.usuarioCrearView = usuarioCrearView;
         this.usuarioDAO = usuarioDAO;
+        this.carritoDAO = carritoDAO;
+        this.tareas = tareas;
         this.logInView = logInView;
         this.usuarioModificarView = usuarioModificarView;
         this.usuarioEliminarView = usuarioEliminarView;
@@ -104,31 +111,34 @@ public class UsuarioController {
             return;
         }
 
-        this.usuarioEnRecuperacion = usuarioDAO.buscarPorUsuario(username);
+        tareas.consultar(logInView, () -> usuarioDAO.buscarPorUsuario(username), usuario -> {
+            this.usuarioEnRecuperacion = usuario;
 
-        if (usuarioEnRecuperacion == null) {
-            logInView.mostrarMensaje(mensajes.get("mensaje.pregunta.recuperar.noUsuario"));
-            return;
-        }
+            if (usuarioEnRecuperacion == null) {
+                logInView.mostrarMensaje(mensajes.get("mensaje.pregunta.recuperar.noUsuario"));
+                return;
+            }
 
-        List<Respuesta> respuestas = usuarioEnRecuperacion.getRespuestasSeguridad();
-        if (respuestas == null || respuestas.isEmpty()) {
-            usuarioTemporal = usuarioDAO.buscarPorUsuario(username);
-            logInView.mostrarMensaje(mensajes.get("mensaje.pregunta.recuperar.sinPreguntas"));
-            preguntasView.setVisible(true);
-            preguntasView.toFront();
-            return;
-        }
+            List<Respuesta> respuestas = usuarioEnRecuperacion.getRespuestasSeguridad();
+            if (respuestas == null || respuestas.isEmpty()) {
+                usuarioTemporal = usuarioEnRecuperacion;
+                contraseñaTemporal = null;
+                logInView.mostrarMensaje(mensajes.get("mensaje.pregunta.recuperar.sinPreguntas"));
+                preguntasView.setVisible(true);
+                preguntasView.toFront();
+                return;
+            }
 
-        Random random = new Random();
-        int indiceAleatorio = random.nextInt(respuestas.size());
-        Respuesta preguntaAleatoria = respuestas.get(indiceAleatorio);
+            Random random = new Random();
+            int indiceAleatorio = random.nextInt(respuestas.size());
+            Respuesta preguntaAleatoria = respuestas.get(indiceAleatorio);
 
-        List<Respuesta> listaConUnaPregunta = new ArrayList<>();
-        listaConUnaPregunta.add(preguntaAleatoria);
+            List<Respuesta> listaConUnaPregunta = new ArrayList<>();
+            listaConUnaPregunta.add(preguntaAleatoria);
 
-        preguntasModificarView.mostrarPreguntasDelUsuario(listaConUnaPregunta);
-        preguntasModificarView.setVisible(true);
+            preguntasModificarView.mostrarPreguntasDelUsuario(listaConUnaPregunta);
+            preguntasModificarView.setVisible(true);
+        });
     }
 
 
@@ -145,49 +155,53 @@ public class UsuarioController {
         Pregunta preguntaMostrada = unicaRespuestaEntry.getKey();
         String respuestaIngresada = unicaRespuestaEntry.getValue();
 
-        Respuesta respuestaOriginal = null;
-        for (Respuesta guardada : usuarioEnRecuperacion.getRespuestasSeguridad()) {
-            if (guardada.getPregunta().equals(preguntaMostrada)) {
-                respuestaOriginal = guardada;
-                break;
-            }
-        }
-
-        if (respuestaOriginal != null && respuestaOriginal.esRespuestaCorrecta(respuestaIngresada)) {
-            String nuevaPassword = JOptionPane.showInputDialog(
-                    preguntasModificarView,
-                    mensajes.get("mensaje.pregunta.recuperar.exito")
-            );
-
-            if (nuevaPassword != null && !nuevaPassword.isEmpty()) {
-                usuarioEnRecuperacion.setPassword(nuevaPassword.trim());
-                usuarioDAO.actualizar(usuarioEnRecuperacion);
-                JOptionPane.showMessageDialog(preguntasModificarView, mensajes.get("mensaje.contraseña.actualizada"));
+        Usuario usuario = usuarioEnRecuperacion;
+        Respuesta respuestaOriginal = usuario.buscarRespuesta(preguntaMostrada);
 
-                preguntasModificarView.dispose();
-                preguntasModificarView.limpiarCampos();
-                this.usuarioEnRecuperacion = null;
+        tareas.consultar(preguntasModificarView,
+                () -> respuestaOriginal != null && respuestaOriginal.esRespuestaCorrecta(respuestaIngresada), correcta -> {
+            if (usuarioEnRecuperacion != usuario) {
+                return;
             }
-        } else {
-            JOptionPane.showMessageDialog(
-                    preguntasModificarView,
-                    mensajes.get("mensaje.pregunta.recuperar.error"),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE
-
-            );
-            List<Respuesta> respuestas = usuarioEnRecuperacion.getRespuestasSeguridad();
-            Random random = new Random();
-            int indiceAleatorio = random.nextInt(respuestas.size());
-            Respuesta preguntaAleatoria = respuestas.get(indiceAleatorio);
-
-            List<Respuesta> listaConUnaPregunta = new ArrayList<>();
-            listaConUnaPregunta.add(preguntaAleatoria);
-
-            preguntasModificarView.mostrarPreguntasDelUsuario(listaConUnaPregunta);
-            preguntasModificarView.setVisible(true);
-
-        }
+            if (correcta) {
+                String nuevaPassword = JOptionPane.showInputDialog(
+                        preguntasModificarView,
+                        mensajes.get("mensaje.pregunta.recuperar.exito")
+                );
+
+                if (nuevaPassword != null && !nuevaPassword.isEmpty()) {
+                    this.usuarioEnRecuperacion = null;
+                    tareas.modificar(() -> {
+                        Usuario cambiado = usuario.copia();
+                        cambiado.setPassword(nuevaPassword.trim());
+                        usuarioDAO.actualizar(cambiado);
+                    }, () -> {
+                        JOptionPane.showMessageDialog(preguntasModificarView, mensajes.get("mensaje.contraseña.actualizada"));
+
+                        preguntasModificarView.dispose();
+                        preguntasModificarView.limpiarCampos();
+                    });
+                }
+            } else {
+                JOptionPane.showMessageDialog(
+                        preguntasModificarView,
+                        mensajes.get("mensaje.pregunta.recuperar.error"),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE
+
+                );
+                List<Respuesta> respuestas = usuario.getRespuestasSeguridad();
+                Random random = new Random();
+                int indiceAleatorio = random.nextInt(respuestas.size());
+                Respuesta preguntaAleatoria = respuestas.get(indiceAleatorio);
+
+                List<Respuesta> listaConUnaPregunta = new ArrayList<>();
+                listaConUnaPregunta.add(preguntaAleatoria);
+
+                preguntasModificarView.mostrarPreguntasDelUsuario(listaConUnaPregunta);
+                preguntasModificarView.setVisible(true);
+            }
+        });
     }
 
 
@@ -206,7 +220,7 @@ public class UsuarioController {
         ec.edu.ups.modelo.Genero genero = (ec.edu.ups.modelo.Genero) usuarioModificarMisView.getCbxGenero().getSelectedItem();
         String usernameOriginal = usuarioAutentificado.getUsername();
 
-        if (nuevoUsername.isEmpty() || nuevaPassword.isEmpty() || nombreCompleto.isEmpty() || email.isEmpty() || telefono.isEmpty()) {
+        if (nuevoUsername.isEmpty() || nombreCompleto.isEmpty() || email.isEmpty() || telefono.isEmpty()) {
             usuarioModificarMisView.mostrarMensaje(mensajes.get("mensaje.usuario.modificarMis.incompleto"));
             return;
         }
@@ -214,63 +228,87 @@ public class UsuarioController {
             usuarioModificarMisView.mostrarMensaje(mensajes.get("mensaje.genero"));
             return;
         }
-        if (!nuevoUsername.equalsIgnoreCase(usernameOriginal) && usuarioDAO.buscarPorUsuario(nuevoUsername) != null) {
-            usuarioModificarMisView.mostrarMensaje(mensajes.get("mensaje.usuario.error.nombreUsado"));
-            return;
-        }
 
+        Usuario datos = new Usuario(nuevoUsername, usuarioAutentificado.getRol(), null, nombreCompleto, edad, genero, telefono, email);
+        tareas.consultar(usuarioModificarMisView,
+                () -> !nuevoUsername.equalsIgnoreCase(usernameOriginal) && usuarioDAO.buscarPorUsuario(nuevoUsername) != null,
+                nombreUsado -> {
+                    if (nombreUsado) {
+                        usuarioModificarMisView.mostrarMensaje(mensajes.get("mensaje.usuario.error.nombreUsado"));
+                    } else {
+                        confirmarMisDatos(usernameOriginal, datos, nuevaPassword);
+                    }
+                });
+    }
+
+    private void confirmarMisDatos(String usernameOriginal, Usuario datos, String nuevaPassword) {
+        String nuevoUsername = datos.getUsername();
         List<Respuesta> respuestasGuardadas = usuarioAutentificado.getRespuestasSeguridad();
         if (respuestasGuardadas == null || respuestasGuardadas.isEmpty()) {
             usuarioModificarMisView.mostrarMensaje(mensajes.get("mensaje.pregunta.recuperar.sinPreguntas"));
             usuarioTemporal = usuarioAutentificado;
+            contraseñaTemporal = null;
             preguntasView.setVisible(true);
             preguntasView.toFront();
             return;
         }
 
         Random random = new Random();
-        while (true) {
-            int indiceAleatorio = random.nextInt(respuestasGuardadas.size());
-            Respuesta preguntaAleatoria = respuestasGuardadas.get(indiceAleatorio);
-
-            JPanel panelPregunta = new JPanel(new GridLayout(2, 1, 10, 5));
-            panelPregunta.add(new JLabel(preguntaAleatoria.getPregunta().getTexto()));
-            JTextField campoRespuesta = new JTextField();
-            panelPregunta.add(campoRespuesta);
-
-            int resultado = JOptionPane.showConfirmDialog(
-                    usuarioModificarMisView,
-                    panelPregunta,
-                    mensajes.get("yesNo.app.titulo"),
-                    JOptionPane.OK_CANCEL_OPTION,
-                    JOptionPane.PLAIN_MESSAGE
-            );
-
-            if (resultado == JOptionPane.OK_OPTION) {
-                String respuestaIngresada = campoRespuesta.getText();
-                if (preguntaAleatoria.esRespuestaCorrecta(respuestaIngresada)) {
-                    if (!usernameOriginal.equalsIgnoreCase(nuevoUsername)) {
-                        usuarioDAO.eliminar(usernameOriginal);
-                    }
-                    usuarioAutentificado.setUsername(nuevoUsername);
-                    usuarioAutentificado.setPassword(nuevaPassword);
-                    usuarioAutentificado.setNombreCompleto(nombreCompleto);
-                    usuarioAutentificado.setEdad(edad);
-                    usuarioAutentificado.setGenero(genero);
-                    usuarioAutentificado.setTelefono(telefono);
-                    usuarioAutentificado.setEmail(email);
-                    usuarioDAO.crear(usuarioAutentificado);
-
-                    usuarioModificarMisView.mostrarMensaje(mensajes.get("mensaje.usuario.modificarMis.exito"));
+        int indiceAleatorio = random.nextInt(respuestasGuardadas.size());
+        Respuesta preguntaAleatoria = respuestasGuardadas.get(indiceAleatorio);
+
+        JPanel panelPregunta = new JPanel(new GridLayout(2, 1, 10, 5));
+        panelPregunta.add(new JLabel(mensajes.get(preguntaAleatoria.getPregunta().getClave())));
+        JTextField campoRespuesta = new JTextField();
+        panelPregunta.add(campoRespuesta);
+
+        int resultado = JOptionPane.showConfirmDialog(
+                usuarioModificarMisView,
+                panelPregunta,
+                mensajes.get("yesNo.app.titulo"),
+                JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE
+        );
+        if (resultado != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        String respuestaIngresada = campoRespuesta.getText();
+        tareas.consultar(usuarioModificarMisView, () -> preguntaAleatoria.esRespuestaCorrecta(respuestaIngresada), correcta -> {
+            if (!correcta) {
+                usuarioModificarMisView.mostrarMensaje(mensajes.get("mensaje.pregunta.recuperar.error"));
+                confirmarMisDatos(usernameOriginal, datos, nuevaPassword);
+                return;
+            }
+            tareas.modificar(() -> {
+                if (!usernameOriginal.equals(nuevoUsername)
+                        && !usuarioDAO.renombrar(usernameOriginal, nuevoUsername, carritoDAO)) {
+                    return null;
+                }
+                Usuario guardado = usuarioDAO.buscarPorUsuario(nuevoUsername);
+                if (guardado == null) {
+                    return null;
+                }
+                Usuario usuario = guardado.copia();
+                usuario.setNombreCompleto(datos.getNombreCompleto());
+                usuario.setEdad(datos.getEdad());
+                usuario.setGenero(datos.getGenero());
+                usuario.setTelefono(datos.getTelefono());
+                usuario.setEmail(datos.getEmail());
+                if (!nuevaPassword.isEmpty()) {
+                    usuario.setPassword(nuevaPassword);
+                }
+                usuarioDAO.actualizar(usuario);
+                return usuario;
+            }, usuario -> {
+                usuarioModificarMisView.mostrarMensaje(mensajes.get(usuario != null
+                        ? "mensaje.usuario.modificarMis.exito" : "mensaje.usuario.error.nombreUsado"));
+                if (usuario != null) {
+                    usuarioAutentificado = usuario;
                     usuarioModificarMisView.dispose();
-                    break;
-                } else {
-                    usuarioModificarMisView.mostrarMensaje(mensajes.get("mensaje.pregunta.recuperar.error"));
                 }
-            } else {
-                break;
-            }
-        }
+            });
+        });
     }
 
 
@@ -278,15 +316,17 @@ public class UsuarioController {
         String username = logInView.getTxtUsername().getText();
         String contraseña = new String(logInView.getPsfContraseña().getPassword());
 
-        usuarioAutentificado = usuarioDAO.autenticar(username, contraseña);
-        if (usuarioAutentificado == null) {
-            logInView.mostrarMensaje(mensajes.get("mensaje.usuario.login.error"));
-        } else {
-            logInView.dispose();
-            Sonido sonido = new Sonido();
-            sonido.cargarSonido("/sonidoInicio.wav");
-            sonido.reproducir();
-        }
+        tareas.consultar(logInView, () -> usuarioDAO.autenticar(username, contraseña), usuario -> {
+            usuarioAutentificado = usuario;
+            if (usuarioAutentificado == null) {
+                logInView.mostrarMensaje(mensajes.get("mensaje.usuario.login.error"));
+            } else {
+                logInView.dispose();
+                Sonido sonido = new Sonido();
+                sonido.cargarSonido("/sonidoInicio.wav");
+                sonido.reproducir();
+            }
+        });
     }
 
     private void guardarUsuarioConPreguntas() {
@@ -298,25 +338,56 @@ public class UsuarioController {
             return;
         }
 
+        Usuario usuario = usuarioTemporal;
+        String contraseña = contraseñaTemporal;
+        preguntasView.dispose();
+        this.usuarioTemporal = null;
+        this.contraseñaTemporal = null;
+        if (usuario != usuarioAutentificado) {
+            logInView.setVisible(true);
+        }
+        // El usuario en sesion y el que recupera su contraseña sin tener preguntas ya estan guardados: solo se les
+        // agregan las respuestas. crearSiNoExiste queda para los registros nuevos.
+        if (usuario == usuarioAutentificado || usuario == usuarioEnRecuperacion) {
+            tareas.modificar(() -> {
+                Usuario cambiado = usuario.copia();
+                asignarRespuestas(cambiado, respuestasTexto);
+                usuarioDAO.actualizar(cambiado);
+                return cambiado;
+            }, cambiado -> {
+                if (usuarioAutentificado == usuario) {
+                    usuarioAutentificado = cambiado;
+                }
+                if (usuarioEnRecuperacion == usuario) {
+                    usuarioEnRecuperacion = cambiado;
+                }
+                JOptionPane.showMessageDialog(logInView, mensajes.get("mensaje.pregunta.guardadas"));
+            });
+            return;
+        }
+        tareas.modificar(() -> {
+            usuario.setPassword(contraseña);
+            asignarRespuestas(usuario, respuestasTexto);
+            return usuarioDAO.crearSiNoExiste(usuario);
+        }, creado -> {
+            if (creado) {
+                registrarseView.limpiarCampos();
+            }
+            JOptionPane.showMessageDialog(logInView,
+                    mensajes.get(creado ? "mensaje.usuario.registrado" : "mensaje.usuario.error.nombreUsado"));
+        });
+    }
+
+    /**
+     * Cada respuesta se guarda como hash PBKDF2, asi que esto corre dentro de la tarea y nunca en el hilo de eventos.
+     */
+    private static void asignarRespuestas(Usuario usuario, List<String> respuestasTexto) {
         for (int i = 0; i < respuestasTexto.size(); i++) {
             String respuesta = respuestasTexto.get(i);
             if (respuesta != null && !respuesta.trim().isEmpty()) {
-                int preguntaId = i + 1;
-                String textoPregunta = mensajes.get("pregunta.seguridad." + preguntaId);
-                Pregunta pregunta = new Pregunta(preguntaId, textoPregunta);
-                usuarioTemporal.addRespuesta(pregunta, respuesta);
+                usuario.addRespuesta(Pregunta.todas().get(i), respuesta);
             }
         }
-
-        usuarioDAO.crear(usuarioTemporal);
-
-        JOptionPane.showMessageDialog(preguntasView, mensajes.get("mensaje.usuario.registrado"));
-        preguntasView.dispose();
-        registrarseView.limpiarCampos();
-        if (usuarioTemporal != usuarioAutentificado) {
-            logInView.setVisible(true);
-            this.usuarioTemporal = null;
-        }
     }
 
     private void procesarDatosDeRegistro() {
@@ -342,15 +413,18 @@ public class UsuarioController {
             registrarseView.mostrarMensaje(mensajes.get("mensaje.register.contraseñaRepetida"));
             return;
         }
-        if (usuarioDAO.buscarPorUsuario(username) != null) {
-            registrarseView.mostrarMensaje(mensajes.get("mensaje.usuario.error.nombreUsado"));
-            return;
-        }
+        tareas.consultar(registrarseView, () -> usuarioDAO.buscarPorUsuario(username) != null, nombreUsado -> {
+            if (nombreUsado) {
+                registrarseView.mostrarMensaje(mensajes.get("mensaje.usuario.error.nombreUsado"));
+                return;
+            }
 
-        this.usuarioTemporal = new Usuario(username, Rol.USUARIO, contraseña, nombreCompleto, edad, genero, telefono, email);
+            this.usuarioTemporal = new Usuario(username, Rol.USUARIO, null, nombreCompleto, edad, genero, telefono, email);
+            this.contraseñaTemporal = contraseña;
 
-        preguntasView.setVisible(true);
-        registrarseView.setVisible(false);
+            preguntasView.setVisible(true);
+            registrarseView.setVisible(false);
+        });
     }
 
 
@@ -359,23 +433,20 @@ public class UsuarioController {
         String contraseña = usuarioCrearView.getTxtContraseña().getText().trim();
         Rol rolSeleccionado = (Rol) usuarioCrearView.getCbxRoles().getSelectedItem();
 
-        if (username.isEmpty() || contraseña.isEmpty()) {
-            usuarioCrearView.mostrarMensaje(mensajes.get("mensaje.usuario.error.camposVacios"));
-            return;
-        }
-        if (rolSeleccionado == null) {
-            usuarioCrearView.mostrarMensaje(mensajes.get("mensaje.usuario.error.rolNoSeleccionado"));
-            return;
-        }
-        if (usuarioDAO.buscarPorUsuario(username) != null) {
-            usuarioCrearView.mostrarMensaje(mensajes.get("mensaje.usuario.error.nombreUsado"));
+        String error = Validaciones.validarUsuario(username, contraseña, rolSeleccionado);
+        if (error != null) {
+            usuarioCrearView.mostrarMensaje(mensajes.get(error));
             return;
         }
 
-        Usuario nuevoUsuario = new Usuario(username, rolSeleccionado, contraseña, null, 0, null, null, null);
-        usuarioDAO.crear(nuevoUsuario);
-        usuarioCrearView.mostrarMensaje(mensajes.get("mensaje.usuario.creado"));
-        usuarioCrearView.limpiarCampos();
+        tareas.modificar(() -> usuarioDAO.crearSiNoExiste(new Usuario(username, rolSeleccionado, contraseña, null, 0, null, null, null)), creado -> {
+            if (creado) {
+                usuarioCrearView.mostrarMensaje(mensajes.get("mensaje.usuario.creado"));
+                usuarioCrearView.limpiarCampos();
+            } else {
+                usuarioCrearView.mostrarMensaje(mensajes.get("mensaje.usuario.error.nombreUsado"));
+            }
+        });
     }
 
     private void buscarUsuarioParaModificar() {
@@ -384,18 +455,19 @@ public class UsuarioController {
             usuarioModificarView.mostrarMensaje(mensajes.get("mensaje.usuario.buscar.vacio"));
             return;
         }
-        Usuario usuario = usuarioDAO.buscarPorUsuario(username);
-        if (usuario == null) {
-            usuarioModificarView.mostrarMensaje(mensajes.get("mensaje.usuario.buscar.noEncontrado"));
-            return;
-        }
-        usuarioModificarView.getTxtContraseña().setText(usuario.getPassword());
-        usuarioModificarView.getCbxRoles().setSelectedItem(usuario.getRol());
-        usuarioModificarView.getTxtUsuario().setEditable(false);
-        usuarioModificarView.getBtnBuscar().setEnabled(false);
-        usuarioModificarView.getTxtContraseña().setEnabled(true);
-        usuarioModificarView.getCbxRoles().setEnabled(true);
-        usuarioModificarView.getBtnModificar().setEnabled(true);
+        tareas.consultar(usuarioModificarView, () -> usuarioDAO.buscarPorUsuario(username), usuario -> {
+            if (usuario == null) {
+                usuarioModificarView.mostrarMensaje(mensajes.get("mensaje.usuario.buscar.noEncontrado"));
+                return;
+            }
+            usuarioModificarView.getTxtContraseña().setText("");
+            usuarioModificarView.getCbxRoles().setSelectedItem(usuario.getRol());
+            usuarioModificarView.getTxtUsuario().setEditable(false);
+            usuarioModificarView.getBtnBuscar().setEnabled(false);
+            usuarioModificarView.getTxtContraseña().setEnabled(true);
+            usuarioModificarView.getCbxRoles().setEnabled(true);
+            usuarioModificarView.getBtnModificar().setEnabled(true);
+        });
     }
 
     private void modificarUsuario() {
@@ -403,26 +475,30 @@ public class UsuarioController {
         String nuevaContraseña = usuarioModificarView.getTxtContraseña().getText();
         Rol nuevoRol = (Rol) usuarioModificarView.getCbxRoles().getSelectedItem();
 
-        if (nuevaContraseña.isEmpty()) {
-            usuarioModificarView.mostrarMensaje(mensajes.get("mensaje.usuario.modificar.vacio"));
-            return;
-        }
-
         int respuesta = JOptionPane.showConfirmDialog(usuarioModificarView,
                 mensajes.get("yesNo.usuario.modificar"), mensajes.get("yesNo.app.titulo"), JOptionPane.YES_NO_OPTION);
 
         if (respuesta == JOptionPane.YES_OPTION) {
-            Usuario usuario = usuarioDAO.buscarPorUsuario(username);
-            if (usuario == null) {
-                usuarioModificarView.mostrarMensaje(mensajes.get("mensaje.usuario.modificar.noExiste"));
+            tareas.modificar(() -> {
+                Usuario guardado = usuarioDAO.buscarPorUsuario(username);
+                if (guardado == null) {
+                    return null;
+                }
+                Usuario usuario = guardado.copia();
+                if (!nuevaContraseña.isEmpty()) {
+                    usuario.setPassword(nuevaContraseña);
+                }
+                usuario.setRol(nuevoRol);
+                usuarioDAO.actualizar(usuario);
+                return usuario;
+            }, usuario -> {
+                if (usuario != null && usuario.equals(usuarioAutentificado)) {
+                    usuarioAutentificado = usuario;
+                }
                 usuarioModificarView.limpiarCampos();
-                return;
-            }
-            usuario.setPassword(nuevaContraseña);
-            usuario.setRol(nuevoRol);
-            usuarioDAO.actualizar(usuario);
-            usuarioModificarView.mostrarMensaje(mensajes.get("mensaje.usuario.modificarMis.exito"));
-            usuarioModificarView.limpiarCampos();
+                usuarioModificarView.mostrarMensaje(mensajes.get(usuario != null
+                        ? "mensaje.usuario.modificarMis.exito" : "mensaje.usuario.modificar.noExiste"));
+            });
         }
     }
 
@@ -432,16 +508,16 @@ public class UsuarioController {
             usuarioEliminarView.mostrarMensaje(mensajes.get("mensaje.usuario.buscar.vacio"));
             return;
         }
-        Usuario usuario = usuarioDAO.buscarPorUsuario(username);
-        if (usuario == null) {
-            usuarioEliminarView.mostrarMensaje(mensajes.get("mensaje.usuario.buscar.noEncontrado"));
-            return;
-        }
-        usuarioEliminarView.getTxtContraseña().setText(usuario.getPassword());
-        usuarioEliminarView.getTxtRol().setText(usuario.getRol() == Rol.ADMINISTRADOR ? mensajes.get("global.rol.admin") : mensajes.get("global.rol.user"));
-        usuarioEliminarView.getTxtUsuario().setEditable(false);
-        usuarioEliminarView.getBtnBuscar().setEnabled(false);
-        usuarioEliminarView.getBtnEliminar().setEnabled(true);
+        tareas.consultar(usuarioEliminarView, () -> usuarioDAO.buscarPorUsuario(username), usuario -> {
+            if (usuario == null) {
+                usuarioEliminarView.mostrarMensaje(mensajes.get("mensaje.usuario.buscar.noEncontrado"));
+                return;
+            }
+            usuarioEliminarView.getTxtRol().setText(usuario.getRol() == Rol.ADMINISTRADOR ? mensajes.get("global.rol.admin") : mensajes.get("global.rol.user"));
+            usuarioEliminarView.getTxtUsuario().setEditable(false);
+            usuarioEliminarView.getBtnBuscar().setEnabled(false);
+            usuarioEliminarView.getBtnEliminar().setEnabled(true);
+        });
     }
 
     private void eliminarUsuario() {
@@ -450,18 +526,22 @@ public class UsuarioController {
                 mensajes.get("yesNo.usuario.eliminar"), mensajes.get("yesNo.app.titulo"), JOptionPane.YES_NO_OPTION);
 
         if (respuesta == JOptionPane.YES_OPTION) {
-            if (usuarioDAO.buscarPorUsuario(username) == null) {
-                usuarioEliminarView.mostrarMensaje(mensajes.get("mensaje.usuario.eliminar.noExiste"));
-            } else {
+            tareas.modificar(() -> {
+                if (usuarioDAO.buscarPorUsuario(username) == null) {
+                    return false;
+                }
                 usuarioDAO.eliminar(username);
-                usuarioEliminarView.mostrarMensaje(mensajes.get("mensaje.usuario.eliminar.exito"));
-            }
-            usuarioEliminarView.limpiarCampos();
+                return true;
+            }, eliminado -> {
+                usuarioEliminarView.limpiarCampos();
+                usuarioEliminarView.mostrarMensaje(mensajes.get(eliminado
+                        ? "mensaje.usuario.eliminar.exito" : "mensaje.usuario.eliminar.noExiste"));
+            });
         }
     }
 
     private void listarTodosLosUsuarios() {
-        usuarioListarView.mostrarUsuarios(usuarioDAO.listarUsuarios());
+        tareas.consultar(usuarioListarView, usuarioDAO::listarUsuarios, usuarioListarView::mostrarUsuarios);
     }
 
     private void buscarUsuarioPorUsername() {
@@ -470,15 +550,16 @@ public class UsuarioController {
             usuarioListarView.mostrarMensaje(mensajes.get("mensaje.usuario.buscarUsername.vacio"));
             return;
         }
-        Usuario usuario = usuarioDAO.buscarPorUsuario(username);
-        if (usuario != null) {
-            List<Usuario> lista = new ArrayList<>();
-            lista.add(usuario);
-            usuarioListarView.mostrarUsuarios(lista);
-        } else {
-            usuarioListarView.mostrarUsuarios(new ArrayList<>());
-            usuarioListarView.mostrarMensaje(mensajes.get("mensaje.usuario.buscarUsername.noEncontrado"));
-        }
+        tareas.consultar(usuarioListarView, () -> usuarioDAO.buscarPorUsuario(username), usuario -> {
+            if (usuario != null) {
+                List<Usuario> lista = new ArrayList<>();
+                lista.add(usuario);
+                usuarioListarView.mostrarUsuarios(lista);
+            } else {
+                usuarioListarView.mostrarUsuarios(new ArrayList<>());
+                usuarioListarView.mostrarMensaje(mensajes.get("mensaje.usuario.buscarUsername.noEncontrado"));
+            }
+        });
     }
 
 
@@ -487,7 +568,7 @@ public class UsuarioController {
             usuarioModificarMisView.getTxtUsuario().setText(usuarioAutentificado.getUsername());
             usuarioModificarMisView.getTxtUsuario().setEditable(true);
             usuarioModificarMisView.getBtnModificar().setEnabled(true);
-            usuarioModificarMisView.getTxtContraseña().setText(usuarioAutentificado.getPassword());
+            usuarioModificarMisView.getTxtContraseña().setText("");
             usuarioModificarMisView.getSprEdad().setModel(new SpinnerNumberModel(usuarioAutentificado.getEdad(), 18, 120, 1));
             usuarioModificarMisView.getCbxGenero().setSelectedItem(usuarioAutentificado.getGenero());
             usuarioModificarMisView.getTxtTelefono().setText(usuarioAutentificado.getTelefono());
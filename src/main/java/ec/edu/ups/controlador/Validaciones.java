@@ -0,0 +1,58 @@
+package ec.edu.ups.controlador;
+
+import ec.edu.ups.dao.CarritoDAO;
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Credenciales;
+
+/**
+ * Reglas que comparten los controladores de Swing y el servidor HTTP. Cada validacion devuelve la clave del mensaje
+ * de error, o {@code null} si el dato es valido.
+ */
+public final class Validaciones {
+
+    public static final String CODIGO_INVALIDO = "mensaje.carrito.codigoInvalido";
+    public static final String PRODUCTO_NO_ENCONTRADO = "mensaje.noEncontrado";
+    public static final String CARRITO_NO_ENCONTRADO = "mensaje.carrito.noEncontrado";
+    public static final String HASH_INVALIDO = "mensaje.usuario.error.hashInvalido";
+
+    private Validaciones() {
+    }
+
+    public static String validarProducto(String nombre) {
+        return nombre == null || nombre.trim().isEmpty() ? "mensaje.usuario.error.camposVacios" : null;
+    }
+
+    /**
+     * {@code password} puede ser texto plano o un hash {@code pbkdf2$...} ya calculado (importaciones); en ese caso
+     * tiene que estar completo y con un costo aceptable, porque se guarda tal cual.
+     */
+    public static String validarUsuario(String username, String password, Rol rol) {
+        if (username == null || username.trim().isEmpty() || password == null || password.trim().isEmpty()) {
+            return "mensaje.usuario.error.camposVacios";
+        }
+        if (Credenciales.esHash(password) && !Credenciales.esHashValido(password)) {
+            return HASH_INVALIDO;
+        }
+        return rol == null ? "mensaje.usuario.error.rolNoSeleccionado" : null;
+    }
+
+    public static String validarCantidad(int cantidad) {
+        return cantidad <= 0 ? "mensaje.carrito.cantidadInvalida" : null;
+    }
+
+    public static String validarCarrito(Carrito carrito) {
+        return carrito.obtenerItems().isEmpty() ? "mensaje.carrito.vacio" : null;
+    }
+
+    /**
+     * Un administrador ve cualquier carrito; un usuario solo los suyos.
+     */
+    public static Carrito carritoVisible(CarritoDAO carritoDAO, int codigo, Usuario usuario) {
+        if (usuario.getRol() == Rol.ADMINISTRADOR) {
+            return carritoDAO.buscarPorCodigo(codigo);
+        }
+        return carritoDAO.buscarPorCodigoYUsuario(codigo, usuario);
+    }
+}
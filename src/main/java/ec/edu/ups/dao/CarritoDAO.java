@@ -2,8 +2,11 @@ package ec.edu.ups.dao;
 
 import ec.edu.ups.modelo.Carrito;
 import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Paginacion;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CarritoDAO {
     void crear(Carrito carrito);
@@ -11,6 +14,35 @@ public interface CarritoDAO {
     void eliminar(int codigo);
     Carrito buscarPorCodigo(int codigo);
     List<Carrito> listarTodos();
+
+    /**
+     * Cuantos carritos hay, sin armar ninguna lista.
+     */
+    int contar();
+
+    /**
+     * Hasta {@code limite} carritos con codigo mayor que {@code despuesDeCodigo}, ordenados por codigo.
+     * Para la primera pagina se usa {@link Integer#MIN_VALUE}.
+     */
+    List<Carrito> listarPagina(int despuesDeCodigo, int limite);
+
+    default Stream<Carrito> flujo() {
+        return Paginacion.flujo(Integer.MIN_VALUE, despuesDe -> listarPagina(despuesDe, Paginacion.TAMAÑO_PAGINA),
+                Carrito::getCodigo);
+    }
     List<Carrito> buscarPorUsuario(Usuario usuario);
+
+    /**
+     * Carritos con fecha desde {@code desde} (incluida) hasta {@code hasta} (excluida), ordenados por fecha y luego
+     * por codigo. Los carritos sin fecha no aparecen.
+     */
+    List<Carrito> buscarPorFecha(Instant desde, Instant hasta);
+
+    /**
+     * Cuantos carritos devolveria {@link #buscarPorFecha}, sin armar la lista.
+     */
+    int contarPorFecha(Instant desde, Instant hasta);
     Carrito buscarPorCodigoYUsuario(int codigo, Usuario usuario);
+    void renombrarUsuario(String usernameAnterior, String usernameNuevo);
+    void restaurar(Carrito carrito);
 }
@@ -1,21 +1,52 @@
 package ec.edu.ups.dao;
 
 import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.util.Paginacion;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductoDAO {
 
     void crear(Producto producto);
 
+    /**
+     * Alta en bloque, como en una importacion: los codigos que ya existen se actualizan. Las implementaciones
+     * persistentes anotan todo el bloque como un solo cambio.
+     */
+    default void crearTodos(List<Producto> productos) {
+        for (Producto producto : productos) {
+            if (buscarPorCodigo(producto.getCodigo()) != null) {
+                actualizar(producto);
+            } else {
+                crear(producto);
+            }
+        }
+    }
+
     Producto buscarPorCodigo(int codigo);
 
     List<Producto> buscarPorNombre(String nombre);
 
+    List<Producto> buscarPorPrefijo(String prefijo);
+
+    List<Producto> buscarPorSubcadena(String texto);
+
     void actualizar(Producto producto);
 
     void eliminar(int codigo);
 
     List<Producto> listarTodos();
 
+    /**
+     * Hasta {@code limite} productos con codigo mayor que {@code despuesDeCodigo}, ordenados por codigo.
+     * Para la primera pagina se usa {@link Integer#MIN_VALUE}.
+     */
+    List<Producto> listarPagina(int despuesDeCodigo, int limite);
+
+    default Stream<Producto> flujo() {
+        return Paginacion.flujo(Integer.MIN_VALUE, despuesDe -> listarPagina(despuesDe, Paginacion.TAMAÑO_PAGINA),
+                Producto::getCodigo);
+    }
+
 }
@@ -1,21 +1,88 @@
 package ec.edu.ups.dao;
 
+import ec.edu.ups.modelo.Genero;
 import ec.edu.ups.modelo.Rol;
 import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Paginacion;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface UsuarioDAO {
     Usuario autenticar(String username, String password);
 
     void crear(Usuario usuario);
 
+    /**
+     * Crea el usuario solo si el username no esta tomado; devuelve {@code false} si ya existia. Las
+     * implementaciones concurrentes lo hacen en un solo paso atomico.
+     */
+    default boolean crearSiNoExiste(Usuario usuario) {
+        if (buscarPorUsuario(usuario.getUsername()) != null) {
+            return false;
+        }
+        crear(usuario);
+        return true;
+    }
+
+    /**
+     * Alta en bloque con {@link #crearSiNoExiste} para cada usuario, de modo que una importacion nunca pisa una
+     * cuenta existente; devuelve cuantos se crearon. Las implementaciones persistentes anotan el bloque como un
+     * solo cambio.
+     */
+    default int crearTodos(List<Usuario> usuarios) {
+        int creados = 0;
+        for (Usuario usuario : usuarios) {
+            if (crearSiNoExiste(usuario)) {
+                creados++;
+            }
+        }
+        return creados;
+    }
+
+    /**
+     * Crea las cuentas de ejemplo ("admin" y "usuario", clave 12345) si no hay ningun usuario. Se llama al arrancar,
+     * despues de cargar lo guardado: los constructores no las crean porque cada hash PBKDF2 cuesta cientos de
+     * milisegundos y solo hacen falta la primera vez.
+     */
+    default void crearCuentasIniciales() {
+        if (listarPagina(null, 1).isEmpty()) {
+            crearTodos(List.of(
+                    new Usuario("admin", Rol.ADMINISTRADOR, "12345", "Lars Einar", 18, Genero.MASCULINO, "0995421872", "lars@gmail.com"),
+                    new Usuario("usuario", Rol.USUARIO, "12345", "Lars Einar", 18, Genero.MASCULINO, "0995421872", "lars@gmail.com")));
+        }
+    }
+
     Usuario buscarPorUsuario(String username);
 
     void eliminar(String username);
 
     void actualizar(Usuario usuario);
 
+    /**
+     * Cambia el username de un usuario existente en un solo paso, sin darlo de baja, y mueve sus carritos en
+     * {@code carritoDAO} al nuevo nombre. Devuelve {@code false} si el usuario no existe o el nuevo nombre ya
+     * esta tomado. {@code carritoDAO} puede ser {@code null} cuando los carritos se renombran por su cuenta, como
+     * al reproducir una bitacora.
+     */
+    boolean renombrar(String usernameAnterior, String usernameNuevo, CarritoDAO carritoDAO);
+
+    /**
+     * Usuario que se llamaba {@code usernameAnterior} antes de un renombre, o {@code null}. Sirve a los almacenes
+     * que guardan el dueño por username, como los carritos, para reconocer lo que escribieron antes del renombre.
+     */
+    default Usuario buscarRenombrado(String usernameAnterior) {
+        return null;
+    }
+
+    /**
+     * Avisa que esos renombres (nombre anterior al nuevo) ya quedaron en disco con el nombre nuevo en el almacen que
+     * los consultaba, asi que {@link #buscarRenombrado} puede olvidarlos.
+     */
+    default void olvidarRenombres(Map<String, String> renombres) {
+    }
+
     List<Usuario> listarAdministradores();
 
     List<Usuario> listarUsuarios();
@@ -23,4 +90,16 @@ public interface UsuarioDAO {
     List<Usuario> listarRol(Rol rol);
 
     List<Usuario> listarTodos();
+
+    /**
+     * Hasta {@code limite} usuarios con username mayor que {@code despuesDeUsername}, ordenados por username (o por
+     * su forma en minusculas, si la implementacion no distingue mayusculas). Para la primera pagina se usa
+     * {@code null}.
+     */
+    List<Usuario> listarPagina(String despuesDeUsername, int limite);
+
+    default Stream<Usuario> flujo() {
+        return Paginacion.flujo(null, despuesDe -> listarPagina(despuesDe, Paginacion.TAMAÑO_PAGINA),
+                Usuario::getUsername);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,224 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.dao.CarritoDAO;
+import ec.edu.ups.dao.UsuarioDAO;
+import ec.edu.ups.dao.persistencia.AlmacenPersistente;
+import ec.edu.ups.dao.persistencia.BitacoraEscritura;
+import ec.edu.ups.dao.persistencia.CodificadorBinario;
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Usuario;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CarritoDAOArchivo extends AlmacenPersistente implements CarritoDAO {
+
+    private static final byte CREAR = 1;
+    private static final byte ACTUALIZAR = 2;
+    private static final byte ELIMINAR = 3;
+    private static final byte RENOMBRAR = 4;
+
+    private final CarritoDAO delegado;
+    private final UsuarioDAO usuarioDAO;
+    /**
+     * Renombres ya aplicados aqui, del nombre anterior al nuevo. Cuando una instantanea los incluye se avisa a
+     * {@link UsuarioDAO#olvidarRenombres} para que el usuario deje de recordarlos.
+     */
+    private final Map<String, String> renombresAplicados = new ConcurrentHashMap<>();
+    private Map<String, String> renombresEnInstantanea = Map.of();
+    private int proximoCodigo = 1;
+
+    public CarritoDAOArchivo(Path directorio, CarritoDAO delegado, UsuarioDAO usuarioDAO) throws IOException {
+        this(directorio, delegado, usuarioDAO, BitacoraEscritura.Durabilidad.SINCRONA);
+    }
+
+    public CarritoDAOArchivo(Path directorio, CarritoDAO delegado, UsuarioDAO usuarioDAO,
+                             BitacoraEscritura.Durabilidad durabilidad) throws IOException {
+        super(directorio, "carritos", durabilidad);
+        this.delegado = delegado;
+        this.usuarioDAO = usuarioDAO;
+        abrir();
+    }
+
+    @Override
+    public void crear(Carrito carrito) {
+        registrar(() -> {
+            carrito.setCodigo(proximoCodigo++);
+            return true;
+        }, salida -> {
+            salida.writeByte(CREAR);
+            CodificadorBinario.escribirCarrito(salida, carrito);
+        }, () -> delegado.restaurar(carrito));
+    }
+
+    @Override
+    public void actualizar(Carrito carrito) {
+        registrar(salida -> {
+            salida.writeByte(ACTUALIZAR);
+            CodificadorBinario.escribirCarrito(salida, carrito);
+        }, () -> delegado.actualizar(carrito));
+    }
+
+    @Override
+    public void eliminar(int codigo) {
+        registrar(salida -> {
+            salida.writeByte(ELIMINAR);
+            salida.writeInt(codigo);
+        }, () -> delegado.eliminar(codigo));
+    }
+
+    @Override
+    public Carrito buscarPorCodigo(int codigo) {
+        return delegado.buscarPorCodigo(codigo);
+    }
+
+    @Override
+    public List<Carrito> listarTodos() {
+        return delegado.listarTodos();
+    }
+
+    @Override
+    public int contar() {
+        return delegado.contar();
+    }
+
+    @Override
+    public List<Carrito> listarPagina(int despuesDeCodigo, int limite) {
+        return delegado.listarPagina(despuesDeCodigo, limite);
+    }
+
+    @Override
+    public List<Carrito> buscarPorUsuario(Usuario usuario) {
+        return delegado.buscarPorUsuario(usuario);
+    }
+
+    @Override
+    public List<Carrito> buscarPorFecha(Instant desde, Instant hasta) {
+        return delegado.buscarPorFecha(desde, hasta);
+    }
+
+    @Override
+    public int contarPorFecha(Instant desde, Instant hasta) {
+        return delegado.contarPorFecha(desde, hasta);
+    }
+
+    @Override
+    public Carrito buscarPorCodigoYUsuario(int codigo, Usuario usuario) {
+        return delegado.buscarPorCodigoYUsuario(codigo, usuario);
+    }
+
+    @Override
+    public void renombrarUsuario(String usernameAnterior, String usernameNuevo) {
+        registrar(salida -> {
+            salida.writeByte(RENOMBRAR);
+            CodificadorBinario.escribirTexto(salida, usernameAnterior);
+            CodificadorBinario.escribirTexto(salida, usernameNuevo);
+        }, () -> {
+            delegado.renombrarUsuario(usernameAnterior, usernameNuevo);
+            renombresAplicados.put(usernameAnterior, usernameNuevo);
+        });
+    }
+
+    /**
+     * Sincronizado para que los renombres que se avisan sean los de la instantanea que este llamado dejo en disco.
+     */
+    @Override
+    public synchronized void compactar() throws IOException {
+        super.compactar();
+        Map<String, String> olvidables = renombresEnInstantanea;
+        renombresEnInstantanea = Map.of();
+        if (!olvidables.isEmpty()) {
+            usuarioDAO.olvidarRenombres(olvidables);
+            olvidables.forEach(renombresAplicados::remove);
+        }
+    }
+
+    @Override
+    public void restaurar(Carrito carrito) {
+        registrar(() -> {
+            anotarCodigo(carrito.getCodigo());
+            return true;
+        }, salida -> {
+            salida.writeByte(CREAR);
+            CodificadorBinario.escribirCarrito(salida, carrito);
+        }, () -> delegado.restaurar(carrito));
+    }
+
+    /**
+     * El codigo se asigna aqui y no en el delegado, porque el registro debe llevarlo antes de aplicarse el alta.
+     */
+    private void anotarCodigo(int codigo) {
+        proximoCodigo = Math.max(proximoCodigo, codigo + 1);
+    }
+
+    @Override
+    protected void limpiarEstado() {
+        for (Carrito carrito : delegado.listarTodos()) {
+            delegado.eliminar(carrito.getCodigo());
+        }
+    }
+
+    @Override
+    protected void escribirInstantanea(DataOutputStream salida) throws IOException {
+        renombresEnInstantanea = new HashMap<>(renombresAplicados);
+        List<Carrito> carritos = delegado.listarTodos();
+        salida.writeInt(carritos.size());
+        for (Carrito carrito : carritos) {
+            CodificadorBinario.escribirCarrito(salida, carrito);
+        }
+    }
+
+    @Override
+    protected void leerInstantanea(DataInputStream entrada) throws IOException {
+        int cantidad = entrada.readInt();
+        for (int i = 0; i < cantidad; i++) {
+            Carrito carrito = CodificadorBinario.leerCarrito(entrada, this::resolverUsuario);
+            anotarCodigo(carrito.getCodigo());
+            delegado.restaurar(carrito);
+        }
+    }
+
+    @Override
+    protected void aplicar(DataInputStream registro) throws IOException {
+        byte tipo = registro.readByte();
+        switch (tipo) {
+            case CREAR:
+                Carrito carrito = CodificadorBinario.leerCarrito(registro, this::resolverUsuario);
+                anotarCodigo(carrito.getCodigo());
+                delegado.restaurar(carrito);
+                break;
+            case ACTUALIZAR:
+                delegado.actualizar(CodificadorBinario.leerCarrito(registro, this::resolverUsuario));
+                break;
+            case ELIMINAR:
+                delegado.eliminar(registro.readInt());
+                break;
+            case RENOMBRAR:
+                String usernameAnterior = CodificadorBinario.leerTexto(registro);
+                String usernameNuevo = CodificadorBinario.leerTexto(registro);
+                delegado.renombrarUsuario(usernameAnterior, usernameNuevo);
+                renombresAplicados.put(usernameAnterior, usernameNuevo);
+                break;
+            default:
+                throw new IOException("Registro de carrito desconocido: " + tipo);
+        }
+    }
+
+    private Usuario resolverUsuario(String username) {
+        Usuario usuario = usuarioDAO.buscarPorUsuario(username);
+        if (usuario == null) {
+            usuario = usuarioDAO.buscarRenombrado(username);
+            if (usuario != null) {
+                renombresAplicados.put(username, usuario.getUsername());
+            }
+        }
+        return usuario != null ? usuario : new Usuario(username, null, null, null, 0, null, null, null);
+    }
+}
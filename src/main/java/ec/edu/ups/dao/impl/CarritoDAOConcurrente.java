@@ -0,0 +1,228 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.dao.CarritoDAO;
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.BloqueosSegmentados;
+import ec.edu.ups.util.Paginacion;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class CarritoDAOConcurrente implements CarritoDAO {
+
+    private static final Comparator<Carrito> POR_CODIGO = Comparator.comparingInt(Carrito::getCodigo);
+
+    private final ConcurrentSkipListMap<Integer, Carrito> carritos;
+    private final ConcurrentMap<Integer, String> usuarioPorCarrito;
+    private final ConcurrentMap<String, Map<Integer, Carrito>> carritosPorUsuario;
+    private final ConcurrentMap<Integer, ClaveFecha> fechaPorCarrito;
+    private final ConcurrentSkipListMap<ClaveFecha, Carrito> carritosPorFecha;
+    private final BloqueosSegmentados bloqueos;
+    private final AtomicInteger proximoCodigo;
+    private final AtomicInteger cantidad;
+
+    public CarritoDAOConcurrente() {
+        this.carritos = new ConcurrentSkipListMap<>();
+        this.usuarioPorCarrito = new ConcurrentHashMap<>();
+        this.carritosPorUsuario = new ConcurrentHashMap<>();
+        this.fechaPorCarrito = new ConcurrentHashMap<>();
+        this.carritosPorFecha = new ConcurrentSkipListMap<>();
+        this.bloqueos = new BloqueosSegmentados();
+        this.proximoCodigo = new AtomicInteger(1);
+        this.cantidad = new AtomicInteger();
+    }
+
+    @Override
+    public void crear(Carrito carrito) {
+        int codigo = proximoCodigo.getAndIncrement();
+        ReentrantLock bloqueo = bloqueos.para(codigo);
+        bloqueo.lock();
+        try {
+            carrito.setCodigo(codigo);
+            if (carritos.put(codigo, carrito) == null) {
+                cantidad.incrementAndGet();
+            }
+            indexar(carrito);
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    @Override
+    public void actualizar(Carrito carrito) {
+        ReentrantLock bloqueo = bloqueos.para(carrito.getCodigo());
+        bloqueo.lock();
+        try {
+            if (carritos.replace(carrito.getCodigo(), carrito) != null) {
+                desindexar(carrito.getCodigo());
+                indexar(carrito);
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    @Override
+    public void eliminar(int codigo) {
+        ReentrantLock bloqueo = bloqueos.para(codigo);
+        bloqueo.lock();
+        try {
+            if (carritos.remove(codigo) != null) {
+                cantidad.decrementAndGet();
+                desindexar(codigo);
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    @Override
+    public Carrito buscarPorCodigo(int codigo) {
+        return carritos.get(codigo);
+    }
+
+    @Override
+    public List<Carrito> listarTodos() {
+        return new ArrayList<>(carritos.values());
+    }
+
+    /**
+     * {@link ConcurrentSkipListMap#size()} recorre todo el mapa; el total se lleva aparte.
+     */
+    @Override
+    public int contar() {
+        return cantidad.get();
+    }
+
+    @Override
+    public List<Carrito> listarPagina(int despuesDeCodigo, int limite) {
+        return Paginacion.pagina(carritos, despuesDeCodigo, limite);
+    }
+
+    @Override
+    public List<Carrito> buscarPorUsuario(Usuario usuario) {
+        if (usuario == null) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Carrito> delUsuario = carritosPorUsuario.get(usuario.getUsername());
+        if (delUsuario == null) {
+            return new ArrayList<>();
+        }
+        List<Carrito> lista = new ArrayList<>(delUsuario.values());
+        lista.sort(POR_CODIGO);
+        return lista;
+    }
+
+    @Override
+    public List<Carrito> buscarPorFecha(Instant desde, Instant hasta) {
+        return new ArrayList<>(rango(desde, hasta).values());
+    }
+
+    @Override
+    public int contarPorFecha(Instant desde, Instant hasta) {
+        return rango(desde, hasta).size();
+    }
+
+    @Override
+    public Carrito buscarPorCodigoYUsuario(int codigo, Usuario usuario) {
+        Carrito carritoEncontrado = this.buscarPorCodigo(codigo);
+
+        if (carritoEncontrado != null && carritoEncontrado.getUsuario().equals(usuario)) {
+            return carritoEncontrado;
+        }
+
+        return null;
+    }
+
+    @Override
+    public void renombrarUsuario(String usernameAnterior, String usernameNuevo) {
+        bloqueos.bloquearTodos();
+        try {
+            Map<Integer, Carrito> delUsuario = carritosPorUsuario.remove(usernameAnterior);
+            if (delUsuario == null) {
+                return;
+            }
+            for (Carrito carrito : delUsuario.values()) {
+                if (carrito.getUsuario() != null && usernameAnterior.equals(carrito.getUsuario().getUsername())) {
+                    carrito.getUsuario().setUsername(usernameNuevo);
+                }
+                usuarioPorCarrito.put(carrito.getCodigo(), usernameNuevo);
+            }
+            carritosPorUsuario.merge(usernameNuevo, delUsuario, (existentes, movidos) -> {
+                existentes.putAll(movidos);
+                return existentes;
+            });
+        } finally {
+            bloqueos.desbloquearTodos();
+        }
+    }
+
+    @Override
+    public void restaurar(Carrito carrito) {
+        ReentrantLock bloqueo = bloqueos.para(carrito.getCodigo());
+        bloqueo.lock();
+        try {
+            if (carritos.put(carrito.getCodigo(), carrito) != null) {
+                desindexar(carrito.getCodigo());
+            } else {
+                cantidad.incrementAndGet();
+            }
+            indexar(carrito);
+            proximoCodigo.accumulateAndGet(carrito.getCodigo() + 1, Math::max);
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private NavigableMap<ClaveFecha, Carrito> rango(Instant desde, Instant hasta) {
+        if (!desde.isBefore(hasta)) {
+            return Collections.emptyNavigableMap();
+        }
+        return carritosPorFecha.subMap(ClaveFecha.limite(desde.toEpochMilli()), true,
+                ClaveFecha.limite(hasta.toEpochMilli()), false);
+    }
+
+    private void indexar(Carrito carrito) {
+        if (carrito.getFechaMilisegundos() != Carrito.SIN_FECHA) {
+            ClaveFecha clave = new ClaveFecha(carrito.getFechaMilisegundos(), carrito.getCodigo());
+            fechaPorCarrito.put(carrito.getCodigo(), clave);
+            carritosPorFecha.put(clave, carrito);
+        }
+        if (carrito.getUsuario() == null) {
+            return;
+        }
+        String username = carrito.getUsuario().getUsername();
+        usuarioPorCarrito.put(carrito.getCodigo(), username);
+        carritosPorUsuario.compute(username, (clave, delUsuario) -> {
+            Map<Integer, Carrito> resultado = delUsuario != null ? delUsuario : new ConcurrentHashMap<>();
+            resultado.put(carrito.getCodigo(), carrito);
+            return resultado;
+        });
+    }
+
+    private void desindexar(int codigo) {
+        ClaveFecha fecha = fechaPorCarrito.remove(codigo);
+        if (fecha != null) {
+            carritosPorFecha.remove(fecha);
+        }
+        String username = usuarioPorCarrito.remove(codigo);
+        if (username == null) {
+            return;
+        }
+        carritosPorUsuario.computeIfPresent(username, (clave, delUsuario) -> {
+            delUsuario.remove(codigo);
+            return delUsuario.isEmpty() ? null : delUsuario;
+        });
+    }
+}
@@ -0,0 +1,171 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.dao.CarritoDAO;
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.MapaEnteroOrdenado;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class CarritoDAOIndexado implements CarritoDAO {
+
+    private final MapaEnteroOrdenado<Carrito> carritos;
+    private final MapaEnteroOrdenado<String> usuarioPorCarrito;
+    private final Map<String, MapaEnteroOrdenado<Carrito>> carritosPorUsuario;
+    private final MapaEnteroOrdenado<ClaveFecha> fechaPorCarrito;
+    private final TreeMap<ClaveFecha, Carrito> carritosPorFecha;
+    private int proximoCodigo = 1;
+
+    public CarritoDAOIndexado() {
+        this.carritos = new MapaEnteroOrdenado<>();
+        this.usuarioPorCarrito = new MapaEnteroOrdenado<>();
+        this.carritosPorUsuario = new HashMap<>();
+        this.fechaPorCarrito = new MapaEnteroOrdenado<>();
+        this.carritosPorFecha = new TreeMap<>();
+    }
+
+    @Override
+    public void crear(Carrito carrito) {
+        carrito.setCodigo(proximoCodigo++);
+        carritos.put(carrito.getCodigo(), carrito);
+        indexar(carrito);
+    }
+
+    @Override
+    public void actualizar(Carrito carrito) {
+        if (carritos.containsKey(carrito.getCodigo())) {
+            carritos.put(carrito.getCodigo(), carrito);
+            desindexar(carrito.getCodigo());
+            indexar(carrito);
+        }
+    }
+
+    @Override
+    public void eliminar(int codigo) {
+        if (carritos.remove(codigo) != null) {
+            desindexar(codigo);
+        }
+    }
+
+    @Override
+    public Carrito buscarPorCodigo(int codigo) {
+        return carritos.get(codigo);
+    }
+
+    @Override
+    public List<Carrito> listarTodos() {
+        return carritos.valores();
+    }
+
+    @Override
+    public int contar() {
+        return carritos.size();
+    }
+
+    @Override
+    public List<Carrito> listarPagina(int despuesDeCodigo, int limite) {
+        return carritos.pagina(despuesDeCodigo, limite);
+    }
+
+    @Override
+    public List<Carrito> buscarPorUsuario(Usuario usuario) {
+        if (usuario == null) {
+            return new ArrayList<>();
+        }
+        MapaEnteroOrdenado<Carrito> delUsuario = carritosPorUsuario.get(usuario.getUsername());
+        return delUsuario == null ? new ArrayList<>() : delUsuario.valores();
+    }
+
+    @Override
+    public List<Carrito> buscarPorFecha(Instant desde, Instant hasta) {
+        return new ArrayList<>(rango(desde, hasta).values());
+    }
+
+    @Override
+    public int contarPorFecha(Instant desde, Instant hasta) {
+        return rango(desde, hasta).size();
+    }
+
+    @Override
+    public Carrito buscarPorCodigoYUsuario(int codigo, Usuario usuario) {
+        Carrito carritoEncontrado = this.buscarPorCodigo(codigo);
+
+        if (carritoEncontrado != null && carritoEncontrado.getUsuario().equals(usuario)) {
+            return carritoEncontrado;
+        }
+
+        return null;
+    }
+
+    @Override
+    public void renombrarUsuario(String usernameAnterior, String usernameNuevo) {
+        MapaEnteroOrdenado<Carrito> delUsuario = carritosPorUsuario.remove(usernameAnterior);
+        if (delUsuario == null) {
+            return;
+        }
+        MapaEnteroOrdenado<Carrito> destino = carritosPorUsuario.computeIfAbsent(usernameNuevo, k -> new MapaEnteroOrdenado<>(2));
+        for (Carrito carrito : delUsuario) {
+            if (carrito.getUsuario() != null && usernameAnterior.equals(carrito.getUsuario().getUsername())) {
+                carrito.getUsuario().setUsername(usernameNuevo);
+            }
+            usuarioPorCarrito.put(carrito.getCodigo(), usernameNuevo);
+            destino.put(carrito.getCodigo(), carrito);
+        }
+    }
+
+    @Override
+    public void restaurar(Carrito carrito) {
+        if (carritos.put(carrito.getCodigo(), carrito) != null) {
+            desindexar(carrito.getCodigo());
+        }
+        indexar(carrito);
+        proximoCodigo = Math.max(proximoCodigo, carrito.getCodigo() + 1);
+    }
+
+    private NavigableMap<ClaveFecha, Carrito> rango(Instant desde, Instant hasta) {
+        if (!desde.isBefore(hasta)) {
+            return Collections.emptyNavigableMap();
+        }
+        return carritosPorFecha.subMap(ClaveFecha.limite(desde.toEpochMilli()), true,
+                ClaveFecha.limite(hasta.toEpochMilli()), false);
+    }
+
+    private void indexar(Carrito carrito) {
+        if (carrito.getFechaMilisegundos() != Carrito.SIN_FECHA) {
+            ClaveFecha clave = new ClaveFecha(carrito.getFechaMilisegundos(), carrito.getCodigo());
+            fechaPorCarrito.put(carrito.getCodigo(), clave);
+            carritosPorFecha.put(clave, carrito);
+        }
+        if (carrito.getUsuario() == null) {
+            return;
+        }
+        String username = carrito.getUsuario().getUsername();
+        usuarioPorCarrito.put(carrito.getCodigo(), username);
+        carritosPorUsuario.computeIfAbsent(username, k -> new MapaEnteroOrdenado<>(2)).put(carrito.getCodigo(), carrito);
+    }
+
+    private void desindexar(int codigo) {
+        ClaveFecha fecha = fechaPorCarrito.remove(codigo);
+        if (fecha != null) {
+            carritosPorFecha.remove(fecha);
+        }
+        String username = usuarioPorCarrito.remove(codigo);
+        if (username == null) {
+            return;
+        }
+        MapaEnteroOrdenado<Carrito> delUsuario = carritosPorUsuario.get(username);
+        if (delUsuario != null) {
+            delUsuario.remove(codigo);
+            if (delUsuario.isEmpty()) {
+                carritosPorUsuario.remove(username);
+            }
+        }
+    }
+}
@@ -3,23 +3,31 @@ package ec.edu.ups.dao.impl;
 import ec.edu.ups.dao.CarritoDAO;
 import ec.edu.ups.modelo.Carrito;
 import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Paginacion;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 public class CarritoDAOMemoria implements CarritoDAO {
 
     private final List<Carrito> listaCarritos;
+    private final NavigableMap<Integer, Carrito> porCodigo;
     private int proximoCodigo = 1;
     public CarritoDAOMemoria() {
         this.listaCarritos = new ArrayList<>();
+        this.porCodigo = new TreeMap<>();
     }
 
     @Override
     public void crear(Carrito carrito) {
         carrito.setCodigo(proximoCodigo++);
         listaCarritos.add(carrito);
+        porCodigo.put(carrito.getCodigo(), carrito);
     }
 
     @Override
@@ -27,6 +35,7 @@ public class CarritoDAOMemoria implements CarritoDAO {
         for (int i = 0; i < listaCarritos.size(); i++) {
             if (listaCarritos.get(i).getCodigo() == carrito.getCodigo()) {
                 listaCarritos.set(i, carrito);
+                porCodigo.put(carrito.getCodigo(), carrito);
                 break;
             }
         }
@@ -35,6 +44,7 @@ public class CarritoDAOMemoria implements CarritoDAO {
     @Override
     public void eliminar(int codigo) {
         listaCarritos.removeIf(carrito -> carrito.getCodigo() == codigo);
+        porCodigo.remove(codigo);
     }
 
 
@@ -53,6 +63,16 @@ public class CarritoDAOMemoria implements CarritoDAO {
         return new ArrayList<>(listaCarritos);
     }
 
+    @Override
+    public int contar() {
+        return listaCarritos.size();
+    }
+
+    @Override
+    public List<Carrito> listarPagina(int despuesDeCodigo, int limite) {
+        return Paginacion.pagina(porCodigo, despuesDeCodigo, limite);
+    }
+
     @Override
     public List<Carrito> buscarPorUsuario(Usuario usuario) {
         return listaCarritos.stream()
@@ -60,6 +80,23 @@ public class CarritoDAOMemoria implements CarritoDAO {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Carrito> buscarPorFecha(Instant desde, Instant hasta) {
+        return listaCarritos.stream()
+                .filter(carrito -> enRango(carrito, desde, hasta))
+                .sorted(Comparator.comparingLong(Carrito::getFechaMilisegundos).thenComparingInt(Carrito::getCodigo))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int contarPorFecha(Instant desde, Instant hasta) {
+        return (int) listaCarritos.stream().filter(carrito -> enRango(carrito, desde, hasta)).count();
+    }
+
+    private static boolean enRango(Carrito carrito, Instant desde, Instant hasta) {
+        long fecha = carrito.getFechaMilisegundos();
+        return fecha != Carrito.SIN_FECHA && fecha >= desde.toEpochMilli() && fecha < hasta.toEpochMilli();
+    }
 
     @Override
     public Carrito buscarPorCodigoYUsuario(int codigo, Usuario usuario) {
@@ -71,4 +108,22 @@ public class CarritoDAOMemoria implements CarritoDAO {
 
         return null;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void renombrarUsuario(String usernameAnterior, String usernameNuevo) {
+        for (Carrito carrito : listaCarritos) {
+            Usuario usuario = carrito.getUsuario();
+            if (usuario != null && usuario.getUsername().equals(usernameAnterior)) {
+                usuario.setUsername(usernameNuevo);
+            }
+        }
+    }
+
+    @Override
+    public void restaurar(Carrito carrito) {
+        eliminar(carrito.getCodigo());
+        listaCarritos.add(carrito);
+        porCodigo.put(carrito.getCodigo(), carrito);
+        proximoCodigo = Math.max(proximoCodigo, carrito.getCodigo() + 1);
+    }
+}
@@ -0,0 +1,38 @@
+package ec.edu.ups.dao.impl;
+
+/**
+ * Clave de los indices por fecha: ordena por fecha y, entre carritos del mismo milisegundo, por codigo.
+ */
+final class ClaveFecha implements Comparable<ClaveFecha> {
+
+    final long fecha;
+    final int codigo;
+
+    ClaveFecha(long fecha, int codigo) {
+        this.fecha = fecha;
+        this.codigo = codigo;
+    }
+
+    /**
+     * Clave menor que la de cualquier carrito con esa fecha, para abrir o cerrar un rango.
+     */
+    static ClaveFecha limite(long fecha) {
+        return new ClaveFecha(fecha, Integer.MIN_VALUE);
+    }
+
+    @Override
+    public int compareTo(ClaveFecha otra) {
+        int porFecha = Long.compare(fecha, otra.fecha);
+        return porFecha != 0 ? porFecha : Integer.compare(codigo, otra.codigo);
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        return otro instanceof ClaveFecha clave && clave.fecha == fecha && clave.codigo == codigo;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fecha) * 31 + codigo;
+    }
+}
@@ -0,0 +1,154 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.dao.persistencia.AlmacenPersistente;
+import ec.edu.ups.dao.persistencia.BitacoraEscritura;
+import ec.edu.ups.dao.persistencia.CodificadorBinario;
+import ec.edu.ups.modelo.Producto;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductoDAOArchivo extends AlmacenPersistente implements ProductoDAO {
+
+    private static final byte CREAR = 1;
+    private static final byte ACTUALIZAR = 2;
+    private static final byte ELIMINAR = 3;
+    private static final byte CREAR_LOTE = 4;
+
+    private final ProductoDAO delegado;
+
+    public ProductoDAOArchivo(Path directorio, ProductoDAO delegado) throws IOException {
+        this(directorio, delegado, BitacoraEscritura.Durabilidad.SINCRONA);
+    }
+
+    public ProductoDAOArchivo(Path directorio, ProductoDAO delegado, BitacoraEscritura.Durabilidad durabilidad) throws IOException {
+        super(directorio, "productos", durabilidad);
+        this.delegado = delegado;
+        abrir();
+    }
+
+    @Override
+    public void crear(Producto producto) {
+        registrar(salida -> {
+            salida.writeByte(CREAR);
+            CodificadorBinario.escribirProducto(salida, producto);
+        }, () -> delegado.crear(producto));
+    }
+
+    @Override
+    public void crearTodos(List<Producto> productos) {
+        registrar(salida -> {
+            salida.writeByte(CREAR_LOTE);
+            salida.writeInt(productos.size());
+            for (Producto producto : productos) {
+                CodificadorBinario.escribirProducto(salida, producto);
+            }
+        }, () -> delegado.crearTodos(productos));
+    }
+
+    @Override
+    public Producto buscarPorCodigo(int codigo) {
+        return delegado.buscarPorCodigo(codigo);
+    }
+
+    @Override
+    public List<Producto> buscarPorNombre(String nombre) {
+        return delegado.buscarPorNombre(nombre);
+    }
+
+    @Override
+    public List<Producto> buscarPorPrefijo(String prefijo) {
+        return delegado.buscarPorPrefijo(prefijo);
+    }
+
+    @Override
+    public List<Producto> buscarPorSubcadena(String texto) {
+        return delegado.buscarPorSubcadena(texto);
+    }
+
+    @Override
+    public void actualizar(Producto producto) {
+        registrar(salida -> {
+            salida.writeByte(ACTUALIZAR);
+            CodificadorBinario.escribirProducto(salida, producto);
+        }, () -> delegado.actualizar(producto));
+    }
+
+    @Override
+    public void eliminar(int codigo) {
+        registrar(salida -> {
+            salida.writeByte(ELIMINAR);
+            salida.writeInt(codigo);
+        }, () -> delegado.eliminar(codigo));
+    }
+
+    @Override
+    public List<Producto> listarTodos() {
+        return delegado.listarTodos();
+    }
+
+    @Override
+    public List<Producto> listarPagina(int despuesDeCodigo, int limite) {
+        return delegado.listarPagina(despuesDeCodigo, limite);
+    }
+
+    @Override
+    protected void limpiarEstado() {
+        for (Producto producto : delegado.listarTodos()) {
+            delegado.eliminar(producto.getCodigo());
+        }
+    }
+
+    @Override
+    protected void escribirInstantanea(DataOutputStream salida) throws IOException {
+        List<Producto> productos = delegado.listarTodos();
+        salida.writeInt(productos.size());
+        for (Producto producto : productos) {
+            CodificadorBinario.escribirProducto(salida, producto);
+        }
+    }
+
+    @Override
+    protected void leerInstantanea(DataInputStream entrada) throws IOException {
+        int cantidad = entrada.readInt();
+        for (int i = 0; i < cantidad; i++) {
+            delegado.crear(CodificadorBinario.leerProducto(entrada));
+        }
+    }
+
+    @Override
+    protected void aplicar(DataInputStream registro) throws IOException {
+        byte tipo = registro.readByte();
+        switch (tipo) {
+            case CREAR:
+                Producto producto = CodificadorBinario.leerProducto(registro);
+                if (delegado.buscarPorCodigo(producto.getCodigo()) != null) {
+                    delegado.actualizar(producto);
+                } else {
+                    delegado.crear(producto);
+                }
+                break;
+            case ACTUALIZAR:
+                delegado.actualizar(CodificadorBinario.leerProducto(registro));
+                break;
+            case ELIMINAR:
+                delegado.eliminar(registro.readInt());
+                break;
+            case CREAR_LOTE:
+                int cantidad = registro.readInt();
+                List<Producto> productos = new ArrayList<>(cantidad);
+                for (int i = 0; i < cantidad; i++) {
+                    productos.add(CodificadorBinario.leerProducto(registro));
+                }
+                delegado.crearTodos(productos);
+                break;
+            default:
+                throw new IOException("Registro de producto desconocido: " + tipo);
+        }
+    }
+}
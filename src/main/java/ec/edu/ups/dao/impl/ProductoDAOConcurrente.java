@@ -0,0 +1,124 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.util.BloqueosSegmentados;
+import ec.edu.ups.util.IndiceTexto;
+import ec.edu.ups.util.Paginacion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * El indice de nombres no admite accesos concurrentes, asi que hay uno por segmento de {@link BloqueosSegmentados}:
+ * cada escritura solo toca el indice de su segmento con el candado de su codigo, y las busquedas recorren los
+ * segmentos uno a uno y juntan los resultados.
+ */
+public class ProductoDAOConcurrente implements ProductoDAO {
+
+    private final ConcurrentNavigableMap<Integer, Producto> productos;
+    private final BloqueosSegmentados bloqueos;
+    private final List<IndiceTexto<Producto>> indices;
+
+    public ProductoDAOConcurrente() {
+        productos = new ConcurrentSkipListMap<>();
+        bloqueos = new BloqueosSegmentados();
+        indices = new ArrayList<>(bloqueos.segmentos());
+        for (int i = 0; i < bloqueos.segmentos(); i++) {
+            indices.add(new IndiceTexto<>());
+        }
+        crear(new Producto(1,"Arroz",Dinero.deCentavos(1500)));
+        crear(new Producto(2,"Platano",Dinero.deCentavos(1200)));
+    }
+
+    @Override
+    public void crear(Producto producto) {
+        int codigo = producto.getCodigo();
+        ReentrantLock bloqueo = bloqueos.para(codigo);
+        bloqueo.lock();
+        try {
+            productos.put(codigo, producto);
+            indices.get(bloqueos.segmento(codigo)).agregar(codigo, producto.getNombre(), producto);
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    @Override
+    public Producto buscarPorCodigo(int codigo) {
+        return productos.get(codigo);
+    }
+
+    @Override
+    public List<Producto> buscarPorNombre(String nombre) {
+        return buscarEnSegmentos(indice -> indice.buscarExacto(nombre));
+    }
+
+    @Override
+    public List<Producto> buscarPorPrefijo(String prefijo) {
+        return buscarEnSegmentos(indice -> indice.buscarPorPrefijo(prefijo));
+    }
+
+    @Override
+    public List<Producto> buscarPorSubcadena(String texto) {
+        return buscarEnSegmentos(indice -> indice.buscarPorSubcadena(texto));
+    }
+
+    private List<Producto> buscarEnSegmentos(Function<IndiceTexto<Producto>, List<Producto>> busqueda) {
+        List<Producto> productosEncontrados = new ArrayList<>();
+        for (int i = 0; i < indices.size(); i++) {
+            ReentrantLock bloqueo = bloqueos.delSegmento(i);
+            bloqueo.lock();
+            try {
+                productosEncontrados.addAll(busqueda.apply(indices.get(i)));
+            } finally {
+                bloqueo.unlock();
+            }
+        }
+        productosEncontrados.sort(Comparator.comparingInt(Producto::getCodigo));
+        return productosEncontrados;
+    }
+
+    @Override
+    public void actualizar(Producto producto) {
+        int codigo = producto.getCodigo();
+        ReentrantLock bloqueo = bloqueos.para(codigo);
+        bloqueo.lock();
+        try {
+            if (productos.replace(codigo, producto) != null) {
+                indices.get(bloqueos.segmento(codigo)).agregar(codigo, producto.getNombre(), producto);
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    @Override
+    public void eliminar(int codigo) {
+        ReentrantLock bloqueo = bloqueos.para(codigo);
+        bloqueo.lock();
+        try {
+            if (productos.remove(codigo) != null) {
+                indices.get(bloqueos.segmento(codigo)).quitar(codigo);
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    @Override
+    public List<Producto> listarTodos() {
+        return new ArrayList<>(productos.values());
+    }
+
+    @Override
+    public List<Producto> listarPagina(int despuesDeCodigo, int limite) {
+        return Paginacion.pagina(productos, despuesDeCodigo, limite);
+    }
+}
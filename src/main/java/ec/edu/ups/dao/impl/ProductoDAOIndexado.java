@@ -0,0 +1,72 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.util.IndiceTexto;
+import ec.edu.ups.util.MapaEnteroOrdenado;
+
+import java.util.List;
+
+public class ProductoDAOIndexado implements ProductoDAO {
+
+    private final MapaEnteroOrdenado<Producto> productos;
+    private final IndiceTexto<Producto> indiceNombres;
+
+    public ProductoDAOIndexado() {
+        productos = new MapaEnteroOrdenado<>();
+        indiceNombres = new IndiceTexto<>();
+        crear(new Producto(1,"Arroz",Dinero.deCentavos(1500)));
+        crear(new Producto(2,"Platano",Dinero.deCentavos(1200)));
+    }
+
+    @Override
+    public void crear(Producto producto) {
+        productos.put(producto.getCodigo(), producto);
+        indiceNombres.agregar(producto.getCodigo(), producto.getNombre(), producto);
+    }
+
+    @Override
+    public Producto buscarPorCodigo(int codigo) {
+        return productos.get(codigo);
+    }
+
+    @Override
+    public List<Producto> buscarPorNombre(String nombre) {
+        return indiceNombres.buscarExacto(nombre);
+    }
+
+    @Override
+    public List<Producto> buscarPorPrefijo(String prefijo) {
+        return indiceNombres.buscarPorPrefijo(prefijo);
+    }
+
+    @Override
+    public List<Producto> buscarPorSubcadena(String texto) {
+        return indiceNombres.buscarPorSubcadena(texto);
+    }
+
+    @Override
+    public void actualizar(Producto producto) {
+        if (productos.containsKey(producto.getCodigo())) {
+            productos.put(producto.getCodigo(), producto);
+            indiceNombres.agregar(producto.getCodigo(), producto.getNombre(), producto);
+        }
+    }
+
+    @Override
+    public void eliminar(int codigo) {
+        productos.remove(codigo);
+        indiceNombres.quitar(codigo);
+    }
+
+    @Override
+    public List<Producto> listarTodos() {
+        return productos.valores();
+    }
+
+    @Override
+    public List<Producto> listarPagina(int despuesDeCodigo, int limite) {
+        return productos.pagina(despuesDeCodigo, limite);
+    }
+}
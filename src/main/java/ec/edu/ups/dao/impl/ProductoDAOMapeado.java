@@ -0,0 +1,363 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.dao.persistencia.AlmacenPersistente;
+import ec.edu.ups.dao.persistencia.BitacoraEscritura;
+import ec.edu.ups.dao.persistencia.CatalogoMapeado;
+import ec.edu.ups.dao.persistencia.CodificadorBinario;
+import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.util.IndiceTexto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Catalogo de solo lectura sobre un {@link CatalogoMapeado}. Los cambios se guardan en memoria encima del
+ * archivo y antes de aplicarse se anotan en una bitacora junto al catalogo ({@code <archivo>.wal}), que se
+ * reproduce al abrir. {@link #compactar()} los vuelca a un catalogo nuevo y vacia la bitacora; se llama al cerrar y
+ * cada {@link AlmacenPersistente#CAMBIOS_POR_INSTANTANEA} cambios. Los cambios estan ordenados por codigo igual que
+ * {@link CatalogoMapeado#filaEnOrden(int)}, asi que listar y paginar mezclan ambos recorridos sin ordenar nada.
+ * Buscar por prefijo o subcadena recorre todo el catalogo; para buscar mucho por nombre conviene
+ * {@link ProductoDAOArchivo} sobre {@link ProductoDAOConcurrente}, que indexa los nombres en memoria.
+ */
+public class ProductoDAOMapeado implements ProductoDAO, Closeable {
+
+    private static final byte CREAR = 1;
+    private static final byte ACTUALIZAR = 2;
+    private static final byte ELIMINAR = 3;
+    private static final byte CREAR_LOTE = 4;
+
+    private static final Producto ELIMINADO = new Producto();
+
+    private final Path archivo;
+    private final ConcurrentNavigableMap<Integer, Producto> cambios;
+    private final BitacoraEscritura bitacora;
+    private final Object cerrojo = new Object();
+    /**
+     * Se reemplaza al compactar mientras otros hilos leen; cada operacion lo copia una vez a una variable local para
+     * no mezclar filas de dos catalogos.
+     */
+    private volatile CatalogoMapeado catalogo;
+    private int cambiosSinCompactar;
+
+    public ProductoDAOMapeado(Path archivo) throws IOException {
+        this(archivo, BitacoraEscritura.Durabilidad.SINCRONA);
+    }
+
+    public ProductoDAOMapeado(Path archivo, BitacoraEscritura.Durabilidad durabilidad) throws IOException {
+        this.archivo = archivo;
+        if (!Files.exists(archivo)) {
+            CatalogoMapeado.escribir(archivo, new ArrayList<>());
+        }
+        this.catalogo = CatalogoMapeado.abrir(archivo);
+        this.cambios = new ConcurrentSkipListMap<>();
+        Path archivoBitacora = archivo.resolveSibling(archivo.getFileName() + ".wal");
+        this.cambiosSinCompactar = BitacoraEscritura.reproducir(archivoBitacora, this::aplicar);
+        this.bitacora = new BitacoraEscritura(archivoBitacora, durabilidad);
+        if (cambiosSinCompactar >= AlmacenPersistente.CAMBIOS_POR_INSTANTANEA) {
+            compactar();
+        }
+    }
+
+    @Override
+    public void crear(Producto producto) {
+        registrar(() -> true, registro(salida -> {
+            salida.writeByte(CREAR);
+            CodificadorBinario.escribirProducto(salida, producto);
+        }), () -> poner(producto));
+    }
+
+    @Override
+    public void crearTodos(List<Producto> productos) {
+        if (productos.isEmpty()) {
+            return;
+        }
+        registrar(() -> true, registro(salida -> {
+            salida.writeByte(CREAR_LOTE);
+            salida.writeInt(productos.size());
+            for (Producto producto : productos) {
+                CodificadorBinario.escribirProducto(salida, producto);
+            }
+        }), () -> productos.forEach(this::poner));
+    }
+
+    @Override
+    public Producto buscarPorCodigo(int codigo) {
+        Producto cambiado = cambios.get(codigo);
+        if (cambiado != null) {
+            return cambiado == ELIMINADO ? null : cambiado;
+        }
+        CatalogoMapeado actual = catalogo;
+        int fila = actual.buscarFila(codigo);
+        return fila < 0 ? null : actual.producto(fila);
+    }
+
+    @Override
+    public List<Producto> buscarPorNombre(String nombre) {
+        return buscar(nombre, CatalogoMapeado.Comparacion.EXACTO);
+    }
+
+    @Override
+    public List<Producto> buscarPorPrefijo(String prefijo) {
+        return buscar(prefijo, CatalogoMapeado.Comparacion.PREFIJO);
+    }
+
+    @Override
+    public List<Producto> buscarPorSubcadena(String texto) {
+        return buscar(texto, CatalogoMapeado.Comparacion.SUBCADENA);
+    }
+
+    @Override
+    public void actualizar(Producto producto) {
+        registrar(() -> existe(producto.getCodigo()), registro(salida -> {
+            salida.writeByte(ACTUALIZAR);
+            CodificadorBinario.escribirProducto(salida, producto);
+        }), () -> poner(producto));
+    }
+
+    @Override
+    public void eliminar(int codigo) {
+        registrar(() -> existe(codigo), registro(salida -> {
+            salida.writeByte(ELIMINAR);
+            salida.writeInt(codigo);
+        }), () -> quitar(codigo));
+    }
+
+    @Override
+    public List<Producto> listarTodos() {
+        CatalogoMapeado actual = catalogo;
+        List<Producto> productos = new ArrayList<>(actual.cantidad() + cambios.size());
+        vigentes(actual, 0, cambios).forEachRemaining(productos::add);
+        return productos;
+    }
+
+    /**
+     * Busqueda binaria en el catalogo y en los cambios, y luego solo {@code limite} pasos: O(log n + limite).
+     */
+    @Override
+    public List<Producto> listarPagina(int despuesDeCodigo, int limite) {
+        CatalogoMapeado actual = catalogo;
+        Iterator<Producto> siguientes = vigentes(actual, actual.posicionDespuesDe(despuesDeCodigo),
+                cambios.tailMap(despuesDeCodigo, false));
+        List<Producto> pagina = new ArrayList<>(Math.max(0, Math.min(limite, 1024)));
+        while (pagina.size() < limite && siguientes.hasNext()) {
+            pagina.add(siguientes.next());
+        }
+        return pagina;
+    }
+
+    /**
+     * Reescribe el catalogo con los cambios aplicados, en orden de codigo y pidiendo las filas de a una al archivo
+     * actual, y vacia la bitacora. Si el proceso muere entre ambos pasos, la bitacora se vuelve a aplicar sobre el
+     * catalogo nuevo, lo que deja el mismo resultado.
+     */
+    public void compactar() throws IOException {
+        synchronized (cerrojo) {
+            bitacora.sincronizar();
+            CatalogoMapeado actual = catalogo;
+            int cantidad = actual.cantidad();
+            for (Producto producto : cambios.values()) {
+                if (producto == ELIMINADO) {
+                    cantidad--;
+                } else if (actual.buscarFila(producto.getCodigo()) < 0) {
+                    cantidad++;
+                }
+            }
+            CatalogoMapeado.escribir(archivo, cantidad, vigentes(actual, 0, cambios));
+            catalogo = CatalogoMapeado.abrir(archivo);
+            cambios.clear();
+            bitacora.truncar();
+            cambiosSinCompactar = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (cerrojo) {
+            if (!cambios.isEmpty()) {
+                compactar();
+            }
+            bitacora.close();
+        }
+    }
+
+    /**
+     * Los productos vigentes en orden de codigo desde {@code posicion} del catalogo: mezcla las filas con
+     * {@code cambiados}, que debe empezar en el mismo codigo. Un cambio reemplaza a la fila de su codigo.
+     */
+    private static Iterator<Producto> vigentes(CatalogoMapeado actual, int posicion, Map<Integer, Producto> cambiados) {
+        Iterator<Map.Entry<Integer, Producto>> cambiosEnOrden = cambiados.entrySet().iterator();
+        return new Iterator<>() {
+            private int siguientePosicion = posicion;
+            private Map.Entry<Integer, Producto> cambio = siguienteCambio();
+            private Producto siguiente = avanzar();
+
+            private Map.Entry<Integer, Producto> siguienteCambio() {
+                return cambiosEnOrden.hasNext() ? cambiosEnOrden.next() : null;
+            }
+
+            private Producto avanzar() {
+                while (true) {
+                    boolean hayFila = siguientePosicion < actual.cantidad();
+                    int fila = hayFila ? actual.filaEnOrden(siguientePosicion) : -1;
+                    if (cambio != null && (!hayFila || cambio.getKey() <= actual.codigo(fila))) {
+                        Map.Entry<Integer, Producto> aplicado = cambio;
+                        cambio = siguienteCambio();
+                        if (hayFila && aplicado.getKey() == actual.codigo(fila)) {
+                            siguientePosicion++;
+                        }
+                        if (aplicado.getValue() != ELIMINADO) {
+                            return aplicado.getValue();
+                        }
+                    } else if (hayFila) {
+                        siguientePosicion++;
+                        return actual.producto(fila);
+                    } else {
+                        return null;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return siguiente != null;
+            }
+
+            @Override
+            public Producto next() {
+                if (siguiente == null) {
+                    throw new NoSuchElementException();
+                }
+                Producto producto = siguiente;
+                siguiente = avanzar();
+                return producto;
+            }
+        };
+    }
+
+    /**
+     * Anota el registro y aplica el cambio bajo el mismo candado, en ese orden; igual que
+     * {@link AlmacenPersistente}, espera a que el registro este en disco fuera del candado.
+     */
+    private void registrar(BooleanSupplier procede, byte[] registro, Runnable cambio) {
+        long secuencia;
+        boolean compactar;
+        try {
+            synchronized (cerrojo) {
+                if (!procede.getAsBoolean()) {
+                    return;
+                }
+                secuencia = bitacora.agregar(registro);
+                cambio.run();
+                compactar = ++cambiosSinCompactar == AlmacenPersistente.CAMBIOS_POR_INSTANTANEA;
+            }
+            if (bitacora.esSincrona()) {
+                bitacora.esperar(secuencia);
+            }
+            if (compactar) {
+                compactar();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void aplicar(DataInputStream registro) throws IOException {
+        byte tipo = registro.readByte();
+        switch (tipo) {
+            case CREAR:
+                poner(CodificadorBinario.leerProducto(registro));
+                break;
+            case ACTUALIZAR:
+                Producto producto = CodificadorBinario.leerProducto(registro);
+                if (existe(producto.getCodigo())) {
+                    poner(producto);
+                }
+                break;
+            case ELIMINAR:
+                quitar(registro.readInt());
+                break;
+            case CREAR_LOTE:
+                for (int i = registro.readInt(); i > 0; i--) {
+                    poner(CodificadorBinario.leerProducto(registro));
+                }
+                break;
+            default:
+                throw new IOException("Registro de producto desconocido: " + tipo);
+        }
+    }
+
+    private void poner(Producto producto) {
+        cambios.put(producto.getCodigo(), producto);
+    }
+
+    private void quitar(int codigo) {
+        if (catalogo.buscarFila(codigo) >= 0) {
+            cambios.put(codigo, ELIMINADO);
+        } else {
+            cambios.remove(codigo);
+        }
+    }
+
+    private boolean existe(int codigo) {
+        Producto cambiado = cambios.get(codigo);
+        return cambiado != null ? cambiado != ELIMINADO : catalogo.buscarFila(codigo) >= 0;
+    }
+
+    private static byte[] registro(Escritura escritura) {
+        ByteArrayOutputStream registro = new ByteArrayOutputStream(64);
+        try {
+            escritura.escribir(new DataOutputStream(registro));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return registro.toByteArray();
+    }
+
+    private List<Producto> buscar(String texto, CatalogoMapeado.Comparacion comparacion) {
+        List<Producto> productosEncontrados = new ArrayList<>();
+        CatalogoMapeado actual = catalogo;
+        actual.buscarFilas(texto, comparacion, fila -> {
+            if (!cambios.containsKey(actual.codigo(fila))) {
+                productosEncontrados.add(actual.producto(fila));
+            }
+        });
+        String normalizado = IndiceTexto.normalizar(texto);
+        for (Producto producto : cambios.values()) {
+            if (producto != ELIMINADO && coincide(IndiceTexto.normalizar(producto.getNombre()), normalizado, comparacion)) {
+                productosEncontrados.add(producto);
+            }
+        }
+        return productosEncontrados;
+    }
+
+    private static boolean coincide(String nombre, String buscado, CatalogoMapeado.Comparacion comparacion) {
+        switch (comparacion) {
+            case EXACTO:
+                return nombre.equals(buscado);
+            case PREFIJO:
+                return nombre.startsWith(buscado);
+            default:
+                return nombre.contains(buscado);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Escritura {
+        void escribir(DataOutputStream salida) throws IOException;
+    }
+}
@@ -1,25 +1,33 @@
 package ec.edu.ups.dao.impl;
 
 import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.modelo.Dinero;
 import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.util.IndiceTexto;
+import ec.edu.ups.util.Paginacion;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 public class ProductoDAOMemoria implements ProductoDAO {
 
     private List<Producto> productos;
+    private final NavigableMap<Integer, Producto> porCodigo;
 
     public ProductoDAOMemoria() {
         productos = new ArrayList<Producto>();
-        crear(new Producto(1,"Arroz",15));
-        crear(new Producto(2,"Platano",12));
+        porCodigo = new TreeMap<>();
+        crear(new Producto(1,"Arroz",Dinero.deCentavos(1500)));
+        crear(new Producto(2,"Platano",Dinero.deCentavos(1200)));
     }
 
     @Override
     public void crear(Producto producto) {
         productos.add(producto);
+        porCodigo.put(producto.getCodigo(), producto);
     }
 
     @Override
@@ -43,11 +51,36 @@ public class ProductoDAOMemoria implements ProductoDAO {
         return productosEncontrados;
     }
 
+    @Override
+    public List<Producto> buscarPorPrefijo(String prefijo) {
+        String normalizado = IndiceTexto.normalizar(prefijo);
+        List<Producto> productosEncontrados = new ArrayList<>();
+        for (Producto producto : productos) {
+            if (IndiceTexto.normalizar(producto.getNombre()).startsWith(normalizado)) {
+                productosEncontrados.add(producto);
+            }
+        }
+        return productosEncontrados;
+    }
+
+    @Override
+    public List<Producto> buscarPorSubcadena(String texto) {
+        String normalizado = IndiceTexto.normalizar(texto);
+        List<Producto> productosEncontrados = new ArrayList<>();
+        for (Producto producto : productos) {
+            if (IndiceTexto.normalizar(producto.getNombre()).contains(normalizado)) {
+                productosEncontrados.add(producto);
+            }
+        }
+        return productosEncontrados;
+    }
+
     @Override
     public void actualizar(Producto producto) {
         for (int i = 0; i < productos.size(); i++) {
             if (productos.get(i).getCodigo() == producto.getCodigo()) {
                 productos.set(i, producto);
+                porCodigo.put(producto.getCodigo(), producto);
             }
         }
     }
@@ -61,10 +94,16 @@ public class ProductoDAOMemoria implements ProductoDAO {
                 iterator.remove();
             }
         }
+        porCodigo.remove(codigo);
     }
 
     @Override
     public List<Producto> listarTodos() {
         return productos;
     }
+
+    @Override
+    public List<Producto> listarPagina(int despuesDeCodigo, int limite) {
+        return Paginacion.pagina(porCodigo, despuesDeCodigo, limite);
+    }
 }
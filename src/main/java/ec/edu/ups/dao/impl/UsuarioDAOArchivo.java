@@ -0,0 +1,305 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.dao.CarritoDAO;
+import ec.edu.ups.dao.UsuarioDAO;
+import ec.edu.ups.dao.persistencia.AlmacenPersistente;
+import ec.edu.ups.dao.persistencia.BitacoraEscritura;
+import ec.edu.ups.dao.persistencia.CodificadorBinario;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Un renombre se anota primero aqui y solo despues en la bitacora de carritos. Si el proceso muere entre las dos,
+ * los carritos quedan con el username anterior; por eso se recuerda a que nombre paso cada uno (tambien en la
+ * instantanea) y {@link CarritoDAOArchivo} resuelve esos dueños con {@link #buscarRenombrado} al cargar. Cuando los
+ * carritos ya guardaron el nombre nuevo en su instantanea, avisan con {@link #olvidarRenombres}.
+ */
+public class UsuarioDAOArchivo extends AlmacenPersistente implements UsuarioDAO {
+
+    private static final byte CREAR = 1;
+    private static final byte ACTUALIZAR = 2;
+    private static final byte ELIMINAR = 3;
+    private static final byte RENOMBRAR = 4;
+    private static final byte CREAR_LOTE = 5;
+
+    private final UsuarioDAO delegado;
+    private final Map<String, String> renombrados = new ConcurrentHashMap<>();
+
+    public UsuarioDAOArchivo(Path directorio, UsuarioDAO delegado) throws IOException {
+        this(directorio, delegado, BitacoraEscritura.Durabilidad.SINCRONA);
+    }
+
+    public UsuarioDAOArchivo(Path directorio, UsuarioDAO delegado, BitacoraEscritura.Durabilidad durabilidad) throws IOException {
+        super(directorio, "usuarios", durabilidad);
+        this.delegado = delegado;
+        abrir();
+    }
+
+    @Override
+    public Usuario autenticar(String username, String password) {
+        return delegado.autenticar(username, password);
+    }
+
+    @Override
+    public void crear(Usuario usuario) {
+        registrar(salida -> {
+            salida.writeByte(CREAR);
+            CodificadorBinario.escribirUsuario(salida, usuario);
+        }, () -> delegado.crear(usuario));
+    }
+
+    @Override
+    public boolean crearSiNoExiste(Usuario usuario) {
+        return registrar(() -> delegado.buscarPorUsuario(usuario.getUsername()) == null, salida -> {
+            salida.writeByte(CREAR);
+            CodificadorBinario.escribirUsuario(salida, usuario);
+        }, () -> delegado.crear(usuario));
+    }
+
+    @Override
+    public int crearTodos(List<Usuario> usuarios) {
+        List<Usuario> creados = new ArrayList<>(usuarios.size());
+        registrar(() -> {
+            Set<String> vistos = new HashSet<>();
+            for (Usuario usuario : usuarios) {
+                if (delegado.buscarPorUsuario(usuario.getUsername()) == null
+                        && vistos.add(clave(usuario.getUsername()))) {
+                    creados.add(usuario);
+                }
+            }
+            return !creados.isEmpty();
+        }, salida -> {
+            salida.writeByte(CREAR_LOTE);
+            salida.writeInt(creados.size());
+            for (Usuario usuario : creados) {
+                CodificadorBinario.escribirUsuario(salida, usuario);
+            }
+        }, () -> creados.forEach(delegado::crear));
+        return creados.size();
+    }
+
+    @Override
+    public Usuario buscarPorUsuario(String username) {
+        return delegado.buscarPorUsuario(username);
+    }
+
+    @Override
+    public void eliminar(String username) {
+        registrar(salida -> {
+            salida.writeByte(ELIMINAR);
+            CodificadorBinario.escribirTexto(salida, username);
+        }, () -> delegado.eliminar(username));
+    }
+
+    @Override
+    public void actualizar(Usuario usuario) {
+        registrar(salida -> {
+            salida.writeByte(ACTUALIZAR);
+            CodificadorBinario.escribirUsuario(salida, usuario);
+        }, () -> delegado.actualizar(usuario));
+    }
+
+    @Override
+    public boolean renombrar(String usernameAnterior, String usernameNuevo, CarritoDAO carritoDAO) {
+        boolean renombrado = registrar(() -> {
+            Usuario usuario = delegado.buscarPorUsuario(usernameAnterior);
+            Usuario ocupante = delegado.buscarPorUsuario(usernameNuevo);
+            return usuario != null && (ocupante == null || ocupante == usuario);
+        }, salida -> {
+            salida.writeByte(RENOMBRAR);
+            CodificadorBinario.escribirTexto(salida, usernameAnterior);
+            CodificadorBinario.escribirTexto(salida, usernameNuevo);
+        }, () -> {
+            delegado.renombrar(usernameAnterior, usernameNuevo, null);
+            anotarRenombre(usernameAnterior, usernameNuevo);
+        });
+        if (renombrado && carritoDAO != null) {
+            carritoDAO.renombrarUsuario(usernameAnterior, usernameNuevo);
+        }
+        return renombrado;
+    }
+
+    /**
+     * Sigue la cadena de renombres hasta el final, no hasta el primer nombre vigente: un nombre intermedio pudo
+     * tomarlo otro usuario despues. Cada renombre borra la entrada del nombre que pasa a usarse, asi que no hay
+     * ciclos y la cadena no puede tener mas saltos que entradas.
+     */
+    @Override
+    public Usuario buscarRenombrado(String usernameAnterior) {
+        String nombre = renombrados.get(clave(usernameAnterior));
+        if (nombre == null) {
+            return null;
+        }
+        for (int saltos = renombrados.size(); saltos > 0; saltos--) {
+            String siguiente = renombrados.get(clave(nombre));
+            if (siguiente == null) {
+                break;
+            }
+            nombre = siguiente;
+        }
+        return delegado.buscarPorUsuario(nombre);
+    }
+
+    /**
+     * Borra los tramos de la cadena que van de cada nombre anterior a su nuevo; si la cadena ya no llega ahi (el
+     * nombre se volvio a usar y a renombrar), no se toca. Se compacta para que la bitacora no los vuelva a anotar
+     * al reabrir.
+     */
+    @Override
+    public void olvidarRenombres(Map<String, String> renombres) {
+        boolean olvidado = false;
+        for (Map.Entry<String, String> renombre : renombres.entrySet()) {
+            String claveNueva = clave(renombre.getValue());
+            Map<String, String> tramo = new HashMap<>();
+            String clave = clave(renombre.getKey());
+            while (!clave.equals(claveNueva) && tramo.size() < renombrados.size()) {
+                String nombre = renombrados.get(clave);
+                if (nombre == null) {
+                    break;
+                }
+                tramo.put(clave, nombre);
+                clave = clave(nombre);
+            }
+            if (clave.equals(claveNueva)) {
+                for (Map.Entry<String, String> salto : tramo.entrySet()) {
+                    olvidado |= renombrados.remove(salto.getKey(), salto.getValue());
+                }
+            }
+        }
+        if (olvidado) {
+            try {
+                compactar();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    @Override
+    public List<Usuario> listarAdministradores() {
+        return delegado.listarAdministradores();
+    }
+
+    @Override
+    public List<Usuario> listarUsuarios() {
+        return delegado.listarUsuarios();
+    }
+
+    @Override
+    public List<Usuario> listarRol(Rol rol) {
+        return delegado.listarRol(rol);
+    }
+
+    @Override
+    public List<Usuario> listarTodos() {
+        return delegado.listarTodos();
+    }
+
+    @Override
+    public List<Usuario> listarPagina(String despuesDeUsername, int limite) {
+        return delegado.listarPagina(despuesDeUsername, limite);
+    }
+
+    @Override
+    protected void limpiarEstado() {
+        for (Usuario usuario : delegado.listarTodos()) {
+            delegado.eliminar(usuario.getUsername());
+        }
+        renombrados.clear();
+    }
+
+    @Override
+    protected void escribirInstantanea(DataOutputStream salida) throws IOException {
+        List<Usuario> usuarios = delegado.listarTodos();
+        salida.writeInt(usuarios.size());
+        for (Usuario usuario : usuarios) {
+            CodificadorBinario.escribirUsuario(salida, usuario);
+        }
+        Map<String, String> anotados = Map.copyOf(renombrados);
+        salida.writeInt(anotados.size());
+        for (Map.Entry<String, String> renombre : anotados.entrySet()) {
+            CodificadorBinario.escribirTexto(salida, renombre.getKey());
+            CodificadorBinario.escribirTexto(salida, renombre.getValue());
+        }
+    }
+
+    @Override
+    protected void leerInstantanea(DataInputStream entrada) throws IOException {
+        int cantidad = entrada.readInt();
+        for (int i = 0; i < cantidad; i++) {
+            delegado.crear(CodificadorBinario.leerUsuario(entrada));
+        }
+        for (int i = entrada.readInt(); i > 0; i--) {
+            renombrados.put(CodificadorBinario.leerTexto(entrada), CodificadorBinario.leerTexto(entrada));
+        }
+    }
+
+    @Override
+    protected void aplicar(DataInputStream registro) throws IOException {
+        byte tipo = registro.readByte();
+        switch (tipo) {
+            case CREAR:
+                crearOActualizar(CodificadorBinario.leerUsuario(registro));
+                break;
+            case ACTUALIZAR:
+                delegado.actualizar(CodificadorBinario.leerUsuario(registro));
+                break;
+            case ELIMINAR:
+                delegado.eliminar(CodificadorBinario.leerTexto(registro));
+                break;
+            case RENOMBRAR:
+                String usernameAnterior = CodificadorBinario.leerTexto(registro);
+                String usernameNuevo = CodificadorBinario.leerTexto(registro);
+                if (delegado.renombrar(usernameAnterior, usernameNuevo, null)) {
+                    anotarRenombre(usernameAnterior, usernameNuevo);
+                }
+                break;
+            case CREAR_LOTE:
+                for (int i = registro.readInt(); i > 0; i--) {
+                    crearOActualizar(CodificadorBinario.leerUsuario(registro));
+                }
+                break;
+            default:
+                throw new IOException("Registro de usuario desconocido: " + tipo);
+        }
+    }
+
+    /**
+     * Solo el ultimo salto: las cadenas se siguen al buscar. El nuevo nombre deja de figurar como anterior porque
+     * vuelve a estar en uso.
+     */
+    private void anotarRenombre(String usernameAnterior, String usernameNuevo) {
+        String claveAnterior = clave(usernameAnterior);
+        String claveNueva = clave(usernameNuevo);
+        if (!claveAnterior.equals(claveNueva)) {
+            renombrados.remove(claveNueva);
+            renombrados.put(claveAnterior, usernameNuevo);
+        }
+    }
+
+    private static String clave(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void crearOActualizar(Usuario usuario) {
+        if (delegado.buscarPorUsuario(usuario.getUsername()) != null) {
+            delegado.actualizar(usuario);
+        } else {
+            delegado.crear(usuario);
+        }
+    }
+}
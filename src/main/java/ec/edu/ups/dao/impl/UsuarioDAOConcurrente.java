@@ -0,0 +1,162 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.dao.CarritoDAO;
+import ec.edu.ups.dao.UsuarioDAO;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Credenciales;
+import ec.edu.ups.util.Paginacion;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Usuarios en un mapa concurrente ordenado cuya clave es el username sin espacios y en minusculas, asi que las
+ * busquedas no distinguen mayusculas, dos registros con "Ana" y "ana" no pueden convivir y las paginas siguen el
+ * orden de esa clave. Cada rol tiene su propio mapa para
+ * listar por rol sin recorrer a todos; ambos se actualizan dentro del {@code compute} de la clave. Al renombrar,
+ * la clave nueva se reserva antes de soltar la anterior, asi que el usuario nunca deja de encontrarse.
+ */
+public class UsuarioDAOConcurrente implements UsuarioDAO {
+
+    private final ConcurrentNavigableMap<String, Usuario> usuarios;
+    private final EnumMap<Rol, ConcurrentMap<String, Usuario>> usuariosPorRol;
+    private final Object cerrojoRenombrar = new Object();
+
+    public UsuarioDAOConcurrente() {
+        usuarios = new ConcurrentSkipListMap<>();
+        usuariosPorRol = new EnumMap<>(Rol.class);
+        for (Rol rol : Rol.values()) {
+            usuariosPorRol.put(rol, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public Usuario autenticar(String username, String password) {
+        Usuario usuario = buscarPorUsuario(username);
+        boolean valida = Credenciales.verificar(usuario != null ? usuario.getHashPassword() : null, password);
+        return valida ? usuario : null;
+    }
+
+    @Override
+    public void crear(Usuario usuario) {
+        usuarios.compute(clave(usuario.getUsername()), (clave, anterior) -> indexar(clave, anterior, usuario));
+    }
+
+    @Override
+    public boolean crearSiNoExiste(Usuario usuario) {
+        boolean[] creado = new boolean[1];
+        usuarios.computeIfAbsent(clave(usuario.getUsername()), clave -> {
+            creado[0] = true;
+            return indexar(clave, null, usuario);
+        });
+        return creado[0];
+    }
+
+    @Override
+    public Usuario buscarPorUsuario(String username) {
+        return username == null ? null : usuarios.get(clave(username));
+    }
+
+    @Override
+    public void eliminar(String username) {
+        usuarios.computeIfPresent(clave(username), (clave, anterior) -> {
+            desindexar(clave, anterior);
+            return null;
+        });
+    }
+
+    @Override
+    public void actualizar(Usuario usuario) {
+        usuarios.computeIfPresent(clave(usuario.getUsername()), (clave, anterior) -> indexar(clave, anterior, usuario));
+    }
+
+    @Override
+    public boolean renombrar(String usernameAnterior, String usernameNuevo, CarritoDAO carritoDAO) {
+        String claveAnterior = clave(usernameAnterior);
+        String claveNueva = clave(usernameNuevo);
+        synchronized (cerrojoRenombrar) {
+            Usuario usuario = usuarios.get(claveAnterior);
+            if (usuario == null) {
+                return false;
+            }
+            if (!claveNueva.equals(claveAnterior)) {
+                boolean[] reservada = new boolean[1];
+                usuarios.computeIfAbsent(claveNueva, clave -> {
+                    reservada[0] = true;
+                    return indexar(clave, null, usuario);
+                });
+                if (!reservada[0]) {
+                    return false;
+                }
+            }
+            usuario.setUsername(usernameNuevo);
+            if (carritoDAO != null) {
+                carritoDAO.renombrarUsuario(usernameAnterior, usernameNuevo);
+            }
+            if (!claveNueva.equals(claveAnterior)) {
+                usuarios.computeIfPresent(claveAnterior, (clave, actual) -> {
+                    if (actual != usuario) {
+                        return actual;
+                    }
+                    desindexar(clave, actual);
+                    return null;
+                });
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public List<Usuario> listarAdministradores() {
+        return listarRol(Rol.ADMINISTRADOR);
+    }
+
+    @Override
+    public List<Usuario> listarUsuarios() {
+        return listarTodos();
+    }
+
+    @Override
+    public List<Usuario> listarRol(Rol rol) {
+        return rol == null ? new ArrayList<>() : new ArrayList<>(usuariosPorRol.get(rol).values());
+    }
+
+    @Override
+    public List<Usuario> listarTodos() {
+        return new ArrayList<>(usuarios.values());
+    }
+
+    @Override
+    public List<Usuario> listarPagina(String despuesDeUsername, int limite) {
+        return Paginacion.pagina(usuarios, despuesDeUsername != null ? clave(despuesDeUsername) : null, limite);
+    }
+
+    private Usuario indexar(String clave, Usuario anterior, Usuario usuario) {
+        desindexar(clave, anterior);
+        if (usuario.getRol() != null) {
+            usuariosPorRol.get(usuario.getRol()).put(clave, usuario);
+        }
+        return usuario;
+    }
+
+    /**
+     * Basta con el rol de la instancia guardada: los cambios llegan como copias, asi que nadie le cambia el rol a un
+     * usuario que ya esta en el mapa.
+     */
+    private void desindexar(String clave, Usuario anterior) {
+        if (anterior != null && anterior.getRol() != null) {
+            usuariosPorRol.get(anterior.getRol()).remove(clave);
+        }
+    }
+
+    private static String clave(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,37 +1,39 @@
 package ec.edu.ups.dao.impl;
 
+import ec.edu.ups.dao.CarritoDAO;
 import ec.edu.ups.dao.UsuarioDAO;
-import ec.edu.ups.modelo.Genero;
 import ec.edu.ups.modelo.Rol;
 import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Credenciales;
+import ec.edu.ups.util.Paginacion;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 public class UsuarioDAOMemoria implements UsuarioDAO {
 
     private List<Usuario> usuarios;
+    private final NavigableMap<String, Usuario> porUsername;
 
     public UsuarioDAOMemoria() {
         usuarios = new ArrayList<Usuario>();
-        crear(new Usuario("admin",Rol.ADMINISTRADOR,"12345","Lars Einar",18, Genero.MASCULINO,"0995421872","lars@gmail.com"));
-        crear(new Usuario("usuario",Rol.USUARIO,"12345","Lars Einar",18, Genero.MASCULINO,"0995421872","lars@gmail.com"));
+        porUsername = new TreeMap<>();
     }
 
     @Override
     public Usuario autenticar(String username, String password) {
-        for(Usuario usuario : usuarios) {
-            if (usuario.getUsername().equals(username) && usuario.getPassword().equals(password)) {
-                return usuario;
-            }
-        }
-        return null;
+        Usuario usuario = buscarPorUsuario(username);
+        boolean valida = Credenciales.verificar(usuario != null ? usuario.getHashPassword() : null, password);
+        return valida ? usuario : null;
     }
 
     @Override
     public void crear(Usuario usuario) {
         usuarios.add(usuario);
+        porUsername.put(usuario.getUsername(), usuario);
     }
 
     @Override
@@ -52,6 +54,7 @@ public class UsuarioDAOMemoria implements UsuarioDAO {
             Usuario usuario = iterator.next();
             if(usuario.getUsername().equals(username)) {
                 iterator.remove();
+                porUsername.remove(username);
                 break;
             }
         }
@@ -62,14 +65,30 @@ public class UsuarioDAOMemoria implements UsuarioDAO {
         for(int i = 0; i < usuarios.size(); i++) {
             if(usuarios.get(i).getUsername().equals(usuario.getUsername())) {
                 usuarios.set(i, usuario);
+                porUsername.put(usuario.getUsername(), usuario);
                 break;
             }
         }
     }
 
+    @Override
+    public boolean renombrar(String usernameAnterior, String usernameNuevo, CarritoDAO carritoDAO) {
+        Usuario usuario = buscarPorUsuario(usernameAnterior);
+        if (usuario == null || (!usernameAnterior.equals(usernameNuevo) && buscarPorUsuario(usernameNuevo) != null)) {
+            return false;
+        }
+        porUsername.remove(usernameAnterior);
+        usuario.setUsername(usernameNuevo);
+        porUsername.put(usernameNuevo, usuario);
+        if (carritoDAO != null) {
+            carritoDAO.renombrarUsuario(usernameAnterior, usernameNuevo);
+        }
+        return true;
+    }
+
     @Override
     public List<Usuario> listarAdministradores() {
-        return List.of();
+        return listarRol(Rol.ADMINISTRADOR);
     }
 
     @Override
@@ -92,4 +111,9 @@ public class UsuarioDAOMemoria implements UsuarioDAO {
     public List<Usuario> listarTodos() {
         return usuarios;
     }
+
+    @Override
+    public List<Usuario> listarPagina(String despuesDeUsername, int limite) {
+        return Paginacion.pagina(porUsername, despuesDeUsername, limite);
+    }
 }
\ No newline at end of file
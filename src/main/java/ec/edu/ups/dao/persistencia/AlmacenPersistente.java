@@ -0,0 +1,164 @@
+package ec.edu.ups.dao.persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Base de los DAO en archivo: los datos viven en memoria y cada cambio se anota en una bitacora.
+ * Al abrir se carga la ultima instantanea y se reproduce la bitacora; cada cierto numero de cambios
+ * se escribe una instantanea nueva y la bitacora se vacia.
+ */
+public abstract class AlmacenPersistente implements Closeable {
+
+    public static final int CAMBIOS_POR_INSTANTANEA = 100_000;
+
+    private static final int MAGICO = 0x43415252;
+    private static final int VERSION = 1;
+
+    private final Path directorio;
+    private final Path instantanea;
+    private final Path archivoBitacora;
+    private final BitacoraEscritura.Durabilidad durabilidad;
+    private final Object cerrojo = new Object();
+    private BitacoraEscritura bitacora;
+    private int cambiosSinInstantanea;
+
+    protected AlmacenPersistente(Path directorio, String nombre, BitacoraEscritura.Durabilidad durabilidad) {
+        this.directorio = directorio;
+        this.instantanea = directorio.resolve(nombre + ".snap");
+        this.archivoBitacora = directorio.resolve(nombre + ".wal");
+        this.durabilidad = durabilidad;
+    }
+
+    protected final void abrir() throws IOException {
+        Files.createDirectories(directorio);
+        Files.deleteIfExists(temporal());
+        if (Files.exists(instantanea)) {
+            limpiarEstado();
+            try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(instantanea), 1 << 16))) {
+                if (entrada.readInt() != MAGICO || entrada.readInt() != VERSION) {
+                    throw new IOException("Instantanea no reconocida: " + instantanea);
+                }
+                leerInstantanea(entrada);
+            }
+        }
+        cambiosSinInstantanea = BitacoraEscritura.reproducir(archivoBitacora, this::aplicar);
+        bitacora = new BitacoraEscritura(archivoBitacora, durabilidad);
+        if (cambiosSinInstantanea >= CAMBIOS_POR_INSTANTANEA) {
+            compactar();
+        }
+    }
+
+    /**
+     * Anota el cambio en la bitacora y despues lo aplica en memoria, bajo el mismo candado, para que la bitacora
+     * siga el orden real de los cambios: si el registro no se puede escribir, la memoria queda intacta. En modo
+     * sincrono no retorna hasta que el registro esta en disco. El cambio no debe fallar una vez anotado.
+     */
+    protected final void registrar(Escritura escritura, Runnable cambio) {
+        registrar(() -> true, escritura, cambio);
+    }
+
+    /**
+     * Igual que {@link #registrar(Escritura, Runnable)}, pero antes ejecuta {@code preparar} bajo el mismo candado:
+     * ahi se asignan claves o se comprueba que el cambio procede (por ejemplo, un alta cuya clave ya existe), y si
+     * devuelve {@code false} no se anota ni se aplica nada. Ninguna otra escritura del almacen se intercala.
+     */
+    protected final boolean registrar(BooleanSupplier preparar, Escritura escritura, Runnable cambio) {
+        long secuencia;
+        boolean compactar;
+        try {
+            synchronized (cerrojo) {
+                if (!preparar.getAsBoolean()) {
+                    return false;
+                }
+                ByteArrayOutputStream registro = new ByteArrayOutputStream(128);
+                DataOutputStream salida = new DataOutputStream(registro);
+                escritura.escribir(salida);
+                secuencia = bitacora.agregar(registro.toByteArray());
+                cambio.run();
+                compactar = ++cambiosSinInstantanea == CAMBIOS_POR_INSTANTANEA;
+            }
+            if (bitacora.esSincrona()) {
+                bitacora.esperar(secuencia);
+            }
+            if (compactar) {
+                compactar();
+            }
+            return true;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void compactar() throws IOException {
+        synchronized (cerrojo) {
+            bitacora.sincronizar();
+            Path temporal = temporal();
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16));
+                salida.writeInt(MAGICO);
+                salida.writeInt(VERSION);
+                escribirInstantanea(salida);
+                salida.flush();
+                canal.force(true);
+            }
+            Files.move(temporal, instantanea, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            sincronizarDirectorio(directorio);
+            bitacora.truncar();
+            cambiosSinInstantanea = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (cerrojo) {
+            bitacora.close();
+        }
+    }
+
+    protected abstract void limpiarEstado();
+
+    protected abstract void escribirInstantanea(DataOutputStream salida) throws IOException;
+
+    protected abstract void leerInstantanea(DataInputStream entrada) throws IOException;
+
+    protected abstract void aplicar(DataInputStream registro) throws IOException;
+
+    /**
+     * El rename solo es durable cuando el directorio llega a disco; sin esto, un corte tras vaciar la bitacora
+     * podria dejar la instantanea anterior y una bitacora vacia. Windows no permite abrir un directorio, y alli
+     * el rename ya es durable al volver.
+     */
+    static void sincronizarDirectorio(Path directorio) throws IOException {
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException ex) {
+            if (!System.getProperty("os.name", "").startsWith("Windows")) {
+                throw ex;
+            }
+        }
+    }
+
+    private Path temporal() {
+        return instantanea.resolveSibling(instantanea.getFileName() + ".tmp");
+    }
+
+    @FunctionalInterface
+    protected interface Escritura {
+        void escribir(DataOutputStream salida) throws IOException;
+    }
+}
@@ -0,0 +1,241 @@
+package ec.edu.ups.dao.persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Bitacora binaria de solo escritura al final (write-ahead log). Cada registro lleva su longitud y un CRC32.
+ * Un hilo escritor vuelca los registros acumulados y hace un unico fsync por lote (group commit).
+ */
+public class BitacoraEscritura implements Closeable {
+
+    public enum Durabilidad {
+        /** Quien registra espera hasta que su registro esta en disco. */
+        SINCRONA,
+        /** Quien registra no espera; el lote se vuelca a disco cada pocos milisegundos. */
+        DIFERIDA
+    }
+
+    private static final long INTERVALO_DIFERIDO_MS = 10;
+
+    private final FileChannel canal;
+    private final Durabilidad durabilidad;
+    private final Thread escritor;
+    private Bufer pendiente;
+    private Bufer enEscritura;
+    private long secuenciaAgregada;
+    private long secuenciaDurable;
+    private IOException error;
+    private boolean cerrada;
+
+    public BitacoraEscritura(Path archivo, Durabilidad durabilidad) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.canal.position(canal.size());
+        this.durabilidad = durabilidad;
+        this.pendiente = new Bufer();
+        this.enEscritura = new Bufer();
+        this.escritor = new Thread(this::escribirPendientes, "bitacora-" + archivo.getFileName());
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    public static int reproducir(Path archivo, LectorRegistro lector) throws IOException {
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long tamaño = canal.size();
+            long valido = 0;
+            int registros = 0;
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(Channels.newInputStream(canal), 1 << 16));
+            CRC32 crc = new CRC32();
+            try {
+                while (valido + 8 <= tamaño) {
+                    int longitud = entrada.readInt();
+                    int suma = entrada.readInt();
+                    if (longitud < 0 || valido + 8 + longitud > tamaño) {
+                        break;
+                    }
+                    byte[] datos = new byte[longitud];
+                    entrada.readFully(datos);
+                    crc.reset();
+                    crc.update(datos);
+                    if ((int) crc.getValue() != suma) {
+                        break;
+                    }
+                    lector.leer(new DataInputStream(new ByteArrayInputStream(datos)));
+                    valido += 8 + longitud;
+                    registros++;
+                }
+            } catch (EOFException ex) {
+                // registro incompleto al final: se descarta
+            }
+            if (valido < tamaño) {
+                canal.truncate(valido);
+                canal.force(true);
+            }
+            return registros;
+        }
+    }
+
+    public long agregar(byte[] datos) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(datos);
+        synchronized (this) {
+            verificarDisponible();
+            boolean estabaVacio = pendiente.size() == 0;
+            pendiente.escribirEntero(datos.length);
+            pendiente.escribirEntero((int) crc.getValue());
+            pendiente.write(datos, 0, datos.length);
+            if (durabilidad == Durabilidad.SINCRONA || estabaVacio) {
+                notifyAll();
+            }
+            return ++secuenciaAgregada;
+        }
+    }
+
+    public synchronized void esperar(long secuencia) throws IOException {
+        while (secuenciaDurable < secuencia) {
+            verificarDisponible();
+            try {
+                wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrumpido esperando la bitacora");
+            }
+        }
+    }
+
+    public boolean esSincrona() {
+        return durabilidad == Durabilidad.SINCRONA;
+    }
+
+    public void sincronizar() throws IOException {
+        long secuencia;
+        synchronized (this) {
+            secuencia = secuenciaAgregada;
+            notifyAll();
+        }
+        esperar(secuencia);
+    }
+
+    /**
+     * Vacia la bitacora. Quien llama debe garantizar que nadie agrega registros mientras tanto.
+     */
+    public void truncar() throws IOException {
+        sincronizar();
+        synchronized (this) {
+            canal.truncate(0);
+            canal.force(true);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (cerrada) {
+                return;
+            }
+            cerrada = true;
+            notifyAll();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void verificarDisponible() throws IOException {
+        if (error != null) {
+            throw error;
+        }
+        if (cerrada) {
+            throw new IOException("La bitacora esta cerrada");
+        }
+    }
+
+    private void escribirPendientes() {
+        while (true) {
+            Bufer lote;
+            long objetivo;
+            synchronized (this) {
+                try {
+                    while (pendiente.size() == 0 && !cerrada) {
+                        wait();
+                    }
+                    if (durabilidad == Durabilidad.DIFERIDA && !cerrada) {
+                        wait(INTERVALO_DIFERIDO_MS);
+                    }
+                } catch (InterruptedException ex) {
+                    cerrada = true;
+                }
+                if (pendiente.size() == 0) {
+                    return;
+                }
+                lote = pendiente;
+                pendiente = enEscritura;
+                enEscritura = lote;
+                objetivo = secuenciaAgregada;
+            }
+            try {
+                ByteBuffer datos = lote.comoByteBuffer();
+                while (datos.hasRemaining()) {
+                    canal.write(datos);
+                }
+                canal.force(false);
+                lote.reset();
+            } catch (IOException ex) {
+                synchronized (this) {
+                    error = ex;
+                    notifyAll();
+                }
+                return;
+            }
+            synchronized (this) {
+                secuenciaDurable = objetivo;
+                notifyAll();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface LectorRegistro {
+        void leer(DataInputStream registro) throws IOException;
+    }
+
+    private static class Bufer extends ByteArrayOutputStream {
+
+        Bufer() {
+            super(1 << 16);
+        }
+
+        void escribirEntero(int valor) {
+            write(valor >>> 24);
+            write(valor >>> 16);
+            write(valor >>> 8);
+            write(valor);
+        }
+
+        ByteBuffer comoByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package ec.edu.ups.dao.persistencia;
+
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.util.IndiceTexto;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Catalogo de productos en un archivo mapeado en memoria, fuera del heap. Columnas de ancho fijo (codigo,
+ * precio en centavos y desplazamiento en el monton de nombres), tablas hash por codigo y por nombre normalizado,
+ * y dos montones UTF-8: el nombre original y el normalizado, que se usa para buscar sin decodificar cadenas.
+ * Los {@link Producto} solo se crean cuando se piden.
+ */
+public final class CatalogoMapeado {
+
+    public enum Comparacion { EXACTO, PREFIJO, SUBCADENA }
+
+    private static final int MAGICO = 0x43415431;
+    private static final int VERSION = 1;
+    private static final int CABECERA = 32;
+    private static final int[] EN_ORDEN = new int[0];
+
+    private final int cantidad;
+    private final int mascara;
+    private final IntBuffer codigos;
+    private final LongBuffer precios;
+    private final IntBuffer desplazamientos;
+    private final IntBuffer desplazamientosNormalizados;
+    private final IntBuffer tabla;
+    private final IntBuffer tablaNombres;
+    private final ByteBuffer nombres;
+    private final ByteBuffer normalizados;
+    private volatile int[] orden;
+
+    private CatalogoMapeado(FileChannel canal) throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+        while (cabecera.hasRemaining()) {
+            if (canal.read(cabecera, cabecera.position()) < 0) {
+                break;
+            }
+        }
+        cabecera.flip();
+        if (cabecera.remaining() < CABECERA || cabecera.getInt() != MAGICO || cabecera.getInt() != VERSION) {
+            throw new IOException("El archivo no es un catalogo valido");
+        }
+        this.cantidad = cabecera.getInt();
+        int ranuras = cabecera.getInt();
+        long bytesNombres = cabecera.getLong();
+        long bytesNormalizados = cabecera.getLong();
+        Disposicion disposicion = new Disposicion(cantidad, ranuras, bytesNombres);
+        if (canal.size() < disposicion.normalizados + bytesNormalizados) {
+            throw new IOException("El catalogo esta incompleto");
+        }
+        this.mascara = ranuras - 1;
+        this.codigos = mapear(canal, FileChannel.MapMode.READ_ONLY, disposicion.codigos, 4L * cantidad).asIntBuffer();
+        this.precios = mapear(canal, FileChannel.MapMode.READ_ONLY, disposicion.precios, 8L * cantidad).asLongBuffer();
+        this.desplazamientos = mapear(canal, FileChannel.MapMode.READ_ONLY, disposicion.desplazamientos, 4L * (cantidad + 1)).asIntBuffer();
+        this.desplazamientosNormalizados = mapear(canal, FileChannel.MapMode.READ_ONLY, disposicion.desplazamientosNormalizados, 4L * (cantidad + 1)).asIntBuffer();
+        this.tabla = mapear(canal, FileChannel.MapMode.READ_ONLY, disposicion.tabla, 4L * ranuras).asIntBuffer();
+        this.tablaNombres = mapear(canal, FileChannel.MapMode.READ_ONLY, disposicion.tablaNombres, 4L * ranuras).asIntBuffer();
+        this.nombres = mapear(canal, FileChannel.MapMode.READ_ONLY, disposicion.nombres, bytesNombres);
+        this.normalizados = mapear(canal, FileChannel.MapMode.READ_ONLY, disposicion.normalizados, bytesNormalizados);
+    }
+
+    public static CatalogoMapeado abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            return new CatalogoMapeado(canal);
+        }
+    }
+
+    /**
+     * Escribe el catalogo en un archivo temporal y lo reemplaza de forma atomica. Los catalogos ya abiertos
+     * sobre el archivo anterior siguen siendo validos.
+     */
+    public static void escribir(Path archivo, List<Producto> productos) throws IOException {
+        escribir(archivo, productos.size(), productos.iterator());
+    }
+
+    /**
+     * Igual que {@link #escribir(Path, List)}, pero los productos se piden de a uno mientras se escriben: quien
+     * reescribe un catalogo grande no necesita tenerlo entero en el heap. {@code productos} debe entregar
+     * exactamente {@code cantidad} productos.
+     */
+    public static void escribir(Path archivo, int cantidad, Iterator<Producto> productos) throws IOException {
+        int ranuras = Integer.highestOneBit(Math.max(2, cantidad * 2 - 1)) << 1;
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        Path temporalNormalizados = archivo.resolveSibling(archivo.getFileName() + ".nombres.tmp");
+        Disposicion disposicion = new Disposicion(cantidad, ranuras, 0);
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel canalNormalizados = FileChannel.open(temporalNormalizados, StandardOpenOption.CREATE,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.DELETE_ON_CLOSE)) {
+            MappedByteBuffer[] columnas = {
+                    mapear(canal, FileChannel.MapMode.READ_WRITE, disposicion.codigos, 4L * cantidad),
+                    mapear(canal, FileChannel.MapMode.READ_WRITE, disposicion.precios, 8L * cantidad),
+                    mapear(canal, FileChannel.MapMode.READ_WRITE, disposicion.desplazamientos, 4L * (cantidad + 1)),
+                    mapear(canal, FileChannel.MapMode.READ_WRITE, disposicion.desplazamientosNormalizados, 4L * (cantidad + 1)),
+                    mapear(canal, FileChannel.MapMode.READ_WRITE, disposicion.tabla, 4L * ranuras),
+                    mapear(canal, FileChannel.MapMode.READ_WRITE, disposicion.tablaNombres, 4L * ranuras)
+            };
+            IntBuffer codigos = columnas[0].asIntBuffer();
+            LongBuffer precios = columnas[1].asLongBuffer();
+            IntBuffer desplazamientos = columnas[2].asIntBuffer();
+            IntBuffer desplazamientosNormalizados = columnas[3].asIntBuffer();
+            IntBuffer tabla = columnas[4].asIntBuffer();
+            IntBuffer tablaNombres = columnas[5].asIntBuffer();
+            int mascara = ranuras - 1;
+
+            canal.position(disposicion.nombres);
+            OutputStream salidaNombres = new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16);
+            OutputStream salidaNormalizados = new BufferedOutputStream(Channels.newOutputStream(canalNormalizados), 1 << 16);
+            long bytesNombres = 0;
+            long bytesNormalizados = 0;
+            for (int fila = 0; fila < cantidad; fila++) {
+                if (!productos.hasNext()) {
+                    throw new IllegalArgumentException("Se esperaban " + cantidad + " productos y hubo " + fila);
+                }
+                Producto producto = productos.next();
+                int codigo = producto.getCodigo();
+                int ranura = dispersar(codigo) & mascara;
+                while (tabla.get(ranura) != 0) {
+                    if (codigos.get(tabla.get(ranura) - 1) == codigo) {
+                        throw new IllegalArgumentException("Codigo repetido en el catalogo: " + codigo);
+                    }
+                    ranura = (ranura + 1) & mascara;
+                }
+                tabla.put(ranura, fila + 1);
+                codigos.put(fila, codigo);
+                precios.put(fila, producto.getPrecio() != null ? producto.getPrecio().getCentavos() : 0);
+
+                byte[] nombre = producto.getNombre() != null ? producto.getNombre().getBytes(StandardCharsets.UTF_8) : new byte[0];
+                byte[] normalizado = IndiceTexto.normalizar(producto.getNombre()).getBytes(StandardCharsets.UTF_8);
+                ranura = dispersar(normalizado) & mascara;
+                while (tablaNombres.get(ranura) != 0) {
+                    ranura = (ranura + 1) & mascara;
+                }
+                tablaNombres.put(ranura, fila + 1);
+                desplazamientos.put(fila, (int) bytesNombres);
+                desplazamientosNormalizados.put(fila, (int) bytesNormalizados);
+                salidaNombres.write(nombre);
+                salidaNormalizados.write(normalizado);
+                bytesNombres += nombre.length;
+                bytesNormalizados += normalizado.length;
+                if (bytesNombres > Integer.MAX_VALUE || bytesNormalizados > Integer.MAX_VALUE) {
+                    throw new IOException("Los nombres del catalogo superan 2 GB");
+                }
+            }
+            if (productos.hasNext()) {
+                throw new IllegalArgumentException("Hay mas de " + cantidad + " productos");
+            }
+            desplazamientos.put(cantidad, (int) bytesNombres);
+            desplazamientosNormalizados.put(cantidad, (int) bytesNormalizados);
+            salidaNombres.flush();
+            salidaNormalizados.flush();
+
+            long destino = disposicion.nombres + bytesNombres;
+            long copiados = 0;
+            while (copiados < bytesNormalizados) {
+                copiados += canal.transferFrom(canalNormalizados.position(copiados), destino + copiados, bytesNormalizados - copiados);
+            }
+
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+            cabecera.putInt(MAGICO).putInt(VERSION).putInt(cantidad).putInt(ranuras)
+                    .putLong(bytesNombres).putLong(bytesNormalizados).flip();
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera, cabecera.position());
+            }
+            for (MappedByteBuffer columna : columnas) {
+                columna.force();
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        AlmacenPersistente.sincronizarDirectorio(archivo.toAbsolutePath().getParent());
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    /**
+     * @return la fila del codigo o -1 si no esta en el catalogo
+     */
+    public int buscarFila(int codigo) {
+        int ranura = dispersar(codigo) & mascara;
+        int entrada;
+        while ((entrada = tabla.get(ranura)) != 0) {
+            if (codigos.get(entrada - 1) == codigo) {
+                return entrada - 1;
+            }
+            ranura = (ranura + 1) & mascara;
+        }
+        return -1;
+    }
+
+    public int codigo(int fila) {
+        return codigos.get(fila);
+    }
+
+    public long precioCentavos(int fila) {
+        return precios.get(fila);
+    }
+
+    public String nombre(int fila) {
+        int inicio = desplazamientos.get(fila);
+        byte[] bytes = new byte[desplazamientos.get(fila + 1) - inicio];
+        nombres.get(inicio, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Producto producto(int fila) {
+        return new Producto(codigo(fila), nombre(fila), Dinero.deCentavos(precioCentavos(fila)));
+    }
+
+    /**
+     * La fila que ocupa {@code posicion} en orden de codigo. Un catalogo escrito con los productos ordenados (como
+     * lo deja {@code ProductoDAOMapeado.compactar()}) ya esta en ese orden; para los demas se arma una sola vez
+     * una permutacion de 4 bytes por fila.
+     */
+    public int filaEnOrden(int posicion) {
+        int[] permutacion = orden();
+        return permutacion == EN_ORDEN ? posicion : permutacion[posicion];
+    }
+
+    /**
+     * Posicion, en orden de codigo, del primer producto con codigo mayor que {@code codigo}. Busqueda binaria.
+     */
+    public int posicionDespuesDe(int codigo) {
+        int desde = 0;
+        int hasta = cantidad;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (codigos.get(filaEnOrden(medio)) <= codigo) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    private int[] orden() {
+        int[] actual = orden;
+        if (actual == null) {
+            actual = calcularOrden();
+            orden = actual;
+        }
+        return actual;
+    }
+
+    private int[] calcularOrden() {
+        boolean ordenado = true;
+        for (int fila = 1; fila < cantidad && ordenado; fila++) {
+            ordenado = codigos.get(fila - 1) < codigos.get(fila);
+        }
+        if (ordenado) {
+            return EN_ORDEN;
+        }
+        long[] pares = new long[cantidad];
+        for (int fila = 0; fila < cantidad; fila++) {
+            pares[fila] = (long) codigos.get(fila) << 32 | fila;
+        }
+        Arrays.sort(pares);
+        int[] permutacion = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            permutacion[i] = (int) pares[i];
+        }
+        return permutacion;
+    }
+
+    /**
+     * La busqueda exacta usa la tabla por nombre; prefijo y subcadena recorren los nombres normalizados
+     * comparando bytes directamente sobre el archivo mapeado, en O(n * m) para n filas y m bytes buscados. Un indice
+     * de gramas como el de {@code IndiceTexto} no se puede escribir fila por fila sin tenerlo entero en el heap.
+     */
+    public void buscarFilas(String texto, Comparacion comparacion, IntConsumer destino) {
+        byte[] buscado = IndiceTexto.normalizar(texto).getBytes(StandardCharsets.UTF_8);
+        if (comparacion == Comparacion.EXACTO) {
+            buscarExacto(buscado, destino);
+            return;
+        }
+        for (int fila = 0; fila < cantidad; fila++) {
+            int inicio = desplazamientosNormalizados.get(fila);
+            int longitud = desplazamientosNormalizados.get(fila + 1) - inicio;
+            boolean coincide;
+            if (comparacion == Comparacion.PREFIJO) {
+                coincide = longitud >= buscado.length && contiene(inicio, buscado);
+            } else {
+                coincide = false;
+                for (int i = 0; i + buscado.length <= longitud && !coincide; i++) {
+                    coincide = contiene(inicio + i, buscado);
+                }
+            }
+            if (coincide) {
+                destino.accept(fila);
+            }
+        }
+    }
+
+    private void buscarExacto(byte[] buscado, IntConsumer destino) {
+        int ranura = dispersar(buscado) & mascara;
+        int entrada;
+        while ((entrada = tablaNombres.get(ranura)) != 0) {
+            int fila = entrada - 1;
+            int inicio = desplazamientosNormalizados.get(fila);
+            if (desplazamientosNormalizados.get(fila + 1) - inicio == buscado.length && contiene(inicio, buscado)) {
+                destino.accept(fila);
+            }
+            ranura = (ranura + 1) & mascara;
+        }
+    }
+
+    private boolean contiene(int posicion, byte[] buscado) {
+        for (int i = 0; i < buscado.length; i++) {
+            if (normalizados.get(posicion + i) != buscado[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int dispersar(int codigo) {
+        int mezcla = codigo * 0x9E3779B9;
+        return mezcla ^ (mezcla >>> 16);
+    }
+
+    private static int dispersar(byte[] texto) {
+        int mezcla = 0x811C9DC5;
+        for (byte b : texto) {
+            mezcla = (mezcla ^ b) * 0x01000193;
+        }
+        return dispersar(mezcla);
+    }
+
+    private static MappedByteBuffer mapear(FileChannel canal, FileChannel.MapMode modo, long posicion, long longitud) throws IOException {
+        if (longitud > Integer.MAX_VALUE) {
+            throw new IOException("Columna del catalogo demasiado grande: " + longitud + " bytes");
+        }
+        MappedByteBuffer buffer = canal.map(modo, posicion, longitud);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static final class Disposicion {
+
+        final long codigos;
+        final long precios;
+        final long desplazamientos;
+        final long desplazamientosNormalizados;
+        final long tabla;
+        final long tablaNombres;
+        final long nombres;
+        final long normalizados;
+
+        Disposicion(int cantidad, int ranuras, long bytesNombres) {
+            codigos = CABECERA;
+            precios = (codigos + 4L * cantidad + 7) & ~7L;
+            desplazamientos = precios + 8L * cantidad;
+            desplazamientosNormalizados = desplazamientos + 4L * (cantidad + 1);
+            tabla = desplazamientosNormalizados + 4L * (cantidad + 1);
+            tablaNombres = tabla + 4L * ranuras;
+            nombres = tablaNombres + 4L * ranuras;
+            normalizados = nombres + bytesNombres;
+        }
+    }
+}
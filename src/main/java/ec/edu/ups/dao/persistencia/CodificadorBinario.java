@@ -0,0 +1,121 @@
+package ec.edu.ups.dao.persistencia;
+
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Genero;
+import ec.edu.ups.modelo.ItemCarrito;
+import ec.edu.ups.modelo.Pregunta;
+import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.modelo.Respuesta;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.TasaImpuesto;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Credenciales;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public final class CodificadorBinario {
+
+    private CodificadorBinario() {
+    }
+
+    public static void escribirProducto(DataOutput salida, Producto producto) throws IOException {
+        salida.writeInt(producto.getCodigo());
+        escribirTexto(salida, producto.getNombre());
+        salida.writeLong(producto.getPrecio() != null ? producto.getPrecio().getCentavos() : 0);
+    }
+
+    public static Producto leerProducto(DataInput entrada) throws IOException {
+        int codigo = entrada.readInt();
+        String nombre = leerTexto(entrada);
+        return new Producto(codigo, nombre, Dinero.deCentavos(entrada.readLong()));
+    }
+
+    public static void escribirUsuario(DataOutput salida, Usuario usuario) throws IOException {
+        escribirTexto(salida, usuario.getUsername());
+        escribirTexto(salida, usuario.getRol() != null ? usuario.getRol().name() : null);
+        escribirTexto(salida, usuario.getHashPassword());
+        escribirTexto(salida, usuario.getNombreCompleto());
+        salida.writeInt(usuario.getEdad());
+        escribirTexto(salida, usuario.getGenero() != null ? usuario.getGenero().name() : null);
+        escribirTexto(salida, usuario.getTelefono());
+        escribirTexto(salida, usuario.getEmail());
+        List<Respuesta> respuestas = usuario.getRespuestasSeguridad();
+        salida.writeInt(respuestas != null ? respuestas.size() : 0);
+        if (respuestas != null) {
+            for (Respuesta respuesta : respuestas) {
+                salida.writeInt(respuesta.getPregunta().getId());
+                escribirTexto(salida, null);
+                escribirTexto(salida, respuesta.getHashRespuesta());
+            }
+        }
+    }
+
+    public static Usuario leerUsuario(DataInput entrada) throws IOException {
+        String username = leerTexto(entrada);
+        String rol = leerTexto(entrada);
+        String password = leerTexto(entrada);
+        String nombreCompleto = leerTexto(entrada);
+        int edad = entrada.readInt();
+        String genero = leerTexto(entrada);
+        String telefono = leerTexto(entrada);
+        String email = leerTexto(entrada);
+        Usuario usuario = new Usuario(username, rol != null ? Rol.valueOf(rol) : null, null, nombreCompleto, edad,
+                genero != null ? Genero.valueOf(genero) : null, telefono, email);
+        usuario.setHashPassword(Credenciales.asegurarHash(password));
+        int respuestas = entrada.readInt();
+        List<Respuesta> lista = new ArrayList<>(respuestas);
+        for (int i = 0; i < respuestas; i++) {
+            Pregunta pregunta = Pregunta.porId(entrada.readInt());
+            leerTexto(entrada);
+            String respuesta = leerTexto(entrada);
+            lista.add(Credenciales.esHash(respuesta) ? Respuesta.conHash(pregunta, respuesta) : new Respuesta(pregunta, respuesta));
+        }
+        usuario.setRespuestasSeguridad(lista);
+        return usuario;
+    }
+
+    public static void escribirCarrito(DataOutput salida, Carrito carrito) throws IOException {
+        salida.writeInt(carrito.getCodigo());
+        salida.writeLong(carrito.getFechaMilisegundos());
+        escribirTexto(salida, carrito.getUsuario() != null ? carrito.getUsuario().getUsername() : null);
+        salida.writeInt(carrito.getTasaIVA().getPuntosBasicos());
+        List<ItemCarrito> items = carrito.obtenerItems();
+        salida.writeInt(items.size());
+        for (ItemCarrito item : items) {
+            escribirProducto(salida, item.getProducto());
+            salida.writeInt(item.getCantidad());
+        }
+    }
+
+    public static Carrito leerCarrito(DataInput entrada, Function<String, Usuario> usuarios) throws IOException {
+        int codigo = entrada.readInt();
+        long milisegundos = entrada.readLong();
+        String username = leerTexto(entrada);
+        Carrito carrito = new Carrito(codigo, null, username != null ? usuarios.apply(username) : null);
+        carrito.setFechaMilisegundos(milisegundos);
+        carrito.setTasaIVA(TasaImpuesto.dePuntosBasicos(entrada.readInt()));
+        int items = entrada.readInt();
+        for (int i = 0; i < items; i++) {
+            Producto producto = leerProducto(entrada);
+            carrito.agregarProducto(producto, entrada.readInt());
+        }
+        return carrito;
+    }
+
+    public static void escribirTexto(DataOutput salida, String texto) throws IOException {
+        salida.writeBoolean(texto != null);
+        if (texto != null) {
+            salida.writeUTF(texto);
+        }
+    }
+
+    public static String leerTexto(DataInput entrada) throws IOException {
+        return entrada.readBoolean() ? entrada.readUTF() : null;
+    }
+}
@@ -0,0 +1,60 @@
+package ec.edu.ups.dao.persistencia;
+
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.ItemCarrito;
+import ec.edu.ups.modelo.Producto;
+
+/**
+ * Carritos en CSV para contabilidad: una fila por item con los datos del carrito repetidos, y una fila sin
+ * producto para los carritos vacios, de modo que todo carrito aparece. El IVA va como porcentaje
+ * ({@code 15.00}).
+ */
+public final class CodificadorCsv {
+
+    private static final String[] ENCABEZADO_CARRITOS = {
+            "carrito", "usuario", "fecha", "porcentajeIVA", "producto", "nombre", "precio", "cantidad", "subtotal"};
+
+    private CodificadorCsv() {
+    }
+
+    public static void escribirEncabezadoCarritos(SalidaCsv salida) {
+        for (String columna : ENCABEZADO_CARRITOS) {
+            salida.valor(columna);
+        }
+        salida.finFila();
+    }
+
+    /**
+     * El username se lee una sola vez: si el dueño se renombra mientras se exporta, todas las filas del carrito
+     * llevan el mismo nombre.
+     */
+    public static void escribirCarrito(SalidaCsv salida, Carrito carrito) {
+        String username = carrito.getUsuario() != null ? carrito.getUsuario().getUsername() : null;
+        if (carrito.obtenerItems().isEmpty()) {
+            escribirDatosCarrito(salida, carrito, username);
+            salida.vacio().vacio().vacio().vacio().vacio().finFila();
+            return;
+        }
+        for (ItemCarrito item : carrito.obtenerItems()) {
+            escribirDatosCarrito(salida, carrito, username);
+            Producto producto = item.getProducto();
+            salida.valor(producto.getCodigo())
+                    .valor(producto.getNombre())
+                    .centavos(producto.getPrecio() != null ? producto.getPrecio().getCentavos() : 0)
+                    .valor(item.getCantidad())
+                    .centavos(item.getSubtotalCentavos())
+                    .finFila();
+        }
+    }
+
+    private static void escribirDatosCarrito(SalidaCsv salida, Carrito carrito, String username) {
+        salida.valor(carrito.getCodigo())
+                .valor(username);
+        if (carrito.getFechaMilisegundos() != Carrito.SIN_FECHA) {
+            salida.fecha(carrito.getFechaMilisegundos());
+        } else {
+            salida.vacio();
+        }
+        salida.centavos(carrito.getTasaIVA().getPuntosBasicos());
+    }
+}
@@ -0,0 +1,269 @@
+package ec.edu.ups.dao.persistencia;
+
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Genero;
+import ec.edu.ups.modelo.ItemCarrito;
+import ec.edu.ups.modelo.Pregunta;
+import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.modelo.Respuesta;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.TasaImpuesto;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Credenciales;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Version JSON de {@link CodificadorBinario}, escrita a mano sobre {@link SalidaJson} y {@link EntradaJson}. Los
+ * lectores aceptan los campos en cualquier orden e ignoran los que no conocen (por ejemplo los totales que se
+ * escriben en cada carrito).
+ */
+public final class CodificadorJson {
+
+    private static final byte[] CODIGO = SalidaJson.nombre("codigo");
+    private static final byte[] NOMBRE = SalidaJson.nombre("nombre");
+    private static final byte[] PRECIO = SalidaJson.nombre("precio");
+    private static final byte[] PRODUCTO = SalidaJson.nombre("producto");
+    private static final byte[] CANTIDAD = SalidaJson.nombre("cantidad");
+    private static final byte[] SUBTOTAL = SalidaJson.nombre("subtotal");
+    private static final byte[] USUARIO = SalidaJson.nombre("usuario");
+    private static final byte[] FECHA = SalidaJson.nombre("fecha");
+    private static final byte[] TASA_IVA = SalidaJson.nombre("tasaIVA");
+    private static final byte[] ITEMS = SalidaJson.nombre("items");
+    private static final byte[] IVA = SalidaJson.nombre("iva");
+    private static final byte[] TOTAL = SalidaJson.nombre("total");
+    private static final byte[] PREGUNTA = SalidaJson.nombre("pregunta");
+    private static final byte[] ID = SalidaJson.nombre("id");
+    private static final byte[] RESPUESTA = SalidaJson.nombre("respuesta");
+    private static final byte[] USERNAME = SalidaJson.nombre("username");
+    private static final byte[] ROL = SalidaJson.nombre("rol");
+    private static final byte[] NOMBRE_COMPLETO = SalidaJson.nombre("nombreCompleto");
+    private static final byte[] EDAD = SalidaJson.nombre("edad");
+    private static final byte[] GENERO = SalidaJson.nombre("genero");
+    private static final byte[] TELEFONO = SalidaJson.nombre("telefono");
+    private static final byte[] EMAIL = SalidaJson.nombre("email");
+    private static final byte[] PASSWORD = SalidaJson.nombre("password");
+    private static final byte[] RESPUESTAS = SalidaJson.nombre("respuestas");
+
+    private CodificadorJson() {
+    }
+
+    public static void escribirProducto(SalidaJson salida, Producto producto) {
+        salida.abrirObjeto()
+                .campo(CODIGO).valor(producto.getCodigo())
+                .campo(NOMBRE).valor(producto.getNombre())
+                .campo(PRECIO).centavos(producto.getPrecio() != null ? producto.getPrecio().getCentavos() : 0)
+                .cerrarObjeto();
+    }
+
+    public static Producto leerProducto(EntradaJson entrada) {
+        Producto producto = new Producto();
+        entrada.abrirObjeto();
+        while (entrada.siguienteCampo()) {
+            if (entrada.campoEs("codigo")) {
+                producto.setCodigo(entrada.leerEntero());
+            } else if (entrada.campoEs("nombre")) {
+                producto.setNombre(entrada.leerTexto());
+            } else if (entrada.campoEs("precio")) {
+                producto.setPrecio(Dinero.deCentavos(entrada.leerCentavos()));
+            } else {
+                entrada.saltarValor();
+            }
+        }
+        return producto;
+    }
+
+    public static void escribirItem(SalidaJson salida, ItemCarrito item) {
+        salida.abrirObjeto().campo(PRODUCTO);
+        escribirProducto(salida, item.getProducto());
+        salida.campo(CANTIDAD).valor(item.getCantidad())
+                .campo(SUBTOTAL).centavos(item.getSubtotalCentavos())
+                .cerrarObjeto();
+    }
+
+    public static ItemCarrito leerItem(EntradaJson entrada) {
+        Producto producto = null;
+        int cantidad = 0;
+        entrada.abrirObjeto();
+        while (entrada.siguienteCampo()) {
+            if (entrada.campoEs("producto")) {
+                producto = leerProducto(entrada);
+            } else if (entrada.campoEs("cantidad")) {
+                cantidad = entrada.leerEntero();
+            } else {
+                entrada.saltarValor();
+            }
+        }
+        return new ItemCarrito(producto, cantidad);
+    }
+
+    public static void escribirCarrito(SalidaJson salida, Carrito carrito) {
+        salida.abrirObjeto()
+                .campo(CODIGO).valor(carrito.getCodigo())
+                .campo(USUARIO).valor(carrito.getUsuario() != null ? carrito.getUsuario().getUsername() : null);
+        salida.campo(FECHA);
+        if (carrito.getFechaMilisegundos() != Carrito.SIN_FECHA) {
+            salida.fecha(carrito.getFechaMilisegundos());
+        } else {
+            salida.nulo();
+        }
+        salida.campo(TASA_IVA).valor(carrito.getTasaIVA().getPuntosBasicos())
+                .campo(ITEMS).abrirLista();
+        for (ItemCarrito item : carrito.obtenerItems()) {
+            escribirItem(salida, item);
+        }
+        long subtotal = carrito.getSubtotalCentavos();
+        long iva = carrito.getIVACentavos();
+        salida.cerrarLista()
+                .campo(SUBTOTAL).centavos(subtotal)
+                .campo(IVA).centavos(iva)
+                .campo(TOTAL).centavos(subtotal + iva)
+                .cerrarObjeto();
+    }
+
+    public static Carrito leerCarrito(EntradaJson entrada, Function<String, Usuario> usuarios) {
+        Carrito carrito = new Carrito(0, null, null);
+        entrada.abrirObjeto();
+        while (entrada.siguienteCampo()) {
+            if (entrada.campoEs("codigo")) {
+                carrito.setCodigo(entrada.leerEntero());
+            } else if (entrada.campoEs("usuario")) {
+                String username = entrada.leerTexto();
+                carrito.setUsuario(username != null ? usuarios.apply(username) : null);
+            } else if (entrada.campoEs("fecha")) {
+                long milisegundos = entrada.leerFecha();
+                carrito.setFechaMilisegundos(milisegundos != EntradaJson.SIN_FECHA ? milisegundos : Carrito.SIN_FECHA);
+            } else if (entrada.campoEs("tasaIVA")) {
+                carrito.setTasaIVA(TasaImpuesto.dePuntosBasicos(entrada.leerEntero()));
+            } else if (entrada.campoEs("items")) {
+                entrada.abrirLista();
+                while (entrada.siguienteElemento()) {
+                    leerItem(entrada, carrito);
+                }
+            } else {
+                entrada.saltarValor();
+            }
+        }
+        return carrito;
+    }
+
+    private static void leerItem(EntradaJson entrada, Carrito carrito) {
+        Producto producto = null;
+        int cantidad = 0;
+        entrada.abrirObjeto();
+        while (entrada.siguienteCampo()) {
+            if (entrada.campoEs("producto")) {
+                producto = leerProducto(entrada);
+            } else if (entrada.campoEs("cantidad")) {
+                cantidad = entrada.leerEntero();
+            } else {
+                entrada.saltarValor();
+            }
+        }
+        if (producto == null) {
+            throw new IllegalArgumentException("Item sin producto en el carrito " + carrito.getCodigo());
+        }
+        carrito.agregarProducto(producto, cantidad);
+    }
+
+    public static void escribirRespuesta(SalidaJson salida, Respuesta respuesta) {
+        salida.abrirObjeto()
+                .campo(PREGUNTA).abrirObjeto()
+                .campo(ID).valor(respuesta.getPregunta().getId())
+                .cerrarObjeto()
+                .campo(RESPUESTA).valor(respuesta.getHashRespuesta())
+                .cerrarObjeto();
+    }
+
+    public static Respuesta leerRespuesta(EntradaJson entrada) {
+        Pregunta pregunta = null;
+        String respuesta = null;
+        entrada.abrirObjeto();
+        while (entrada.siguienteCampo()) {
+            if (entrada.campoEs("pregunta")) {
+                entrada.abrirObjeto();
+                while (entrada.siguienteCampo()) {
+                    if (entrada.campoEs("id")) {
+                        pregunta = Pregunta.porId(entrada.leerEntero());
+                    } else {
+                        entrada.saltarValor();
+                    }
+                }
+            } else if (entrada.campoEs("respuesta")) {
+                respuesta = entrada.leerTexto();
+            } else {
+                entrada.saltarValor();
+            }
+        }
+        return Credenciales.esHash(respuesta) ? Respuesta.conHash(pregunta, respuesta) : new Respuesta(pregunta, respuesta);
+    }
+
+    /**
+     * Con {@code credenciales} en falso solo escribe los datos publicos; en verdadero agrega el hash de la
+     * contraseña y las respuestas de seguridad, como hace {@link CodificadorBinario} al persistir.
+     */
+    public static void escribirUsuario(SalidaJson salida, Usuario usuario, boolean credenciales) {
+        salida.abrirObjeto()
+                .campo(USERNAME).valor(usuario.getUsername())
+                .campo(ROL).valor(usuario.getRol() != null ? usuario.getRol().name() : null)
+                .campo(NOMBRE_COMPLETO).valor(usuario.getNombreCompleto())
+                .campo(EDAD).valor(usuario.getEdad())
+                .campo(GENERO).valor(usuario.getGenero() != null ? usuario.getGenero().name() : null)
+                .campo(TELEFONO).valor(usuario.getTelefono())
+                .campo(EMAIL).valor(usuario.getEmail());
+        if (credenciales) {
+            salida.campo(PASSWORD).valor(usuario.getHashPassword()).campo(RESPUESTAS).abrirLista();
+            if (usuario.getRespuestasSeguridad() != null) {
+                for (Respuesta respuesta : usuario.getRespuestasSeguridad()) {
+                    escribirRespuesta(salida, respuesta);
+                }
+            }
+            salida.cerrarLista();
+        }
+        salida.cerrarObjeto();
+    }
+
+    /**
+     * Una contraseña en texto plano (datos de antes de los hashes) se convierte al leerla.
+     */
+    public static Usuario leerUsuario(EntradaJson entrada) {
+        Usuario usuario = new Usuario(null, null, null, null, 0, null, null, null);
+        List<Respuesta> respuestas = new ArrayList<>();
+        entrada.abrirObjeto();
+        while (entrada.siguienteCampo()) {
+            if (entrada.campoEs("username")) {
+                usuario.setUsername(entrada.leerTexto());
+            } else if (entrada.campoEs("rol")) {
+                String rol = entrada.leerTexto();
+                usuario.setRol(rol != null ? Rol.valueOf(rol) : null);
+            } else if (entrada.campoEs("nombreCompleto")) {
+                usuario.setNombreCompleto(entrada.leerTexto());
+            } else if (entrada.campoEs("edad")) {
+                usuario.setEdad(entrada.leerEntero());
+            } else if (entrada.campoEs("genero")) {
+                String genero = entrada.leerTexto();
+                usuario.setGenero(genero != null ? Genero.valueOf(genero) : null);
+            } else if (entrada.campoEs("telefono")) {
+                usuario.setTelefono(entrada.leerTexto());
+            } else if (entrada.campoEs("email")) {
+                usuario.setEmail(entrada.leerTexto());
+            } else if (entrada.campoEs("password")) {
+                usuario.setHashPassword(Credenciales.asegurarHash(entrada.leerTexto()));
+            } else if (entrada.campoEs("respuestas")) {
+                if (!entrada.leerNulo()) {
+                    entrada.abrirLista();
+                    while (entrada.siguienteElemento()) {
+                        respuestas.add(leerRespuesta(entrada));
+                    }
+                }
+            } else {
+                entrada.saltarValor();
+            }
+        }
+        usuario.setRespuestasSeguridad(respuestas);
+        return usuario;
+    }
+}
@@ -0,0 +1,572 @@
+package ec.edu.ups.dao.persistencia;
+
+import ec.edu.ups.modelo.Dinero;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Lector JSON de una sola pasada sobre bytes UTF-8, sin arbol intermedio: quien llama recorre el documento campo
+ * por campo y pide cada valor con el tipo que espera. Los nombres de campo se comparan con {@link #campoEs} sin
+ * crear cadenas, y los textos sin escapes se decodifican directo del arreglo. Varios documentos seguidos (JSON
+ * Lines) se leen con {@link #hayMas}.
+ *
+ * <pre>
+ * entrada.abrirObjeto();
+ * while (entrada.siguienteCampo()) {
+ *     if (entrada.campoEs("codigo")) codigo = entrada.leerEntero();
+ *     else entrada.saltarValor();
+ * }
+ * </pre>
+ *
+ * Los errores de formato son {@link IllegalArgumentException}; un numero invalido donde se esperaba uno es
+ * {@link NumberFormatException}.
+ */
+public final class EntradaJson {
+
+    /**
+     * Lo que devuelve {@link #leerFecha} cuando el valor es {@code null}.
+     */
+    public static final long SIN_FECHA = Long.MIN_VALUE;
+
+    private static final int PROFUNDIDAD_MAXIMA = 256;
+
+    private final byte[] datos;
+    private final int fin;
+    private int posicion;
+    private boolean coma;
+    private int inicioCampo;
+    private int finCampo;
+    private byte[] auxiliar;
+
+    public EntradaJson(byte[] datos) {
+        this(datos, 0, datos.length);
+    }
+
+    public EntradaJson(byte[] datos, int desde, int hasta) {
+        this.datos = datos;
+        this.posicion = desde;
+        this.fin = hasta;
+    }
+
+    public void abrirObjeto() {
+        esperar('{');
+        coma = false;
+    }
+
+    /**
+     * Avanza al siguiente campo del objeto abierto y deja la posicion en su valor; {@code false} al cerrar el objeto.
+     */
+    public boolean siguienteCampo() {
+        if (!siguiente('}')) {
+            return false;
+        }
+        if (byteActual() != '"') {
+            throw error();
+        }
+        inicioCampo = posicion + 1;
+        finCampo = inicioCampo;
+        while (finCampo < fin && datos[finCampo] != '"') {
+            if (datos[finCampo] == '\\') {
+                // Nombre con escapes: no coincide con ningun campo conocido, pero hay que saltarlo entero.
+                posicion = inicioCampo - 1;
+                saltarTexto();
+                inicioCampo = finCampo = 0;
+                esperar(':');
+                coma = false;
+                return true;
+            }
+            finCampo++;
+        }
+        if (finCampo >= fin) {
+            throw error();
+        }
+        posicion = finCampo + 1;
+        esperar(':');
+        coma = false;
+        return true;
+    }
+
+    /**
+     * Compara el nombre del campo actual con uno ASCII.
+     */
+    public boolean campoEs(String nombre) {
+        int largo = nombre.length();
+        if (finCampo - inicioCampo != largo) {
+            return false;
+        }
+        for (int i = 0; i < largo; i++) {
+            if (datos[inicioCampo + i] != nombre.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void abrirLista() {
+        esperar('[');
+        coma = false;
+    }
+
+    /**
+     * {@code true} si la lista abierta tiene otro elemento; la posicion queda en ese elemento.
+     */
+    public boolean siguienteElemento() {
+        return siguiente(']');
+    }
+
+    /**
+     * Consume un {@code null} si es lo que sigue.
+     */
+    public boolean leerNulo() {
+        espacios();
+        if (posicion + 4 <= fin && datos[posicion] == 'n' && datos[posicion + 1] == 'u' && datos[posicion + 2] == 'l'
+                && datos[posicion + 3] == 'l') {
+            posicion += 4;
+            coma = true;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean leerBooleano() {
+        espacios();
+        boolean valor = coincide("true");
+        if (!valor && !coincide("false")) {
+            throw error();
+        }
+        posicion += valor ? 4 : 5;
+        coma = true;
+        return valor;
+    }
+
+    public int leerEntero() {
+        long valor = leerLargo();
+        if (valor != (int) valor) {
+            throw new NumberFormatException("Fuera de rango: " + valor);
+        }
+        return (int) valor;
+    }
+
+    public long leerLargo() {
+        espacios();
+        int inicio = posicion;
+        boolean negativo = posicion < fin && datos[posicion] == '-';
+        if (negativo) {
+            posicion++;
+        }
+        long valor = 0;
+        int digitos = 0;
+        while (posicion < fin && datos[posicion] >= '0' && datos[posicion] <= '9') {
+            valor = valor * 10 + (datos[posicion++] - '0');
+            digitos++;
+        }
+        if (digitos == 0 || posicion < fin && esParteDeNumero(datos[posicion])) {
+            throw numeroInvalido(inicio);
+        }
+        if (digitos > 18) {
+            valor = Long.parseLong(new String(datos, inicio, posicion - inicio, StandardCharsets.US_ASCII));
+            coma = true;
+            return valor;
+        }
+        coma = true;
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Lee un numero decimal como centavos; con mas de dos decimales lo rechaza igual que {@link Dinero#deDecimal}.
+     */
+    public long leerCentavos() {
+        espacios();
+        int inicio = posicion;
+        boolean negativo = posicion < fin && datos[posicion] == '-';
+        if (negativo) {
+            posicion++;
+        }
+        long entero = 0;
+        int digitos = 0;
+        while (posicion < fin && datos[posicion] >= '0' && datos[posicion] <= '9' && digitos < 17) {
+            entero = entero * 10 + (datos[posicion++] - '0');
+            digitos++;
+        }
+        long fraccion = 0;
+        int decimales = 0;
+        if (digitos > 0 && posicion < fin && datos[posicion] == '.') {
+            posicion++;
+            while (posicion < fin && datos[posicion] >= '0' && datos[posicion] <= '9' && decimales < 2) {
+                fraccion = fraccion * 10 + (datos[posicion++] - '0');
+                decimales++;
+            }
+            if (decimales == 0) {
+                throw numeroInvalido(inicio);
+            }
+        }
+        if (digitos == 0 || posicion < fin && esParteDeNumero(datos[posicion])) {
+            while (posicion < fin && esParteDeNumero(datos[posicion])) {
+                posicion++;
+            }
+            coma = true;
+            return Dinero.deDecimal(new String(datos, inicio, posicion - inicio, StandardCharsets.US_ASCII)).getCentavos();
+        }
+        long centavos = entero * 100 + (decimales == 1 ? fraccion * 10 : fraccion);
+        coma = true;
+        return negativo ? -centavos : centavos;
+    }
+
+    /**
+     * Acepta el instante ISO-8601 que escribe {@link SalidaJson#fecha}, cualquier otro que entienda
+     * {@link Instant#parse}, milisegundos desde la epoca o {@code null} ({@link #SIN_FECHA}).
+     */
+    public long leerFecha() {
+        if (leerNulo()) {
+            return SIN_FECHA;
+        }
+        if (byteActual() != '"') {
+            return leerLargo();
+        }
+        int inicio = posicion + 1;
+        if (inicio + 24 < fin && datos[inicio + 24] == '"' && datos[inicio + 4] == '-' && datos[inicio + 7] == '-'
+                && datos[inicio + 10] == 'T' && datos[inicio + 13] == ':' && datos[inicio + 16] == ':'
+                && datos[inicio + 19] == '.' && datos[inicio + 23] == 'Z') {
+            int año = digitos(inicio, 4);
+            int mes = digitos(inicio + 5, 2);
+            int dia = digitos(inicio + 8, 2);
+            int hora = digitos(inicio + 11, 2);
+            int minuto = digitos(inicio + 14, 2);
+            int segundo = digitos(inicio + 17, 2);
+            int milis = digitos(inicio + 20, 3);
+            if (año >= 0 && mes >= 1 && mes <= 12 && dia >= 1 && dia <= 31 && hora >= 0 && hora < 24 && minuto >= 0
+                    && minuto < 60 && segundo >= 0 && segundo < 60 && milis >= 0) {
+                posicion = inicio + 25;
+                coma = true;
+                return diasDesdeEpoca(año, mes, dia) * 86_400_000L + hora * 3_600_000L + minuto * 60_000L
+                        + segundo * 1000L + milis;
+            }
+        }
+        String texto = leerTexto();
+        try {
+            return Instant.parse(texto).toEpochMilli();
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Fecha invalida: " + texto);
+        }
+    }
+
+    public String leerTexto() {
+        if (leerNulo()) {
+            return null;
+        }
+        esperar('"');
+        int inicio = posicion;
+        while (posicion < fin) {
+            byte b = datos[posicion];
+            if (b == '"') {
+                posicion++;
+                coma = true;
+                return new String(datos, inicio, posicion - 1 - inicio, StandardCharsets.UTF_8);
+            }
+            if (b == '\\') {
+                return leerTextoConEscapes(inicio);
+            }
+            posicion++;
+        }
+        throw error();
+    }
+
+    /**
+     * Salta el valor actual, sea simple, objeto o lista, con la misma exigencia que si se leyera: un valor vacio, un
+     * cierre que no corresponde o un literal que no es JSON son error. Objetos y listas se anidan hasta
+     * {@value #PROFUNDIDAD_MAXIMA} niveles.
+     */
+    public void saltarValor() {
+        saltarValor(0);
+    }
+
+    private void saltarValor(int profundidad) {
+        if (profundidad >= PROFUNDIDAD_MAXIMA) {
+            throw error();
+        }
+        byte b = byteActual();
+        if (b == '{') {
+            abrirObjeto();
+            while (siguienteCampo()) {
+                saltarValor(profundidad + 1);
+            }
+        } else if (b == '[') {
+            abrirLista();
+            while (siguienteElemento()) {
+                saltarValor(profundidad + 1);
+            }
+        } else if (b == '"') {
+            saltarTexto();
+            coma = true;
+        } else if (b == 't' || b == 'f') {
+            leerBooleano();
+        } else if (!leerNulo()) {
+            saltarNumero();
+        }
+    }
+
+    private void saltarNumero() {
+        if (datos[posicion] == '-') {
+            posicion++;
+        }
+        if (posicion < fin && datos[posicion] == '0') {
+            posicion++;
+        } else if (saltarDigitos() == 0) {
+            throw error();
+        }
+        if (posicion < fin && datos[posicion] == '.') {
+            posicion++;
+            if (saltarDigitos() == 0) {
+                throw error();
+            }
+        }
+        if (posicion < fin && (datos[posicion] == 'e' || datos[posicion] == 'E')) {
+            posicion++;
+            if (posicion < fin && (datos[posicion] == '+' || datos[posicion] == '-')) {
+                posicion++;
+            }
+            if (saltarDigitos() == 0) {
+                throw error();
+            }
+        }
+        if (posicion < fin && esParteDeNumero(datos[posicion])) {
+            throw error();
+        }
+        coma = true;
+    }
+
+    private int saltarDigitos() {
+        int inicio = posicion;
+        while (posicion < fin && datos[posicion] >= '0' && datos[posicion] <= '9') {
+            posicion++;
+        }
+        return posicion - inicio;
+    }
+
+    /**
+     * {@code true} si queda otro documento despues de espacios y saltos de linea.
+     */
+    public boolean hayMas() {
+        espacios();
+        coma = false;
+        return posicion < fin;
+    }
+
+    /**
+     * Exige que despues del documento solo haya espacios.
+     */
+    public void terminar() {
+        if (hayMas()) {
+            throw error();
+        }
+    }
+
+    public int posicion() {
+        return posicion;
+    }
+
+    private boolean siguiente(char cierre) {
+        espacios();
+        if (posicion < fin && datos[posicion] == cierre) {
+            posicion++;
+            coma = true;
+            return false;
+        }
+        if (coma) {
+            esperar(',');
+            espacios();
+        }
+        if (posicion >= fin) {
+            throw error();
+        }
+        return true;
+    }
+
+    private String leerTextoConEscapes(int inicio) {
+        int largo = 0;
+        if (auxiliar == null || auxiliar.length < posicion - inicio + 16) {
+            auxiliar = new byte[Math.max(64, (posicion - inicio) * 2 + 16)];
+        }
+        System.arraycopy(datos, inicio, auxiliar, 0, posicion - inicio);
+        largo = posicion - inicio;
+        while (posicion < fin) {
+            byte b = datos[posicion++];
+            if (largo + 6 > auxiliar.length) {
+                auxiliar = Arrays.copyOf(auxiliar, auxiliar.length * 2);
+            }
+            if (b == '"') {
+                coma = true;
+                return new String(auxiliar, 0, largo, StandardCharsets.UTF_8);
+            }
+            if (b != '\\') {
+                auxiliar[largo++] = b;
+                continue;
+            }
+            if (posicion >= fin) {
+                break;
+            }
+            byte escape = datos[posicion++];
+            switch (escape) {
+                case 'n': auxiliar[largo++] = '\n'; break;
+                case 'r': auxiliar[largo++] = '\r'; break;
+                case 't': auxiliar[largo++] = '\t'; break;
+                case 'b': auxiliar[largo++] = '\b'; break;
+                case 'f': auxiliar[largo++] = '\f'; break;
+                case '"': case '\\': case '/': auxiliar[largo++] = escape; break;
+                case 'u':
+                    int punto = hexadecimal();
+                    if (Character.isHighSurrogate((char) punto) && posicion + 6 <= fin && datos[posicion] == '\\'
+                            && datos[posicion + 1] == 'u') {
+                        posicion += 2;
+                        int bajo = hexadecimal();
+                        punto = Character.isLowSurrogate((char) bajo) ? Character.toCodePoint((char) punto, (char) bajo) : '?';
+                    } else if (Character.isSurrogate((char) punto)) {
+                        punto = '?';
+                    }
+                    largo = codificar(punto, largo);
+                    break;
+                default:
+                    throw error();
+            }
+        }
+        throw error();
+    }
+
+    private int codificar(int punto, int largo) {
+        if (punto < 0x80) {
+            auxiliar[largo++] = (byte) punto;
+        } else if (punto < 0x800) {
+            auxiliar[largo++] = (byte) (0xC0 | punto >> 6);
+            auxiliar[largo++] = (byte) (0x80 | punto & 0x3F);
+        } else if (punto < 0x10000) {
+            auxiliar[largo++] = (byte) (0xE0 | punto >> 12);
+            auxiliar[largo++] = (byte) (0x80 | punto >> 6 & 0x3F);
+            auxiliar[largo++] = (byte) (0x80 | punto & 0x3F);
+        } else {
+            auxiliar[largo++] = (byte) (0xF0 | punto >> 18);
+            auxiliar[largo++] = (byte) (0x80 | punto >> 12 & 0x3F);
+            auxiliar[largo++] = (byte) (0x80 | punto >> 6 & 0x3F);
+            auxiliar[largo++] = (byte) (0x80 | punto & 0x3F);
+        }
+        return largo;
+    }
+
+    private int hexadecimal() {
+        if (posicion + 4 > fin) {
+            throw error();
+        }
+        int valor = 0;
+        for (int i = 0; i < 4; i++) {
+            int digito = Character.digit(datos[posicion++], 16);
+            if (digito < 0) {
+                throw error();
+            }
+            valor = valor << 4 | digito;
+        }
+        return valor;
+    }
+
+    private void saltarTexto() {
+        posicion++;
+        while (posicion < fin) {
+            byte b = datos[posicion++];
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                if (posicion >= fin) {
+                    break;
+                }
+                byte escape = datos[posicion++];
+                if (escape == 'u') {
+                    hexadecimal();
+                } else if ("\"\\/bfnrt".indexOf(escape) < 0) {
+                    throw error();
+                }
+            }
+        }
+        throw error();
+    }
+
+    private int digitos(int desde, int cantidad) {
+        int valor = 0;
+        for (int i = desde; i < desde + cantidad; i++) {
+            int digito = datos[i] - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    private static long diasDesdeEpoca(int año, int mes, int dia) {
+        long y = mes <= 2 ? año - 1 : año;
+        long era = Math.floorDiv(y, 400);
+        long añoEra = y - era * 400;
+        long diaAño = (153L * (mes > 2 ? mes - 3 : mes + 9) + 2) / 5 + dia - 1;
+        long diaEra = añoEra * 365 + añoEra / 4 - añoEra / 100 + diaAño;
+        return era * 146_097 + diaEra - 719_468;
+    }
+
+    private boolean coincide(String literal) {
+        if (posicion + literal.length() > fin) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (datos[posicion + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esParteDeNumero(byte b) {
+        return b >= '0' && b <= '9' || b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-';
+    }
+
+    private static boolean esParteDeLiteral(byte b) {
+        return b != ',' && b != '}' && b != ']' && b != ' ' && b != '\n' && b != '\r' && b != '\t';
+    }
+
+    private byte byteActual() {
+        espacios();
+        if (posicion >= fin) {
+            throw error();
+        }
+        return datos[posicion];
+    }
+
+    private void espacios() {
+        while (posicion < fin) {
+            byte b = datos[posicion];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            posicion++;
+        }
+    }
+
+    private void esperar(char c) {
+        espacios();
+        if (posicion >= fin || datos[posicion] != c) {
+            throw error();
+        }
+        posicion++;
+    }
+
+    private NumberFormatException numeroInvalido(int inicio) {
+        int hasta = posicion;
+        while (hasta < fin && esParteDeLiteral(datos[hasta])) {
+            hasta++;
+        }
+        return new NumberFormatException(new String(datos, inicio, Math.min(hasta - inicio, 40), StandardCharsets.UTF_8));
+    }
+
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("JSON invalido en la posicion " + posicion);
+    }
+}
@@ -0,0 +1,164 @@
+package ec.edu.ups.dao.persistencia;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Escritor CSV (RFC 4180) sobre un arreglo de bytes UTF-8 reutilizable, pareja de {@link SalidaJson}: numeros,
+ * importes y fechas se escriben con las mismas rutinas y sin crear cadenas, y un texto solo va entre comillas si
+ * tiene comas, comillas o saltos de linea. Las comas entre campos se ponen solas.
+ */
+public final class SalidaCsv {
+
+    private static final byte[] FIN_FILA = {'\r', '\n'};
+
+    private byte[] datos;
+    private int tamaño;
+    private boolean coma;
+
+    public SalidaCsv() {
+        this(8192);
+    }
+
+    public SalidaCsv(int capacidad) {
+        this.datos = new byte[Math.max(32, capacidad)];
+    }
+
+    public SalidaCsv valor(long numero) {
+        separar(20);
+        tamaño = SalidaJson.escribirLargo(datos, tamaño, numero);
+        return this;
+    }
+
+    /**
+     * Un {@code null} deja el campo vacio.
+     */
+    @SuppressWarnings("deprecation")
+    public SalidaCsv valor(String texto) {
+        separar(0);
+        if (texto == null) {
+            return this;
+        }
+        int largo = texto.length();
+        boolean ascii = true;
+        boolean comillas = false;
+        for (int i = 0; i < largo; i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x80) {
+                ascii = false;
+            } else if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                comillas = true;
+            }
+        }
+        if (!comillas) {
+            if (ascii) {
+                asegurar(largo);
+                texto.getBytes(0, largo, datos, tamaño);
+                tamaño += largo;
+            } else {
+                escribir(texto.getBytes(StandardCharsets.UTF_8));
+            }
+            return this;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        asegurar(bytes.length * 2 + 2);
+        datos[tamaño++] = '"';
+        for (byte b : bytes) {
+            if (b == '"') {
+                datos[tamaño++] = '"';
+            }
+            datos[tamaño++] = b;
+        }
+        datos[tamaño++] = '"';
+        return this;
+    }
+
+    public SalidaCsv vacio() {
+        separar(0);
+        return this;
+    }
+
+    /**
+     * Numero con dos decimales exactos ({@code 1234} se escribe {@code 12.34}).
+     */
+    public SalidaCsv centavos(long centavos) {
+        separar(24);
+        tamaño = SalidaJson.escribirCentavos(datos, tamaño, centavos);
+        return this;
+    }
+
+    /**
+     * Instante ISO-8601 en UTC con milisegundos, como en {@link SalidaJson#fecha}.
+     */
+    public SalidaCsv fecha(long milisegundos) {
+        separar(24);
+        int fin = SalidaJson.escribirFecha(datos, tamaño, milisegundos);
+        if (fin < 0) {
+            escribir(Instant.ofEpochMilli(milisegundos).toString().getBytes(StandardCharsets.US_ASCII));
+        } else {
+            tamaño = fin;
+        }
+        return this;
+    }
+
+    public SalidaCsv finFila() {
+        escribir(FIN_FILA);
+        coma = false;
+        return this;
+    }
+
+    public int tamaño() {
+        return tamaño;
+    }
+
+    public void reiniciar() {
+        tamaño = 0;
+        coma = false;
+    }
+
+    /**
+     * Escribe lo acumulado y deja el arreglo vacio para reutilizarlo.
+     */
+    public void escribirEn(OutputStream salida) throws IOException {
+        salida.write(datos, 0, tamaño);
+        reiniciar();
+    }
+
+    public void escribirEn(WritableByteChannel canal) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(datos, 0, tamaño);
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        reiniciar();
+    }
+
+    @Override
+    public String toString() {
+        return new String(datos, 0, tamaño, StandardCharsets.UTF_8);
+    }
+
+    private void separar(int adicional) {
+        asegurar(adicional + 1);
+        if (coma) {
+            datos[tamaño++] = ',';
+        }
+        coma = true;
+    }
+
+    private void escribir(byte[] bytes) {
+        asegurar(bytes.length);
+        System.arraycopy(bytes, 0, datos, tamaño, bytes.length);
+        tamaño += bytes.length;
+    }
+
+    private void asegurar(int adicional) {
+        if (tamaño + adicional > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(tamaño + adicional, datos.length * 2));
+        }
+    }
+}
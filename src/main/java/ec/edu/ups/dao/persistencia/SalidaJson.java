@@ -0,0 +1,375 @@
+package ec.edu.ups.dao.persistencia;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Escritor JSON sobre un arreglo de bytes UTF-8 reutilizable: los numeros, el dinero y las fechas se escriben
+ * digito a digito sin crear cadenas intermedias, y las comas entre campos y elementos se ponen solas. Tras
+ * {@link #escribirEn} o {@link #reiniciar} el mismo arreglo sirve para el siguiente documento.
+ */
+public final class SalidaJson {
+
+    private static final byte[] NULO = {'n', 'u', 'l', 'l'};
+    private static final byte[] VERDADERO = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSO = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEXADECIMAL = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MINIMO = "-9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+    private static final long MILIS_DIA = 86_400_000L;
+
+    private byte[] datos;
+    private int tamaño;
+    private boolean coma;
+
+    public SalidaJson() {
+        this(8192);
+    }
+
+    public SalidaJson(int capacidad) {
+        this.datos = new byte[Math.max(16, capacidad)];
+    }
+
+    public SalidaJson abrirObjeto() {
+        separar();
+        escribir('{');
+        coma = false;
+        return this;
+    }
+
+    public SalidaJson cerrarObjeto() {
+        escribir('}');
+        coma = true;
+        return this;
+    }
+
+    public SalidaJson abrirLista() {
+        separar();
+        escribir('[');
+        coma = false;
+        return this;
+    }
+
+    public SalidaJson cerrarLista() {
+        escribir(']');
+        coma = true;
+        return this;
+    }
+
+    /**
+     * Codifica una vez el nombre de un campo ({@code "nombre":}) para escribirlo luego con {@link #campo(byte[])};
+     * el nombre debe ser ASCII sin caracteres que escapar.
+     */
+    public static byte[] nombre(String nombre) {
+        return ('"' + nombre + "\":").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public SalidaJson campo(byte[] nombreCodificado) {
+        separar();
+        escribir(nombreCodificado);
+        coma = false;
+        return this;
+    }
+
+    public SalidaJson campo(String nombre) {
+        return campo(nombre(nombre));
+    }
+
+    public SalidaJson valor(long numero) {
+        separar();
+        escribirLargo(numero);
+        coma = true;
+        return this;
+    }
+
+    public SalidaJson valor(boolean booleano) {
+        separar();
+        escribir(booleano ? VERDADERO : FALSO);
+        coma = true;
+        return this;
+    }
+
+    public SalidaJson valor(String texto) {
+        separar();
+        if (texto == null) {
+            escribir(NULO);
+        } else {
+            escribirTexto(texto);
+        }
+        coma = true;
+        return this;
+    }
+
+    public SalidaJson nulo() {
+        separar();
+        escribir(NULO);
+        coma = true;
+        return this;
+    }
+
+    /**
+     * Numero con dos decimales exactos ({@code 1234} se escribe {@code 12.34}).
+     */
+    public SalidaJson centavos(long centavos) {
+        separar();
+        asegurar(24);
+        tamaño = escribirCentavos(datos, tamaño, centavos);
+        coma = true;
+        return this;
+    }
+
+    /**
+     * Instante ISO-8601 en UTC con milisegundos ({@code "2025-06-01T14:30:00.000Z"}).
+     */
+    public SalidaJson fecha(long milisegundos) {
+        separar();
+        asegurar(26);
+        int fin = escribirFecha(datos, tamaño + 1, milisegundos);
+        if (fin < 0) {
+            escribirTexto(Instant.ofEpochMilli(milisegundos).toString());
+        } else {
+            datos[tamaño] = '"';
+            datos[fin] = '"';
+            tamaño = fin + 1;
+        }
+        coma = true;
+        return this;
+    }
+
+    /**
+     * Termina un documento en formato JSON Lines: agrega un salto de linea y el siguiente valor empieza sin coma.
+     */
+    public SalidaJson nuevaLinea() {
+        escribir('\n');
+        coma = false;
+        return this;
+    }
+
+    public int tamaño() {
+        return tamaño;
+    }
+
+    public void reiniciar() {
+        tamaño = 0;
+        coma = false;
+    }
+
+    /**
+     * Escribe lo acumulado y deja el arreglo vacio para reutilizarlo.
+     */
+    public void escribirEn(OutputStream salida) throws IOException {
+        salida.write(datos, 0, tamaño);
+        reiniciar();
+    }
+
+    public void escribirEn(WritableByteChannel canal) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(datos, 0, tamaño);
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        reiniciar();
+    }
+
+    public byte[] aBytes() {
+        return Arrays.copyOf(datos, tamaño);
+    }
+
+    @Override
+    public String toString() {
+        return new String(datos, 0, tamaño, StandardCharsets.UTF_8);
+    }
+
+    private void separar() {
+        if (coma) {
+            escribir(',');
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void escribirTexto(String texto) {
+        int largo = texto.length();
+        int simples = 0;
+        while (simples < largo) {
+            char c = texto.charAt(simples);
+            if (c < 0x20 || c >= 0x80 || c == '"' || c == '\\') {
+                break;
+            }
+            simples++;
+        }
+        asegurar(largo + 2);
+        datos[tamaño++] = '"';
+        // El prefijo ASCII sin escapes se copia de una vez; String.getBytes(int, int, byte[], int) toma el byte bajo
+        // de cada caracter, que en ese rango es exactamente su UTF-8.
+        texto.getBytes(0, simples, datos, tamaño);
+        tamaño += simples;
+        for (int i = simples; i < largo; i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                datos[tamaño++] = (byte) c;
+                continue;
+            }
+            asegurar(largo - i + 8);
+            if (c == '"' || c == '\\') {
+                datos[tamaño++] = '\\';
+                datos[tamaño++] = (byte) c;
+            } else if (c < 0x20) {
+                escribirControl(c);
+            } else if (c < 0x800) {
+                datos[tamaño++] = (byte) (0xC0 | c >> 6);
+                datos[tamaño++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < largo && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int punto = Character.toCodePoint(c, texto.charAt(++i));
+                datos[tamaño++] = (byte) (0xF0 | punto >> 18);
+                datos[tamaño++] = (byte) (0x80 | punto >> 12 & 0x3F);
+                datos[tamaño++] = (byte) (0x80 | punto >> 6 & 0x3F);
+                datos[tamaño++] = (byte) (0x80 | punto & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                datos[tamaño++] = '?';
+            } else {
+                datos[tamaño++] = (byte) (0xE0 | c >> 12);
+                datos[tamaño++] = (byte) (0x80 | c >> 6 & 0x3F);
+                datos[tamaño++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        asegurar(1);
+        datos[tamaño++] = '"';
+    }
+
+    private void escribirControl(char c) {
+        datos[tamaño++] = '\\';
+        switch (c) {
+            case '\n': datos[tamaño++] = 'n'; break;
+            case '\r': datos[tamaño++] = 'r'; break;
+            case '\t': datos[tamaño++] = 't'; break;
+            case '\b': datos[tamaño++] = 'b'; break;
+            case '\f': datos[tamaño++] = 'f'; break;
+            default:
+                datos[tamaño++] = 'u';
+                datos[tamaño++] = '0';
+                datos[tamaño++] = '0';
+                datos[tamaño++] = HEXADECIMAL[c >> 4];
+                datos[tamaño++] = HEXADECIMAL[c & 0xF];
+        }
+    }
+
+    private void escribirLargo(long numero) {
+        asegurar(20);
+        tamaño = escribirLargo(datos, tamaño, numero);
+    }
+
+    /**
+     * Escribe {@code numero} en {@code destino} desde {@code posicion} (caben hasta 20 bytes) y devuelve donde
+     * termina. Lo comparte {@link SalidaCsv}, igual que {@link #escribirCentavos} y {@link #escribirFecha}.
+     */
+    static int escribirLargo(byte[] destino, int posicion, long numero) {
+        if (numero == Long.MIN_VALUE) {
+            System.arraycopy(MINIMO, 0, destino, posicion, MINIMO.length);
+            return posicion + MINIMO.length;
+        }
+        if (numero < 0) {
+            destino[posicion++] = '-';
+            numero = -numero;
+        }
+        int digitos = 1;
+        for (long limite = 10; digitos < 19 && numero >= limite; limite *= 10) {
+            digitos++;
+        }
+        int fin = posicion + digitos;
+        posicion = fin;
+        while (numero >= 100) {
+            int par = (int) (numero % 100);
+            numero /= 100;
+            destino[--posicion] = (byte) ('0' + par % 10);
+            destino[--posicion] = (byte) ('0' + par / 10);
+        }
+        destino[--posicion] = (byte) ('0' + numero % 10);
+        if (numero >= 10) {
+            destino[--posicion] = (byte) ('0' + numero / 10);
+        }
+        return fin;
+    }
+
+    /**
+     * Hasta 24 bytes.
+     */
+    static int escribirCentavos(byte[] destino, int posicion, long centavos) {
+        if (centavos < 0) {
+            destino[posicion++] = '-';
+            if (centavos == Long.MIN_VALUE) {
+                posicion = escribirLargo(destino, posicion, -(centavos / 100));
+                destino[posicion++] = '.';
+                return dosDigitos(destino, posicion, -(int) (centavos % 100));
+            }
+            centavos = -centavos;
+        }
+        posicion = escribirLargo(destino, posicion, centavos / 100);
+        destino[posicion++] = '.';
+        return dosDigitos(destino, posicion, (int) (centavos % 100));
+    }
+
+    /**
+     * {@code yyyy-MM-ddTHH:mm:ss.SSSZ} sin comillas (24 bytes), o -1 sin escribir nada si el año no tiene cuatro
+     * digitos.
+     */
+    static int escribirFecha(byte[] destino, int posicion, long milisegundos) {
+        long dias = Math.floorDiv(milisegundos, MILIS_DIA);
+        int enElDia = (int) Math.floorMod(milisegundos, MILIS_DIA);
+        long z = dias + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long diaEra = z - era * 146_097;
+        long añoEra = (diaEra - diaEra / 1460 + diaEra / 36_524 - diaEra / 146_096) / 365;
+        long diaAño = diaEra - (365 * añoEra + añoEra / 4 - añoEra / 100);
+        long mp = (5 * diaAño + 2) / 153;
+        int dia = (int) (diaAño - (153 * mp + 2) / 5 + 1);
+        int mes = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long año = añoEra + era * 400 + (mes <= 2 ? 1 : 0);
+        if (año < 0 || año > 9999) {
+            return -1;
+        }
+        posicion = dosDigitos(destino, posicion, (int) (año / 100));
+        posicion = dosDigitos(destino, posicion, (int) (año % 100));
+        destino[posicion++] = '-';
+        posicion = dosDigitos(destino, posicion, mes);
+        destino[posicion++] = '-';
+        posicion = dosDigitos(destino, posicion, dia);
+        destino[posicion++] = 'T';
+        posicion = dosDigitos(destino, posicion, enElDia / 3_600_000);
+        destino[posicion++] = ':';
+        posicion = dosDigitos(destino, posicion, enElDia / 60_000 % 60);
+        destino[posicion++] = ':';
+        posicion = dosDigitos(destino, posicion, enElDia / 1000 % 60);
+        destino[posicion++] = '.';
+        int milis = enElDia % 1000;
+        destino[posicion++] = (byte) ('0' + milis / 100);
+        posicion = dosDigitos(destino, posicion, milis % 100);
+        destino[posicion++] = 'Z';
+        return posicion;
+    }
+
+    private static int dosDigitos(byte[] destino, int posicion, int valor) {
+        destino[posicion] = (byte) ('0' + valor / 10);
+        destino[posicion + 1] = (byte) ('0' + valor % 10);
+        return posicion + 2;
+    }
+
+    private void escribir(char c) {
+        asegurar(1);
+        datos[tamaño++] = (byte) c;
+    }
+
+    private void escribir(byte[] bytes) {
+        asegurar(bytes.length);
+        System.arraycopy(bytes, 0, datos, tamaño, bytes.length);
+        tamaño += bytes.length;
+    }
+
+    private void asegurar(int adicional) {
+        if (tamaño + adicional > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(tamaño + adicional, datos.length * 2));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ec.edu.ups.exportacion;
+
+import ec.edu.ups.dao.CarritoDAO;
+import ec.edu.ups.dao.persistencia.CodificadorCsv;
+import ec.edu.ups.dao.persistencia.CodificadorJson;
+import ec.edu.ups.dao.persistencia.SalidaCsv;
+import ec.edu.ups.dao.persistencia.SalidaJson;
+import ec.edu.ups.modelo.Carrito;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta el historial de carritos a CSV o JSON Lines sin armar listas: recorre {@link CarritoDAO#flujo()} pagina
+ * a pagina, codifica cada carrito en un {@link SalidaCsv} o {@link SalidaJson} que se reutiliza y vuelca los bytes
+ * al {@link FileChannel} cada {@link #BLOQUE} bytes, asi que la memoria no depende del tamaño del historial. Si la
+ * exportacion se cancela o falla, el archivo a medio escribir se borra.
+ */
+public final class ExportadorCarritos {
+
+    public enum Formato {
+        CSV,
+        JSON_LINES
+    }
+
+    private static final int BLOQUE = 1 << 16;
+
+    private final CarritoDAO carritoDAO;
+    private volatile boolean cancelado;
+
+    public ExportadorCarritos(CarritoDAO carritoDAO) {
+        this.carritoDAO = carritoDAO;
+    }
+
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    public boolean isCancelado() {
+        return cancelado;
+    }
+
+    /**
+     * Devuelve cuantos carritos se escribieron; si se cancelo, cuantos se alcanzaron a recorrer.
+     */
+    public long exportar(Path archivo, Formato formato, Progreso progreso) throws IOException {
+        long total = carritoDAO.contar();
+        long escritos = 0;
+        boolean completo = false;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Stream<Carrito> carritos = carritoDAO.flujo()) {
+            SalidaCsv csv = formato == Formato.CSV ? new SalidaCsv(BLOQUE + 4096) : null;
+            SalidaJson json = formato == Formato.JSON_LINES ? new SalidaJson(BLOQUE + 4096) : null;
+            if (csv != null) {
+                CodificadorCsv.escribirEncabezadoCarritos(csv);
+            }
+            Iterator<Carrito> cursor = carritos.iterator();
+            while (cursor.hasNext() && !cancelado) {
+                Carrito carrito = cursor.next();
+                int pendiente;
+                if (csv != null) {
+                    CodificadorCsv.escribirCarrito(csv, carrito);
+                    pendiente = csv.tamaño();
+                } else {
+                    CodificadorJson.escribirCarrito(json, carrito);
+                    json.nuevaLinea();
+                    pendiente = json.tamaño();
+                }
+                escritos++;
+                if (pendiente >= BLOQUE) {
+                    volcar(csv, json, canal);
+                    progreso.avanzar(escritos, Math.max(total, escritos));
+                }
+            }
+            if (!cancelado) {
+                volcar(csv, json, canal);
+                progreso.avanzar(escritos, escritos);
+                completo = true;
+            }
+        } finally {
+            if (!completo) {
+                Files.deleteIfExists(archivo);
+            }
+        }
+        return escritos;
+    }
+
+    private static void volcar(SalidaCsv csv, SalidaJson json, FileChannel canal) throws IOException {
+        if (csv != null) {
+            csv.escribirEn(canal);
+        } else {
+            json.escribirEn(canal);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Progreso {
+        /**
+         * Se llama desde el hilo que exporta cada vez que se vuelca un bloque al archivo.
+         */
+        void avanzar(long carritos, long total);
+    }
+}
@@ -0,0 +1,227 @@
+package ec.edu.ups.importacion;
+
+import ec.edu.ups.modelo.Dinero;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Una fila del CSV cortada en campos sin copiar bytes: solo se guarda donde empieza y termina cada campo dentro del
+ * bloque leido. Los numeros se leen directo de los bytes y solo los textos se decodifican. Las columnas se piden por
+ * su posicion en el formato del importador; {@link #ubicar} las traduce a la posicion real segun el encabezado.
+ * Los errores son {@link IllegalArgumentException} con la clave del mensaje, como en {@code Validaciones}.
+ */
+final class FilaCsv {
+
+    static final String FILA_INVALIDA = "mensaje.importacion.filaInvalida";
+
+    private byte[] datos;
+    private int[] inicios = new int[16];
+    private int[] fines = new int[16];
+    private boolean[] escapados = new boolean[16];
+    private int campos;
+    private int[] posiciones = new int[0];
+
+    /**
+     * Corta la fila {@code [desde, hasta)}, sin el salto de linea final. Acepta campos entre comillas dobles con
+     * {@code ""} como comilla escapada.
+     */
+    void cortar(byte[] datos, int desde, int hasta) {
+        if (hasta > desde && datos[hasta - 1] == '\r') {
+            hasta--;
+        }
+        this.datos = datos;
+        campos = 0;
+        int i = desde;
+        while (true) {
+            if (campos == inicios.length) {
+                inicios = Arrays.copyOf(inicios, campos * 2);
+                fines = Arrays.copyOf(fines, campos * 2);
+                escapados = Arrays.copyOf(escapados, campos * 2);
+            }
+            boolean escapado = false;
+            int inicio;
+            if (i < hasta && datos[i] == '"') {
+                inicio = ++i;
+                while (i < hasta && (datos[i] != '"' || i + 1 < hasta && datos[i + 1] == '"')) {
+                    if (datos[i] == '"') {
+                        escapado = true;
+                        i++;
+                    }
+                    i++;
+                }
+                if (i == hasta) {
+                    campos = 0;
+                    throw new IllegalArgumentException(FILA_INVALIDA);
+                }
+                fines[campos] = i++;
+                if (i < hasta && datos[i] != ',') {
+                    campos = 0;
+                    throw new IllegalArgumentException(FILA_INVALIDA);
+                }
+            } else {
+                inicio = i;
+                while (i < hasta && datos[i] != ',') {
+                    i++;
+                }
+                fines[campos] = i;
+            }
+            inicios[campos] = inicio;
+            escapados[campos++] = escapado;
+            if (i >= hasta) {
+                return;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Toma esta fila como encabezado y ubica cada columna de {@code columnas} por nombre, sin distinguir mayusculas.
+     * Devuelve la primera de las {@code obligatorias} primeras que falta, o {@code null}.
+     */
+    String ubicar(String[] columnas, int obligatorias) {
+        int[] ubicadas = new int[columnas.length];
+        Arrays.fill(ubicadas, -1);
+        for (int campo = 0; campo < campos; campo++) {
+            String nombre = texto(campo).trim();
+            if (campo == 0 && nombre.startsWith("\uFEFF")) {
+                nombre = nombre.substring(1);
+            }
+            for (int columna = 0; columna < columnas.length; columna++) {
+                if (ubicadas[columna] < 0 && columnas[columna].equalsIgnoreCase(nombre)) {
+                    ubicadas[columna] = campo;
+                }
+            }
+        }
+        for (int columna = 0; columna < obligatorias; columna++) {
+            if (ubicadas[columna] < 0) {
+                return columnas[columna];
+            }
+        }
+        posiciones = ubicadas;
+        return null;
+    }
+
+    void usarPosiciones(FilaCsv encabezado) {
+        posiciones = encabezado.posiciones;
+    }
+
+    boolean vacia() {
+        return campos == 1 && fines[0] == inicios[0];
+    }
+
+    /**
+     * El texto de la columna, o {@code null} si no esta en el archivo o viene vacio.
+     */
+    String texto(int columna, boolean recortar) {
+        int campo = campo(columna);
+        if (campo < 0) {
+            return null;
+        }
+        String texto = texto(campo);
+        if (recortar) {
+            texto = texto.trim();
+        }
+        return texto.isEmpty() ? null : texto;
+    }
+
+    int entero(int columna, String clave) {
+        long valor = largo(columna, clave);
+        if (valor != (int) valor) {
+            throw new IllegalArgumentException(clave);
+        }
+        return (int) valor;
+    }
+
+    /**
+     * Importe con hasta dos decimales ({@code 12.5} son 1250 centavos); lo que no es un decimal simple pasa por
+     * {@link Dinero#deDecimal}, que rechaza mas de dos decimales igual que el formulario.
+     */
+    long centavos(int columna, String clave) {
+        int campo = campo(columna);
+        if (campo < 0) {
+            throw new IllegalArgumentException(clave);
+        }
+        int i = inicioRecortado(campo);
+        int fin = finRecortado(campo);
+        boolean negativo = i < fin && datos[i] == '-';
+        if (negativo) {
+            i++;
+        }
+        long entero = 0;
+        int digitos = 0;
+        while (i < fin && datos[i] >= '0' && datos[i] <= '9' && digitos < 17) {
+            entero = entero * 10 + (datos[i++] - '0');
+            digitos++;
+        }
+        int fraccion = 0;
+        int decimales = 0;
+        if (i < fin && datos[i] == '.') {
+            i++;
+            while (i < fin && datos[i] >= '0' && datos[i] <= '9' && decimales < 2) {
+                fraccion = fraccion * 10 + (datos[i++] - '0');
+                decimales++;
+            }
+        }
+        if (digitos > 0 && i == fin) {
+            long centavos = entero * 100 + (decimales == 1 ? fraccion * 10 : fraccion);
+            return negativo ? -centavos : centavos;
+        }
+        try {
+            return Dinero.deDecimal(texto(campo)).getCentavos();
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(clave);
+        }
+    }
+
+    private long largo(int columna, String clave) {
+        int campo = campo(columna);
+        if (campo < 0) {
+            throw new IllegalArgumentException(clave);
+        }
+        int i = inicioRecortado(campo);
+        int fin = finRecortado(campo);
+        boolean negativo = i < fin && datos[i] == '-';
+        if (negativo || i < fin && datos[i] == '+') {
+            i++;
+        }
+        if (i == fin || fin - i > 10) {
+            throw new IllegalArgumentException(clave);
+        }
+        long valor = 0;
+        for (; i < fin; i++) {
+            int digito = datos[i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw new IllegalArgumentException(clave);
+            }
+            valor = valor * 10 + digito;
+        }
+        return negativo ? -valor : valor;
+    }
+
+    private int campo(int columna) {
+        int campo = columna < posiciones.length ? posiciones[columna] : -1;
+        return campo >= 0 && campo < campos ? campo : -1;
+    }
+
+    private String texto(int campo) {
+        String texto = new String(datos, inicios[campo], fines[campo] - inicios[campo], StandardCharsets.UTF_8);
+        return escapados[campo] ? texto.replace("\"\"", "\"") : texto;
+    }
+
+    private int inicioRecortado(int campo) {
+        int i = inicios[campo];
+        while (i < fines[campo] && datos[i] == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private int finRecortado(int campo) {
+        int fin = fines[campo];
+        while (fin > inicios[campo] && datos[fin - 1] == ' ') {
+            fin--;
+        }
+        return fin;
+    }
+}
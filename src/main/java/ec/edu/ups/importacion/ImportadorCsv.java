@@ -0,0 +1,558 @@
+package ec.edu.ups.importacion;
+
+import ec.edu.ups.controlador.Validaciones;
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.dao.UsuarioDAO;
+import ec.edu.ups.dao.impl.ProductoDAOArchivo;
+import ec.edu.ups.dao.impl.ProductoDAOConcurrente;
+import ec.edu.ups.dao.impl.UsuarioDAOArchivo;
+import ec.edu.ups.dao.impl.UsuarioDAOConcurrente;
+import ec.edu.ups.dao.persistencia.AlmacenPersistente;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Genero;
+import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Credenciales;
+import ec.edu.ups.util.MensajeInternacionalizacionHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Importacion masiva desde un CSV con encabezado (comas, comillas dobles y {@code ""} como comilla escapada). El
+ * archivo se lee por bloques con un {@link FileChannel}; cada bloque se corta en filas completas, las filas se
+ * interpretan y validan en paralelo en un {@link ForkJoinPool} y un solo hilo entrega los bloques al DAO, en el
+ * orden del archivo, con {@code crearTodos}. Nunca hay mas de {@link #EN_VUELO} bloques en memoria, asi que el
+ * tamaño del archivo no importa. Las filas invalidas no detienen la importacion: se cuentan y se guardan las
+ * primeras {@link #MAXIMO_RECHAZOS} con su numero de fila y la clave del mensaje de error.
+ */
+public final class ImportadorCsv<T> {
+
+    public static final int MAXIMO_RECHAZOS = 100;
+    public static final String FALTA_COLUMNA = "mensaje.importacion.faltaColumna";
+    public static final String PRECIO_INVALIDO = "mensaje.importacion.precioInvalido";
+    public static final String EDAD_INVALIDA = "mensaje.importacion.edadInvalida";
+
+    private static final int TAMAÑO_BLOQUE = 1 << 22;
+    private static final int EN_VUELO = 4;
+    private static final int FILAS_POR_TAREA = 4096;
+    private static final Bloque FIN = new Bloque(0);
+
+    private final String[] columnas;
+    private final int obligatorias;
+    private final Conversor<T> conversor;
+    private final ToIntFunction<List<T>> destino;
+    private final int tamañoBloque;
+    private volatile boolean cancelada;
+
+    ImportadorCsv(String[] columnas, int obligatorias, Conversor<T> conversor, ToIntFunction<List<T>> destino,
+                  int tamañoBloque) {
+        this.columnas = columnas;
+        this.obligatorias = obligatorias;
+        this.conversor = conversor;
+        this.destino = destino;
+        this.tamañoBloque = tamañoBloque;
+    }
+
+    /**
+     * Columnas {@code codigo}, {@code nombre} y {@code precio}. Un codigo que ya existe se actualiza.
+     */
+    public static ImportadorCsv<Producto> productos(ProductoDAO productoDAO) {
+        return new ImportadorCsv<>(new String[]{"codigo", "nombre", "precio"}, 3, fila -> {
+            int codigo = fila.entero(0, Validaciones.CODIGO_INVALIDO);
+            String nombre = fila.texto(1, false);
+            String error = Validaciones.validarProducto(nombre);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            return new Producto(codigo, nombre, Dinero.deCentavos(fila.centavos(2, PRECIO_INVALIDO)));
+        }, lote -> {
+            productoDAO.crearTodos(lote);
+            return lote.size();
+        }, TAMAÑO_BLOQUE);
+    }
+
+    /**
+     * Columnas obligatorias {@code username}, {@code password} y {@code rol}; opcionales {@code nombreCompleto},
+     * {@code edad}, {@code genero}, {@code telefono} y {@code email}. La contraseña puede venir ya como hash
+     * {@code pbkdf2$...}; en texto plano se calcula su hash al importarla, lo que limita la velocidad al costo de
+     * PBKDF2. Los usernames que ya existen se omiten.
+     */
+    public static ImportadorCsv<Usuario> usuarios(UsuarioDAO usuarioDAO) {
+        String[] columnas = {"username", "password", "rol", "nombreCompleto", "edad", "genero", "telefono", "email"};
+        return new ImportadorCsv<>(columnas, 3, fila -> {
+            String username = fila.texto(0, true);
+            String password = fila.texto(1, false);
+            Rol rol = constante(Rol.class, fila.texto(2, true), "mensaje.usuario.error.rolNoSeleccionado");
+            String error = Validaciones.validarUsuario(username, password, rol);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            int edad = fila.texto(4, true) != null ? fila.entero(4, EDAD_INVALIDA) : 0;
+            Genero genero = constante(Genero.class, fila.texto(5, true), "mensaje.genero");
+            Usuario usuario = new Usuario(username, rol, null, fila.texto(3, true), edad, genero,
+                    fila.texto(6, true), fila.texto(7, true));
+            usuario.setHashPassword(Credenciales.asegurarHash(password));
+            return usuario;
+        }, usuarioDAO::crearTodos, TAMAÑO_BLOQUE);
+    }
+
+    private static <E extends Enum<E>> E constante(Class<E> tipo, String texto, String clave) {
+        if (texto == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(tipo, texto.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(clave);
+        }
+    }
+
+    /**
+     * Detiene la importacion en curso despues del bloque que se esta guardando; lo ya guardado se queda.
+     */
+    public void cancelar() {
+        cancelada = true;
+    }
+
+    public Resultado importar(Path archivo, Progreso progreso) throws IOException {
+        return importar(archivo, progreso, IntSupplier::getAsInt);
+    }
+
+    /**
+     * Igual que {@link #importar(Path, Progreso)}, pero cada bloque se guarda a traves de {@code guardado}.
+     */
+    public Resultado importar(Path archivo, Progreso progreso, Guardado guardado) throws IOException {
+        long inicio = System.nanoTime();
+        Escritor escritor = new Escritor(progreso, guardado);
+        ForkJoinPool hilos = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            escritor.total = canal.size();
+            for (int i = 0; i < EN_VUELO; i++) {
+                escritor.libres.add(new Bloque(tamañoBloque));
+            }
+            Thread hilo = Thread.ofVirtual().name("importador-csv").start(escritor);
+            try {
+                leer(canal, hilos, escritor);
+            } finally {
+                escritor.listos.add(FIN);
+                esperar(hilo);
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+        if (escritor.fallo instanceof RuntimeException) {
+            throw (RuntimeException) escritor.fallo;
+        }
+        if (escritor.fallo != null) {
+            throw new IllegalStateException(escritor.fallo);
+        }
+        return new Resultado(escritor.filas, escritor.importadas, escritor.rechazadas, escritor.omitidas,
+                escritor.rechazos, cancelada, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Corre en el hilo que importa: llena cada bloque libre con lo que sigue del archivo, lo corta en filas
+     * completas y lo manda a interpretar. El pedazo de fila que queda al final pasa al principio del siguiente bloque.
+     */
+    private void leer(FileChannel canal, ForkJoinPool hilos, Escritor escritor) throws IOException {
+        FilaCsv encabezado = null;
+        byte[] resto = new byte[0];
+        long registro = 1;
+        long leidos = 0;
+        boolean finArchivo = false;
+        while (!finArchivo && !cancelada && escritor.fallo == null) {
+            Bloque bloque = tomar(escritor.libres);
+            if (resto.length * 2 > bloque.datos.length) {
+                bloque.datos = new byte[resto.length * 2];
+            }
+            System.arraycopy(resto, 0, bloque.datos, 0, resto.length);
+            ByteBuffer buffer = ByteBuffer.wrap(bloque.datos, resto.length, bloque.datos.length - resto.length);
+            while (buffer.hasRemaining() && !finArchivo) {
+                finArchivo = canal.read(buffer) < 0;
+            }
+            bloque.largo = buffer.position();
+            leidos += bloque.largo - resto.length;
+            int siguiente = bloque.cortarFilas(finArchivo);
+            resto = Arrays.copyOfRange(bloque.datos, siguiente, bloque.largo);
+            if (bloque.filas == 0) {
+                escritor.libres.add(bloque);
+                continue;
+            }
+            bloque.desde = 0;
+            if (encabezado == null) {
+                encabezado = new FilaCsv();
+                encabezado.cortar(bloque.datos, bloque.inicios[0], bloque.fines[0]);
+                String faltante = encabezado.ubicar(columnas, obligatorias);
+                if (faltante != null) {
+                    escritor.rechazar(1, FALTA_COLUMNA, faltante);
+                    escritor.libres.add(bloque);
+                    return;
+                }
+                bloque.desde = 1;
+            }
+            bloque.primerRegistro = registro;
+            bloque.leidos = leidos;
+            registro += bloque.filas;
+            bloque.tarea = hilos.submit(new Interpretar(bloque, encabezado, bloque.desde, bloque.filas));
+            escritor.listos.add(bloque);
+        }
+    }
+
+    private static Bloque tomar(BlockingQueue<Bloque> cola) {
+        try {
+            return cola.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void esperar(Thread hilo) {
+        try {
+            hilo.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Importa un CSV sin interfaz grafica sobre los datos de {@code carrito.datos}, igual que los abre la API:
+     * {@code ImportadorCsv productos|usuarios archivo.csv}. Al terminar escribe una instantanea para que la
+     * bitacora no crezca con la importacion.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 || !args[0].equals("productos") && !args[0].equals("usuarios")) {
+            System.err.println("Uso: ImportadorCsv productos|usuarios archivo.csv");
+            System.exit(2);
+        }
+        Path datos = Paths.get(System.getProperty("carrito.datos", "datos"));
+        MensajeInternacionalizacionHandler mensajes = new MensajeInternacionalizacionHandler("en", "US");
+        Progreso progreso = (bytes, total, filas) ->
+                System.err.printf("\r%,d (%d%%)", filas, total > 0 ? bytes * 100 / total : 100);
+        Resultado resultado;
+        if (args[0].equals("productos")) {
+            try (ProductoDAOArchivo productos = new ProductoDAOArchivo(datos, new ProductoDAOConcurrente())) {
+                resultado = productos(productos).importar(Paths.get(args[1]), progreso);
+                compactar(productos, resultado);
+            }
+        } else {
+            try (UsuarioDAOArchivo usuarios = new UsuarioDAOArchivo(datos, new UsuarioDAOConcurrente())) {
+                usuarios.crearCuentasIniciales();
+                resultado = usuarios(usuarios).importar(Paths.get(args[1]), progreso);
+                compactar(usuarios, resultado);
+            }
+        }
+        System.err.println();
+        System.out.println(resultado.resumen(mensajes));
+    }
+
+    private static void compactar(AlmacenPersistente almacen, Resultado resultado) throws IOException {
+        if (resultado.getImportadas() > 0) {
+            almacen.compactar();
+        }
+    }
+
+    @FunctionalInterface
+    interface Conversor<T> {
+        T convertir(FilaCsv fila);
+    }
+
+    /**
+     * Envuelve la escritura de cada bloque en el DAO; la interfaz grafica la usa para que cada bloque sea una
+     * modificacion aparte de {@code EjecutorTareas}. Devuelve lo que devuelve {@code bloque}: cuantos se crearon.
+     */
+    @FunctionalInterface
+    public interface Guardado {
+        int guardar(IntSupplier bloque);
+    }
+
+    @FunctionalInterface
+    public interface Progreso {
+        /**
+         * Se llama desde el hilo que guarda, despues de cada bloque.
+         */
+        void avanzar(long bytesLeidos, long bytesTotales, long filas);
+    }
+
+    /**
+     * Un pedazo del archivo con sus filas completas y, una vez interpretado, el resultado de cada fila: el objeto
+     * listo para guardar o la clave del error. Los arreglos se reutilizan de un bloque al siguiente.
+     */
+    private static final class Bloque {
+
+        private byte[] datos;
+        private int largo;
+        private int[] inicios = new int[1 << 12];
+        private int[] fines = new int[1 << 12];
+        private int filas;
+        private int desde;
+        private long primerRegistro;
+        private long leidos;
+        private Object[] objetos = new Object[0];
+        private String[] errores = new String[0];
+        private ForkJoinTask<?> tarea;
+
+        Bloque(int tamaño) {
+            this.datos = new byte[tamaño];
+        }
+
+        /**
+         * Marca donde empieza y termina cada fila (un salto de linea fuera de comillas) y devuelve donde empieza la
+         * fila incompleta del final. Con {@code finArchivo} la ultima fila cuenta aunque no tenga salto de linea.
+         */
+        int cortarFilas(boolean finArchivo) {
+            filas = 0;
+            int inicio = 0;
+            boolean enComillas = false;
+            byte[] datos = this.datos;
+            for (int i = 0; i < largo; i++) {
+                byte b = datos[i];
+                if (b == '"') {
+                    enComillas = !enComillas;
+                } else if (b == '\n' && !enComillas) {
+                    agregarFila(inicio, i);
+                    inicio = i + 1;
+                }
+            }
+            if (finArchivo && inicio < largo) {
+                agregarFila(inicio, largo);
+                inicio = largo;
+            }
+            if (objetos.length < filas) {
+                objetos = new Object[inicios.length];
+                errores = new String[inicios.length];
+            }
+            return inicio;
+        }
+
+        private void agregarFila(int inicio, int fin) {
+            if (filas == inicios.length) {
+                inicios = Arrays.copyOf(inicios, filas * 2);
+                fines = Arrays.copyOf(fines, filas * 2);
+            }
+            inicios[filas] = inicio;
+            fines[filas++] = fin;
+        }
+    }
+
+    private final class Interpretar extends RecursiveAction {
+
+        private final Bloque bloque;
+        private final FilaCsv encabezado;
+        private final int desde;
+        private final int hasta;
+
+        Interpretar(Bloque bloque, FilaCsv encabezado, int desde, int hasta) {
+            this.bloque = bloque;
+            this.encabezado = encabezado;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > FILAS_POR_TAREA) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new Interpretar(bloque, encabezado, desde, medio), new Interpretar(bloque, encabezado, medio, hasta));
+                return;
+            }
+            FilaCsv fila = new FilaCsv();
+            fila.usarPosiciones(encabezado);
+            for (int i = desde; i < hasta; i++) {
+                try {
+                    fila.cortar(bloque.datos, bloque.inicios[i], bloque.fines[i]);
+                    if (!fila.vacia()) {
+                        bloque.objetos[i] = conversor.convertir(fila);
+                    }
+                } catch (IllegalArgumentException ex) {
+                    bloque.errores[i] = ex.getMessage();
+                }
+            }
+        }
+    }
+
+    /**
+     * Hilo que espera cada bloque en el orden en que se leyo, lo guarda con {@code crearTodos} y lo devuelve a la
+     * cola de libres. Si el DAO falla guarda el error y sigue devolviendo bloques para que la lectura termine.
+     */
+    private final class Escritor implements Runnable {
+
+        private final BlockingQueue<Bloque> libres = new ArrayBlockingQueue<>(EN_VUELO);
+        private final BlockingQueue<Bloque> listos = new ArrayBlockingQueue<>(EN_VUELO + 1);
+        private final Progreso progreso;
+        private final Guardado guardado;
+        private final List<Rechazo> rechazos = new ArrayList<>();
+        private long total;
+        private long filas;
+        private long importadas;
+        private long rechazadas;
+        private long omitidas;
+        private volatile Throwable fallo;
+
+        Escritor(Progreso progreso, Guardado guardado) {
+            this.progreso = progreso;
+            this.guardado = guardado;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            while (true) {
+                Bloque bloque = tomar(listos);
+                if (bloque == FIN) {
+                    return;
+                }
+                try {
+                    bloque.tarea.join();
+                    if (fallo == null && !cancelada) {
+                        List<T> lote = new ArrayList<>(bloque.filas - bloque.desde);
+                        for (int i = bloque.desde; i < bloque.filas; i++) {
+                            if (bloque.objetos[i] != null) {
+                                lote.add((T) bloque.objetos[i]);
+                            } else if (bloque.errores[i] != null) {
+                                rechazar(bloque.primerRegistro + i, bloque.errores[i], null);
+                            } else {
+                                continue;
+                            }
+                            filas++;
+                        }
+                        int creados = lote.isEmpty() ? 0 : guardado.guardar(() -> destino.applyAsInt(lote));
+                        importadas += creados;
+                        omitidas += lote.size() - creados;
+                        progreso.avanzar(bloque.leidos, total, filas);
+                    }
+                } catch (Throwable ex) {
+                    fallo = ex;
+                } finally {
+                    Arrays.fill(bloque.objetos, 0, bloque.filas, null);
+                    Arrays.fill(bloque.errores, 0, bloque.filas, null);
+                    bloque.tarea = null;
+                    libres.add(bloque);
+                }
+            }
+        }
+
+        void rechazar(long fila, String clave, String detalle) {
+            rechazadas++;
+            if (rechazos.size() < MAXIMO_RECHAZOS) {
+                rechazos.add(new Rechazo(fila, clave, detalle));
+            }
+        }
+    }
+
+    public static final class Resultado {
+
+        private final long filas;
+        private final long importadas;
+        private final long rechazadas;
+        private final long omitidas;
+        private final List<Rechazo> rechazos;
+        private final boolean cancelada;
+        private final long nanos;
+
+        private Resultado(long filas, long importadas, long rechazadas, long omitidas, List<Rechazo> rechazos,
+                          boolean cancelada, long nanos) {
+            this.filas = filas;
+            this.importadas = importadas;
+            this.rechazadas = rechazadas;
+            this.omitidas = omitidas;
+            this.rechazos = Collections.unmodifiableList(rechazos);
+            this.cancelada = cancelada;
+            this.nanos = nanos;
+        }
+
+        public long getFilas() {
+            return filas;
+        }
+
+        public long getImportadas() {
+            return importadas;
+        }
+
+        public long getRechazadas() {
+            return rechazadas;
+        }
+
+        /**
+         * Filas validas que el DAO no creo porque la clave ya existia.
+         */
+        public long getOmitidas() {
+            return omitidas;
+        }
+
+        public List<Rechazo> getRechazos() {
+            return rechazos;
+        }
+
+        public boolean isCancelada() {
+            return cancelada;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public String resumen(MensajeInternacionalizacionHandler mensajes) {
+            StringBuilder texto = new StringBuilder(mensajes.get(cancelada ? "mensaje.importacion.cancelada" : "mensaje.importacion.terminada"))
+                    .append('\n').append(mensajes.get("mensaje.importacion.importadas")).append(": ").append(importadas)
+                    .append('\n').append(mensajes.get("mensaje.importacion.omitidas")).append(": ").append(omitidas)
+                    .append('\n').append(mensajes.get("mensaje.importacion.rechazadas")).append(": ").append(rechazadas);
+            for (int i = 0; i < rechazos.size() && i < 10; i++) {
+                Rechazo rechazo = rechazos.get(i);
+                texto.append('\n').append(mensajes.get("mensaje.importacion.fila")).append(' ').append(rechazo.getFila())
+                        .append(": ").append(mensajes.get(rechazo.getClave()));
+                if (rechazo.getDetalle() != null) {
+                    texto.append(' ').append(rechazo.getDetalle());
+                }
+            }
+            return texto.toString();
+        }
+    }
+
+    public static final class Rechazo {
+
+        private final long fila;
+        private final String clave;
+        private final String detalle;
+
+        private Rechazo(long fila, String clave, String detalle) {
+            this.fila = fila;
+            this.clave = clave;
+            this.detalle = detalle;
+        }
+
+        /**
+         * Numero de registro en el archivo, contando el encabezado como el 1.
+         */
+        public long getFila() {
+            return fila;
+        }
+
+        public String getClave() {
+            return clave;
+        }
+
+        public String getDetalle() {
+            return detalle;
+        }
+    }
+}
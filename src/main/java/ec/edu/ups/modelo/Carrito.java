@@ -1,42 +1,52 @@
 package ec.edu.ups.modelo;
 
-import java.util.ArrayList;
-import java.util.GregorianCalendar;
+import ec.edu.ups.util.MapaEnteroOrdenado;
+
+import java.time.Instant;
 import java.util.List;
 
 public class Carrito {
 
+    /**
+     * Valor de {@link #getFechaMilisegundos()} para un carrito sin fecha.
+     */
+    public static final long SIN_FECHA = Long.MIN_VALUE;
+
     private int codigo;
     private static int contador = 1;
-    private GregorianCalendar fecha;
-    private final List<ItemCarrito> items;
+    private long fecha;
+    private final MapaEnteroOrdenado<ItemCarrito> items;
     private Usuario usuario;
+    private long subtotal;
+    private TasaImpuesto tasaIVA;
 
     @Override
     public String toString() {
         return "Carrito{" +
                 "codigo=" + codigo +
-                ", fecha=" + (fecha != null ? fecha.getTime() : "N/A") +
+                ", fecha=" + (fecha != SIN_FECHA ? getFecha() : "N/A") +
                 ", items=" + items.size() + " items" +
-                ", subtotal=" + String.format("%.2f", calcularSubtotal()) +
-                ", total=" + String.format("%.2f", calcularTotal()) +
-                ", IVA=" + String.format("%.2f", calcularIVA()) +
+                ", subtotal=" + calcularSubtotal() +
+                ", total=" + calcularTotal() +
+                ", IVA=" + calcularIVA() +
                 ", usuario=" + (usuario != null ? usuario.getUsername() : "N/A") +
                 '}';
     }
 
     public Carrito() {
-        this.items = new ArrayList<>();
+        this.items = new MapaEnteroOrdenado<>(4);
         this.codigo = contador++;
-        this.fecha = new GregorianCalendar();
+        this.fecha = System.currentTimeMillis();
+        this.tasaIVA = TasaImpuesto.getIVA();
     }
 
 
-    public Carrito(int codigo, GregorianCalendar fecha, Usuario usuario) {
-        this.items = new ArrayList<>();
+    public Carrito(int codigo, Instant fecha, Usuario usuario) {
+        this.items = new MapaEnteroOrdenado<>(4);
         this.codigo = codigo;
-        this.fecha = fecha;
+        this.fecha = fecha != null ? fecha.toEpochMilli() : SIN_FECHA;
         this.usuario = usuario;
+        this.tasaIVA = TasaImpuesto.getIVA();
     }
 
     public int getCodigo() {
@@ -47,28 +57,43 @@ public class Carrito {
         this.codigo = codigo;
     }
 
-    public GregorianCalendar getFecha() {
-        return fecha;
+    public Instant getFecha() {
+        return fecha != SIN_FECHA ? Instant.ofEpochMilli(fecha) : null;
     }
 
-    public void setFecha(GregorianCalendar fecha) {
+    public void setFecha(Instant fecha) {
+        this.fecha = fecha != null ? fecha.toEpochMilli() : SIN_FECHA;
+    }
 
+    /**
+     * La fecha como milisegundos desde la epoca, o {@link #SIN_FECHA}; es lo que se guarda, sin crear objetos.
+     */
+    public long getFechaMilisegundos() {
+        return fecha;
+    }
+
+    public void setFechaMilisegundos(long fecha) {
         this.fecha = fecha;
     }
 
     public void agregarProducto(Producto producto, int cantidad) {
-        for (ItemCarrito item : items) {
-            if (item.getProducto().getCodigo() == producto.getCodigo()) {
-                item.setCantidad(item.getCantidad() + cantidad);
-                return; // Producto ya agregado, cantidad actualizada
-            }
+        ItemCarrito item = items.get(producto.getCodigo());
+        if (item != null) {
+            subtotal -= item.getSubtotalCentavos();
+            item.setCantidad(item.getCantidad() + cantidad);
+            subtotal += item.getSubtotalCentavos();
+            return; // Producto ya agregado, cantidad actualizada
         }
-        ItemCarrito item = new ItemCarrito(producto, cantidad);
-        items.add(item);
+        item = new ItemCarrito(producto, cantidad);
+        items.put(producto.getCodigo(), item);
+        subtotal += item.getSubtotalCentavos();
     }
 
     public void eliminarProducto(int codigoProducto) {
-        items.removeIf(item -> item.getProducto().getCodigo() == codigoProducto);
+        ItemCarrito item = items.remove(codigoProducto);
+        if (item != null) {
+            subtotal -= item.getSubtotalCentavos();
+        }
     }
 
     public void actualizarCantidadProducto(int codigoProducto, int nuevaCantidad) {
@@ -76,32 +101,70 @@ public class Carrito {
             eliminarProducto(codigoProducto);
             return;
         }
-        for (ItemCarrito item : items) {
-            if (item.getProducto().getCodigo() == codigoProducto) {
-                item.setCantidad(nuevaCantidad);
-                return;
-            }
+        ItemCarrito item = items.get(codigoProducto);
+        if (item != null) {
+            subtotal -= item.getSubtotalCentavos();
+            item.setCantidad(nuevaCantidad);
+            subtotal += item.getSubtotalCentavos();
         }
     }
 
-    public double calcularSubtotal() {
-        double currentSubtotal = 0;
+    /**
+     * Copia con sus propios items, para editarla en la vista o entregarla a una escritura sin tocar el carrito que
+     * guarda el DAO. Los productos se comparten.
+     */
+    public Carrito copia() {
+        Carrito copia = new Carrito(codigo, null, usuario);
+        copia.fecha = fecha;
+        copia.tasaIVA = tasaIVA;
+        copia.subtotal = subtotal;
         for (ItemCarrito item : items) {
-            currentSubtotal += item.getSubtotal();
+            copia.items.put(item.getProducto().getCodigo(), new ItemCarrito(item.getProducto(), item.getCantidad()));
         }
-        return currentSubtotal;
+        return copia;
+    }
+
+    public ItemCarrito buscarItem(int codigoProducto) {
+        return items.get(codigoProducto);
+    }
+
+    public Dinero calcularSubtotal() {
+        return Dinero.deCentavos(getSubtotalCentavos());
+    }
+
+    public Dinero calcularIVA() {
+        return Dinero.deCentavos(getIVACentavos());
+    }
+
+    public Dinero calcularTotal() {
+        return Dinero.deCentavos(getTotalCentavos());
+    }
+
+    /**
+     * Los totales en centavos, sin crear un {@link Dinero}; es lo que usan las tablas, que los piden por celda.
+     */
+    public long getSubtotalCentavos() {
+        return subtotal;
+    }
+
+    public long getIVACentavos() {
+        return tasaIVA.calcular(subtotal);
+    }
+
+    public long getTotalCentavos() {
+        return subtotal + tasaIVA.calcular(subtotal);
     }
 
-    public double calcularIVA() {
-        return calcularSubtotal() * 0.12;
+    public TasaImpuesto getTasaIVA() {
+        return tasaIVA;
     }
 
-    public double calcularTotal() {
-        return calcularSubtotal() + calcularIVA();
+    public void setTasaIVA(TasaImpuesto tasaIVA) {
+        this.tasaIVA = tasaIVA;
     }
 
     public List<ItemCarrito> obtenerItems() {
-        return new ArrayList<>(items);
+        return items.vista();
     }
 
     public Usuario getUsuario() {
@@ -0,0 +1,87 @@
+package ec.edu.ups.modelo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Cantidad monetaria exacta expresada en centavos. Las operaciones trabajan sobre un long, sin errores de
+ * redondeo binario y sin el costo de BigDecimal.
+ */
+public final class Dinero implements Comparable<Dinero> {
+
+    public static final Dinero CERO = new Dinero(0);
+
+    private final long centavos;
+
+    private Dinero(long centavos) {
+        this.centavos = centavos;
+    }
+
+    public static Dinero deCentavos(long centavos) {
+        return centavos == 0 ? CERO : new Dinero(centavos);
+    }
+
+    /**
+     * Convierte un importe escrito en decimal. No redondea: mas de dos decimales distintos de cero ({@code 1.005})
+     * se rechaza igual que un texto que no es numero.
+     */
+    public static Dinero deDecimal(String texto) {
+        if (texto == null) {
+            throw new NumberFormatException("null");
+        }
+        try {
+            BigDecimal valor = new BigDecimal(texto.trim()).setScale(2, RoundingMode.UNNECESSARY);
+            return deCentavos(valor.unscaledValue().longValueExact());
+        } catch (ArithmeticException ex) {
+            throw new NumberFormatException(texto);
+        }
+    }
+
+    public long getCentavos() {
+        return centavos;
+    }
+
+    public Dinero sumar(Dinero otro) {
+        return deCentavos(Math.addExact(centavos, otro.centavos));
+    }
+
+    public Dinero restar(Dinero otro) {
+        return deCentavos(Math.subtractExact(centavos, otro.centavos));
+    }
+
+    public Dinero multiplicar(int cantidad) {
+        return deCentavos(Math.multiplyExact(centavos, cantidad));
+    }
+
+    public BigDecimal aBigDecimal() {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    public double aDouble() {
+        return centavos / 100.0;
+    }
+
+    @Override
+    public int compareTo(Dinero otro) {
+        return Long.compare(centavos, otro.centavos);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return centavos == ((Dinero) o).centavos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+
+    @Override
+    public String toString() {
+        long absoluto = Math.abs(centavos);
+        long fraccion = absoluto % 100;
+        return (centavos < 0 ? "-" : "") + (absoluto / 100) + (fraccion < 10 ? ".0" : ".") + fraccion;
+    }
+}
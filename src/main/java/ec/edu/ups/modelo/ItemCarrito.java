@@ -1,22 +1,19 @@
 package ec.edu.ups.modelo;
 
+/**
+ * Linea de un {@link Carrito}. Solo el carrito cambia la cantidad, porque lleva el subtotal al dia con cada cambio;
+ * quien recibe un item de {@link Carrito#obtenerItems()} o {@link Carrito#buscarItem} lo puede leer pero no editar.
+ */
 public class ItemCarrito {
-    private Producto producto;
+    private final Producto producto;
     private int cantidad;
 
-    public ItemCarrito() {
-    }
-
     public ItemCarrito(Producto producto, int cantidad) {
         this.producto = producto;
         this.cantidad = cantidad;
     }
 
-    public void setProducto(Producto producto) {
-        this.producto = producto;
-    }
-
-    public void setCantidad(int cantidad) {
+    void setCantidad(int cantidad) {
         this.cantidad = cantidad;
     }
 
@@ -28,8 +25,12 @@ public class ItemCarrito {
         return cantidad;
     }
 
-    public double getSubtotal() {
-        return producto.getPrecio() * cantidad;
+    public Dinero getSubtotal() {
+        return Dinero.deCentavos(getSubtotalCentavos());
+    }
+
+    public long getSubtotalCentavos() {
+        return Math.multiplyExact(producto.getPrecio().getCentavos(), cantidad);
     }
 
     @Override
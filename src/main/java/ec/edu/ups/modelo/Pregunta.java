@@ -1,51 +1,59 @@
 package ec.edu.ups.modelo;
 
-import java.util.Objects;
+import java.util.List;
 
-public class Pregunta {
+/**
+ * Pregunta de seguridad del catalogo fijo. Hay una sola instancia por id, compartida por todas las respuestas de
+ * todos los usuarios; no guarda texto, solo la clave del mensaje, y cada vista lo traduce al idioma activo.
+ */
+public final class Pregunta {
 
-    private int id;
-    private String texto;
+    public static final int CANTIDAD = 10;
 
-    public Pregunta(int id, String texto) {
+    private static final Pregunta[] CATALOGO = new Pregunta[CANTIDAD];
+    private static final List<Pregunta> TODAS;
+
+    static {
+        for (int i = 0; i < CANTIDAD; i++) {
+            CATALOGO[i] = new Pregunta(i + 1);
+        }
+        TODAS = List.of(CATALOGO);
+    }
+
+    private final int id;
+    private final String clave;
+
+    private Pregunta(int id) {
         this.id = id;
-        this.texto = texto;
+        this.clave = "pregunta.seguridad." + id;
     }
 
-    public int getId() {
-        return id;
+    public static Pregunta porId(int id) {
+        if (id < 1 || id > CANTIDAD) {
+            throw new IllegalArgumentException("Pregunta de seguridad desconocida: " + id);
+        }
+        return CATALOGO[id - 1];
     }
 
-    public void setId(int id) {
-        this.id = id;
+    public static List<Pregunta> todas() {
+        return TODAS;
     }
 
-    public String getTexto() {
-        return texto;
+    public int getId() {
+        return id;
     }
 
-    public void setTexto(String texto) {
-        this.texto = texto;
+    /**
+     * Clave del texto en los archivos de mensajes.
+     */
+    public String getClave() {
+        return clave;
     }
 
     @Override
     public String toString() {
         return "Pregunta{" +
                 "id=" + id +
-                ", texto='" + texto + '\'' +
                 '}';
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Pregunta pregunta = (Pregunta) o;
-        return id == pregunta.id;
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(id);
-    }
-}
\ No newline at end of file
+}
@@ -3,12 +3,13 @@ package ec.edu.ups.modelo;
 public class Producto {
     private int codigo;
     private String nombre;
-    private double precio;
+    private Dinero precio;
 
     public Producto() {
+        this.precio = Dinero.CERO;
     }
 
-    public Producto(int codigo, String nombre, double precio) {
+    public Producto(int codigo, String nombre, Dinero precio) {
         this.codigo = codigo;
         this.nombre = nombre;
         this.precio = precio;
@@ -22,7 +23,7 @@ public class Producto {
         this.nombre = nombre;
     }
 
-    public void setPrecio(double precio) {
+    public void setPrecio(Dinero precio) {
         this.precio = precio;
     }
 
@@ -34,7 +35,7 @@ public class Producto {
         return nombre;
     }
 
-    public double getPrecio() {
+    public Dinero getPrecio() {
         return precio;
     }
 
@@ -43,4 +44,4 @@ public class Producto {
         return nombre + " - $" + precio;
     }
 
-}
\ No newline at end of file
+}
@@ -1,14 +1,23 @@
 package ec.edu.ups.modelo;
 
+import ec.edu.ups.util.Credenciales;
+
+import java.util.Locale;
 
 public class Respuesta {
 
     private Pregunta pregunta;
-    private String respuesta;
+    private String hashRespuesta;
 
     public Respuesta(Pregunta pregunta, String respuesta) {
         this.pregunta = pregunta;
-        this.respuesta = respuesta;
+        setRespuesta(respuesta);
+    }
+
+    public static Respuesta conHash(Pregunta pregunta, String hashRespuesta) {
+        Respuesta respuesta = new Respuesta(pregunta, null);
+        respuesta.hashRespuesta = hashRespuesta;
+        return respuesta;
     }
 
     public Pregunta getPregunta() {
@@ -19,26 +28,29 @@ public class Respuesta {
         this.pregunta = pregunta;
     }
 
-    public String getRespuesta() {
-        return respuesta;
+    public String getHashRespuesta() {
+        return hashRespuesta;
     }
 
     public void setRespuesta(String respuesta) {
-        this.respuesta = respuesta;
+        this.hashRespuesta = respuesta == null ? null : Credenciales.generar(normalizar(respuesta));
     }
 
     public boolean esRespuestaCorrecta(String respuestaAValidar) {
-        if (this.respuesta == null || respuestaAValidar == null) {
+        if (this.hashRespuesta == null || respuestaAValidar == null) {
             return false;
         }
-        return this.respuesta.trim().equalsIgnoreCase(respuestaAValidar.trim());
+        return Credenciales.verificar(hashRespuesta, normalizar(respuestaAValidar));
+    }
+
+    private static String normalizar(String respuesta) {
+        return respuesta.trim().toLowerCase(Locale.ROOT);
     }
 
     @Override
     public String toString() {
         return "RespuestaSeguridad{" +
                 "pregunta=" + pregunta +
-                ", respuesta='" + respuesta + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
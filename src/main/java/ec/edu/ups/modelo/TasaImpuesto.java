@@ -0,0 +1,68 @@
+package ec.edu.ups.modelo;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Tasa de impuesto en puntos basicos (1200 = 12%). El impuesto se redondea al centavo, mitad hacia arriba.
+ */
+public final class TasaImpuesto {
+
+    private static volatile TasaImpuesto iva = new TasaImpuesto(1200);
+
+    private final int puntosBasicos;
+
+    private TasaImpuesto(int puntosBasicos) {
+        if (puntosBasicos < 0 || puntosBasicos > 10_000) {
+            throw new IllegalArgumentException("La tasa debe estar entre 0% y 100%: " + puntosBasicos);
+        }
+        this.puntosBasicos = puntosBasicos;
+    }
+
+    /**
+     * Tasa que reciben los carritos nuevos; por defecto 12%. Los puntos de entrada la cambian con la propiedad
+     * {@code carrito.iva} al arrancar.
+     */
+    public static TasaImpuesto getIVA() {
+        return iva;
+    }
+
+    public static void setIVA(TasaImpuesto tasa) {
+        iva = Objects.requireNonNull(tasa);
+    }
+
+    public static TasaImpuesto dePuntosBasicos(int puntosBasicos) {
+        return new TasaImpuesto(puntosBasicos);
+    }
+
+    /**
+     * @throws IllegalArgumentException si no es un numero, tiene mas de dos decimales o esta fuera de 0-100
+     */
+    public static TasaImpuesto dePorcentaje(String porcentaje) {
+        try {
+            return new TasaImpuesto(new BigDecimal(porcentaje.trim()).movePointRight(2).intValueExact());
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Porcentaje invalido: " + porcentaje, ex);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Porcentaje invalido: " + porcentaje);
+        }
+    }
+
+    public int getPuntosBasicos() {
+        return puntosBasicos;
+    }
+
+    public long calcular(long centavos) {
+        long producto = Math.multiplyExact(centavos, puntosBasicos);
+        return producto >= 0 ? (producto + 5_000) / 10_000 : -((-producto + 5_000) / 10_000);
+    }
+
+    public Dinero calcular(Dinero base) {
+        return Dinero.deCentavos(calcular(base.getCentavos()));
+    }
+
+    @Override
+    public String toString() {
+        return BigDecimal.valueOf(puntosBasicos, 2).stripTrailingZeros().toPlainString() + "%";
+    }
+}
@@ -1,5 +1,7 @@
 package ec.edu.ups.modelo;
 
+import ec.edu.ups.util.Credenciales;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -8,7 +10,7 @@ public class Usuario {
 
     private String username;
     private Rol rol;
-    private String password;
+    private String hashPassword;
     private String nombreCompleto;
     private int edad;
     private Genero genero;
@@ -24,10 +26,23 @@ public class Usuario {
         this.email = email;
         this.username = username;
         this.rol = rol;
-        this.password = password;
+        setPassword(password);
         this.respuestasSeguridad = new ArrayList<>();
     }
 
+    /**
+     * Copia con su propia lista de respuestas, para editarla y entregarla a {@code actualizar} sin tocar el usuario
+     * que guarda el DAO hasta que el cambio quede anotado. Las respuestas y el hash se comparten.
+     */
+    public Usuario copia() {
+        Usuario copia = new Usuario(username, rol, null, nombreCompleto, edad, genero, telefono, email);
+        copia.hashPassword = hashPassword;
+        if (respuestasSeguridad != null) {
+            copia.respuestasSeguridad.addAll(respuestasSeguridad);
+        }
+        return copia;
+    }
+
     public String getNombreCompleto() {
         return nombreCompleto;
     }
@@ -84,12 +99,20 @@ public class Usuario {
         this.rol = rol;
     }
 
-    public String getPassword() {
-        return password;
+    public void setPassword(String password) {
+        this.hashPassword = password == null ? null : Credenciales.generar(password);
     }
 
-    public void setPassword(String password) {
-        this.password = password;
+    public boolean verificarPassword(String password) {
+        return Credenciales.verificar(hashPassword, password);
+    }
+
+    public String getHashPassword() {
+        return hashPassword;
+    }
+
+    public void setHashPassword(String hashPassword) {
+        this.hashPassword = hashPassword;
     }
 
 
@@ -102,6 +125,17 @@ public class Usuario {
     }
 
 
+    public Respuesta buscarRespuesta(Pregunta pregunta) {
+        if (respuestasSeguridad != null) {
+            for (Respuesta respuesta : respuestasSeguridad) {
+                if (respuesta.getPregunta() == pregunta) {
+                    return respuesta;
+                }
+            }
+        }
+        return null;
+    }
+
     public void addRespuesta(Pregunta pregunta, String respuestaTexto) {
         if (this.respuestasSeguridad == null) {
             this.respuestasSeguridad = new ArrayList<>();
@@ -118,7 +152,6 @@ public class Usuario {
         return "Usuario{" +
                 "username='" + username + '\'' +
                 ", rol=" + rol +
-                ", password='" + password + '\'' +
                 ", respuestasSeguridad=" + respuestasSeguridad +
                 '}';
     }
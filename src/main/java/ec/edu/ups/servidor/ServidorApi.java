@@ -0,0 +1,524 @@
+package ec.edu.ups.servidor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ec.edu.ups.controlador.Validaciones;
+import ec.edu.ups.dao.CarritoDAO;
+import ec.edu.ups.dao.ProductoDAO;
+import ec.edu.ups.dao.UsuarioDAO;
+import ec.edu.ups.dao.impl.CarritoDAOArchivo;
+import ec.edu.ups.dao.impl.CarritoDAOConcurrente;
+import ec.edu.ups.dao.impl.ProductoDAOArchivo;
+import ec.edu.ups.dao.impl.ProductoDAOConcurrente;
+import ec.edu.ups.dao.impl.UsuarioDAOArchivo;
+import ec.edu.ups.dao.impl.UsuarioDAOConcurrente;
+import ec.edu.ups.dao.persistencia.CodificadorJson;
+import ec.edu.ups.dao.persistencia.EntradaJson;
+import ec.edu.ups.dao.persistencia.SalidaJson;
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Producto;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.TasaImpuesto;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.MensajeInternacionalizacionHandler;
+import ec.edu.ups.util.Paginacion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * API HTTP/JSON sin interfaz grafica sobre los mismos DAO que usa Swing. Cada peticion corre en su propio hilo
+ * virtual, asi que los DAO deben ser seguros entre hilos (las implementaciones concurrentes). Las reglas de validacion
+ * son las de {@link Validaciones} y los errores llevan la clave y el texto del mismo mensaje que veria la interfaz.
+ *
+ * <pre>
+ * POST   /api/sesiones                    {"username","password"} -> {"token"}
+ * GET    /api/productos/{codigo}
+ * GET    /api/productos?nombre=|prefijo=|texto=   o   ?despuesDe=&amp;limite=
+ * POST   /api/carritos                    {"items":[{"producto","cantidad"}]}
+ * GET    /api/carritos/{codigo}
+ * PUT    /api/carritos/{codigo}           {"items":[...]}
+ * GET    /api/usuarios/{username}/carritos
+ * </pre>
+ *
+ * Salvo el inicio de sesion, todo pide la cabecera {@code Authorization: Bearer <token>}. La sesion solo guarda el
+ * username: el usuario se vuelve a buscar en cada peticion, asi que una baja o un cambio de rol rigen de inmediato.
+ * Un token sin uso durante {@code carrito.servidor.sesionMinutos} (30 por defecto) vence, y no se abren mas de
+ * {@value #MAXIMO_SESIONES} sesiones a la vez.
+ */
+public class ServidorApi implements Closeable {
+
+    private static final int LIMITE_CUERPO = 1 << 20;
+    private static final int MAXIMO_SESIONES = 100_000;
+    private static final long LIMPIEZA_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final String LOGIN_ERROR = "mensaje.usuario.login.error";
+    private static final String USUARIO_NO_ENCONTRADO = "mensaje.usuario.buscar.noEncontrado";
+
+    static {
+        // El servidor del JDK escribe cabeceras y cuerpo por separado; con Nagle activo cada respuesta espera el ACK
+        // retrasado del cliente (~40 ms). Se puede volver a activar con -Dsun.net.httpserver.nodelay=false.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+    private final ProductoDAO productoDAO;
+    private final CarritoDAO carritoDAO;
+    private final UsuarioDAO usuarioDAO;
+    private final MensajeInternacionalizacionHandler mensajes;
+    private final ConcurrentMap<String, Sesion> sesiones;
+    private final long duracionSesion;
+    private final AtomicLong proximaLimpieza;
+    private final SecureRandom aleatorio;
+
+    public ServidorApi(InetSocketAddress direccion, ProductoDAO productoDAO, CarritoDAO carritoDAO,
+                       UsuarioDAO usuarioDAO, MensajeInternacionalizacionHandler mensajes) throws IOException {
+        this.productoDAO = productoDAO;
+        this.carritoDAO = carritoDAO;
+        this.usuarioDAO = usuarioDAO;
+        this.mensajes = mensajes;
+        this.sesiones = new ConcurrentHashMap<>();
+        this.duracionSesion = TimeUnit.MINUTES.toNanos(Long.getLong("carrito.servidor.sesionMinutos", 30));
+        this.proximaLimpieza = new AtomicLong(System.nanoTime() + LIMPIEZA_NANOS);
+        this.aleatorio = new SecureRandom();
+        this.hilos = Executors.newVirtualThreadPerTaskExecutor();
+        this.servidor = HttpServer.create(direccion, 1024);
+        this.servidor.setExecutor(hilos);
+        registrar("/api/sesiones", true, this::sesiones);
+        registrar("/api/productos", false, this::productos);
+        registrar("/api/carritos", false, this::carritos);
+        registrar("/api/usuarios", false, this::usuarios);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String iva = System.getProperty("carrito.iva");
+        if (iva != null) {
+            try {
+                TasaImpuesto.setIVA(TasaImpuesto.dePorcentaje(iva));
+            } catch (IllegalArgumentException ex) {
+                System.err.println("carrito.iva: " + ex.getMessage());
+                System.exit(2);
+            }
+        }
+        Path datos = Paths.get(System.getProperty("carrito.datos", "datos"));
+        int puerto = Integer.getInteger("carrito.servidor.puerto", 8080);
+        UsuarioDAOArchivo usuarios = new UsuarioDAOArchivo(datos, new UsuarioDAOConcurrente());
+        usuarios.crearCuentasIniciales();
+        ProductoDAOArchivo productos = new ProductoDAOArchivo(datos, new ProductoDAOConcurrente());
+        CarritoDAOArchivo carritos = new CarritoDAOArchivo(datos, new CarritoDAOConcurrente(), usuarios);
+        ServidorApi servidor = new ServidorApi(new InetSocketAddress(puerto), productos, carritos, usuarios,
+                new MensajeInternacionalizacionHandler("en", "US"));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (Closeable recurso : new Closeable[]{servidor, carritos, productos, usuarios}) {
+                try {
+                    recurso.close();
+                } catch (IOException ex) {
+                    System.err.println("Error al cerrar: " + ex.getMessage());
+                }
+            }
+        }));
+        servidor.iniciar();
+        System.out.println("API escuchando en http://localhost:" + servidor.getPuerto() + "/api");
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        hilos.shutdownNow();
+    }
+
+    private int sesiones(HttpExchange intercambio, Usuario sinSesion, String[] ruta, SalidaJson salida) throws IOException {
+        if (ruta.length != 0) {
+            throw new ErrorApi(404, null);
+        }
+        if (intercambio.getRequestMethod().equals("DELETE")) {
+            String token = token(intercambio);
+            if (token != null) {
+                sesiones.remove(token);
+            }
+            return 204;
+        }
+        exigirMetodo(intercambio, "POST");
+        EntradaJson cuerpo = leerCuerpo(intercambio);
+        String username = null;
+        String password = null;
+        cuerpo.abrirObjeto();
+        while (cuerpo.siguienteCampo()) {
+            if (cuerpo.campoEs("username")) {
+                username = cuerpo.leerTexto();
+            } else if (cuerpo.campoEs("password")) {
+                password = cuerpo.leerTexto();
+            } else {
+                cuerpo.saltarValor();
+            }
+        }
+        cuerpo.terminar();
+        Usuario usuario = usuarioDAO.autenticar(username, password);
+        if (usuario == null) {
+            throw new ErrorApi(401, LOGIN_ERROR);
+        }
+        String token = abrirSesion(usuario.getUsername());
+        salida.abrirObjeto()
+                .campo("token").valor(token)
+                .campo("username").valor(usuario.getUsername())
+                .campo("rol").valor(usuario.getRol() != null ? usuario.getRol().name() : null)
+                .cerrarObjeto();
+        return 201;
+    }
+
+    private String abrirSesion(String username) {
+        long ahora = System.nanoTime();
+        long limpieza = proximaLimpieza.get();
+        if ((ahora - limpieza >= 0 && proximaLimpieza.compareAndSet(limpieza, ahora + LIMPIEZA_NANOS))
+                || sesiones.size() >= MAXIMO_SESIONES) {
+            sesiones.values().removeIf(sesion -> sesion.vencida(ahora));
+        }
+        if (sesiones.size() >= MAXIMO_SESIONES) {
+            throw new ErrorApi(503, null);
+        }
+        byte[] bytes = new byte[24];
+        aleatorio.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sesiones.put(token, new Sesion(username, ahora + duracionSesion));
+        return token;
+    }
+
+    /**
+     * Usuario vigente de la sesion del token, o {@code null} si el token no existe, vencio o su usuario ya no esta.
+     * Cada uso extiende el vencimiento; si el usuario cambio de username, la sesion lo sigue.
+     */
+    private Usuario usuarioDeSesion(String token) {
+        Sesion sesion = sesiones.get(token);
+        if (sesion == null) {
+            return null;
+        }
+        long ahora = System.nanoTime();
+        if (sesion.vencida(ahora)) {
+            sesiones.remove(token, sesion);
+            return null;
+        }
+        Usuario usuario = usuarioDAO.buscarPorUsuario(sesion.username);
+        if (usuario == null) {
+            usuario = usuarioDAO.buscarRenombrado(sesion.username);
+            if (usuario == null) {
+                sesiones.remove(token, sesion);
+                return null;
+            }
+            sesion.username = usuario.getUsername();
+        }
+        sesion.vence = ahora + duracionSesion;
+        return usuario;
+    }
+
+    private int productos(HttpExchange intercambio, Usuario usuario, String[] ruta, SalidaJson salida) {
+        exigirMetodo(intercambio, "GET");
+        if (ruta.length == 1) {
+            Producto producto = productoDAO.buscarPorCodigo(Integer.parseInt(ruta[0]));
+            if (producto == null) {
+                throw new ErrorApi(404, Validaciones.PRODUCTO_NO_ENCONTRADO);
+            }
+            CodificadorJson.escribirProducto(salida, producto);
+            return 200;
+        }
+        if (ruta.length != 0) {
+            throw new ErrorApi(404, null);
+        }
+        Map<String, String> parametros = parametros(intercambio);
+        List<Producto> productos;
+        if (parametros.containsKey("nombre")) {
+            productos = productoDAO.buscarPorNombre(parametros.get("nombre"));
+        } else if (parametros.containsKey("prefijo")) {
+            productos = productoDAO.buscarPorPrefijo(parametros.get("prefijo"));
+        } else if (parametros.containsKey("texto")) {
+            productos = productoDAO.buscarPorSubcadena(parametros.get("texto"));
+        } else {
+            String despuesDe = parametros.get("despuesDe");
+            String limite = parametros.get("limite");
+            productos = productoDAO.listarPagina(despuesDe != null ? Integer.parseInt(despuesDe) : Integer.MIN_VALUE,
+                    limite != null ? Math.min(Integer.parseInt(limite), Paginacion.TAMAÑO_PAGINA) : Paginacion.TAMAÑO_PAGINA);
+        }
+        salida.abrirLista();
+        for (Producto producto : productos) {
+            CodificadorJson.escribirProducto(salida, producto);
+        }
+        salida.cerrarLista();
+        return 200;
+    }
+
+    private int carritos(HttpExchange intercambio, Usuario usuario, String[] ruta, SalidaJson salida) throws IOException {
+        String metodo = intercambio.getRequestMethod();
+        if (ruta.length == 0) {
+            exigirMetodo(intercambio, "POST");
+            Carrito carrito = new Carrito();
+            carrito.setUsuario(usuario);
+            agregarItems(carrito, leerCuerpo(intercambio));
+            carritoDAO.crear(carrito);
+            CodificadorJson.escribirCarrito(salida, carrito);
+            return 201;
+        }
+        if (ruta.length != 1) {
+            throw new ErrorApi(404, null);
+        }
+        Carrito existente = Validaciones.carritoVisible(carritoDAO, Integer.parseInt(ruta[0]), usuario);
+        if (metodo.equals("GET")) {
+            if (existente == null) {
+                throw new ErrorApi(404, Validaciones.CARRITO_NO_ENCONTRADO);
+            }
+            CodificadorJson.escribirCarrito(salida, existente);
+            return 200;
+        }
+        exigirMetodo(intercambio, "PUT");
+        if (existente == null) {
+            throw new ErrorApi(404, Validaciones.CARRITO_NO_ENCONTRADO);
+        }
+        Carrito carrito = new Carrito(existente.getCodigo(), existente.getFecha(), existente.getUsuario());
+        carrito.setTasaIVA(existente.getTasaIVA());
+        agregarItems(carrito, leerCuerpo(intercambio));
+        carritoDAO.actualizar(carrito);
+        CodificadorJson.escribirCarrito(salida, carrito);
+        return 200;
+    }
+
+    private int usuarios(HttpExchange intercambio, Usuario usuario, String[] ruta, SalidaJson salida) {
+        exigirMetodo(intercambio, "GET");
+        if (ruta.length != 2 || !ruta[1].equals("carritos")) {
+            throw new ErrorApi(404, null);
+        }
+        Usuario dueño = usuarioDAO.buscarPorUsuario(ruta[0]);
+        if (dueño == null || (usuario.getRol() != Rol.ADMINISTRADOR && !dueño.equals(usuario))) {
+            throw new ErrorApi(404, USUARIO_NO_ENCONTRADO);
+        }
+        salida.abrirLista();
+        for (Carrito carrito : carritoDAO.buscarPorUsuario(dueño)) {
+            CodificadorJson.escribirCarrito(salida, carrito);
+        }
+        salida.cerrarLista();
+        return 200;
+    }
+
+    private void agregarItems(Carrito carrito, EntradaJson cuerpo) {
+        cuerpo.abrirObjeto();
+        while (cuerpo.siguienteCampo()) {
+            if (!cuerpo.campoEs("items")) {
+                cuerpo.saltarValor();
+                continue;
+            }
+            cuerpo.abrirLista();
+            while (cuerpo.siguienteElemento()) {
+                agregarItem(carrito, cuerpo);
+            }
+        }
+        cuerpo.terminar();
+        String error = Validaciones.validarCarrito(carrito);
+        if (error != null) {
+            throw new ErrorApi(400, error);
+        }
+    }
+
+    private void agregarItem(Carrito carrito, EntradaJson cuerpo) {
+        Integer codigo = null;
+        Integer cantidad = null;
+        cuerpo.abrirObjeto();
+        while (cuerpo.siguienteCampo()) {
+            if (cuerpo.campoEs("producto")) {
+                codigo = cuerpo.leerEntero();
+            } else if (cuerpo.campoEs("cantidad")) {
+                cantidad = cuerpo.leerEntero();
+            } else {
+                cuerpo.saltarValor();
+            }
+        }
+        if (codigo == null || cantidad == null) {
+            throw new NumberFormatException("null");
+        }
+        String error = Validaciones.validarCantidad(cantidad);
+        if (error != null) {
+            throw new ErrorApi(400, error);
+        }
+        Producto producto = productoDAO.buscarPorCodigo(codigo);
+        if (producto == null) {
+            throw new ErrorApi(400, Validaciones.PRODUCTO_NO_ENCONTRADO);
+        }
+        carrito.agregarProducto(producto, cantidad);
+    }
+
+    private void registrar(String contexto, boolean publica, Ruta ruta) {
+        servidor.createContext(contexto, intercambio -> atender(intercambio, contexto, publica, ruta));
+    }
+
+    private void atender(HttpExchange intercambio, String contexto, boolean publica, Ruta ruta) throws IOException {
+        SalidaJson salida = new SalidaJson(512);
+        int estado;
+        try {
+            Usuario usuario = null;
+            if (!publica) {
+                String token = token(intercambio);
+                usuario = token != null ? usuarioDeSesion(token) : null;
+                if (usuario == null) {
+                    throw new ErrorApi(401, LOGIN_ERROR);
+                }
+            }
+            estado = ruta.atender(intercambio, usuario, segmentos(intercambio, contexto), salida);
+        } catch (ErrorApi ex) {
+            salida.reiniciar();
+            estado = ex.estado;
+            escribirError(salida, ex.clave, null);
+        } catch (NumberFormatException ex) {
+            salida.reiniciar();
+            estado = 400;
+            escribirError(salida, Validaciones.CODIGO_INVALIDO, null);
+        } catch (IllegalArgumentException ex) {
+            salida.reiniciar();
+            estado = 400;
+            escribirError(salida, null, ex.getMessage());
+        } catch (RuntimeException ex) {
+            salida.reiniciar();
+            estado = 500;
+            escribirError(salida, null, ex.toString());
+        }
+        int largo = salida.tamaño();
+        try (intercambio) {
+            if (largo > 0) {
+                intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            }
+            intercambio.sendResponseHeaders(estado, largo > 0 ? largo : -1);
+            if (largo > 0) {
+                try (OutputStream respuesta = intercambio.getResponseBody()) {
+                    salida.escribirEn(respuesta);
+                }
+            }
+        }
+    }
+
+    private void escribirError(SalidaJson salida, String clave, String detalle) {
+        if (clave == null && detalle == null) {
+            return;
+        }
+        salida.abrirObjeto()
+                .campo("error").valor(clave)
+                .campo("mensaje").valor(clave != null ? mensaje(clave) : detalle)
+                .cerrarObjeto();
+    }
+
+    private String mensaje(String clave) {
+        try {
+            return mensajes.get(clave);
+        } catch (MissingResourceException ex) {
+            return clave;
+        }
+    }
+
+    private static void exigirMetodo(HttpExchange intercambio, String metodo) {
+        if (!intercambio.getRequestMethod().equals(metodo)) {
+            intercambio.getResponseHeaders().set("Allow", metodo);
+            throw new ErrorApi(405, null);
+        }
+    }
+
+    private static String token(HttpExchange intercambio) {
+        String cabecera = intercambio.getRequestHeaders().getFirst("Authorization");
+        return cabecera != null && cabecera.startsWith("Bearer ") ? cabecera.substring(7).trim() : null;
+    }
+
+    private static String[] segmentos(HttpExchange intercambio, String contexto) {
+        String ruta = intercambio.getRequestURI().getPath().substring(contexto.length());
+        List<String> partes = new ArrayList<>(2);
+        for (String parte : ruta.split("/")) {
+            if (!parte.isEmpty()) {
+                partes.add(parte);
+            }
+        }
+        if (!ruta.isEmpty() && ruta.charAt(0) != '/') {
+            throw new ErrorApi(404, null);
+        }
+        return partes.toArray(new String[0]);
+    }
+
+    private static Map<String, String> parametros(HttpExchange intercambio) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = intercambio.getRequestURI().getRawQuery();
+        if (consulta == null) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(clave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static EntradaJson leerCuerpo(HttpExchange intercambio) throws IOException {
+        byte[] bytes;
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            bytes = entrada.readNBytes(LIMITE_CUERPO + 1);
+        }
+        if (bytes.length > LIMITE_CUERPO) {
+            throw new ErrorApi(413, null);
+        }
+        return new EntradaJson(bytes);
+    }
+
+    @FunctionalInterface
+    private interface Ruta {
+        int atender(HttpExchange intercambio, Usuario usuario, String[] ruta, SalidaJson salida) throws IOException;
+    }
+
+    private static final class Sesion {
+
+        private volatile String username;
+        private volatile long vence;
+
+        Sesion(String username, long vence) {
+            this.username = username;
+            this.vence = vence;
+        }
+
+        boolean vencida(long ahora) {
+            return ahora - vence >= 0;
+        }
+    }
+
+    private static final class ErrorApi extends RuntimeException {
+
+        private final int estado;
+        private final String clave;
+
+        ErrorApi(int estado, String clave) {
+            super(null, null, false, false);
+            this.estado = estado;
+            this.clave = clave;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ec.edu.ups.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fijo de candados: cada clave se asigna siempre al mismo segmento, de modo que las escrituras
+ * sobre claves distintas rara vez compiten entre si.
+ */
+public class BloqueosSegmentados {
+
+    private final ReentrantLock[] bloqueos;
+    private final int mascara;
+
+    public BloqueosSegmentados() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public BloqueosSegmentados(int segmentos) {
+        int cantidad = Integer.highestOneBit(Math.max(1, segmentos - 1)) << 1;
+        this.bloqueos = new ReentrantLock[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            bloqueos[i] = new ReentrantLock();
+        }
+        this.mascara = cantidad - 1;
+    }
+
+    public ReentrantLock para(int clave) {
+        return bloqueos[segmento(clave)];
+    }
+
+    public ReentrantLock para(Object clave) {
+        return para(clave == null ? 0 : clave.hashCode());
+    }
+
+    /**
+     * Segmento al que pertenece la clave, para quien guarde una estructura propia por segmento bajo el mismo candado.
+     */
+    public int segmento(int clave) {
+        return ((clave * 0x9E3779B9) >>> 16) & mascara;
+    }
+
+    public int segmentos() {
+        return bloqueos.length;
+    }
+
+    public ReentrantLock delSegmento(int segmento) {
+        return bloqueos[segmento];
+    }
+
+    public void bloquearTodos() {
+        for (ReentrantLock bloqueo : bloqueos) {
+            bloqueo.lock();
+        }
+    }
+
+    public void desbloquearTodos() {
+        for (int i = bloqueos.length - 1; i >= 0; i--) {
+            bloqueos[i].unlock();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ec.edu.ups.util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Hash de contraseñas y respuestas de seguridad con PBKDF2-HMAC-SHA256 y sal aleatoria por valor. El texto
+ * guardado es {@code pbkdf2$iteraciones$sal$hash}, asi que cambiar el costo no invalida los hashes anteriores.
+ * Todo el calculo corre en un grupo fijo de hilos para que una rafaga de logins no ocupe toda la CPU; quien
+ * llama espera el resultado.
+ */
+public final class Credenciales {
+
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final String PREFIJO = "pbkdf2$";
+    private static final int BYTES_SAL = 16;
+    private static final int BITS_HASH = 256;
+
+    /**
+     * Costo maximo que se acepta en un hash guardado o importado; uno mayor se trata como malformado para que un
+     * dato ajeno no pueda ocupar los hilos de hash durante minutos.
+     */
+    public static final int MAXIMO_ITERACIONES = 10_000_000;
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+    private static final ExecutorService HILOS = Executors.newFixedThreadPool(
+            Integer.getInteger("carrito.credenciales.hilos", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+            tarea -> {
+                Thread hilo = new Thread(tarea, "credenciales");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+
+    private static volatile int iteraciones = Integer.getInteger("carrito.credenciales.iteraciones", 600_000);
+    private static volatile String hashFicticio;
+
+    private Credenciales() {
+    }
+
+    public static int getIteraciones() {
+        return iteraciones;
+    }
+
+    public static void setIteraciones(int iteraciones) {
+        if (iteraciones < 1 || iteraciones > MAXIMO_ITERACIONES) {
+            throw new IllegalArgumentException("iteraciones: " + iteraciones);
+        }
+        Credenciales.iteraciones = iteraciones;
+        hashFicticio = null;
+    }
+
+    public static String generar(String secreto) {
+        byte[] sal = new byte[BYTES_SAL];
+        ALEATORIO.nextBytes(sal);
+        int costo = iteraciones;
+        byte[] hash = enGrupo(secreto, sal, costo);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIJO + costo + '$' + base64.encodeToString(sal) + '$' + base64.encodeToString(hash);
+    }
+
+    /**
+     * Compara en tiempo constante. Si no hay hash guardado (usuario inexistente) igual se calcula uno ficticio,
+     * para que el tiempo de respuesta no revele que el usuario no existe. Un hash malformado se trata igual: la
+     * verificacion falla, nunca lanza.
+     */
+    public static boolean verificar(String hashGuardado, String secreto) {
+        Hash hash = leer(hashGuardado);
+        if (hash == null || secreto == null) {
+            verificar(hashFicticio(), "");
+            return false;
+        }
+        return MessageDigest.isEqual(hash.valor, enGrupo(secreto, hash.sal, hash.costo));
+    }
+
+    public static boolean esHash(String valor) {
+        return valor != null && valor.startsWith(PREFIJO);
+    }
+
+    /**
+     * {@code true} si el valor es un hash {@code pbkdf2$iteraciones$sal$hash} completo, con un costo entre 1 y
+     * {@link #MAXIMO_ITERACIONES} y sal y hash en base64.
+     */
+    public static boolean esHashValido(String valor) {
+        return leer(valor) != null;
+    }
+
+    private static Hash leer(String valor) {
+        if (!esHash(valor)) {
+            return null;
+        }
+        String[] partes = valor.split("\\$", -1);
+        if (partes.length != 4 || partes[1].isEmpty() || partes[1].length() > 9) {
+            return null;
+        }
+        for (int i = 0; i < partes[1].length(); i++) {
+            if (partes[1].charAt(i) < '0' || partes[1].charAt(i) > '9') {
+                return null;
+            }
+        }
+        int costo = Integer.parseInt(partes[1]);
+        if (costo < 1 || costo > MAXIMO_ITERACIONES) {
+            return null;
+        }
+        try {
+            Base64.Decoder base64 = Base64.getDecoder();
+            byte[] sal = base64.decode(partes[2]);
+            byte[] hash = base64.decode(partes[3]);
+            return sal.length > 0 && hash.length == BITS_HASH / 8 ? new Hash(costo, sal, hash) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Devuelve el valor tal cual si ya es un hash; si es texto plano (datos guardados antes de los hashes)
+     * lo convierte.
+     */
+    public static String asegurarHash(String valor) {
+        return valor == null || esHash(valor) ? valor : generar(valor);
+    }
+
+    private static String hashFicticio() {
+        String ficticio = hashFicticio;
+        if (ficticio == null) {
+            ficticio = generar("");
+            hashFicticio = ficticio;
+        }
+        return ficticio;
+    }
+
+    private static byte[] enGrupo(String secreto, byte[] sal, int costo) {
+        Future<byte[]> resultado = HILOS.submit(() -> derivar(secreto.toCharArray(), sal, costo));
+        try {
+            return resultado.get();
+        } catch (InterruptedException ex) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private static byte[] derivar(char[] secreto, byte[] sal, int costo) throws GeneralSecurityException {
+        PBEKeySpec especificacion = new PBEKeySpec(secreto, sal, costo, BITS_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(especificacion).getEncoded();
+        } finally {
+            especificacion.clearPassword();
+        }
+    }
+
+    private static final class Hash {
+
+        private final int costo;
+        private final byte[] sal;
+        private final byte[] valor;
+
+        Hash(int costo, byte[] sal, byte[] valor) {
+            this.costo = costo;
+            this.sal = sal;
+            this.valor = valor;
+        }
+    }
+}
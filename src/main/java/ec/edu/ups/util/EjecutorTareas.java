@@ -0,0 +1,182 @@
+package ec.edu.ups.util;
+
+import javax.swing.*;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Ejecuta el trabajo de los controladores en hilos virtuales y entrega el resultado en el hilo de eventos de Swing.
+ * Las consultas corren en paralelo entre si; cada modificacion espera a las tareas lanzadas antes y las posteriores
+ * la esperan a ella, de modo que los DAO nunca se leen y escriben a la vez y se respeta el orden de los clics.
+ * Una consulta nueva en el mismo canal deja obsoleta a la anterior: si no empezo no se ejecuta y su resultado
+ * se descarta. Todos los metodos publicos se llaman desde el hilo de eventos, salvo {@link #modificarYEsperar}.
+ */
+public class EjecutorTareas {
+
+    private final ExecutorService hilos;
+    private final Map<Object, Tarea<?>> consultasPorCanal;
+    private final List<CompletableFuture<Void>> consultasDesdeUltimaModificacion;
+    private CompletableFuture<Void> ultimaModificacion;
+    private Consumer<Boolean> indicador;
+    private Consumer<Throwable> manejadorErrores;
+    private int enCurso;
+
+    public EjecutorTareas() {
+        this.hilos = Executors.newVirtualThreadPerTaskExecutor();
+        this.consultasPorCanal = new HashMap<>();
+        this.consultasDesdeUltimaModificacion = new ArrayList<>();
+        this.ultimaModificacion = CompletableFuture.completedFuture(null);
+        this.indicador = ocupado -> { };
+        this.manejadorErrores = EjecutorTareas::mostrarError;
+    }
+
+    public void setIndicador(Consumer<Boolean> indicador) {
+        this.indicador = indicador;
+        indicador.accept(enCurso > 0);
+    }
+
+    public void setManejadorErrores(Consumer<Throwable> manejadorErrores) {
+        this.manejadorErrores = manejadorErrores;
+    }
+
+    /**
+     * Manejador por defecto: ninguna falla queda en silencio aunque nadie haya llamado a {@link #setManejadorErrores}.
+     */
+    private static void mostrarError(Throwable ex) {
+        ex.printStackTrace();
+        String mensaje = ex.getMessage() != null ? ex.getMessage() : ex.toString();
+        JOptionPane.showMessageDialog(null, mensaje, "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    public <T> void consultar(Callable<T> consulta, Consumer<T> alTerminar) {
+        consultar(null, consulta, alTerminar);
+    }
+
+    public <T> void consultar(Object canal, Callable<T> consulta, Consumer<T> alTerminar) {
+        Tarea<T> tarea = new Tarea<>(canal, consulta, alTerminar);
+        if (canal != null) {
+            Tarea<?> anterior = consultasPorCanal.put(canal, tarea);
+            if (anterior != null) {
+                anterior.obsoleta = true;
+            }
+        }
+        consultasDesdeUltimaModificacion.removeIf(CompletableFuture::isDone);
+        consultasDesdeUltimaModificacion.add(lanzar(ultimaModificacion, tarea));
+    }
+
+    public <T> void modificar(Callable<T> cambio, Consumer<T> alTerminar) {
+        List<CompletableFuture<Void>> previas = new ArrayList<>(consultasDesdeUltimaModificacion);
+        previas.add(ultimaModificacion);
+        consultasDesdeUltimaModificacion.clear();
+        ultimaModificacion = lanzar(CompletableFuture.allOf(previas.toArray(new CompletableFuture<?>[0])),
+                new Tarea<>(null, cambio, alTerminar));
+    }
+
+    public void modificar(Runnable cambio, Runnable alTerminar) {
+        modificar(() -> {
+            cambio.run();
+            return null;
+        }, resultado -> alTerminar.run());
+    }
+
+    /**
+     * Trabajo largo que no entra en el orden de consultas y modificaciones, como una importacion: corre aparte y solo
+     * entrega su resultado o su error igual que las demas tareas. Lo que escriba en los DAO lo pasa por
+     * {@link #modificarYEsperar}, en tramos cortos, para no detener a las demas tareas mientras dura.
+     */
+    public <T> void ejecutarAparte(Callable<T> trabajo, Consumer<T> alTerminar) {
+        lanzar(CompletableFuture.completedFuture(null), new Tarea<>(null, trabajo, alTerminar));
+    }
+
+    /**
+     * Encola {@code cambio} como una modificacion mas y espera a que termine; su error se lanza aqui en vez de ir al
+     * manejador. Se llama desde un hilo que no es el de eventos, tipicamente el de {@link #ejecutarAparte}.
+     */
+    public <T> T modificarYEsperar(Callable<T> cambio) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        try {
+            SwingUtilities.invokeAndWait(() -> modificar(() -> {
+                try {
+                    resultado.complete(cambio.call());
+                } catch (Throwable ex) {
+                    resultado.completeExceptionally(ex);
+                }
+                return null;
+            }, nada -> { }));
+            return resultado.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (InvocationTargetException | ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private CompletableFuture<Void> lanzar(CompletableFuture<?> despuesDe, Tarea<?> tarea) {
+        if (enCurso++ == 0) {
+            indicador.accept(true);
+        }
+        return despuesDe.handle((resultado, error) -> null).thenRunAsync(tarea::ejecutar, hilos);
+    }
+
+    private void terminar(Tarea<?> tarea) {
+        if (tarea.canal != null && consultasPorCanal.get(tarea.canal) == tarea) {
+            consultasPorCanal.remove(tarea.canal);
+        }
+        if (--enCurso == 0) {
+            indicador.accept(false);
+        }
+    }
+
+    private final class Tarea<T> {
+
+        private final Object canal;
+        private final Callable<T> trabajo;
+        private final Consumer<T> alTerminar;
+        private volatile boolean obsoleta;
+
+        Tarea(Object canal, Callable<T> trabajo, Consumer<T> alTerminar) {
+            this.canal = canal;
+            this.trabajo = trabajo;
+            this.alTerminar = alTerminar;
+        }
+
+        void ejecutar() {
+            if (obsoleta) {
+                SwingUtilities.invokeLater(() -> terminar(this));
+                return;
+            }
+            try {
+                T resultado = trabajo.call();
+                SwingUtilities.invokeLater(() -> {
+                    terminar(this);
+                    if (!obsoleta) {
+                        alTerminar.accept(resultado);
+                    }
+                });
+            } catch (Throwable ex) {
+                SwingUtilities.invokeLater(() -> {
+                    terminar(this);
+                    if (!obsoleta) {
+                        manejadorErrores.accept(ex);
+                    }
+                });
+            }
+        }
+    }
+}
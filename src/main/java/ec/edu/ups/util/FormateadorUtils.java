@@ -1,19 +1,121 @@
 package ec.edu.ups.util;
 
-import java.text.DateFormat;
+import ec.edu.ups.modelo.Dinero;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DecimalStyle;
+import java.time.format.FormatStyle;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Formatos de moneda y fecha cacheados por locale y seguros entre hilos. Para las monedas con dos decimales
+ * el texto se arma directamente desde los centavos, copiando prefijos, separadores y agrupacion del
+ * {@link DecimalFormat} del locale; el resto de monedas usa ese mismo formato sincronizado.
+ */
 public class FormateadorUtils {
-    public static String formatearMoneda(double cantidad, Locale locale) {
-        NumberFormat formatoMoneda = NumberFormat.getCurrencyInstance(locale);
-        return formatoMoneda.format(cantidad);
+
+    private static final ConcurrentMap<Locale, FormatoMoneda> MONEDAS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Locale, DateTimeFormatter> FECHAS = new ConcurrentHashMap<>();
+
+    public static String formatearMoneda(Dinero cantidad, Locale locale) {
+        return formatearMoneda(cantidad.getCentavos(), locale);
+    }
+
+    public static String formatearMoneda(long centavos, Locale locale) {
+        return agregarMoneda(new StringBuilder(24), centavos, locale).toString();
+    }
+
+    public static StringBuilder agregarMoneda(StringBuilder destino, Dinero cantidad, Locale locale) {
+        return agregarMoneda(destino, cantidad.getCentavos(), locale);
     }
 
-    public static String formatearFecha(Date fecha, Locale locale) {
-        DateFormat formato = DateFormat.getDateInstance(DateFormat.MEDIUM, locale);
-        return formato.format(fecha);
+    public static StringBuilder agregarMoneda(StringBuilder destino, long centavos, Locale locale) {
+        MONEDAS.computeIfAbsent(locale, FormatoMoneda::new).agregar(destino, centavos);
+        return destino;
     }
 
+    public static String formatearFecha(Instant fecha, Locale locale) {
+        DateTimeFormatter formato = FECHAS.computeIfAbsent(locale,
+                l -> DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(l)
+                        .withDecimalStyle(DecimalStyle.of(l)));
+        return formato.format(fecha.atZone(ZoneId.systemDefault()));
+    }
+
+    private static final class FormatoMoneda {
+
+        private final NumberFormat formato;
+        private final boolean rapido;
+        private final String prefijoPositivo;
+        private final String sufijoPositivo;
+        private final String prefijoNegativo;
+        private final String sufijoNegativo;
+        private final char cero;
+        private final char separadorDecimal;
+        private final char separadorMiles;
+        private final int agrupacion;
+
+        FormatoMoneda(Locale locale) {
+            this.formato = NumberFormat.getCurrencyInstance(locale);
+            if (!(formato instanceof DecimalFormat decimal)) {
+                rapido = false;
+                prefijoPositivo = sufijoPositivo = prefijoNegativo = sufijoNegativo = null;
+                cero = separadorDecimal = separadorMiles = 0;
+                agrupacion = 0;
+                return;
+            }
+            DecimalFormatSymbols simbolos = decimal.getDecimalFormatSymbols();
+            rapido = decimal.getMinimumFractionDigits() == 2 && decimal.getMaximumFractionDigits() == 2
+                    && decimal.getMultiplier() == 1 && !decimal.isDecimalSeparatorAlwaysShown()
+                    && decimal.getMinimumIntegerDigits() == 1;
+            prefijoPositivo = decimal.getPositivePrefix();
+            sufijoPositivo = decimal.getPositiveSuffix();
+            prefijoNegativo = decimal.getNegativePrefix();
+            sufijoNegativo = decimal.getNegativeSuffix();
+            cero = simbolos.getZeroDigit();
+            separadorDecimal = simbolos.getMonetaryDecimalSeparator();
+            separadorMiles = simbolos.getMonetaryGroupingSeparator();
+            agrupacion = decimal.isGroupingUsed() ? decimal.getGroupingSize() : 0;
+        }
+
+        void agregar(StringBuilder destino, long centavos) {
+            if (!rapido || centavos == Long.MIN_VALUE) {
+                synchronized (formato) {
+                    destino.append(formato.format(Dinero.deCentavos(centavos).aBigDecimal()));
+                }
+                return;
+            }
+            boolean negativo = centavos < 0;
+            long absoluto = Math.abs(centavos);
+            destino.append(negativo ? prefijoNegativo : prefijoPositivo);
+            agregarEntero(destino, absoluto / 100);
+            long fraccion = absoluto % 100;
+            destino.append(separadorDecimal).append((char) (cero + fraccion / 10)).append((char) (cero + fraccion % 10));
+            destino.append(negativo ? sufijoNegativo : sufijoPositivo);
+        }
+
+        private void agregarEntero(StringBuilder destino, long entero) {
+            int inicio = destino.length();
+            int digitos = 0;
+            do {
+                if (agrupacion > 0 && digitos > 0 && digitos % agrupacion == 0) {
+                    destino.append(separadorMiles);
+                }
+                destino.append((char) (cero + entero % 10));
+                entero /= 10;
+                digitos++;
+            } while (entero > 0);
+            for (int i = inicio, j = destino.length() - 1; i < j; i++, j--) {
+                char temporal = destino.charAt(i);
+                destino.setCharAt(i, destino.charAt(j));
+                destino.setCharAt(j, temporal);
+            }
+        }
+    }
 }
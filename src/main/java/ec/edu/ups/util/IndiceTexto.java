@@ -0,0 +1,132 @@
+package ec.edu.ups.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Indice secundario sobre un texto normalizado (sin mayusculas ni tildes): busqueda exacta y por prefijo
+ * sobre un arbol ordenado, y por subcadena mediante listas de gramas de 1, 2 y 3 caracteres. Una subcadena de
+ * hasta 3 caracteres es exactamente su lista; una mas larga se verifica sobre la lista de trigramas mas corta.
+ */
+public class IndiceTexto<V> {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private final MapaEnteroOrdenado<String> textos;
+    private final TreeMap<String, MapaEnteroOrdenado<V>> porTexto;
+    private final Map<Long, MapaEnteroOrdenado<V>> porGrama;
+
+    public IndiceTexto() {
+        this.textos = new MapaEnteroOrdenado<>();
+        this.porTexto = new TreeMap<>();
+        this.porGrama = new HashMap<>();
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String descompuesto = Normalizer.normalize(texto.trim(), Normalizer.Form.NFD);
+        return MARCAS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public void agregar(int codigo, String texto, V valor) {
+        quitar(codigo);
+        String normalizado = normalizar(texto);
+        textos.put(codigo, normalizado);
+        porTexto.computeIfAbsent(normalizado, k -> new MapaEnteroOrdenado<>(2)).put(codigo, valor);
+        for (int largo = 1; largo <= 3; largo++) {
+            for (int i = 0; i + largo <= normalizado.length(); i++) {
+                porGrama.computeIfAbsent(grama(normalizado, i, largo), k -> new MapaEnteroOrdenado<>(2)).put(codigo, valor);
+            }
+        }
+    }
+
+    public void quitar(int codigo) {
+        String normalizado = textos.remove(codigo);
+        if (normalizado == null) {
+            return;
+        }
+        quitarDe(porTexto, normalizado, codigo);
+        for (int largo = 1; largo <= 3; largo++) {
+            for (int i = 0; i + largo <= normalizado.length(); i++) {
+                quitarDe(porGrama, grama(normalizado, i, largo), codigo);
+            }
+        }
+    }
+
+    public List<V> buscarExacto(String texto) {
+        MapaEnteroOrdenado<V> encontrados = porTexto.get(normalizar(texto));
+        return encontrados == null ? new ArrayList<>() : encontrados.valores();
+    }
+
+    public List<V> buscarPorPrefijo(String prefijo) {
+        String normalizado = normalizar(prefijo);
+        NavigableMap<String, MapaEnteroOrdenado<V>> rango = normalizado.isEmpty()
+                ? porTexto
+                : porTexto.subMap(normalizado, true, normalizado + Character.MAX_VALUE, false);
+        List<V> encontrados = new ArrayList<>();
+        for (MapaEnteroOrdenado<V> grupo : rango.values()) {
+            grupo.forEach(encontrados::add);
+        }
+        return encontrados;
+    }
+
+    public List<V> buscarPorSubcadena(String subcadena) {
+        String normalizado = normalizar(subcadena);
+        if (normalizado.isEmpty()) {
+            return buscarPorPrefijo(normalizado);
+        }
+        if (normalizado.length() <= 3) {
+            MapaEnteroOrdenado<V> lista = porGrama.get(grama(normalizado, 0, normalizado.length()));
+            return lista == null ? new ArrayList<>() : lista.valores();
+        }
+
+        MapaEnteroOrdenado<V> candidatos = null;
+        for (int i = 0; i + 3 <= normalizado.length(); i++) {
+            MapaEnteroOrdenado<V> lista = porGrama.get(grama(normalizado, i, 3));
+            if (lista == null) {
+                return new ArrayList<>();
+            }
+            if (candidatos == null || lista.size() < candidatos.size()) {
+                candidatos = lista;
+            }
+        }
+
+        List<V> encontrados = new ArrayList<>();
+        for (int codigo : candidatos.claves()) {
+            if (textos.get(codigo).contains(normalizado)) {
+                encontrados.add(candidatos.get(codigo));
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Hasta 3 caracteres de 16 bits y el largo en los bits altos, para que "ab" y "\0ab" no choquen.
+     */
+    private static long grama(String texto, int inicio, int largo) {
+        long clave = largo;
+        for (int i = 0; i < largo; i++) {
+            clave = (clave << 16) | texto.charAt(inicio + i);
+        }
+        return clave;
+    }
+
+    private <K> void quitarDe(Map<K, MapaEnteroOrdenado<V>> mapa, K clave, int codigo) {
+        MapaEnteroOrdenado<V> grupo = mapa.get(clave);
+        if (grupo != null) {
+            grupo.remove(codigo);
+            if (grupo.isEmpty()) {
+                mapa.remove(clave);
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package ec.edu.ups.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Mapa int -> V con direccionamiento abierto (sin boxing de las claves) que conserva el orden de insercion.
+ * La tabla hash guarda posiciones dentro de los arreglos de entradas; las entradas eliminadas se compactan
+ * cuando los arreglos se llenan. Mientras las claves se inserten en orden creciente (codigos autoincrementales)
+ * las paginas por clave se resuelven con busqueda binaria.
+ * <p>
+ * No es seguro entre hilos, pero las lecturas no modifican el contenido (a lo sumo guardan el indice de posiciones de
+ * {@link #vista()}): varios lectores pueden compartirlo mientras nadie escriba. Los iteradores fallan con {@link ConcurrentModificationException} si el mapa se modifica durante
+ * el recorrido.
+ */
+public class MapaEnteroOrdenado<V> implements Iterable<V> {
+
+    private static final int VACIO = -1;
+    private static final int BORRADO = -2;
+    private static final int CAPACIDAD_POR_DEFECTO = 8;
+
+    private int[] tabla;
+    private int[] claves;
+    private Object[] valores;
+    private boolean[] vivas;
+    private int bits;
+    private int ocupadas;
+    private int tamaño;
+    private boolean ordenada;
+    private int modificaciones;
+    private Posiciones posiciones;
+
+    public MapaEnteroOrdenado() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    public MapaEnteroOrdenado(int capacidadInicial) {
+        inicializar(capacidadMinima(capacidadInicial));
+    }
+
+    public V get(int clave) {
+        int posicion = buscarPosicion(clave);
+        return posicion < 0 ? null : valor(posicion);
+    }
+
+    public boolean containsKey(int clave) {
+        return buscarPosicion(clave) >= 0;
+    }
+
+    public V put(int clave, V valor) {
+        int posicion = buscarPosicion(clave);
+        if (posicion >= 0) {
+            V anterior = valor(posicion);
+            valores[posicion] = valor;
+            return anterior;
+        }
+        if (ocupadas == claves.length) {
+            reconstruir(tamaño + 1 > claves.length / 2 ? claves.length << 1 : claves.length);
+        }
+        int mascara = tabla.length - 1;
+        int i = indice(clave);
+        while (tabla[i] >= 0) {
+            i = (i + 1) & mascara;
+        }
+        anotarOrden(clave);
+        tabla[i] = ocupadas;
+        claves[ocupadas] = clave;
+        valores[ocupadas] = valor;
+        vivas[ocupadas] = true;
+        ocupadas++;
+        tamaño++;
+        modificaciones++;
+        return null;
+    }
+
+    public V remove(int clave) {
+        int mascara = tabla.length - 1;
+        int i = indice(clave);
+        int posicion;
+        while ((posicion = tabla[i]) != VACIO) {
+            if (posicion >= 0 && claves[posicion] == clave) {
+                V anterior = valor(posicion);
+                tabla[i] = BORRADO;
+                valores[posicion] = null;
+                vivas[posicion] = false;
+                tamaño--;
+                modificaciones++;
+                if (ocupadas - tamaño > tamaño) {
+                    reconstruir(claves.length);
+                }
+                return anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+        return null;
+    }
+
+    public int size() {
+        return tamaño;
+    }
+
+    public boolean isEmpty() {
+        return tamaño == 0;
+    }
+
+    public void clear() {
+        inicializar(CAPACIDAD_POR_DEFECTO);
+        posiciones = null;
+        modificaciones++;
+    }
+
+    public List<V> valores() {
+        List<V> lista = new ArrayList<>(tamaño);
+        for (int i = 0; i < ocupadas; i++) {
+            if (vivas[i]) {
+                lista.add(valor(i));
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Vista de solo lectura de los valores en orden de insercion, sin copiar; refleja las escrituras posteriores.
+     * El acceso por posicion es O(1) mientras no haya entradas eliminadas pendientes. Si las hay, el primer acceso
+     * despues de una escritura arma en O(n) un arreglo con las posiciones vivas y los siguientes lo reutilizan, asi
+     * que recorrer la vista por indice despues de un {@link #remove} cuesta O(n) en total y no O(n²).
+     */
+    public List<V> vista() {
+        return new AbstractList<>() {
+            @Override
+            public V get(int indice) {
+                if (indice < 0 || indice >= tamaño) {
+                    throw new IndexOutOfBoundsException(indice);
+                }
+                if (ocupadas == tamaño) {
+                    return valor(indice);
+                }
+                return valor(posicionesVivas()[indice]);
+            }
+
+            @Override
+            public int size() {
+                return tamaño;
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                return MapaEnteroOrdenado.this.iterator();
+            }
+        };
+    }
+
+    public int[] claves() {
+        int[] resultado = new int[tamaño];
+        int j = 0;
+        for (int i = 0; i < ocupadas; i++) {
+            if (vivas[i]) {
+                resultado[j++] = claves[i];
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Hasta {@code limite} valores con clave mayor que {@code despuesDe}, ordenados por clave. Solo recorre las
+     * claves (no los valores) cuando no estan en orden de insercion.
+     */
+    public List<V> pagina(int despuesDe, int limite) {
+        if (!ordenada) {
+            Paginacion.PaginaEntera<Integer> pagina = new Paginacion.PaginaEntera<>(posicion -> claves[posicion], despuesDe, limite);
+            for (int i = 0; i < ocupadas; i++) {
+                if (vivas[i] && pagina.admite(claves[i])) {
+                    pagina.ofrecer(i);
+                }
+            }
+            List<V> resultado = new ArrayList<>(limite);
+            for (int posicion : pagina.resultado()) {
+                resultado.add(valor(posicion));
+            }
+            return resultado;
+        }
+        int desde = 0;
+        int hasta = ocupadas;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (claves[medio] <= despuesDe) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        List<V> resultado = new ArrayList<>(Math.min(limite, tamaño));
+        for (int i = desde; i < ocupadas && resultado.size() < limite; i++) {
+            if (vivas[i]) {
+                resultado.add(valor(i));
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public void forEach(Consumer<? super V> accion) {
+        int esperadas = modificaciones;
+        for (int i = 0; i < ocupadas && modificaciones == esperadas; i++) {
+            if (vivas[i]) {
+                accion.accept(valor(i));
+            }
+        }
+        if (modificaciones != esperadas) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<>() {
+            private final int esperadas = modificaciones;
+            private int siguiente = avanzar(0);
+
+            private int avanzar(int desde) {
+                while (desde < ocupadas && !vivas[desde]) {
+                    desde++;
+                }
+                return desde;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return siguiente < ocupadas;
+            }
+
+            @Override
+            public V next() {
+                if (modificaciones != esperadas) {
+                    throw new ConcurrentModificationException();
+                }
+                if (siguiente >= ocupadas) {
+                    throw new NoSuchElementException();
+                }
+                V valor = valor(siguiente);
+                siguiente = avanzar(siguiente + 1);
+                return valor;
+            }
+        };
+    }
+
+    /**
+     * Posiciones de las entradas vivas en orden, armadas una vez por cada estado del mapa. Dos lectores pueden
+     * armarlas a la vez sin problema: el resultado es el mismo y {@link Posiciones} solo tiene campos finales, asi
+     * que quien lo vea publicado lo ve completo.
+     */
+    private int[] posicionesVivas() {
+        Posiciones actuales = posiciones;
+        if (actuales == null || actuales.modificaciones != modificaciones) {
+            int[] vivasEnOrden = new int[tamaño];
+            int j = 0;
+            for (int i = 0; i < ocupadas; i++) {
+                if (vivas[i]) {
+                    vivasEnOrden[j++] = i;
+                }
+            }
+            actuales = new Posiciones(modificaciones, vivasEnOrden);
+            posiciones = actuales;
+        }
+        return actuales.vivas;
+    }
+
+    private int buscarPosicion(int clave) {
+        int mascara = tabla.length - 1;
+        int i = indice(clave);
+        int posicion;
+        while ((posicion = tabla[i]) != VACIO) {
+            if (posicion >= 0 && claves[posicion] == clave) {
+                return posicion;
+            }
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    private void anotarOrden(int clave) {
+        if (ocupadas > 0 && clave <= claves[ocupadas - 1]) {
+            ordenada = false;
+        }
+    }
+
+    private int indice(int clave) {
+        return (clave * 0x9E3779B9) >>> (32 - bits);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valor(int posicion) {
+        return (V) valores[posicion];
+    }
+
+    private void reconstruir(int capacidad) {
+        int[] clavesAnteriores = claves;
+        Object[] valoresAnteriores = valores;
+        boolean[] vivasAnteriores = vivas;
+        int ocupadasAnteriores = ocupadas;
+
+        inicializar(capacidad);
+
+        int mascara = tabla.length - 1;
+        for (int j = 0; j < ocupadasAnteriores; j++) {
+            if (!vivasAnteriores[j]) {
+                continue;
+            }
+            int clave = clavesAnteriores[j];
+            int i = indice(clave);
+            while (tabla[i] >= 0) {
+                i = (i + 1) & mascara;
+            }
+            anotarOrden(clave);
+            tabla[i] = ocupadas;
+            claves[ocupadas] = clave;
+            valores[ocupadas] = valoresAnteriores[j];
+            vivas[ocupadas] = true;
+            ocupadas++;
+        }
+        tamaño = ocupadas;
+    }
+
+    private void inicializar(int capacidad) {
+        this.claves = new int[capacidad];
+        this.valores = new Object[capacidad];
+        this.vivas = new boolean[capacidad];
+        this.tabla = new int[capacidad * 2];
+        Arrays.fill(tabla, VACIO);
+        this.bits = Integer.numberOfTrailingZeros(tabla.length);
+        this.ocupadas = 0;
+        this.tamaño = 0;
+        this.ordenada = true;
+    }
+
+    private static int capacidadMinima(int capacidad) {
+        int resultado = 2;
+        while (resultado < capacidad) {
+            resultado <<= 1;
+        }
+        return resultado;
+    }
+
+    private static final class Posiciones {
+
+        private final int modificaciones;
+        private final int[] vivas;
+
+        Posiciones(int modificaciones, int[] vivas) {
+            this.modificaciones = modificaciones;
+            this.vivas = vivas;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ec.edu.ups.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Paginacion por clave ("despues de X, maximo N") para los DAO. Si los elementos ya estan en un mapa ordenado por
+ * la clave, la pagina salta a su inicio y solo toca N elementos; si no, se arma en una sola pasada guardando solo
+ * los N candidatos de menor clave, asi que la memoria depende del tamaño de pagina y no del total.
+ */
+public final class Paginacion {
+
+    public static final int TAMAÑO_PAGINA = 500;
+
+    private Paginacion() {
+    }
+
+    /**
+     * Los primeros {@code limite} valores con clave mayor que {@code despuesDe} ({@code null} para empezar desde
+     * el principio), en O(log n + limite).
+     */
+    public static <K, T> List<T> pagina(NavigableMap<K, T> ordenados, K despuesDe, int limite) {
+        Collection<T> siguientes = despuesDe == null ? ordenados.values() : ordenados.tailMap(despuesDe, false).values();
+        List<T> resultado = new ArrayList<>(Math.max(0, Math.min(limite, TAMAÑO_PAGINA)));
+        Iterator<T> iterador = siguientes.iterator();
+        while (resultado.size() < limite && iterador.hasNext()) {
+            resultado.add(iterador.next());
+        }
+        return resultado;
+    }
+
+    public static <T> List<T> pagina(Iterable<T> elementos, ToIntFunction<T> clave, int despuesDe, int limite) {
+        PaginaEntera<T> pagina = new PaginaEntera<>(clave, despuesDe, limite);
+        for (T elemento : elementos) {
+            pagina.ofrecer(elemento);
+        }
+        return pagina.resultado();
+    }
+
+    public static <T> List<T> pagina(Iterable<T> elementos, Function<T, String> clave, String despuesDe, int limite) {
+        Comparator<T> orden = Comparator.comparing(clave);
+        PriorityQueue<T> mayores = new PriorityQueue<>(Math.max(1, limite), orden.reversed());
+        for (T elemento : elementos) {
+            String valor = clave.apply(elemento);
+            if (despuesDe != null && valor.compareTo(despuesDe) <= 0) {
+                continue;
+            }
+            if (mayores.size() < limite) {
+                mayores.add(elemento);
+            } else if (limite > 0 && valor.compareTo(clave.apply(mayores.peek())) < 0) {
+                mayores.poll();
+                mayores.add(elemento);
+            }
+        }
+        List<T> resultado = new ArrayList<>(mayores);
+        resultado.sort(orden);
+        return resultado;
+    }
+
+    /**
+     * Recorre todos los elementos pidiendo paginas de {@link #TAMAÑO_PAGINA} a medida que el flujo avanza.
+     * Cada pagina se pide con la clave del ultimo elemento entregado.
+     */
+    public static <K, T> Stream<T> flujo(K inicio, Function<K, List<T>> siguientePagina, Function<T, K> clave) {
+        Spliterator<T> cursor = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private K ultima = inicio;
+            private Iterator<T> actual = List.<T>of().iterator();
+            private boolean agotado;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> accion) {
+                while (!actual.hasNext()) {
+                    if (agotado) {
+                        return false;
+                    }
+                    List<T> pagina = siguientePagina.apply(ultima);
+                    agotado = pagina.size() < TAMAÑO_PAGINA;
+                    actual = pagina.iterator();
+                }
+                T elemento = actual.next();
+                ultima = clave.apply(elemento);
+                accion.accept(elemento);
+                return true;
+            }
+        };
+        return StreamSupport.stream(cursor, false);
+    }
+
+    /**
+     * Acumulador de una pagina con claves int, para recorridos que no son {@link Iterable}. {@link #admite(int)}
+     * permite descartar una fila antes de construir el objeto.
+     */
+    public static final class PaginaEntera<T> {
+
+        private final ToIntFunction<T> clave;
+        private final int despuesDe;
+        private final int limite;
+        private final PriorityQueue<T> mayores;
+
+        public PaginaEntera(ToIntFunction<T> clave, int despuesDe, int limite) {
+            this.clave = clave;
+            this.despuesDe = despuesDe;
+            this.limite = limite;
+            this.mayores = new PriorityQueue<>(Math.max(1, limite), Comparator.comparingInt(clave).reversed());
+        }
+
+        public boolean admite(int valor) {
+            if (valor <= despuesDe || limite <= 0) {
+                return false;
+            }
+            return mayores.size() < limite || valor < clave.applyAsInt(mayores.peek());
+        }
+
+        public void ofrecer(T elemento) {
+            if (!admite(clave.applyAsInt(elemento))) {
+                return;
+            }
+            if (mayores.size() == limite) {
+                mayores.poll();
+            }
+            mayores.add(elemento);
+        }
+
+        public List<T> resultado() {
+            List<T> resultado = new ArrayList<>(mayores);
+            resultado.sort(Comparator.comparingInt(clave));
+            return resultado;
+        }
+    }
+}
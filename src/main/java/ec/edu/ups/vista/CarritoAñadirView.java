@@ -112,12 +112,12 @@ public class CarritoAñadirView extends JInternalFrame {
                         item.getProducto().getNombre(),
                         FormateadorUtils.formatearMoneda(item.getProducto().getPrecio(), locale),
                         item.getCantidad(),
-                        FormateadorUtils.formatearMoneda(item.getSubtotal(), locale)
+                        FormateadorUtils.formatearMoneda(item.getSubtotalCentavos(), locale)
                 });
             }
-            txtSubtotal.setText(FormateadorUtils.formatearMoneda(carrito.calcularSubtotal(), locale));
-            txtIVA.setText(FormateadorUtils.formatearMoneda(carrito.calcularIVA(), locale));
-            txtTotal.setText(FormateadorUtils.formatearMoneda(carrito.calcularTotal(), locale));
+            txtSubtotal.setText(FormateadorUtils.formatearMoneda(carrito.getSubtotalCentavos(), locale));
+            txtIVA.setText(FormateadorUtils.formatearMoneda(carrito.getIVACentavos(), locale));
+            txtTotal.setText(FormateadorUtils.formatearMoneda(carrito.getTotalCentavos(), locale));
         } else {
             txtSubtotal.setText("");
             txtIVA.setText("");
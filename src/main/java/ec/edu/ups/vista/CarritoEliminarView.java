@@ -91,7 +91,7 @@ public class CarritoEliminarView extends JInternalFrame {
                         item.getProducto().getNombre(),
                         FormateadorUtils.formatearMoneda(item.getProducto().getPrecio(), locale),
                         item.getCantidad(),
-                        FormateadorUtils.formatearMoneda(item.getSubtotal(), locale)
+                        FormateadorUtils.formatearMoneda(item.getSubtotalCentavos(), locale)
                 };
                 modeloDetalles.addRow(fila);
             }
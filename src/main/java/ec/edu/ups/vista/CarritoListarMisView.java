@@ -21,9 +21,8 @@ public class CarritoListarMisView extends JInternalFrame {
     private JLabel lblListaCarrito;
     private JLabel lblDetalles;
     private Carrito carritoActual;
-    private List<Carrito> listaActual;
 
-    private DefaultTableModel modeloCarritos;
+    private ModeloTablaCarritos modeloCarritos;
     private DefaultTableModel modeloDetalles;
 
     private MensajeInternacionalizacionHandler mensajes;
@@ -39,7 +38,8 @@ public class CarritoListarMisView extends JInternalFrame {
 
         URL urlListar=getClass().getResource("/list.png");
 
-        modeloCarritos = new DefaultTableModel();
+        modeloCarritos = new ModeloTablaCarritos(ModeloTablaCarritos.Columna.CODIGO, ModeloTablaCarritos.Columna.FECHA,
+                ModeloTablaCarritos.Columna.ITEMS, ModeloTablaCarritos.Columna.TOTAL);
         tblCarritos.setModel(modeloCarritos);
 
         btnListar.setIcon(new ImageIcon(urlListar));
@@ -61,13 +61,13 @@ public class CarritoListarMisView extends JInternalFrame {
 
         btnListar.setText(mensajes.get("menu.carrito.listarMis"));
 
-        Object[] columnasCarritos = {
+        modeloCarritos.setLocale(locale);
+        modeloCarritos.setTitulos(
                 mensajes.get("global.codigo"),
                 mensajes.get("global.fecha"),
                 mensajes.get("global.item"),
                 mensajes.get("global.total")
-        };
-        modeloCarritos.setColumnIdentifiers(columnasCarritos);
+        );
 
         Object[] columnasDetalles = {
                 mensajes.get("global.nombre"),
@@ -77,29 +77,14 @@ public class CarritoListarMisView extends JInternalFrame {
         };
         modeloDetalles.setColumnIdentifiers(columnasDetalles);
 
-        if (listaActual != null) {
-            mostrarCarritos(listaActual);
-        }
         if (carritoActual != null) {
             mostrarDetalles(carritoActual);
         }
     }
 
     public void mostrarCarritos(List<Carrito> carritos) {
-        this.listaActual = carritos;
-        modeloCarritos.setRowCount(0);
+        modeloCarritos.setCarritos(carritos);
         modeloDetalles.setRowCount(0);
-        if (carritos == null) {
-            return;
-        }
-        for (Carrito carrito : carritos) {
-            modeloCarritos.addRow(new Object[]{
-                    carrito.getCodigo(),
-                    FormateadorUtils.formatearFecha(carrito.getFecha().getTime(), locale),
-                    carrito.obtenerItems().size(),
-                    FormateadorUtils.formatearMoneda(carrito.calcularTotal(), locale)
-            });
-        }
     }
 
     public void mostrarDetalles(Carrito carrito) {
@@ -112,7 +97,7 @@ public class CarritoListarMisView extends JInternalFrame {
                         item.getProducto().getNombre(),
                         item.getCantidad(),
                         FormateadorUtils.formatearMoneda(item.getProducto().getPrecio(), locale),
-                        FormateadorUtils.formatearMoneda(item.getSubtotal(), locale)
+                        FormateadorUtils.formatearMoneda(item.getSubtotalCentavos(), locale)
                 });
             }
         }
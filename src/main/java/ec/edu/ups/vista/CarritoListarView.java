@@ -8,6 +8,9 @@ import ec.edu.ups.util.MensajeInternacionalizacionHandler;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.net.URL;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -15,14 +18,22 @@ public class CarritoListarView extends JInternalFrame {
     private JPanel panelPrincipal;
     private JTable tblCarritos;
     private JButton btnListar;
+    private JButton btnFiltrar;
+    private JSpinner spnDesde;
+    private JSpinner spnHasta;
+    private JLabel lblDesde;
+    private JLabel lblHasta;
+    private JLabel lblConteo;
+    private JButton btnExportar;
+    private JProgressBar barraExportacion;
     private JTable tblDetalles;
-    private DefaultTableModel modelo;
+    private ModeloTablaCarritos modelo;
     private DefaultTableModel modeloDetalles;
     private JLabel lblTitulo;
     private JLabel lblDetalles;
     private JLabel lblDetallesCar;
-    private List<Carrito> listaActual;
     private Carrito carritoActual;
+    private boolean exportando;
     private MensajeInternacionalizacionHandler mensajes;
     private Locale locale;
 
@@ -37,11 +48,18 @@ public class CarritoListarView extends JInternalFrame {
 
         URL urlListar=getClass().getResource("/list.png");
 
-        modelo = new DefaultTableModel();
+        modelo = new ModeloTablaCarritos(ModeloTablaCarritos.Columna.CODIGO, ModeloTablaCarritos.Columna.USUARIO,
+                ModeloTablaCarritos.Columna.FECHA, ModeloTablaCarritos.Columna.ITEMS, ModeloTablaCarritos.Columna.SUBTOTAL,
+                ModeloTablaCarritos.Columna.IVA, ModeloTablaCarritos.Columna.TOTAL);
         tblCarritos.setModel(modelo);
 
         btnListar.setIcon(new ImageIcon(urlListar));
 
+        spnDesde.setModel(new SpinnerDateModel());
+        spnDesde.setEditor(new JSpinner.DateEditor(spnDesde, "yyyy-MM-dd"));
+        spnHasta.setModel(new SpinnerDateModel());
+        spnHasta.setEditor(new JSpinner.DateEditor(spnHasta, "yyyy-MM-dd"));
+
         modeloDetalles = new DefaultTableModel();
         tblDetalles.setModel(modeloDetalles);
 
@@ -57,8 +75,14 @@ public class CarritoListarView extends JInternalFrame {
 
 
         btnListar.setText(mensajes.get("menu.carrito.listar"));
-
-        Object[] columnas = {
+        lblDesde.setText(mensajes.get("carrito.filtro.desde"));
+        lblHasta.setText(mensajes.get("carrito.filtro.hasta"));
+        btnFiltrar.setText(mensajes.get("carrito.filtro.boton"));
+        lblConteo.setText("");
+        btnExportar.setText(mensajes.get(exportando ? "carrito.exportar.cancelar" : "carrito.exportar.boton"));
+
+        modelo.setLocale(locale);
+        modelo.setTitulos(
                 mensajes.get("global.codigo"),
                 mensajes.get("global.usuario"),
                 mensajes.get("global.fecha"),
@@ -66,8 +90,7 @@ public class CarritoListarView extends JInternalFrame {
                 mensajes.get("global.subtotal"),
                 mensajes.get("global.IVA"),
                 mensajes.get("global.total")
-        };
-        modelo.setColumnIdentifiers(columnas);
+        );
 
         Object[] columnasDetalles = {
                 mensajes.get("global.codigo"),
@@ -78,29 +101,49 @@ public class CarritoListarView extends JInternalFrame {
         };
         modeloDetalles.setColumnIdentifiers(columnasDetalles);
         mostrarDetallesCarrito(carritoActual);
-        mostrarCarritos(listaActual);
 
     }
 
     public void mostrarCarritos(List<Carrito> carritos) {
-        this.listaActual=carritos;
-        modelo.setRowCount(0);
+        modelo.setCarritos(carritos);
         if(carritos == null) {
             return;
         }
         limpiarTablaDetalles();
-        for (Carrito carrito : carritos) {
-            Object[] fila = {
-                    carrito.getCodigo(),
-                    carrito.getUsuario() != null ? carrito.getUsuario().getUsername() : "N/A",
-                    carrito.getFecha() != null ? FormateadorUtils.formatearFecha(carrito.getFecha().getTime(), locale) : "N/A",
-                    carrito.obtenerItems().size(),
-                    FormateadorUtils.formatearMoneda(carrito.calcularSubtotal(), locale),
-                    FormateadorUtils.formatearMoneda(carrito.calcularIVA(), locale),
-                    FormateadorUtils.formatearMoneda(carrito.calcularTotal(), locale)
-            };
-            modelo.addRow(fila);
-        }
+    }
+
+    public void iniciarPaginacion(Runnable cargarSiguiente) {
+        modelo.iniciarPaginacion(cargarSiguiente);
+        lblConteo.setText("");
+        limpiarTablaDetalles();
+    }
+
+    /**
+     * Muestra los carritos de un rango de fechas con su cantidad.
+     */
+    public void mostrarCarritosFiltrados(List<Carrito> carritos) {
+        mostrarCarritos(carritos);
+        lblConteo.setText(mensajes.get("carrito.filtro.conteo") + ": " + carritos.size());
+    }
+
+    public LocalDate getDesde() {
+        return aFecha(spnDesde);
+    }
+
+    public LocalDate getHasta() {
+        return aFecha(spnHasta);
+    }
+
+    private static LocalDate aFecha(JSpinner spinner) {
+        return ((Date) spinner.getValue()).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    public void agregarPagina(List<Carrito> pagina, boolean hayMas) {
+        modelo.agregarPagina(pagina, hayMas);
+    }
+
+    public int getUltimoCodigo() {
+        return modelo.getUltimoCodigo();
     }
 
     public void mostrarDetallesCarrito(Carrito carrito) {
@@ -114,7 +157,7 @@ public class CarritoListarView extends JInternalFrame {
                         item.getProducto().getNombre(),
                         FormateadorUtils.formatearMoneda(item.getProducto().getPrecio(), locale),
                         item.getCantidad(),
-                        FormateadorUtils.formatearMoneda(item.getSubtotal(), locale)
+                        FormateadorUtils.formatearMoneda(item.getSubtotalCentavos(), locale)
                 };
                 modeloDetalles.addRow(fila);
             }
@@ -131,12 +174,32 @@ public class CarritoListarView extends JInternalFrame {
                         item.getCantidad(),
                         FormateadorUtils.formatearMoneda(item.getProducto().getPrecio(), locale),
                         item.getCantidad(),
-                        FormateadorUtils.formatearMoneda(item.getSubtotal(), locale)
+                        FormateadorUtils.formatearMoneda(item.getSubtotalCentavos(), locale)
                 });
             }
         }
     }
 
+    /**
+     * Mientras se exporta, la barra muestra el avance y el boton de exportar sirve para cancelar.
+     */
+    public void setExportando(boolean exportando) {
+        this.exportando = exportando;
+        barraExportacion.setValue(0);
+        barraExportacion.setString(null);
+        barraExportacion.setVisible(exportando);
+        btnExportar.setText(mensajes.get(exportando ? "carrito.exportar.cancelar" : "carrito.exportar.boton"));
+    }
+
+    public boolean isExportando() {
+        return exportando;
+    }
+
+    public void mostrarProgresoExportacion(long carritos, long total) {
+        barraExportacion.setValue(total > 0 ? (int) (carritos * 100 / total) : 100);
+        barraExportacion.setString(carritos + " / " + total);
+    }
+
     public void limpiarTablaDetalles() {
         modeloDetalles.setRowCount(0);
     }
@@ -150,6 +213,14 @@ public class CarritoListarView extends JInternalFrame {
         return btnListar;
     }
 
+    public JButton getBtnFiltrar() {
+        return btnFiltrar;
+    }
+
+    public JButton getBtnExportar() {
+        return btnExportar;
+    }
+
     public JTable getTblCarritos() {
         return tblCarritos;
     }
@@ -105,7 +105,7 @@ public class CarritoModificarView extends JInternalFrame {
                 ItemCarrito itemActualizado = encontrarItem(codigoProducto);
                 if (itemActualizado != null) {
                     modeloDetalles.setValueAt(
-                            FormateadorUtils.formatearMoneda(itemActualizado.getSubtotal(), locale),
+                            FormateadorUtils.formatearMoneda(itemActualizado.getSubtotalCentavos(), locale),
                             fila, 4);
                 }
             } catch (NumberFormatException ex) {
@@ -116,12 +116,7 @@ public class CarritoModificarView extends JInternalFrame {
 
     private ItemCarrito encontrarItem(int codigoProducto) {
         if (carritoActual == null) return null;
-        for (ItemCarrito item : carritoActual.obtenerItems()) {
-            if (item.getProducto().getCodigo() == codigoProducto) {
-                return item;
-            }
-        }
-        return null;
+        return carritoActual.buscarItem(codigoProducto);
     }
 
     public void mostrarItemsCarrito(Carrito carrito) {
@@ -136,7 +131,7 @@ public class CarritoModificarView extends JInternalFrame {
                         item.getProducto().getNombre(),
                         FormateadorUtils.formatearMoneda(item.getProducto().getPrecio(), locale),
                         item.getCantidad(),
-                        FormateadorUtils.formatearMoneda(item.getSubtotal(), locale)
+                        FormateadorUtils.formatearMoneda(item.getSubtotalCentavos(), locale)
                 };
                 modeloDetalles.addRow(fila);
             }
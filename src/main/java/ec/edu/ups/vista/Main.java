@@ -1,34 +1,94 @@
 package ec.edu.ups.vista;
 
 import ec.edu.ups.controlador.CarritoController;
+import ec.edu.ups.controlador.ImportacionController;
 import ec.edu.ups.controlador.ProductoController;
 import ec.edu.ups.controlador.UsuarioController;
 import ec.edu.ups.dao.CarritoDAO;
 import ec.edu.ups.dao.ProductoDAO;
 import ec.edu.ups.dao.UsuarioDAO;
-import ec.edu.ups.dao.impl.CarritoDAOMemoria;
-import ec.edu.ups.dao.impl.ProductoDAOMemoria;
-import ec.edu.ups.dao.impl.UsuarioDAOMemoria;
+import ec.edu.ups.dao.impl.CarritoDAOArchivo;
+import ec.edu.ups.dao.impl.CarritoDAOConcurrente;
+import ec.edu.ups.dao.impl.ProductoDAOArchivo;
+import ec.edu.ups.dao.impl.ProductoDAOConcurrente;
+import ec.edu.ups.dao.impl.ProductoDAOMapeado;
+import ec.edu.ups.dao.impl.UsuarioDAOArchivo;
+import ec.edu.ups.dao.impl.UsuarioDAOConcurrente;
 import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.TasaImpuesto;
 import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.EjecutorTareas;
 import ec.edu.ups.util.MensajeInternacionalizacionHandler;
 
 import javax.swing.*; // Importar JInternalFrame
+import java.awt.Cursor;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays; // Importar Arrays
 import java.util.List;   // Importar List
 
 public class Main {
 
-    private static final UsuarioDAO usuarioDAO = new UsuarioDAOMemoria();
-    private static final ProductoDAO productoDAO = new ProductoDAOMemoria();
-    private static final CarritoDAO carritoDAO = new CarritoDAOMemoria();
+    private static final UsuarioDAO usuarioDAO;
+    private static final ProductoDAO productoDAO;
+    private static final CarritoDAO carritoDAO;
+
+    static {
+        Path datos = Paths.get(System.getProperty("carrito.datos", "datos"));
+        try {
+            UsuarioDAOArchivo usuarios = new UsuarioDAOArchivo(datos, new UsuarioDAOConcurrente());
+            usuarios.crearCuentasIniciales();
+            String catalogo = System.getProperty("carrito.catalogo");
+            ProductoDAO productos;
+            Closeable almacenProductos;
+            if (catalogo != null) {
+                ProductoDAOMapeado mapeado = new ProductoDAOMapeado(Paths.get(catalogo));
+                productos = mapeado;
+                almacenProductos = mapeado;
+            } else {
+                ProductoDAOArchivo archivo = new ProductoDAOArchivo(datos, new ProductoDAOConcurrente());
+                productos = archivo;
+                almacenProductos = archivo;
+            }
+            CarritoDAOArchivo carritos = new CarritoDAOArchivo(datos, new CarritoDAOConcurrente(), usuarios);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> cerrar(carritos, almacenProductos, usuarios)));
+            usuarioDAO = usuarios;
+            productoDAO = productos;
+            carritoDAO = carritos;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudieron abrir los datos en " + datos.toAbsolutePath(), ex);
+        }
+    }
 
     private static final MensajeInternacionalizacionHandler mensajes = new MensajeInternacionalizacionHandler("en", "US");
+    private static final EjecutorTareas tareas = new EjecutorTareas();
     private static PrincipalView principalView;
 
+    private static void cerrar(Closeable... almacenes) {
+        for (Closeable almacen : almacenes) {
+            try {
+                almacen.close();
+            } catch (IOException ex) {
+                System.err.println("Error al cerrar los datos: " + ex.getMessage());
+            }
+        }
+    }
+
     public static void main(String[] args) {
+        String iva = System.getProperty("carrito.iva");
+        if (iva != null) {
+            try {
+                TasaImpuesto.setIVA(TasaImpuesto.dePorcentaje(iva));
+            } catch (IllegalArgumentException ex) {
+                System.err.println("carrito.iva: " + ex.getMessage());
+                System.exit(2);
+            }
+        }
         java.awt.EventQueue.invokeLater(Main::mostrarVentanaDeLogin);
     }
 
@@ -85,14 +145,15 @@ public class Main {
             preguntasView.actualizarTextos();
             preguntasModificarView.actualizarTextos();        });
 
-        UsuarioController usuarioController = new UsuarioController(usuarioCrearView, usuarioDAO, loginView, usuarioModificarView, usuarioEliminarView, usuarioModificarMisView, usuarioListarView, mensajes, registrarseView, preguntasView, preguntasModificarView);
+        tareas.setIndicador(ocupado -> loginView.setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor()));
+        tareas.setManejadorErrores(ex -> JOptionPane.showMessageDialog(null, ex.getMessage(), mensajes.get("yesNo.app.titulo"), JOptionPane.ERROR_MESSAGE));
+        UsuarioController usuarioController = new UsuarioController(usuarioCrearView, usuarioDAO, carritoDAO, tareas, loginView, usuarioModificarView, usuarioEliminarView, usuarioModificarMisView, usuarioListarView, mensajes, registrarseView, preguntasView, preguntasModificarView);
 
         loginView.addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosed(WindowEvent e) {
-                Usuario usuarioAutenticado = usuarioController.getUsuarioAutentificado();
-                if (usuarioAutenticado != null) {
-                    iniciarAplicacionPrincipal(usuarioAutenticado, usuarioCrearView, usuarioModificarView, usuarioEliminarView, usuarioModificarMisView, usuarioListarView, registrarseView, preguntasView, preguntasModificarView);
+                if (usuarioController.getUsuarioAutentificado() != null) {
+                    iniciarAplicacionPrincipal(usuarioController, usuarioCrearView, usuarioModificarView, usuarioEliminarView, usuarioModificarMisView, usuarioListarView, registrarseView, preguntasView, preguntasModificarView);
                 } else {
                     System.exit(0);
                 }
@@ -102,8 +163,8 @@ public class Main {
         loginView.setVisible(true);
     }
 
-    public static void iniciarAplicacionPrincipal(Usuario usuarioAutenticado, UsuarioCrearView usuarioCrearView, UsuarioModificarView usuarioModificarView, UsuarioEliminarView usuarioEliminarView, UsuarioModificarMisView usuarioModificarMisView, UsuarioListarView usuarioListarView, RegistrarseView registrarseView, PreguntasRegisterView preguntasView, PreguntasModificarView preguntasModificarView) {
-
+    public static void iniciarAplicacionPrincipal(UsuarioController usuarioController, UsuarioCrearView usuarioCrearView, UsuarioModificarView usuarioModificarView, UsuarioEliminarView usuarioEliminarView, UsuarioModificarMisView usuarioModificarMisView, UsuarioListarView usuarioListarView, RegistrarseView registrarseView, PreguntasRegisterView preguntasView, PreguntasModificarView preguntasModificarView) {
+        Usuario usuarioAutenticado = usuarioController.getUsuarioAutentificado();
         principalView = new PrincipalView(mensajes);
         ProductoModificarView productoModificarView = new ProductoModificarView(mensajes);
         ProductoEliminarView productoEliminarView = new ProductoEliminarView(mensajes);
@@ -122,8 +183,10 @@ public class Main {
                 usuarioModificarMisView, usuarioListarView
         );
 
-        CarritoController carritoController = new CarritoController(carritoDAO, productoDAO, carritoAñadirView, carritoListarView, carritoModificarView, carritoEliminarView, carritoListarMisView, usuarioAutenticado, mensajes);
-        ProductoController productoController = new ProductoController(productoDAO, carritoAñadirView, productoModificarView, productoEliminarView, productoListaView, productoAnadirView, mensajes);
+        tareas.setIndicador(principalView::setOcupado);
+        CarritoController carritoController = new CarritoController(carritoDAO, productoDAO, tareas, carritoAñadirView, carritoListarView, carritoModificarView, carritoEliminarView, carritoListarMisView, usuarioController::getUsuarioAutentificado, mensajes);
+        ProductoController productoController = new ProductoController(productoDAO, tareas, carritoAñadirView, productoModificarView, productoEliminarView, productoListaView, productoAnadirView, mensajes);
+        ImportacionController importacionController = new ImportacionController(productoDAO, usuarioDAO, tareas, principalView, mensajes);
 
         principalView.mostrarMensaje(mensajes.get("mensaje.usuario.login.exito") + " " + usuarioAutenticado.getUsername() + "!");
         if (usuarioAutenticado.getRol().equals(Rol.USUARIO)) {
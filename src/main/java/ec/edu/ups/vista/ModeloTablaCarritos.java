@@ -0,0 +1,128 @@
+package ec.edu.ups.vista;
+
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.util.FormateadorUtils;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Modelo de tabla que muestra directamente la lista devuelta por el DAO. No copia filas: cada celda se calcula
+ * y formatea cuando la tabla la pinta, asi que solo se trabaja con las filas visibles. En modo paginado pide
+ * la pagina siguiente cuando la tabla se acerca a la ultima fila cargada.
+ */
+public class ModeloTablaCarritos extends AbstractTableModel {
+
+    public enum Columna {
+        CODIGO, USUARIO, FECHA, ITEMS, SUBTOTAL, IVA, TOTAL
+    }
+
+    private static final int MARGEN_PAGINA = 50;
+
+    private final Columna[] columnas;
+    private final String[] titulos;
+    private List<Carrito> carritos;
+    private Locale locale;
+    private Runnable cargarSiguiente;
+    private boolean hayMas;
+    private boolean pidiendo;
+
+    public ModeloTablaCarritos(Columna... columnas) {
+        this.columnas = columnas;
+        this.titulos = new String[columnas.length];
+        this.carritos = new ArrayList<>();
+        setLocale(Locale.getDefault());
+    }
+
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+        if (!carritos.isEmpty()) {
+            fireTableRowsUpdated(0, carritos.size() - 1);
+        }
+    }
+
+    public void setTitulos(String... titulos) {
+        System.arraycopy(titulos, 0, this.titulos, 0, this.titulos.length);
+        fireTableStructureChanged();
+    }
+
+    public void setCarritos(List<Carrito> carritos) {
+        this.carritos = carritos != null ? carritos : new ArrayList<>();
+        this.cargarSiguiente = null;
+        this.hayMas = false;
+        fireTableDataChanged();
+    }
+
+    public void iniciarPaginacion(Runnable cargarSiguiente) {
+        this.carritos = new ArrayList<>();
+        this.cargarSiguiente = cargarSiguiente;
+        this.hayMas = true;
+        this.pidiendo = true;
+        fireTableDataChanged();
+    }
+
+    public void agregarPagina(List<Carrito> pagina, boolean hayMas) {
+        int desde = carritos.size();
+        carritos.addAll(pagina);
+        this.hayMas = hayMas;
+        this.pidiendo = false;
+        if (!pagina.isEmpty()) {
+            fireTableRowsInserted(desde, carritos.size() - 1);
+        }
+    }
+
+    public int getUltimoCodigo() {
+        return carritos.isEmpty() ? Integer.MIN_VALUE : carritos.get(carritos.size() - 1).getCodigo();
+    }
+
+    public Carrito getCarrito(int fila) {
+        return carritos.get(fila);
+    }
+
+    @Override
+    public int getRowCount() {
+        return carritos.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return titulos[columna] != null ? titulos[columna] : super.getColumnName(columna);
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        Carrito carrito = carritos.get(fila);
+        if (hayMas && !pidiendo && fila >= carritos.size() - MARGEN_PAGINA) {
+            pidiendo = true;
+            SwingUtilities.invokeLater(cargarSiguiente);
+        }
+        switch (columnas[columna]) {
+            case CODIGO:
+                return carrito.getCodigo();
+            case USUARIO:
+                return carrito.getUsuario() != null ? carrito.getUsuario().getUsername() : "N/A";
+            case FECHA:
+                return carrito.getFecha() != null ? FormateadorUtils.formatearFecha(carrito.getFecha(), locale) : "N/A";
+            case ITEMS:
+                return carrito.obtenerItems().size();
+            case SUBTOTAL:
+                return moneda(carrito.getSubtotalCentavos());
+            case IVA:
+                return moneda(carrito.getIVACentavos());
+            default:
+                return moneda(carrito.getTotalCentavos());
+        }
+    }
+
+    private String moneda(long centavos) {
+        return FormateadorUtils.formatearMoneda(centavos, locale);
+    }
+}
@@ -19,6 +19,7 @@ public class PreguntasModificarView extends JFrame {
     private JPanel containerPanel;
 
     private final Map<Pregunta, JTextField> camposDeRespuesta;
+    private final Map<Pregunta, JLabel> etiquetasDePregunta;
     private List<Respuesta> respuestasActuales;
 
     private final MensajeInternacionalizacionHandler mensajes;
@@ -27,6 +28,7 @@ public class PreguntasModificarView extends JFrame {
         this.mensajes = mensajes;
 
         this.camposDeRespuesta = new HashMap<>();
+        this.etiquetasDePregunta = new HashMap<>();
         this.respuestasActuales = null;
         URL urlVerificar = getClass().getResource("/check.png");
 
@@ -46,6 +48,7 @@ public class PreguntasModificarView extends JFrame {
 
         containerPanel.removeAll();
         camposDeRespuesta.clear();
+        etiquetasDePregunta.clear();
 
         if (respuestasDelUsuario == null || respuestasDelUsuario.isEmpty()) {
             containerPanel.revalidate();
@@ -57,10 +60,11 @@ public class PreguntasModificarView extends JFrame {
 
         for (Respuesta respuesta : respuestasDelUsuario) {
             Pregunta pregunta = respuesta.getPregunta();
-            JLabel etiqueta = new JLabel(pregunta.getTexto());
+            JLabel etiqueta = new JLabel(mensajes.get(pregunta.getClave()));
             JTextField campoTexto = new JTextField();
 
             camposDeRespuesta.put(pregunta, campoTexto);
+            etiquetasDePregunta.put(pregunta, etiqueta);
 
             containerPanel.add(etiqueta);
             containerPanel.add(campoTexto);
@@ -75,18 +79,8 @@ public class PreguntasModificarView extends JFrame {
         lblTitulo.setText(mensajes.get("pregunta.recuperar.titulo"));
         btnVerificar.setText(mensajes.get("global.boton.verificar")); // Clave nueva
 
-        if (respuestasActuales != null && !respuestasActuales.isEmpty()) {
-            for (Map.Entry<Pregunta, JTextField> entry : camposDeRespuesta.entrySet()) {
-                Pregunta pregunta = entry.getKey();
-                for (Component comp : containerPanel.getComponents()) {
-                    if (comp instanceof JLabel) {
-                        JLabel etiqueta = (JLabel) comp;
-                        String clave = "pregunta.seguridad." + pregunta.getId();
-                        pregunta.setTexto(mensajes.get(clave));
-                        etiqueta.setText(pregunta.getTexto());
-                    }
-                }
-            }
+        for (Map.Entry<Pregunta, JLabel> entry : etiquetasDePregunta.entrySet()) {
+            entry.getValue().setText(mensajes.get(entry.getKey().getClave()));
         }
     }
 
@@ -43,11 +43,11 @@ public class PreguntasRegisterView extends JFrame {
         JPanel containerPanel = new JPanel();
 
 
-        containerPanel.setLayout(new GridLayout(10, 2, 10, 5));
-        for (int i = 0; i < 10; i++) {
+        containerPanel.setLayout(new GridLayout(Pregunta.CANTIDAD, 2, 10, 5));
+        for (Pregunta pregunta : Pregunta.todas()) {
             JLabel etiqueta = new JLabel();
             JTextField campoTexto = new JTextField();
-            etiqueta.setText(mensajes.get("pregunta.seguridad." + (i + 1)));
+            etiqueta.setText(mensajes.get(pregunta.getClave()));
             etiquetasDePregunta.add(etiqueta);
             camposDeRespuesta.add(campoTexto);
 
@@ -62,13 +62,17 @@ public class PreguntasRegisterView extends JFrame {
         setTitle(mensajes.get("login.boton.reg"));
         lblTitulo.setText(mensajes.get("pregunta.titulo"));
         btnGuardar.setText(mensajes.get("global.boton.guardar"));
+        List<Pregunta> preguntas = Pregunta.todas();
+        for (int i = 0; i < etiquetasDePregunta.size(); i++) {
+            etiquetasDePregunta.get(i).setText(mensajes.get(preguntas.get(i).getClave()));
+        }
     }
 
 
     public void mostrarPreguntas(List<Pregunta> preguntas) {
         for (int i = 0; i < preguntas.size(); i++) {
             if (i < etiquetasDePregunta.size()) {
-                etiquetasDePregunta.get(i).setText(preguntas.get(i).getTexto());
+                etiquetasDePregunta.get(i).setText(mensajes.get(preguntas.get(i).getClave()));
             }
         }
     }
@@ -3,6 +3,7 @@ package ec.edu.ups.vista;
 import ec.edu.ups.util.MensajeInternacionalizacionHandler;
 
 import javax.swing.*;
+import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.net.URL;
@@ -18,6 +19,7 @@ public class PrincipalView extends JFrame {
     private JMenuItem menuItemModificarProducto;
     private JMenuItem menuItemActualizarProducto;
     private JMenuItem menuItemCargarProducto;
+    private JMenuItem menuItemImportarProductos;
     private MiJDesktopPane desktop;
     private JMenuItem menuItemAñadirCarrito;
     private JMenuItem menuItemListarCarritos;
@@ -28,11 +30,13 @@ public class PrincipalView extends JFrame {
     private JMenuItem menuItemEliminarUsuario;
     private JMenuItem menuItemListarUsuarios;
     private JMenuItem menuItemModificarUsuario;
+    private JMenuItem menuItemImportarUsuarios;
     private JMenuItem menuItemModificarMisUsuario;
     private JMenuItem menuItemCerrarSesión;
     private JMenuItem menuItemEspañol;
     private JMenuItem menuItemIngles;
     private JMenuItem menuItemNoruego;
+    private JProgressBar barraOcupado;
     private MensajeInternacionalizacionHandler mensajeInternacionalizacionHandler;
 
     public PrincipalView(MensajeInternacionalizacionHandler mensajeInternacionalizacionHandler) {
@@ -51,6 +55,7 @@ public class PrincipalView extends JFrame {
         menuItemModificarProducto = new JMenuItem();
         menuItemActualizarProducto = new JMenuItem();
         menuItemCargarProducto = new JMenuItem();
+        menuItemImportarProductos = new JMenuItem();
         menuItemAñadirCarrito = new JMenuItem();
         menuItemCerrarSesión = new JMenuItem();
         menuItemListarCarritos = new JMenuItem();
@@ -61,6 +66,7 @@ public class PrincipalView extends JFrame {
         menuItemEliminarUsuario = new JMenuItem();
         menuItemListarUsuarios = new JMenuItem();
         menuItemModificarUsuario = new JMenuItem();
+        menuItemImportarUsuarios = new JMenuItem();
         menuItemModificarMisUsuario = new JMenuItem();
         menuItemEspañol = new JMenuItem();
         menuItemIngles = new JMenuItem();
@@ -77,12 +83,14 @@ public class PrincipalView extends JFrame {
         menuAdministrador.add(menuItemEliminarUsuario);
         menuAdministrador.add(menuItemListarUsuarios);
         menuAdministrador.add(menuItemModificarUsuario);
+        menuAdministrador.add(menuItemImportarUsuarios);
 
         menubar.add(menuProducto);
         menuProducto.add(menuItemCargarProducto);
         menuProducto.add(menuItemActualizarProducto);
         menuProducto.add(menuItemModificarProducto);
         menuProducto.add(menuItemEliminarProducto);
+        menuProducto.add(menuItemImportarProductos);
 
 
         menubar.add(menuCarrito);
@@ -97,6 +105,13 @@ public class PrincipalView extends JFrame {
         menuIdiomas.add(menuItemIngles);
         menuIdiomas.add(menuItemNoruego);
 
+        barraOcupado = new JProgressBar();
+        barraOcupado.setIndeterminate(true);
+        barraOcupado.setMaximumSize(new Dimension(120, 16));
+        barraOcupado.setVisible(false);
+        menubar.add(Box.createHorizontalGlue());
+        menubar.add(barraOcupado);
+
         setJMenuBar(menubar);
         setContentPane(desktop);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -115,6 +130,7 @@ public class PrincipalView extends JFrame {
         menuItemActualizarProducto.setText(mensajeInternacionalizacionHandler.get("menu.producto.buscar"));
         menuItemModificarProducto.setText(mensajeInternacionalizacionHandler.get("menu.producto.actualizar"));
         menuItemEliminarProducto.setText(mensajeInternacionalizacionHandler.get("menu.producto.eliminar"));
+        menuItemImportarProductos.setText(mensajeInternacionalizacionHandler.get("menu.producto.importar"));
 
         menuCarrito.setText(mensajeInternacionalizacionHandler.get("menu.carrito"));
         menuItemAñadirCarrito.setText(mensajeInternacionalizacionHandler.get("menu.carrito.crear"));
@@ -128,6 +144,7 @@ public class PrincipalView extends JFrame {
         menuItemListarUsuarios.setText(mensajeInternacionalizacionHandler.get("menu.usuario.listar"));
         menuItemEliminarUsuario.setText(mensajeInternacionalizacionHandler.get("menu.usuario.eliminar"));
         menuItemModificarUsuario.setText(mensajeInternacionalizacionHandler.get("menu.usuario.modificar"));
+        menuItemImportarUsuarios.setText(mensajeInternacionalizacionHandler.get("menu.usuario.importar"));
 
         menuItemModificarMisUsuario.setText(mensajeInternacionalizacionHandler.get("menu.usuario.modificarMis"));
         menuItemCerrarSesión.setText(mensajeInternacionalizacionHandler.get("menu.salir.cerrar"));
@@ -141,6 +158,11 @@ public class PrincipalView extends JFrame {
 
 
 
+    public void setOcupado(boolean ocupado) {
+        barraOcupado.setVisible(ocupado);
+        desktop.setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
     public JDesktopPane getDesktop() {
         return desktop;
     }
@@ -237,6 +259,14 @@ public class PrincipalView extends JFrame {
         this.menuItemCargarProducto = menuItemCargarProducto;
     }
 
+    public JMenuItem getMenuItemImportarProductos() {
+        return menuItemImportarProductos;
+    }
+
+    public JMenuItem getMenuItemImportarUsuarios() {
+        return menuItemImportarUsuarios;
+    }
+
     public void mostrarMensaje(String mensaje) {
         JOptionPane.showMessageDialog(this, mensaje);
     }
@@ -352,5 +382,6 @@ public class PrincipalView extends JFrame {
         getMenuItemEliminarProducto().setVisible(false);
         getMenuItemModificarProducto().setVisible(false);
         getMenuItemCargarProducto().setVisible(false);
+        getMenuItemImportarProductos().setVisible(false);
     }
 }
\ No newline at end of file
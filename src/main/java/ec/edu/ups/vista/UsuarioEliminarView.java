@@ -31,7 +31,8 @@ public class UsuarioEliminarView extends JInternalFrame {
         btnBuscar.setIcon(new ImageIcon(urlBuscar));
         URL urlEliminar = getClass().getResource("/trash.png");
         btnEliminar.setIcon(new ImageIcon(urlEliminar));
-
+        lblContraseña.setVisible(false);
+        txtContraseña.setVisible(false);
 
         actualizarTextos();
     }
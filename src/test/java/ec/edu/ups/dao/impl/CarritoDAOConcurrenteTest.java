@@ -0,0 +1,134 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Genero;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Credenciales;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CarritoDAOConcurrenteTest {
+
+    private static final int ESCRITORES = 8;
+    private static final int OPERACIONES = 10_000;
+    private static final Instant INICIO = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant FIN = Instant.parse("2025-01-01T00:00:00Z");
+
+    private static int iteracionesOriginales;
+    private static List<Usuario> usuarios;
+
+    @BeforeAll
+    static void prepararUsuarios() {
+        iteracionesOriginales = Credenciales.getIteraciones();
+        Credenciales.setIteraciones(1);
+        usuarios = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            usuarios.add(new Usuario("usuario" + i, Rol.USUARIO, "clave", "Usuario " + i, 30,
+                    Genero.MASCULINO, "0999999999", "usuario" + i + "@correo.com"));
+        }
+    }
+
+    @AfterAll
+    static void restaurarIteraciones() {
+        Credenciales.setIteraciones(iteracionesOriginales);
+    }
+
+    @Test
+    void indicesCoincidenConLosCarritosTrasEscriturasConcurrentes() throws InterruptedException {
+        CarritoDAOConcurrente dao = new CarritoDAOConcurrente();
+        Hilos hilos = new Hilos();
+        AtomicBoolean escribiendo = new AtomicBoolean(true);
+        AtomicInteger creados = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+
+        for (int h = 0; h < ESCRITORES; h++) {
+            hilos.iniciar(() -> {
+                salida.await();
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERACIONES; i++) {
+                    int operacion = azar.nextInt(4);
+                    if (operacion <= 1 || creados.get() == 0) {
+                        dao.crear(new Carrito(0, fechaAlAzar(azar), usuarioAlAzar(azar)));
+                        creados.incrementAndGet();
+                    } else if (operacion == 2) {
+                        int codigo = 1 + azar.nextInt(creados.get());
+                        dao.actualizar(new Carrito(codigo, fechaAlAzar(azar), usuarioAlAzar(azar)));
+                    } else {
+                        dao.eliminar(1 + azar.nextInt(creados.get()));
+                    }
+                }
+            });
+        }
+        for (int h = 0; h < 2; h++) {
+            hilos.iniciar(() -> {
+                salida.await();
+                while (escribiendo.get()) {
+                    for (Carrito carrito : dao.buscarPorUsuario(usuarios.get(0))) {
+                        assertSame(usuarios.get(0), carrito.getUsuario());
+                    }
+                    Instant desde = INICIO.plusSeconds(86_400L * 30);
+                    Instant hasta = INICIO.plusSeconds(86_400L * 60);
+                    for (Carrito carrito : dao.buscarPorFecha(desde, hasta)) {
+                        assertTrue(!carrito.getFecha().isBefore(desde) && carrito.getFecha().isBefore(hasta));
+                    }
+                }
+            });
+        }
+
+        salida.countDown();
+        hilos.esperar(ESCRITORES);
+        escribiendo.set(false);
+        hilos.esperarTodos();
+
+        List<Carrito> todos = dao.listarTodos();
+        assertEquals(todos.size(), dao.contar());
+        assertEquals(todos, dao.flujo().toList());
+
+        Set<Integer> codigos = new HashSet<>();
+        int porUsuario = 0;
+        for (Usuario usuario : usuarios) {
+            for (Carrito carrito : dao.buscarPorUsuario(usuario)) {
+                assertSame(carrito, dao.buscarPorCodigo(carrito.getCodigo()));
+                assertSame(usuario, carrito.getUsuario());
+                assertTrue(codigos.add(carrito.getCodigo()));
+                porUsuario++;
+            }
+        }
+        assertEquals(todos.size(), porUsuario);
+
+        List<Carrito> porFecha = dao.buscarPorFecha(INICIO, FIN);
+        assertEquals(todos.size(), porFecha.size());
+        assertEquals(todos.size(), dao.contarPorFecha(INICIO, FIN));
+        for (int i = 0; i < porFecha.size(); i++) {
+            Carrito carrito = porFecha.get(i);
+            assertSame(carrito, dao.buscarPorCodigo(carrito.getCodigo()));
+            if (i > 0) {
+                assertTrue(!carrito.getFecha().isBefore(porFecha.get(i - 1).getFecha()));
+            }
+        }
+    }
+
+    private static Instant fechaAlAzar(ThreadLocalRandom azar) {
+        return INICIO.plusMillis(azar.nextLong(FIN.toEpochMilli() - INICIO.toEpochMilli()));
+    }
+
+    private static Usuario usuarioAlAzar(ThreadLocalRandom azar) {
+        return usuarios.get(azar.nextInt(usuarios.size()));
+    }
+}
@@ -0,0 +1,53 @@
+package ec.edu.ups.dao.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hilos de plataforma para las pruebas de concurrencia: junta los errores de cada hilo y los relanza en el hilo de la
+ * prueba al esperar, porque una excepcion dentro de un hilo no hace fallar la prueba por si sola.
+ */
+class Hilos {
+
+    interface Tarea {
+        void ejecutar() throws Exception;
+    }
+
+    private final List<Thread> hilos = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Throwable> errores = new ConcurrentLinkedQueue<>();
+
+    void iniciar(Tarea tarea) {
+        Thread hilo = new Thread(() -> {
+            try {
+                tarea.ejecutar();
+            } catch (Throwable e) {
+                errores.add(e);
+            }
+        });
+        hilo.setDaemon(true);
+        hilos.add(hilo);
+        hilo.start();
+    }
+
+    /**
+     * Espera a los primeros {@code cantidad} hilos iniciados.
+     */
+    void esperar(int cantidad) throws InterruptedException {
+        for (Thread hilo : hilos.subList(0, cantidad)) {
+            hilo.join(TimeUnit.MINUTES.toMillis(1));
+            if (hilo.isAlive()) {
+                throw new AssertionError("Un hilo no termino en un minuto");
+            }
+        }
+        Throwable primero = errores.peek();
+        if (primero != null) {
+            throw new AssertionError(errores.size() + " hilos fallaron", primero);
+        }
+    }
+
+    void esperarTodos() throws InterruptedException {
+        esperar(hilos.size());
+    }
+}
@@ -0,0 +1,144 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Producto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recuperacion tras un corte: la bitacora cortada a mitad de un registro, con y sin instantanea, y un proceso que
+ * muere mientras escribe. Los codigos empiezan en 100 para no chocar con los productos de ejemplo del delegado.
+ */
+class ProductoDAOArchivoTest {
+
+    @TempDir
+    Path datos;
+
+    @Test
+    void bitacoraCortadaAMitadDeRegistroSeReproduceHastaElUltimoCompleto() throws IOException {
+        try (ProductoDAOArchivo dao = abrir()) {
+            for (int codigo = 100; codigo < 110; codigo++) {
+                dao.crear(producto(codigo));
+            }
+        }
+        Path bitacora = datos.resolve("productos.wal");
+        long completo = Files.size(bitacora);
+        recortar(bitacora, 3);
+
+        try (ProductoDAOArchivo dao = abrir()) {
+            for (int codigo = 100; codigo < 109; codigo++) {
+                assertEquals(producto(codigo).getNombre(), dao.buscarPorCodigo(codigo).getNombre());
+            }
+            assertNull(dao.buscarPorCodigo(109));
+            assertTrue(Files.size(bitacora) < completo - 3, "la cola incompleta se descarta al abrir");
+            dao.crear(producto(200));
+        }
+        try (ProductoDAOArchivo dao = abrir()) {
+            assertNotNull(dao.buscarPorCodigo(108));
+            assertNotNull(dao.buscarPorCodigo(200));
+        }
+    }
+
+    @Test
+    void instantaneaMasBitacoraCortadaConservaLoCompactado() throws IOException {
+        try (ProductoDAOArchivo dao = abrir()) {
+            for (int codigo = 100; codigo < 105; codigo++) {
+                dao.crear(producto(codigo));
+            }
+            dao.compactar();
+            dao.eliminar(100);
+            dao.actualizar(new Producto(101, "Cambiado", Dinero.deCentavos(1)));
+            dao.crear(producto(105));
+        }
+        recortar(datos.resolve("productos.wal"), 1);
+
+        try (ProductoDAOArchivo dao = abrir()) {
+            assertNull(dao.buscarPorCodigo(100));
+            assertEquals("Cambiado", dao.buscarPorCodigo(101).getNombre());
+            assertNotNull(dao.buscarPorCodigo(104));
+            assertNull(dao.buscarPorCodigo(105));
+        }
+    }
+
+    @Test
+    void cambioQueNoSePuedeAnotarNoSeAplicaEnMemoria() throws IOException {
+        ProductoDAOArchivo dao = abrir();
+        dao.close();
+        assertThrows(UncheckedIOException.class, () -> dao.crear(producto(100)));
+        assertNull(dao.buscarPorCodigo(100));
+    }
+
+    @Test
+    void procesoTerminadoMientrasEscribeConservaTodoLoConfirmado() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process proceso = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                EscritorHastaMorir.class.getName(), datos.toString())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        List<Integer> confirmados = new ArrayList<>();
+        try (BufferedReader salida = new BufferedReader(new InputStreamReader(proceso.getInputStream(), StandardCharsets.US_ASCII))) {
+            String linea;
+            while (confirmados.size() < 500 && (linea = salida.readLine()) != null) {
+                confirmados.add(Integer.parseInt(linea));
+            }
+            proceso.destroyForcibly();
+            assertTrue(proceso.waitFor(30, TimeUnit.SECONDS));
+        }
+        assertEquals(500, confirmados.size(), "el proceso escritor termino antes de tiempo");
+
+        try (ProductoDAOArchivo dao = abrir()) {
+            for (int codigo : confirmados) {
+                assertNotNull(dao.buscarPorCodigo(codigo), "perdido el producto confirmado " + codigo);
+            }
+        }
+    }
+
+    /**
+     * Proceso hijo de {@link #procesoTerminadoMientrasEscribeConservaTodoLoConfirmado}: crea productos sin parar e
+     * imprime cada codigo una vez que {@code crear} retorno, es decir, cuando ya esta en disco.
+     */
+    public static class EscritorHastaMorir {
+        public static void main(String[] args) throws IOException {
+            ProductoDAOArchivo dao = new ProductoDAOArchivo(Paths.get(args[0]), new ProductoDAOIndexado());
+            for (int codigo = 100; ; codigo++) {
+                dao.crear(producto(codigo));
+                System.out.println(codigo);
+                System.out.flush();
+            }
+        }
+    }
+
+    private ProductoDAOArchivo abrir() throws IOException {
+        return new ProductoDAOArchivo(datos, new ProductoDAOIndexado());
+    }
+
+    private static Producto producto(int codigo) {
+        return new Producto(codigo, "Producto " + codigo, Dinero.deCentavos(codigo * 10L));
+    }
+
+    private static void recortar(Path archivo, int bytes) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - bytes);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Producto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductoDAOConcurrenteTest {
+
+    private static final int CODIGOS = 200;
+    private static final int ESCRITORES = 8;
+    private static final int OPERACIONES = 20_000;
+
+    @Test
+    void indiceCoincideConLosProductosTrasEscriturasConcurrentes() throws InterruptedException {
+        ProductoDAOConcurrente dao = new ProductoDAOConcurrente();
+        dao.eliminar(1);
+        dao.eliminar(2);
+        Hilos hilos = new Hilos();
+        AtomicBoolean escribiendo = new AtomicBoolean(true);
+        CountDownLatch salida = new CountDownLatch(1);
+
+        for (int h = 0; h < ESCRITORES; h++) {
+            hilos.iniciar(() -> {
+                salida.await();
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERACIONES; i++) {
+                    int codigo = 1 + azar.nextInt(CODIGOS);
+                    Producto producto = new Producto(codigo, nombre(codigo, azar.nextInt(1000)), Dinero.deCentavos(i));
+                    switch (azar.nextInt(3)) {
+                        case 0 -> dao.crear(producto);
+                        case 1 -> dao.actualizar(producto);
+                        default -> dao.eliminar(codigo);
+                    }
+                }
+            });
+        }
+        for (int h = 0; h < 2; h++) {
+            hilos.iniciar(() -> {
+                salida.await();
+                while (escribiendo.get()) {
+                    for (Producto producto : dao.buscarPorSubcadena("v1")) {
+                        assertTrue(producto.getNombre().contains("v1"), producto.getNombre());
+                    }
+                    List<Producto> todos = dao.buscarPorPrefijo("prod");
+                    for (int i = 1; i < todos.size(); i++) {
+                        assertTrue(todos.get(i - 1).getCodigo() < todos.get(i).getCodigo());
+                    }
+                }
+            });
+        }
+
+        salida.countDown();
+        hilos.esperar(ESCRITORES);
+        escribiendo.set(false);
+        hilos.esperarTodos();
+
+        List<Producto> todos = dao.listarTodos();
+        assertEquals(todos, dao.buscarPorPrefijo(""));
+        assertEquals(todos, dao.buscarPorSubcadena("prod"));
+        for (Producto producto : todos) {
+            assertSame(producto, dao.buscarPorCodigo(producto.getCodigo()));
+            assertEquals(List.of(producto), dao.buscarPorNombre(producto.getNombre()));
+        }
+        for (int codigo = 1; codigo <= CODIGOS; codigo++) {
+            if (dao.buscarPorCodigo(codigo) == null) {
+                assertEquals(Collections.emptyList(), dao.buscarPorPrefijo("prod" + codigo + "v"));
+            }
+        }
+    }
+
+    private static String nombre(int codigo, int version) {
+        return "Prod" + codigo + "v" + version;
+    }
+}
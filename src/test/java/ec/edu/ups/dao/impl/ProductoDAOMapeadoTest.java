@@ -0,0 +1,149 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.dao.persistencia.CatalogoMapeado;
+import ec.edu.ups.modelo.Dinero;
+import ec.edu.ups.modelo.Producto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductoDAOMapeadoTest {
+
+    @TempDir
+    Path datos;
+
+    @Test
+    void cambiosSinCerrarSobrevivenAlReabrir() throws IOException {
+        Path archivo = catalogo(100);
+        ProductoDAOMapeado abandonado = new ProductoDAOMapeado(archivo);
+        abandonado.crear(producto(500, "Nuevo"));
+        abandonado.actualizar(producto(7, "Cambiado"));
+        abandonado.eliminar(8);
+        abandonado.eliminar(9999);
+
+        try (ProductoDAOMapeado dao = new ProductoDAOMapeado(archivo)) {
+            assertEquals("Nuevo", dao.buscarPorCodigo(500).getNombre());
+            assertEquals("Cambiado", dao.buscarPorCodigo(7).getNombre());
+            assertNull(dao.buscarPorCodigo(8));
+            assertEquals(100, dao.listarTodos().size());
+        }
+    }
+
+    @Test
+    void compactarReescribeElCatalogoConLosCambiosYVaciaLaBitacora() throws IOException {
+        Path archivo = catalogo(1000);
+        Map<Integer, String> esperado = new TreeMap<>();
+        for (int codigo = 1; codigo <= 1000; codigo++) {
+            esperado.put(codigo, "Producto " + codigo);
+        }
+        try (ProductoDAOMapeado dao = new ProductoDAOMapeado(archivo)) {
+            for (int codigo = 1; codigo <= 1000; codigo += 3) {
+                dao.eliminar(codigo);
+                esperado.remove(codigo);
+            }
+            for (int codigo = 2; codigo <= 1000; codigo += 5) {
+                dao.actualizar(producto(codigo, "Cambiado " + codigo));
+                esperado.replace(codigo, "Cambiado " + codigo);
+            }
+            List<Producto> lote = new ArrayList<>();
+            for (int codigo = 2000; codigo < 2100; codigo++) {
+                lote.add(producto(codigo, "Lote " + codigo));
+                esperado.put(codigo, "Lote " + codigo);
+            }
+            dao.crearTodos(lote);
+            dao.eliminar(2050);
+            esperado.remove(2050);
+            dao.compactar();
+            assertEquals(0, Files.size(archivo.resolveSibling(archivo.getFileName() + ".wal")));
+        }
+
+        CatalogoMapeado catalogo = CatalogoMapeado.abrir(archivo);
+        Map<Integer, String> escrito = new TreeMap<>();
+        for (int fila = 0; fila < catalogo.cantidad(); fila++) {
+            escrito.put(catalogo.codigo(fila), catalogo.nombre(fila));
+        }
+        assertEquals(esperado, escrito);
+        assertEquals(esperado.size(), catalogo.cantidad());
+    }
+
+    @Test
+    void paginasRecorrenCatalogoDesordenadoYCambiosEnOrdenDeCodigo() throws IOException {
+        List<Producto> productos = new ArrayList<>();
+        for (int codigo = 1; codigo <= 2000; codigo++) {
+            productos.add(producto(codigo * 2, "Producto " + codigo));
+        }
+        Collections.shuffle(productos, new Random(7));
+        Path archivo = datos.resolve("desordenado.bin");
+        CatalogoMapeado.escribir(archivo, productos);
+
+        try (ProductoDAOMapeado dao = new ProductoDAOMapeado(archivo)) {
+            for (int codigo = 1; codigo < 4000; codigo += 50) {
+                dao.crear(producto(codigo, "Impar " + codigo));
+            }
+            for (int codigo = 10; codigo <= 4000; codigo += 30) {
+                dao.eliminar(codigo);
+            }
+            dao.actualizar(producto(4, "Cambiado"));
+            assertEquals(codigos(dao.listarTodos()), codigos(paginas(dao, 37)));
+
+            dao.compactar();
+            assertEquals(codigos(dao.listarTodos()), codigos(paginas(dao, 37)));
+            CatalogoMapeado compactado = CatalogoMapeado.abrir(archivo);
+            for (int fila = 1; fila < compactado.cantidad(); fila++) {
+                assertTrue(compactado.codigo(fila - 1) < compactado.codigo(fila));
+            }
+        }
+    }
+
+    private static List<Producto> paginas(ProductoDAOMapeado dao, int limite) {
+        List<Producto> todos = new ArrayList<>();
+        int despuesDe = Integer.MIN_VALUE;
+        List<Producto> pagina;
+        do {
+            pagina = dao.listarPagina(despuesDe, limite);
+            todos.addAll(pagina);
+            if (!pagina.isEmpty()) {
+                despuesDe = pagina.get(pagina.size() - 1).getCodigo();
+            }
+        } while (pagina.size() == limite);
+        return todos;
+    }
+
+    private static List<Integer> codigos(List<Producto> productos) {
+        List<Integer> codigos = new ArrayList<>();
+        for (Producto producto : productos) {
+            codigos.add(producto.getCodigo());
+        }
+        List<Integer> ordenados = new ArrayList<>(codigos);
+        Collections.sort(ordenados);
+        assertEquals(ordenados, codigos);
+        return codigos;
+    }
+
+    private Path catalogo(int cantidad) throws IOException {
+        List<Producto> productos = new ArrayList<>();
+        for (int codigo = 1; codigo <= cantidad; codigo++) {
+            productos.add(producto(codigo, "Producto " + codigo));
+        }
+        Path archivo = datos.resolve("catalogo.bin");
+        CatalogoMapeado.escribir(archivo, productos);
+        return archivo;
+    }
+
+    private static Producto producto(int codigo, String nombre) {
+        return new Producto(codigo, nombre, Dinero.deCentavos(codigo));
+    }
+}
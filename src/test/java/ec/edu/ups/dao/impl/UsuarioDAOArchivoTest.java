@@ -0,0 +1,129 @@
+package ec.edu.ups.dao.impl;
+
+import ec.edu.ups.modelo.Carrito;
+import ec.edu.ups.modelo.Genero;
+import ec.edu.ups.modelo.Rol;
+import ec.edu.ups.modelo.Usuario;
+import ec.edu.ups.util.Credenciales;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Un renombre que llego a la bitacora de usuarios pero no a la de carritos, como si el proceso muriera entre las
+ * dos escrituras: al reabrir, los carritos guardados con el nombre anterior vuelven a su dueño. Y un cambio que no
+ * se pudo anotar deja en memoria al usuario como estaba.
+ */
+class UsuarioDAOArchivoTest {
+
+    private static int iteracionesOriginales;
+
+    @TempDir
+    Path datos;
+
+    @BeforeAll
+    static void bajarIteraciones() {
+        iteracionesOriginales = Credenciales.getIteraciones();
+        Credenciales.setIteraciones(1);
+    }
+
+    @AfterAll
+    static void restaurarIteraciones() {
+        Credenciales.setIteraciones(iteracionesOriginales);
+    }
+
+    @Test
+    void carritosDeUnRenombreSinAnotarVuelvenASuDueño() throws IOException {
+        try (UsuarioDAOArchivo usuarios = new UsuarioDAOArchivo(datos, new UsuarioDAOConcurrente());
+             CarritoDAOArchivo carritos = new CarritoDAOArchivo(datos, new CarritoDAOConcurrente(), usuarios)) {
+            Usuario ana = new Usuario("ana", Rol.USUARIO, "clave", "Ana", 30, Genero.FEMENINO, "0999999999",
+                    "ana@correo.com");
+            usuarios.crear(ana);
+            carritos.crear(new Carrito(1, Instant.parse("2024-01-01T00:00:00Z"), ana));
+            usuarios.renombrar("ana", "bea", null);
+            usuarios.renombrar("bea", "cata", null);
+            usuarios.compactar();
+        }
+
+        try (UsuarioDAOArchivo usuarios = new UsuarioDAOArchivo(datos, new UsuarioDAOConcurrente());
+             CarritoDAOArchivo carritos = new CarritoDAOArchivo(datos, new CarritoDAOConcurrente(), usuarios)) {
+            Usuario cata = usuarios.buscarPorUsuario("cata");
+            assertSame(cata, carritos.buscarPorCodigo(1).getUsuario());
+            List<Carrito> suyos = carritos.buscarPorUsuario(cata);
+            assertEquals(1, suyos.size());
+        }
+    }
+
+    @Test
+    void renombresQueLosCarritosYaGuardaronSeOlvidan() throws IOException {
+        try (UsuarioDAOArchivo usuarios = new UsuarioDAOArchivo(datos, new UsuarioDAOConcurrente());
+             CarritoDAOArchivo carritos = new CarritoDAOArchivo(datos, new CarritoDAOConcurrente(), usuarios)) {
+            Usuario ana = new Usuario("ana", Rol.USUARIO, "clave", "Ana", 30, Genero.FEMENINO, "0999999999",
+                    "ana@correo.com");
+            usuarios.crear(ana);
+            carritos.crear(new Carrito(1, Instant.parse("2024-01-01T00:00:00Z"), ana));
+            usuarios.renombrar("ana", "bea", carritos);
+            usuarios.renombrar("bea", "cata", carritos);
+            assertSame(ana, usuarios.buscarRenombrado("ana"));
+
+            carritos.compactar();
+            assertNull(usuarios.buscarRenombrado("ana"));
+            assertNull(usuarios.buscarRenombrado("bea"));
+        }
+
+        try (UsuarioDAOArchivo usuarios = new UsuarioDAOArchivo(datos, new UsuarioDAOConcurrente());
+             CarritoDAOArchivo carritos = new CarritoDAOArchivo(datos, new CarritoDAOConcurrente(), usuarios)) {
+            assertNull(usuarios.buscarRenombrado("ana"));
+            assertSame(usuarios.buscarPorUsuario("cata"), carritos.buscarPorCodigo(1).getUsuario());
+        }
+    }
+
+    @Test
+    void cuentasInicialesSoloSeCreanEnUnAlmacenVacio() throws IOException {
+        try (UsuarioDAOArchivo usuarios = new UsuarioDAOArchivo(datos, new UsuarioDAOConcurrente())) {
+            assertTrue(usuarios.listarTodos().isEmpty());
+            usuarios.crearCuentasIniciales();
+            assertEquals(2, usuarios.listarTodos().size());
+            usuarios.eliminar("usuario");
+        }
+
+        try (UsuarioDAOArchivo usuarios = new UsuarioDAOArchivo(datos, new UsuarioDAOConcurrente())) {
+            usuarios.crearCuentasIniciales();
+            assertEquals(1, usuarios.listarTodos().size());
+            assertTrue(usuarios.buscarPorUsuario("admin").verificarPassword("12345"));
+        }
+    }
+
+    @Test
+    void cambioQueNoSePuedeAnotarNoSeAplicaEnMemoria() throws IOException {
+        UsuarioDAOArchivo usuarios = new UsuarioDAOArchivo(datos, new UsuarioDAOConcurrente());
+        Usuario ana = new Usuario("ana", Rol.USUARIO, "clave", "Ana", 30, Genero.FEMENINO, "0999999999",
+                "ana@correo.com");
+        usuarios.crear(ana);
+        usuarios.close();
+
+        Usuario cambiado = usuarios.buscarPorUsuario("ana").copia();
+        cambiado.setRol(Rol.ADMINISTRADOR);
+        cambiado.setPassword("otra");
+        assertThrows(UncheckedIOException.class, () -> usuarios.actualizar(cambiado));
+
+        Usuario guardado = usuarios.buscarPorUsuario("ana");
+        assertSame(ana, guardado);
+        assertEquals(Rol.USUARIO, guardado.getRol());
+        assertTrue(guardado.verificarPassword("clave"));
+        assertTrue(usuarios.listarAdministradores().stream().noneMatch(ana::equals));
+    }
+}
@@ -0,0 +1,47 @@
+package ec.edu.ups.dao.persistencia;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EntradaJsonTest {
+
+    @Test
+    void saltarValorRecorreCualquierValorValido() {
+        EntradaJson entrada = entrada("{\"otro\":{\"a\":[1,-0.5e+3,true,false,null,\"x\\u00e9\\\"\",{}],\"b\":[]},"
+                + "\"codigo\":7}");
+        int codigo = 0;
+        entrada.abrirObjeto();
+        while (entrada.siguienteCampo()) {
+            if (entrada.campoEs("codigo")) {
+                codigo = entrada.leerEntero();
+            } else {
+                entrada.saltarValor();
+            }
+        }
+        entrada.terminar();
+        assertEquals(7, codigo);
+    }
+
+    @Test
+    void saltarValorRechazaLoQueNoEsJson() {
+        String[] invalidos = {"{]", "[}", "", "}", "nul", "tru", "basura", "01", "1.", "-", "1e", "+1", "{\"a\"}",
+                "{\"a\":}", "[1,]", "[1 2]", "\"\\x\"", "\"\\u12\"", "\"abierto"};
+        for (String invalido : invalidos) {
+            EntradaJson entrada = entrada("{\"otro\":" + invalido + ",\"codigo\":7}");
+            entrada.abrirObjeto();
+            entrada.siguienteCampo();
+            assertThrows(IllegalArgumentException.class, () -> {
+                entrada.saltarValor();
+                entrada.siguienteCampo();
+            }, invalido);
+        }
+    }
+
+    private static EntradaJson entrada(String json) {
+        return new EntradaJson(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
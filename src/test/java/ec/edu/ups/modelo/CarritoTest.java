@@ -0,0 +1,76 @@
+package ec.edu.ups.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CarritoTest {
+
+    @Test
+    void totalesIncrementalesCoincidenConLosItems() {
+        Random azar = new Random(42);
+        Producto[] productos = new Producto[50];
+        for (int i = 0; i < productos.length; i++) {
+            productos[i] = new Producto(i + 1, "Producto " + (i + 1), Dinero.deCentavos(1 + azar.nextInt(100_000)));
+        }
+        Carrito carrito = new Carrito(1, null, null);
+        carrito.setTasaIVA(TasaImpuesto.dePuntosBasicos(1200));
+
+        for (int paso = 0; paso < 10_000; paso++) {
+            Producto producto = productos[azar.nextInt(productos.length)];
+            switch (azar.nextInt(3)) {
+                case 0 -> carrito.agregarProducto(producto, 1 + azar.nextInt(5));
+                case 1 -> carrito.actualizarCantidadProducto(producto.getCodigo(), azar.nextInt(10) - 2);
+                default -> carrito.eliminarProducto(producto.getCodigo());
+            }
+            comprobar(carrito);
+        }
+    }
+
+    @Test
+    void ivaSeRedondeaAlCentavoMitadHaciaArriba() {
+        Carrito carrito = new Carrito(1, null, null);
+        carrito.setTasaIVA(TasaImpuesto.dePuntosBasicos(1200));
+        carrito.agregarProducto(new Producto(1, "Arroz", Dinero.deCentavos(1999)), 1);
+        assertEquals(240, carrito.getIVACentavos());
+        carrito.actualizarCantidadProducto(1, 0);
+        carrito.agregarProducto(new Producto(2, "Sal", Dinero.deCentavos(125)), 1);
+        assertEquals(15, carrito.getIVACentavos());
+        assertEquals(140, carrito.getTotalCentavos());
+    }
+
+    @Test
+    void copiaNoComparteLosItems() {
+        Carrito original = new Carrito(7, null, null);
+        original.agregarProducto(new Producto(1, "Arroz", Dinero.deCentavos(1500)), 2);
+        Carrito copia = original.copia();
+        copia.actualizarCantidadProducto(1, 5);
+        copia.agregarProducto(new Producto(2, "Sal", Dinero.deCentavos(125)), 1);
+
+        assertEquals(7, copia.getCodigo());
+        assertEquals(2, original.buscarItem(1).getCantidad());
+        assertEquals(1, original.obtenerItems().size());
+        assertEquals(3000, original.getSubtotalCentavos());
+        assertEquals(7625, copia.getSubtotalCentavos());
+    }
+
+    private static void comprobar(Carrito carrito) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (ItemCarrito item : carrito.obtenerItems()) {
+            subtotal = subtotal.add(item.getProducto().getPrecio().aBigDecimal()
+                    .multiply(BigDecimal.valueOf(item.getCantidad())));
+        }
+        BigDecimal iva = subtotal.multiply(new BigDecimal("0.12")).setScale(2, RoundingMode.HALF_UP);
+        long subtotalCentavos = subtotal.movePointRight(2).longValueExact();
+        long ivaCentavos = iva.movePointRight(2).longValueExact();
+
+        assertEquals(subtotalCentavos, carrito.getSubtotalCentavos());
+        assertEquals(ivaCentavos, carrito.getIVACentavos());
+        assertEquals(subtotalCentavos + ivaCentavos, carrito.getTotalCentavos());
+        assertEquals(Dinero.deCentavos(subtotalCentavos + ivaCentavos), carrito.calcularTotal());
+    }
+}
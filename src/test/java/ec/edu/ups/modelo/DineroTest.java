@@ -0,0 +1,33 @@
+package ec.edu.ups.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DineroTest {
+
+    @Test
+    void deDecimalAceptaHastaDosDecimales() {
+        assertEquals(1250, Dinero.deDecimal("12.5").getCentavos());
+        assertEquals(1250, Dinero.deDecimal(" 12.50 ").getCentavos());
+        assertEquals(1250, Dinero.deDecimal("12.500").getCentavos());
+        assertEquals(-1, Dinero.deDecimal("-0.01").getCentavos());
+    }
+
+    @Test
+    void deDecimalRechazaMasDeDosDecimalesEnVezDeRedondear() {
+        assertThrows(NumberFormatException.class, () -> Dinero.deDecimal("1.005"));
+        assertThrows(NumberFormatException.class, () -> Dinero.deDecimal("0.999"));
+        assertThrows(NumberFormatException.class, () -> Dinero.deDecimal("abc"));
+    }
+
+    @Test
+    void tasaFueraDeRangoSeRechazaAlConfigurarla() {
+        assertEquals(1250, TasaImpuesto.dePorcentaje("12.5").getPuntosBasicos());
+        assertThrows(IllegalArgumentException.class, () -> TasaImpuesto.dePorcentaje("doce"));
+        assertThrows(IllegalArgumentException.class, () -> TasaImpuesto.dePorcentaje("12.345"));
+        assertThrows(IllegalArgumentException.class, () -> TasaImpuesto.dePorcentaje("-1"));
+        assertThrows(IllegalArgumentException.class, () -> TasaImpuesto.dePorcentaje("150"));
+    }
+}
@@ -0,0 +1,42 @@
+package ec.edu.ups.util;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CredencialesTest {
+
+    private static int iteracionesOriginales;
+
+    @BeforeAll
+    static void bajarIteraciones() {
+        iteracionesOriginales = Credenciales.getIteraciones();
+        Credenciales.setIteraciones(1);
+    }
+
+    @AfterAll
+    static void restaurarIteraciones() {
+        Credenciales.setIteraciones(iteracionesOriginales);
+    }
+
+    @Test
+    void hashMalformadoNoVerificaNiLanza() {
+        String hash = Credenciales.generar("clave");
+        assertTrue(Credenciales.esHashValido(hash));
+        assertTrue(Credenciales.verificar(hash, "clave"));
+
+        String[] partes = hash.split("\\$");
+        String[] malformados = {
+                "pbkdf2$", "pbkdf2$1$" + partes[2], "pbkdf2$mil$" + partes[2] + '$' + partes[3],
+                "pbkdf2$-1$" + partes[2] + '$' + partes[3], "pbkdf2$99999999$" + partes[2] + '$' + partes[3],
+                "pbkdf2$1$no*base64$" + partes[3], "pbkdf2$1$" + partes[2] + "$corto",
+                "pbkdf2$1$" + partes[2] + '$' + partes[3] + "$extra"};
+        for (String malformado : malformados) {
+            assertFalse(Credenciales.esHashValido(malformado), malformado);
+            assertFalse(Credenciales.verificar(malformado, "clave"), malformado);
+        }
+    }
+}
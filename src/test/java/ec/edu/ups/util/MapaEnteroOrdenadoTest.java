@@ -0,0 +1,59 @@
+package ec.edu.ups.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MapaEnteroOrdenadoTest {
+
+    @Test
+    void vistaConEliminadasPendientesDevuelveLosVivosEnOrden() {
+        MapaEnteroOrdenado<String> mapa = new MapaEnteroOrdenado<>();
+        for (int i = 1; i <= 6; i++) {
+            mapa.put(i, "v" + i);
+        }
+        mapa.remove(2);
+        mapa.remove(5);
+        List<String> vista = mapa.vista();
+
+        assertEquals(List.of("v1", "v3", "v4", "v6"), List.copyOf(vista));
+        assertEquals("v4", vista.get(2));
+        assertEquals("v6", vista.get(3));
+        mapa.put(7, "v7");
+        assertEquals("v7", vista.get(4));
+    }
+
+    @Test
+    @Timeout(10)
+    void recorrerLaVistaPorIndiceTrasEliminarEsLineal() {
+        MapaEnteroOrdenado<Integer> mapa = new MapaEnteroOrdenado<>();
+        for (int i = 0; i < 200_000; i++) {
+            mapa.put(i, i);
+        }
+        mapa.remove(0);
+        List<Integer> vista = mapa.vista();
+        long suma = 0;
+        for (int i = 0; i < vista.size(); i++) {
+            suma += vista.get(i);
+        }
+        assertEquals(199_999L * 200_000 / 2, suma);
+    }
+
+    @Test
+    void iteradorFallaSiElMapaCambiaDuranteElRecorrido() {
+        MapaEnteroOrdenado<String> mapa = new MapaEnteroOrdenado<>();
+        mapa.put(1, "a");
+        mapa.put(2, "b");
+        Iterator<String> iterador = mapa.vista().iterator();
+        iterador.next();
+        mapa.remove(1);
+        assertThrows(ConcurrentModificationException.class, iterador::next);
+        assertThrows(ConcurrentModificationException.class, () -> mapa.forEach(v -> mapa.put(3, "c")));
+    }
+}